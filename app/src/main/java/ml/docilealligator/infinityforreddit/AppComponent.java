@@ -96,7 +96,9 @@ import ml.docilealligator.infinityforreddit.settings.CommentPreferenceFragment;
 import ml.docilealligator.infinityforreddit.settings.CrashReportsFragment;
 import ml.docilealligator.infinityforreddit.settings.CustomizeBottomAppBarFragment;
 import ml.docilealligator.infinityforreddit.settings.CustomizeMainPageTabsFragment;
+import ml.docilealligator.infinityforreddit.settings.DiagnosticsPreferenceFragment;
 import ml.docilealligator.infinityforreddit.settings.DownloadLocationPreferenceFragment;
+import ml.docilealligator.infinityforreddit.settings.DownloadQueuePreferenceFragment;
 import ml.docilealligator.infinityforreddit.settings.FontPreferenceFragment;
 import ml.docilealligator.infinityforreddit.settings.GesturesAndButtonsPreferenceFragment;
 import ml.docilealligator.infinityforreddit.settings.MainPreferenceFragment;
@@ -330,6 +332,10 @@ public interface AppComponent {
 
     void inject(CopyMultiRedditActivity copyMultiRedditActivity);
 
+    void inject(DiagnosticsPreferenceFragment diagnosticsPreferenceFragment);
+
+    void inject(DownloadQueuePreferenceFragment downloadQueuePreferenceFragment);
+
     @Component.Factory
     interface Factory {
         AppComponent create(@BindsInstance Application application);
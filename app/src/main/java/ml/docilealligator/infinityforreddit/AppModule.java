@@ -14,7 +14,6 @@ import androidx.preference.PreferenceManager;
 
 import java.io.File;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -24,6 +23,10 @@ import dagger.Module;
 import dagger.Provides;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
 import ml.docilealligator.infinityforreddit.customviews.LoopAvailableExoCreator;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
+import ml.docilealligator.infinityforreddit.markdown.ParsedMarkdownCache;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
+import ml.docilealligator.infinityforreddit.scheduler.AppExecutors;
 import ml.docilealligator.infinityforreddit.translation.TranslationCache;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.CustomThemeSharedPreferencesUtils;
@@ -217,13 +220,62 @@ abstract class AppModule {
 
     @Provides
     @Singleton
-    static Executor provideExecutor() {
-        return Executors.newFixedThreadPool(4);
+    static AppExecutors provideAppExecutors() {
+        return new AppExecutors();
+    }
+
+    @Provides
+    @Named("cpu")
+    static Executor provideCpuExecutor(AppExecutors appExecutors) {
+        return appExecutors.cpu();
+    }
+
+    @Provides
+    @Named("io")
+    static Executor provideIoExecutor(AppExecutors appExecutors) {
+        return appExecutors.io();
+    }
+
+    @Provides
+    @Named("db")
+    static Executor provideDbExecutor(AppExecutors appExecutors) {
+        return appExecutors.db();
+    }
+
+    @Provides
+    @Named("long")
+    static Executor provideLongExecutor(AppExecutors appExecutors) {
+        return appExecutors.longRunning();
+    }
+
+    @Provides
+    @Named("upload")
+    static Executor provideUploadExecutor(AppExecutors appExecutors) {
+        return appExecutors.upload();
+    }
+
+    @Provides
+    @Singleton
+    static ReadPostsIndex provideReadPostsIndex(RedditDataRoomDatabase redditDataRoomDatabase, AppExecutors appExecutors) {
+        return new ReadPostsIndex(redditDataRoomDatabase, appExecutors.db());
+    }
+
+    @Provides
+    @Singleton
+    static TranslationCache provideTranslationCache(RedditDataRoomDatabase redditDataRoomDatabase, AppExecutors appExecutors) {
+        return new TranslationCache(redditDataRoomDatabase, appExecutors.db());
+    }
+
+    @Provides
+    @Singleton
+    static ParsedMarkdownCache provideParsedMarkdownCache() {
+        return new ParsedMarkdownCache();
     }
 
     @Provides
     @Singleton
-    static TranslationCache provideTranslationCache() {
-        return new TranslationCache();
+    static DownloadQueue provideDownloadQueue(Application application, RedditDataRoomDatabase redditDataRoomDatabase,
+                                              AppExecutors appExecutors) {
+        return new DownloadQueue(application, redditDataRoomDatabase, appExecutors.db());
     }
 }
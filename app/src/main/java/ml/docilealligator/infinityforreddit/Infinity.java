@@ -84,6 +84,7 @@ public class Infinity extends Application implements LifecycleObserver {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
 
     @Override
@@ -1,12 +1,16 @@
 package ml.docilealligator.infinityforreddit;
 
+import android.app.Application;
 import android.content.SharedPreferences;
 
 import androidx.annotation.NonNull;
+import androidx.media3.datasource.cache.SimpleCache;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
@@ -15,10 +19,15 @@ import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
 import ml.docilealligator.infinityforreddit.apis.StreamableAPI;
+import ml.docilealligator.infinityforreddit.download.BandwidthLimiter;
+import ml.docilealligator.infinityforreddit.download.SegmentedDownloader;
 import ml.docilealligator.infinityforreddit.network.AccessTokenAuthenticator;
+import ml.docilealligator.infinityforreddit.network.ConnectionPoolManager;
+import ml.docilealligator.infinityforreddit.network.HttpResponseCache;
 import ml.docilealligator.infinityforreddit.network.RedgifsAccessTokenAuthenticator;
 import ml.docilealligator.infinityforreddit.network.ServerAccessTokenAuthenticator;
 import ml.docilealligator.infinityforreddit.network.SortTypeConverterFactory;
+import ml.docilealligator.infinityforreddit.scheduler.AppExecutors;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import okhttp3.ConnectionPool;
@@ -37,13 +46,16 @@ abstract class NetworkModule {
     @Provides
     @Named("base")
     @Singleton
-    static OkHttpClient provideBaseOkhttp(@Named("proxy") SharedPreferences mProxySharedPreferences) {
+    static OkHttpClient provideBaseOkhttp(@Named("proxy") SharedPreferences mProxySharedPreferences,
+                                          ConnectionPoolManager connectionPoolManager) {
         boolean proxyEnabled = mProxySharedPreferences.getBoolean(SharedPreferencesUtils.PROXY_ENABLED, false);
 
         var builder = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
+                .connectionPool(connectionPoolManager.getApiConnectionPool())
+                .eventListenerFactory(connectionPoolManager.getApiEventListenerFactory())
                 .addInterceptor(chain -> {
                     if (chain.request().header("User-Agent") == null) {
                         return chain.proceed(
@@ -86,14 +98,37 @@ abstract class NetworkModule {
     }
 
     @Provides
-    static ConnectionPool provideConnectionPool() {
-        return new ConnectionPool(0, 1, TimeUnit.NANOSECONDS);
+    @Singleton
+    static ConnectionPoolManager provideConnectionPoolManager(@Named("default") SharedPreferences sharedPreferences,
+                                                              @Named("proxy") SharedPreferences proxySharedPreferences,
+                                                              @Named("io") Executor executor) {
+        return new ConnectionPoolManager(sharedPreferences, proxySharedPreferences, executor);
+    }
+
+    @Provides
+    static ConnectionPool provideConnectionPool(ConnectionPoolManager connectionPoolManager) {
+        return connectionPoolManager.getApiConnectionPool();
+    }
+
+    @Provides
+    @Singleton
+    static HttpResponseCache provideHttpResponseCache(Application application,
+                                                      @Named("default") SharedPreferences sharedPreferences,
+                                                      @Named("current_account") SharedPreferences currentAccountSharedPreferences,
+                                                      @Named("app_cache_dir") File appCache) {
+        return new HttpResponseCache(application, sharedPreferences, currentAccountSharedPreferences,
+                new File(appCache, "http_cache"));
     }
 
     @Provides
     @Named("no_oauth")
-    static Retrofit provideRetrofit(@Named("base") Retrofit retrofit) {
-        return retrofit;
+    @Singleton
+    static Retrofit provideRetrofit(@Named("base") Retrofit retrofit,
+                                    @Named("base") OkHttpClient httpClient,
+                                    HttpResponseCache httpResponseCache) {
+        return retrofit.newBuilder()
+                .client(httpResponseCache.applyTo(httpClient.newBuilder()).build())
+                .build();
     }
 
     @Provides
@@ -113,8 +148,9 @@ abstract class NetworkModule {
                                             @Named("base") Retrofit retrofit,
                                             RedditDataRoomDatabase redditDataRoomDatabase,
                                             @Named("current_account") SharedPreferences currentAccountSharedPreferences,
-                                            ConnectionPool connectionPool) {
-        return httpClient.newBuilder()
+                                            ConnectionPool connectionPool,
+                                            HttpResponseCache httpResponseCache) {
+        return httpResponseCache.applyTo(httpClient.newBuilder())
                 .authenticator(new AccessTokenAuthenticator(retrofit, redditDataRoomDatabase, currentAccountSharedPreferences))
                 .connectionPool(connectionPool)
                 .build();
@@ -137,9 +173,10 @@ abstract class NetworkModule {
     @Named("media3")
     @Singleton
     static OkHttpClient provideMedia3OkHttpClient(@Named("base") OkHttpClient httpClient,
-                                            ConnectionPool connectionPool) {
+                                            ConnectionPoolManager connectionPoolManager) {
         return httpClient.newBuilder()
-                .connectionPool(connectionPool)
+                .connectionPool(connectionPoolManager.getMediaConnectionPool())
+                .eventListenerFactory(connectionPoolManager.getMediaEventListenerFactory())
                 .followRedirects(false)
                 .addInterceptor(new Interceptor() {
                     @NonNull
@@ -211,6 +248,35 @@ abstract class NetworkModule {
                 .build();
     }
 
+    @Provides
+    @Named("download")
+    @Singleton
+    static OkHttpClient provideDownloadOkHttpClient(@Named("base") OkHttpClient httpClient,
+                                                    ConnectionPoolManager connectionPoolManager) {
+        return httpClient.newBuilder()
+                .connectionPool(connectionPoolManager.getMediaConnectionPool())
+                .eventListenerFactory(connectionPoolManager.getMediaEventListenerFactory())
+                .build();
+    }
+
+    @Provides
+    @Singleton
+    static SegmentedDownloader provideSegmentedDownloader(@Named("download") OkHttpClient okHttpClient,
+                                                          AppExecutors appExecutors,
+                                                          @Named("app_cache_dir") File appCache,
+                                                          SimpleCache simpleCache,
+                                                          BandwidthLimiter bandwidthLimiter) {
+        return new SegmentedDownloader(okHttpClient, appExecutors.download(), new File(appCache, "downloads"),
+                simpleCache, bandwidthLimiter);
+    }
+
+    @Provides
+    @Singleton
+    static BandwidthLimiter provideBandwidthLimiter(Application application,
+                                                    @Named("default") SharedPreferences sharedPreferences) {
+        return new BandwidthLimiter(application, sharedPreferences);
+    }
+
     @Provides
     @Named("RedgifsAccessTokenAuthenticator")
     static Interceptor redgifsAccessTokenAuthenticator(@Named("current_account") SharedPreferences currentAccountSharedPreferences) {
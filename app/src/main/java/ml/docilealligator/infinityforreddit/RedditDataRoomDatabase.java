@@ -24,6 +24,8 @@ import ml.docilealligator.infinityforreddit.commentfilter.CommentFilterUsageDao;
 import ml.docilealligator.infinityforreddit.customtheme.CustomTheme;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeDao;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeDaoKt;
+import ml.docilealligator.infinityforreddit.download.DownloadTask;
+import ml.docilealligator.infinityforreddit.download.DownloadTaskDao;
 import ml.docilealligator.infinityforreddit.multireddit.AnonymousMultiredditSubreddit;
 import ml.docilealligator.infinityforreddit.multireddit.AnonymousMultiredditSubredditDao;
 import ml.docilealligator.infinityforreddit.multireddit.AnonymousMultiredditSubredditDaoKt;
@@ -44,13 +46,16 @@ import ml.docilealligator.infinityforreddit.subscribedsubreddit.SubscribedSubred
 import ml.docilealligator.infinityforreddit.subscribedsubreddit.SubscribedSubredditData;
 import ml.docilealligator.infinityforreddit.subscribeduser.SubscribedUserDao;
 import ml.docilealligator.infinityforreddit.subscribeduser.SubscribedUserData;
+import ml.docilealligator.infinityforreddit.translation.CachedTranslation;
+import ml.docilealligator.infinityforreddit.translation.CachedTranslationDao;
 import ml.docilealligator.infinityforreddit.user.UserDao;
 import ml.docilealligator.infinityforreddit.user.UserData;
 
 @Database(entities = {Account.class, SubredditData.class, SubscribedSubredditData.class, UserData.class,
         SubscribedUserData.class, MultiReddit.class, CustomTheme.class, RecentSearchQuery.class,
         ReadPost.class, PostFilter.class, PostFilterUsage.class, AnonymousMultiredditSubreddit.class,
-        CommentFilter.class, CommentFilterUsage.class, CommentDraft.class}, version = 32, exportSchema = false)
+        CommentFilter.class, CommentFilterUsage.class, CommentDraft.class, CachedTranslation.class,
+        DownloadTask.class}, version = 34, exportSchema = false)
 @TypeConverters(Converters.class)
 public abstract class RedditDataRoomDatabase extends RoomDatabase {
 
@@ -64,7 +69,8 @@ public abstract class RedditDataRoomDatabase extends RoomDatabase {
                         MIGRATION_17_18, MIGRATION_18_19, MIGRATION_19_20, MIGRATION_20_21,
                         MIGRATION_21_22, MIGRATION_22_23, MIGRATION_23_24, MIGRATION_24_25,
                         MIGRATION_25_26, MIGRATION_26_27, MIGRATION_27_28, MIGRATION_28_29,
-                        MIGRATION_29_30, MIGRATION_30_31, MIGRATION_31_32)
+                        MIGRATION_29_30, MIGRATION_30_31, MIGRATION_31_32, MIGRATION_32_33,
+                        MIGRATION_33_34)
                 .build();
     }
 
@@ -106,6 +112,10 @@ public abstract class RedditDataRoomDatabase extends RoomDatabase {
 
     public abstract CommentDraftDao commentDraftDao();
 
+    public abstract CachedTranslationDao cachedTranslationDao();
+
+    public abstract DownloadTaskDao downloadTaskDao();
+
     private static final Migration MIGRATION_1_2 = new Migration(1, 2) {
         @Override
         public void migrate(SupportSQLiteDatabase database) {
@@ -497,5 +507,25 @@ public abstract class RedditDataRoomDatabase extends RoomDatabase {
             database.execSQL("ALTER TABLE read_posts_new RENAME TO read_posts");
         }
     };
-}
 
+    private static final Migration MIGRATION_32_33 = new Migration(32, 33) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS translation_cache "
+                    + "(cache_key TEXT NOT NULL, translated_text TEXT NOT NULL, size INTEGER NOT NULL, "
+                    + "last_access INTEGER NOT NULL, PRIMARY KEY(cache_key))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_translation_cache_last_access ON translation_cache(last_access)");
+        }
+    };
+
+    private static final Migration MIGRATION_33_34 = new Migration(33, 34) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS download_tasks "
+                    + "(id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, kind INTEGER NOT NULL, "
+                    + "dedup_key TEXT NOT NULL, priority INTEGER NOT NULL, state INTEGER NOT NULL, "
+                    + "title TEXT NOT NULL, extras TEXT NOT NULL, created_at INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_download_tasks_dedup_key ON download_tasks(dedup_key)");
+        }
+    };
+}
@@ -47,8 +47,7 @@ import ml.docilealligator.infinityforreddit.post.MarkPostAsReadInterface;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.post.PostPagingSource;
 import ml.docilealligator.infinityforreddit.post.PostType;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostModification;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostType;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostsUtils;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
@@ -77,7 +76,10 @@ public class AccountSavedThingActivity extends BaseActivity implements ActivityT
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    ReadPostsIndex mReadPostsIndex;
     private FragmentManager fragmentManager;
     private SectionsPagerAdapter sectionsPagerAdapter;
     private PostLayoutBottomSheetFragment postLayoutBottomSheetFragment;
@@ -281,7 +283,7 @@ public class AccountSavedThingActivity extends BaseActivity implements ActivityT
     @Override
     public void markPostAsRead(Post post) {
         int readPostsLimit = ReadPostsUtils.GetReadPostsLimit(accountName, mPostHistorySharedPreferences);
-        ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, accountName, post.getId(), ReadPostType.READ_POSTS, readPostsLimit);
+        mReadPostsIndex.markRead(accountName, post.getId(), readPostsLimit);
     }
 
     private class SectionsPagerAdapter extends FragmentStateAdapter {
@@ -121,6 +121,26 @@ public class BatchTranslationActivity extends BaseActivity {
         BatchTranslationAdapter adapter = new BatchTranslationAdapter(result, comments, mCustomThemeWrapper);
         binding.recyclerViewBatchTranslationActivity.setLayoutManager(new LinearLayoutManager(this));
         binding.recyclerViewBatchTranslationActivity.setAdapter(adapter);
+
+        // 其余分块仍在翻译时逐步刷新
+        updateTranslationProgress(result);
+        result.setOnUpdateListener((postUpdated, updatedCommentIds) -> {
+            adapter.onTranslationsUpdated(postUpdated, updatedCommentIds);
+            updateTranslationProgress(result);
+        });
+    }
+
+    private void updateTranslationProgress(BatchTranslationResult result) {
+        if (result.isComplete()) {
+            getSupportActionBar().setSubtitle(null);
+            if (result.getFailedCommentCount() > 0) {
+                Toast.makeText(this, getString(R.string.translate_all_partial_failed, result.getFailedCommentCount()),
+                        Toast.LENGTH_SHORT).show();
+            }
+        } else {
+            getSupportActionBar().setSubtitle(getString(R.string.translate_all_progress,
+                    result.getTranslatedChunkCount(), result.getTotalChunkCount()));
+        }
     }
 
     @Override
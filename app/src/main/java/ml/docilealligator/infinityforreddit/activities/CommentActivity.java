@@ -132,6 +132,7 @@ public class CommentActivity extends BaseActivity implements UploadImageEnabledA
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private RequestManager mGlide;
     private Account selectedAccount;
@@ -51,6 +51,7 @@ public class CommentFilterPreferenceActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     public CommentFilterWithUsageViewModel commentFilterWithUsageViewModel;
     private CommentFilterWithUsageRecyclerViewAdapter adapter;
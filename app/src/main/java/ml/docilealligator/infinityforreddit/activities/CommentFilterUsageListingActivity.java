@@ -53,6 +53,7 @@ public class CommentFilterUsageListingActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     private ActivityCommentFilterUsageListingBinding binding;
     public CommentFilterUsageViewModel commentFilterUsageViewModel;
@@ -56,6 +56,7 @@ public class CreateMultiRedditActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private ActivityCreateMultiRedditBinding binding;
     private ArrayList<ExpandedSubredditInMultiReddit> mSubreddits;
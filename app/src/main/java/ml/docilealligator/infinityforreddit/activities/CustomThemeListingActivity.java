@@ -94,6 +94,7 @@ public class CustomThemeListingActivity extends BaseActivity implements
     @Named("amoled_theme")
     SharedPreferences amoledThemeSharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
     private FragmentManager fragmentManager;
     private SectionsPagerAdapter sectionsPagerAdapter;
@@ -67,6 +67,7 @@ public class CustomizeCommentFilterActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private CommentFilter commentFilter;
     private boolean fromSettings;
@@ -79,6 +79,7 @@ public class CustomizePostFilterActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private ActivityCustomizePostFilterBinding binding;
     private PostFilter postFilter;
@@ -89,6 +89,7 @@ public class CustomizeThemeActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
 
     private String themeName;
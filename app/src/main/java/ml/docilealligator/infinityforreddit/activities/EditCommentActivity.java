@@ -106,6 +106,7 @@ public class EditCommentActivity extends BaseActivity implements UploadImageEnab
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mFullName;
     private String mAccessToken;
@@ -56,6 +56,7 @@ public class EditMultiRedditActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private MultiReddit multiReddit;
     private String multipath;
@@ -83,6 +83,7 @@ public class EditPostActivity extends BaseActivity implements UploadImageEnabled
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mFullName;
     private String mAccessToken;
@@ -37,6 +37,7 @@ public class FetchRandomSubredditOrPostActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private boolean isCanceled = false;
     private ActivityFetchRandomSubredditOrPostBinding binding;
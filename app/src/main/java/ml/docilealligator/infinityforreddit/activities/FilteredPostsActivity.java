@@ -48,8 +48,7 @@ import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.post.PostPagingSource;
 import ml.docilealligator.infinityforreddit.post.PostType;
 import ml.docilealligator.infinityforreddit.postfilter.PostFilter;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostModification;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostType;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostsUtils;
 import ml.docilealligator.infinityforreddit.subreddit.SubredditViewModel;
 import ml.docilealligator.infinityforreddit.thing.SortType;
@@ -94,7 +93,10 @@ public class FilteredPostsActivity extends BaseActivity implements SortTypeSelec
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    ReadPostsIndex mReadPostsIndex;
     public SubredditViewModel mSubredditViewModel;
     private String name;
     private String userWhere;
@@ -500,7 +502,7 @@ public class FilteredPostsActivity extends BaseActivity implements SortTypeSelec
     @Override
     public void markPostAsRead(Post post) {
         int readPostsLimit = ReadPostsUtils.GetReadPostsLimit(accountName, mPostHistorySharedPreferences);
-        ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, accountName, post.getId(), ReadPostType.READ_POSTS, readPostsLimit);
+        mReadPostsIndex.markRead(accountName, post.getId(), readPostsLimit);
     }
 
     @Override
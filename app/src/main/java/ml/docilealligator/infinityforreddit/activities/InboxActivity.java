@@ -84,6 +84,7 @@ public class InboxActivity extends BaseActivity implements ActivityToolbarInterf
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private SectionsPagerAdapter sectionsPagerAdapter;
     private FragmentManager fragmentManager;
@@ -78,6 +78,7 @@ public class LoginActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String authCode;
     private boolean isAgreeToUserAgreement = false;
@@ -71,6 +71,7 @@ public class LoginChromeCustomTabActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private ActivityLoginChromeCustomTabBinding binding;
 
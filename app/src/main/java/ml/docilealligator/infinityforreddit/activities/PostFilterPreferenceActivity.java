@@ -54,6 +54,7 @@ public class PostFilterPreferenceActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     public PostFilterWithUsageViewModel postFilterWithUsageViewModel;
     private PostFilterWithUsageRecyclerViewAdapter adapter;
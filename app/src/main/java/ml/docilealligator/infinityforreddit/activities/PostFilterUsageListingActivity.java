@@ -53,6 +53,7 @@ public class PostFilterUsageListingActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     public PostFilterUsageViewModel postFilterUsageViewModel;
     private PostFilterUsageRecyclerViewAdapter adapter;
@@ -8,7 +8,6 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.res.Configuration;
 import android.content.res.Resources;
-import android.graphics.Bitmap;
 import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Bundle;
@@ -48,6 +47,8 @@ import org.xmlpull.v1.XmlPullParserException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 
@@ -99,6 +100,7 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
     private static final int SUBREDDIT_SELECTION_REQUEST_CODE = 0;
     private static final int PICK_IMAGE_REQUEST_CODE = 1;
     private static final int CAPTURE_IMAGE_REQUEST_CODE = 2;
+    private static final int MAX_IMAGES = 20;
 
     @Inject
     @Named("no_oauth")
@@ -120,7 +122,11 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    @Named("upload")
+    Executor mUploadExecutor;
     private Account selectedAccount;
     private ArrayList<RedditGallerySubmissionRecyclerViewAdapter.RedditGalleryImageInfo> redditGalleryImageInfoList;
     private String iconUrl;
@@ -146,7 +152,6 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
     private Snackbar mPostingSnackbar;
     private RedditGallerySubmissionRecyclerViewAdapter adapter;
     private Uri imageUri;
-    private boolean isUploading;
     private ActivityPostGalleryBinding binding;
 
     @Override
@@ -202,12 +207,9 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
         resources = getResources();
 
         adapter = new RedditGallerySubmissionRecyclerViewAdapter(this, mCustomThemeWrapper, () -> {
-            if (!isUploading) {
-                SelectOrCaptureImageBottomSheetFragment fragment = new SelectOrCaptureImageBottomSheetFragment();
-                fragment.show(getSupportFragmentManager(), fragment.getTag());
-            } else {
-                Snackbar.make(binding.coordinatorLayoutPostGalleryActivity, R.string.please_wait_image_is_uploading, Snackbar.LENGTH_SHORT).show();
-            }
+            // Images upload in the background, more can be added meanwhile.
+            SelectOrCaptureImageBottomSheetFragment fragment = new SelectOrCaptureImageBottomSheetFragment();
+            fragment.show(getSupportFragmentManager(), fragment.getTag());
         });
         binding.imagesRecyclerViewPostGalleryActivity.setAdapter(adapter);
         Resources resources = getResources();
@@ -247,10 +249,11 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
                 loadCurrentAccount();
             }
 
-            if (redditGalleryImageInfoList != null && !redditGalleryImageInfoList.isEmpty()) {
-                if (redditGalleryImageInfoList.get(redditGalleryImageInfoList.size() - 1).payload == null) {
-                    imageUri = Uri.parse(redditGalleryImageInfoList.get(redditGalleryImageInfoList.size() - 1).imageUrlString);
-                    uploadImage();
+            if (redditGalleryImageInfoList != null) {
+                for (RedditGallerySubmissionRecyclerViewAdapter.RedditGalleryImageInfo info : redditGalleryImageInfoList) {
+                    if (info.payload == null) {
+                        uploadImage(Uri.parse(info.imageUrlString));
+                    }
                 }
             }
             adapter.setRedditGalleryImageInfoList(redditGalleryImageInfoList);
@@ -495,6 +498,7 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
         Intent intent = new Intent();
         intent.setType("image/*");
         intent.setAction(Intent.ACTION_GET_CONTENT);
+        intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
         startActivityForResult(Intent.createChooser(intent, resources.getString(R.string.select_from_gallery)), PICK_IMAGE_REQUEST_CODE);
     }
 
@@ -512,31 +516,40 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
         }
     }
 
-    private void uploadImage() {
+    private void addImages(List<Uri> imageUris) {
+        ArrayList<RedditGallerySubmissionRecyclerViewAdapter.RedditGalleryImageInfo> images = adapter.getRedditGalleryImageInfoList();
+        int imagesToAdd = Math.max(0, Math.min(imageUris.size(), MAX_IMAGES - (images == null ? 0 : images.size())));
+        for (int i = 0; i < imagesToAdd; i++) {
+            adapter.addImage(imageUris.get(i).toString());
+            uploadImage(imageUris.get(i));
+        }
+        if (imagesToAdd < imageUris.size()) {
+            Snackbar.make(binding.coordinatorLayoutPostGalleryActivity,
+                    getString(R.string.gallery_too_many_images, MAX_IMAGES, imageUris.size() - imagesToAdd),
+                    Snackbar.LENGTH_LONG).show();
+        }
+    }
+
+    private void uploadImage(Uri imageUri) {
         Handler handler = new Handler();
-        isUploading = true;
-        mExecutor.execute(() -> {
+        String imageUrlString = imageUri.toString();
+        mUploadExecutor.execute(() -> {
             try {
-                Bitmap resource = Glide.with(PostGalleryActivity.this).asBitmap().load(imageUri).submit().get();
-                String response = UploadImageUtils.uploadImage(mOauthRetrofit, mUploadMediaRetrofit, accessToken, resource, true, false);
+                String response = UploadImageUtils.uploadImage(PostGalleryActivity.this, mOauthRetrofit,
+                        mUploadMediaRetrofit, accessToken, imageUri, true, false, null);
                 String mediaId = new JSONObject(response).getJSONObject(JSONUtils.ASSET_KEY).getString(JSONUtils.ASSET_ID_KEY);
-                handler.post(() -> {
-                    adapter.setImageAsUploaded(mediaId);
-                    isUploading = false;
-                });
+                handler.post(() -> adapter.setImageAsUploaded(imageUrlString, mediaId));
             } catch (ExecutionException | InterruptedException e) {
                 e.printStackTrace();
                 handler.post(() -> {
-                    adapter.removeFailedToUploadImage();
+                    adapter.removeFailedToUploadImage(imageUrlString);
                     Snackbar.make(binding.coordinatorLayoutPostGalleryActivity, R.string.get_image_bitmap_failed, Snackbar.LENGTH_LONG).show();
-                    isUploading = false;
                 });
             } catch (XmlPullParserException | JSONException | IOException e) {
                 e.printStackTrace();
                 handler.post(() -> {
-                    adapter.removeFailedToUploadImage();
+                    adapter.removeFailedToUploadImage(imageUrlString);
                     Snackbar.make(binding.coordinatorLayoutPostGalleryActivity, R.string.upload_image_failed, Snackbar.LENGTH_LONG).show();
-                    isUploading = false;
                 });
             }
         });
@@ -610,7 +623,7 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
                 return true;
             }
 
-            if (redditGalleryImageInfoList.get(redditGalleryImageInfoList.size() - 1).payload == null) {
+            if (adapter.isUploading()) {
                 Snackbar.make(binding.coordinatorLayoutPostGalleryActivity, R.string.please_wait_image_is_uploading, Snackbar.LENGTH_LONG).show();
                 return true;
             }
@@ -714,14 +727,19 @@ public class PostGalleryActivity extends BaseActivity implements FlairBottomShee
                     return;
                 }
 
-                imageUri = data.getData();
-                adapter.addImage(imageUri.toString());
-                uploadImage();
+                List<Uri> imageUris = new ArrayList<>();
+                if (data.getClipData() != null) {
+                    for (int i = 0; i < data.getClipData().getItemCount(); i++) {
+                        imageUris.add(data.getClipData().getItemAt(i).getUri());
+                    }
+                } else if (data.getData() != null) {
+                    imageUris.add(data.getData());
+                }
+                addImages(imageUris);
             }
         } else if (requestCode == CAPTURE_IMAGE_REQUEST_CODE) {
             if (resultCode == RESULT_OK) {
-                adapter.addImage(imageUri.toString());
-                uploadImage();
+                addImages(Collections.singletonList(imageUri));
             }
         }
     }
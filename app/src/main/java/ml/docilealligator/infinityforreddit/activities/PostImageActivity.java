@@ -105,6 +105,7 @@ public class PostImageActivity extends BaseActivity implements FlairBottomSheetF
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private String iconUrl;
@@ -104,6 +104,7 @@ public class PostLinkActivity extends BaseActivity implements FlairBottomSheetFr
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private String iconUrl;
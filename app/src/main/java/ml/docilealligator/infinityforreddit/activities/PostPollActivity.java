@@ -120,6 +120,7 @@ public class PostPollActivity extends BaseActivity implements FlairBottomSheetFr
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private String iconUrl;
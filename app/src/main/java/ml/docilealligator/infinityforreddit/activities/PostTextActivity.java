@@ -111,6 +111,7 @@ public class PostTextActivity extends BaseActivity implements FlairBottomSheetFr
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private String iconUrl;
@@ -114,6 +114,7 @@ public class PostVideoActivity extends BaseActivity implements FlairBottomSheetF
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private String iconUrl;
@@ -60,6 +60,7 @@ public class ReportActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mFullname;
     private String mSubredditName;
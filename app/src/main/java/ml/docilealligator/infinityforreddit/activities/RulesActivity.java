@@ -57,6 +57,7 @@ public class RulesActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mSubredditName;
     private RulesRecyclerViewAdapter mAdapter;
@@ -104,6 +104,7 @@ public class SearchActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     private String query;
     private String searchInSubredditOrUserName;
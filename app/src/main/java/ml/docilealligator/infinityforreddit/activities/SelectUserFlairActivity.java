@@ -53,6 +53,7 @@ public class SelectUserFlairActivity extends BaseActivity implements ActivityToo
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private LinearLayoutManagerBugFixed mLinearLayoutManager;
     private ArrayList<UserFlair> mUserFlairs;
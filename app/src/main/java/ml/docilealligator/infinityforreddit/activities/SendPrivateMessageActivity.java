@@ -44,6 +44,7 @@ public class SendPrivateMessageActivity extends BaseActivity {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mAccessToken;
     private boolean isSubmitting = false;
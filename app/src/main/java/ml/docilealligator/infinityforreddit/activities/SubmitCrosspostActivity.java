@@ -99,6 +99,7 @@ public class SubmitCrosspostActivity extends BaseActivity implements FlairBottom
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Account selectedAccount;
     private Post post;
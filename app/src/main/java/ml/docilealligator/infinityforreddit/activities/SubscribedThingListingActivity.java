@@ -107,6 +107,7 @@ public class SubscribedThingListingActivity extends BaseActivity implements Acti
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private boolean mInsertSuccess;
     private boolean mInsertMultiredditSuccess;
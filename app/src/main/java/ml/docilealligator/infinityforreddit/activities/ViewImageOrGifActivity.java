@@ -1,9 +1,6 @@
 package ml.docilealligator.infinityforreddit.activities;
 
 import android.Manifest;
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
-import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
@@ -71,6 +68,7 @@ import ml.docilealligator.infinityforreddit.customviews.slidr.Slidr;
 import ml.docilealligator.infinityforreddit.customviews.slidr.model.SlidrConfig;
 import ml.docilealligator.infinityforreddit.customviews.slidr.model.SlidrPosition;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewImageOrGifBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.events.FinishViewMediaActivityEvent;
 import ml.docilealligator.infinityforreddit.font.ContentFontFamily;
 import ml.docilealligator.infinityforreddit.font.ContentFontStyle;
@@ -96,7 +94,10 @@ public class ViewImageOrGifActivity extends AppCompatActivity implements SetAsWa
     @Named("default")
     SharedPreferences mSharedPreferences;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    DownloadQueue mDownloadQueue;
     private boolean isActionBarHidden = false;
     private boolean isDownloading = false;
     private RequestManager glide;
@@ -374,9 +375,7 @@ public class ViewImageOrGifActivity extends AppCompatActivity implements SetAsWa
         extras.putString(DownloadMediaService.EXTRA_SUBREDDIT_NAME, mSubredditName);
         extras.putInt(DownloadMediaService.EXTRA_IS_NSFW, isNsfw ? 1 : 0);
 
-        //TODO: contentEstimatedBytes
-        JobInfo jobInfo = DownloadMediaService.constructJobInfo(this, 5000000, extras);
-        ((JobScheduler) getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+        mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(extras));
 
         Toast.makeText(this, R.string.download_started, Toast.LENGTH_SHORT).show();
     }
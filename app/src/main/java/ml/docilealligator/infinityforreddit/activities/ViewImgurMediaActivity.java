@@ -1,8 +1,5 @@
 package ml.docilealligator.infinityforreddit.activities;
 
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
-import android.content.Context;
 import android.content.SharedPreferences;
 import android.graphics.Typeface;
 import android.graphics.drawable.ColorDrawable;
@@ -44,6 +41,7 @@ import ml.docilealligator.infinityforreddit.SetAsWallpaperCallback;
 import ml.docilealligator.infinityforreddit.WallpaperSetter;
 import ml.docilealligator.infinityforreddit.apis.ImgurAPI;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewImgurMediaBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.font.ContentFontFamily;
 import ml.docilealligator.infinityforreddit.font.ContentFontStyle;
 import ml.docilealligator.infinityforreddit.font.FontFamily;
@@ -83,7 +81,10 @@ public class ViewImgurMediaActivity extends AppCompatActivity implements SetAsWa
     @Named("default")
     SharedPreferences sharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
+    @Inject
+    DownloadQueue downloadQueue;
     private Handler handler;
     private ActivityViewImgurMediaBinding binding;
 
@@ -316,9 +317,7 @@ public class ViewImgurMediaActivity extends AppCompatActivity implements SetAsWa
             finish();
             return true;
         } else if (item.getItemId() == R.id.action_download_all_imgur_album_media_view_imgur_media_activity) {
-            //TODO: contentEstimatedBytes
-            JobInfo jobInfo = DownloadMediaService.constructImgurAlbumDownloadAllMediaJobInfo(this, 5000000L * mImages.size(), mImages);
-            ((JobScheduler) getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+            downloadQueue.enqueue(DownloadMediaService.constructImgurAlbumDownloadAllMediaTask(this, mImages));
 
             Toast.makeText(this, R.string.download_started, Toast.LENGTH_SHORT).show();
             return true;
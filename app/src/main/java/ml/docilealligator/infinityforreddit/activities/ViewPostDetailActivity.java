@@ -60,6 +60,7 @@ import ml.docilealligator.infinityforreddit.account.Account;
 import ml.docilealligator.infinityforreddit.apis.RedditAPI;
 import ml.docilealligator.infinityforreddit.asynctasks.AccountManagement;
 import ml.docilealligator.infinityforreddit.comment.Comment;
+import ml.docilealligator.infinityforreddit.comment.CommentPrefetcher;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewPostDetailBinding;
 import ml.docilealligator.infinityforreddit.events.NeedForPostListFromPostFragmentEvent;
@@ -123,10 +124,20 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
     @Named("post_details")
     SharedPreferences mPostDetailsSharedPreferences;
     @Inject
+    @Named("sort_type")
+    SharedPreferences mSortTypeSharedPreferences;
+    @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     @Inject
+    @Named("cpu")
+    Executor mCpuExecutor;
+    @Inject
+    @Named("long")
+    Executor mLongExecutor;
+    @Inject
     TranslationCache mTranslationCache;
     @State
     ArrayList<Post> posts;
@@ -170,6 +181,7 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
     private boolean mIsNsfwSubreddit;
     private boolean mHideFab;
     private ActivityViewPostDetailBinding binding;
+    private CommentPrefetcher mCommentPrefetcher;
     private ml.docilealligator.infinityforreddit.translation.TranslationRequestHandle mCurrentTranslationHandle;
     private com.google.android.material.snackbar.Snackbar mTranslationSnackbar;
     @Nullable
@@ -417,6 +429,10 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
                                 accessToken = newAccount.getAccessToken();
                                 accountName = newAccount.getAccountName();
                             }
+                            if (mCommentPrefetcher != null) {
+                                mCommentPrefetcher.destroy();
+                                mCommentPrefetcher = null;
+                            }
 
                             bindView(savedInstanceState);
                         });
@@ -438,8 +454,10 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
                 if (posts != null && position > posts.size() - 5) {
                     fetchMorePosts(false);
                 }
+                getCommentPrefetcher().onPostSelected(posts, position);
             }
         });
+        getCommentPrefetcher().onPostSelected(posts, binding.viewPager2ViewPostDetailActivity.getCurrentItem());
 
         binding.searchPanelMaterialCardViewViewPostDetailActivity.setOnClickListener(null);
         
@@ -467,6 +485,14 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
         });
     }
 
+    public CommentPrefetcher getCommentPrefetcher() {
+        if (mCommentPrefetcher == null) {
+            mCommentPrefetcher = new CommentPrefetcher(this, mExecutor, mCpuExecutor, mRetrofit, mOauthRetrofit,
+                    mRedditDataRoomDatabase, mSharedPreferences, mSortTypeSharedPreferences, accessToken, accountName);
+        }
+        return mCommentPrefetcher;
+    }
+
     public boolean isNsfwSubreddit() {
         return mIsNsfwSubreddit;
     }
@@ -828,6 +854,8 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.view_post_detail_activity, menu);
         applyMenuItemTheme(menu);
+        menu.findItem(R.id.action_auto_translate_comments_view_post_detail_activity)
+                .setChecked(mSharedPreferences.getBoolean(SharedPreferencesUtils.AUTO_TRANSLATE_COMMENTS, false));
         return true;
     }
 
@@ -842,6 +870,9 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
         } else if (item.getItemId() == R.id.action_translate_all_view_post_detail_activity) {
             translateAll();
             return true;
+        } else if (item.getItemId() == R.id.action_auto_translate_comments_view_post_detail_activity) {
+            toggleAutoTranslateComments(item);
+            return true;
         } else if (item.getItemId() == R.id.action_reset_fab_position_view_post_detail_activity) {
             binding.fabViewPostDetailActivity.resetCoordinates();
             return true;
@@ -894,9 +925,30 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
                 model,
                 textToTranslate,
                 new ml.docilealligator.infinityforreddit.translation.TranslateContent.TranslateListener() {
+                    // Replaces the loading dialog as soon as the first words arrive.
+                    private ml.docilealligator.infinityforreddit.bottomsheetfragments.TranslatedTextBottomSheetFragment translatedTextSheet;
+
+                    @Override
+                    public void onTranslatePartial(String partialText) {
+                        if (translatedTextSheet == null) {
+                            dismissTranslationLoading();
+                            translatedTextSheet = ml.docilealligator.infinityforreddit.bottomsheetfragments.TranslatedTextBottomSheetFragment.show(
+                                    getSupportFragmentManager(),
+                                    finalTextToTranslate,
+                                    partialText
+                            );
+                        } else {
+                            translatedTextSheet.setTranslatedText(partialText);
+                        }
+                    }
+
                     @Override
                     public void onTranslateSuccess(String translatedText) {
                         dismissTranslationLoading();
+                        if (translatedTextSheet != null) {
+                            translatedTextSheet.setTranslatedText(translatedText);
+                            return;
+                        }
                         ml.docilealligator.infinityforreddit.bottomsheetfragments.TranslatedTextBottomSheetFragment.show(
                                 getSupportFragmentManager(),
                                 finalTextToTranslate,
@@ -915,6 +967,22 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
         );
     }
 
+    private void toggleAutoTranslateComments(MenuItem item) {
+        boolean enabled = !item.isChecked();
+        if (enabled && mSharedPreferences.getString("volcano_engine_api_key", "").isEmpty()) {
+            Toast.makeText(this, "Please configure Volcano Engine API key in Settings > Translation", Toast.LENGTH_LONG).show();
+            return;
+        }
+        item.setChecked(enabled);
+        mSharedPreferences.edit().putBoolean(SharedPreferencesUtils.AUTO_TRANSLATE_COMMENTS, enabled).apply();
+        if (mSectionsPagerAdapter != null) {
+            ViewPostDetailFragment fragment = mSectionsPagerAdapter.getCurrentFragment();
+            if (fragment != null) {
+                fragment.onAutoTranslateCommentsChanged();
+            }
+        }
+    }
+
     private void translateAll() {
         if (mSectionsPagerAdapter == null) return;
 
@@ -937,17 +1005,13 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
             return;
         }
 
-        // 检查是否需要截断评论
-        int truncatedCount = ml.docilealligator.infinityforreddit.translation.BatchTranslateContent.getTruncatedCount(postToTranslate, comments);
-        if (truncatedCount >= 0) {
-            Toast.makeText(this, getString(R.string.translate_all_comment_limit, truncatedCount), Toast.LENGTH_SHORT).show();
-        }
-
         showTranslationLoading(getString(R.string.translating_all));
+        // 第一个分块完成后即打开结果页，其余分块在结果页中逐步显示
+        boolean[] resultShown = {false};
 
         mCurrentTranslationHandle = ml.docilealligator.infinityforreddit.translation.BatchTranslateContent.translateBatchWithCache(
                 mTranslationCache,
-                mExecutor,
+                mLongExecutor,
                 new android.os.Handler(android.os.Looper.getMainLooper()),
                 mVolcanoEngineRetrofit,
                 apiKey,
@@ -955,10 +1019,25 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
                 postToTranslate,
                 comments,
                 new ml.docilealligator.infinityforreddit.translation.BatchTranslateContent.BatchTranslateListener() {
+                    @Override
+                    public void onTranslateProgress(ml.docilealligator.infinityforreddit.translation.BatchTranslationResult result) {
+                        showBatchTranslationResult(result);
+                    }
+
                     @Override
                     public void onTranslateSuccess(ml.docilealligator.infinityforreddit.translation.BatchTranslationResult result) {
+                        showBatchTranslationResult(result);
+                    }
+
+                    private void showBatchTranslationResult(ml.docilealligator.infinityforreddit.translation.BatchTranslationResult result) {
+                        if (resultShown[0]) {
+                            return;
+                        }
+                        resultShown[0] = true;
                         dismissTranslationLoading();
-                        ml.docilealligator.infinityforreddit.translation.TranslationResultHolder.set(result, comments);
+                        // 剩余分块由结果页持有，结果页关闭时取消
+                        ml.docilealligator.infinityforreddit.translation.TranslationResultHolder.set(result, comments, mCurrentTranslationHandle);
+                        mCurrentTranslationHandle = null;
                         Intent intent = new Intent(ViewPostDetailActivity.this, BatchTranslationActivity.class);
                         startActivity(intent);
                     }
@@ -1042,6 +1121,9 @@ public class ViewPostDetailActivity extends BaseActivity implements SortTypeSele
     @Override
     protected void onDestroy() {
         cancelActiveTranslation();
+        if (mCommentPrefetcher != null) {
+            mCommentPrefetcher.destroy();
+        }
         EventBus.getDefault().unregister(this);
         super.onDestroy();
         Bridge.clear(this);
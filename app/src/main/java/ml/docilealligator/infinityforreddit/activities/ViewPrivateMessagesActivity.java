@@ -68,6 +68,7 @@ public class ViewPrivateMessagesActivity extends BaseActivity implements Activit
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private LinearLayoutManagerBugFixed mLinearLayoutManager;
     private PrivateMessagesDetailRecyclerViewAdapter mAdapter;
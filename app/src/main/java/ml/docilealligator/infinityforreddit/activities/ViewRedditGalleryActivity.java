@@ -5,9 +5,6 @@ import static androidx.appcompat.app.AppCompatDelegate.MODE_NIGHT_FOLLOW_SYSTEM;
 import static androidx.appcompat.app.AppCompatDelegate.MODE_NIGHT_NO;
 import static androidx.appcompat.app.AppCompatDelegate.MODE_NIGHT_YES;
 
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
-import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.Configuration;
 import android.graphics.Typeface;
@@ -46,6 +43,7 @@ import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.SetAsWallpaperCallback;
 import ml.docilealligator.infinityforreddit.WallpaperSetter;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewRedditGalleryBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.events.FinishViewMediaActivityEvent;
 import ml.docilealligator.infinityforreddit.font.ContentFontFamily;
 import ml.docilealligator.infinityforreddit.font.ContentFontStyle;
@@ -69,7 +67,10 @@ public class ViewRedditGalleryActivity extends AppCompatActivity implements SetA
     @Named("default")
     SharedPreferences sharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
+    @Inject
+    DownloadQueue downloadQueue;
     public Typeface typeface;
     private SectionsPagerAdapter sectionsPagerAdapter;
     private Post post;
@@ -228,9 +229,7 @@ public class ViewRedditGalleryActivity extends AppCompatActivity implements SetA
             finish();
             return true;
         } else if (item.getItemId() == R.id.action_download_all_gallery_media_view_reddit_gallery_activity) {
-            //TODO: contentEstimatedBytes
-            JobInfo jobInfo = DownloadMediaService.constructGalleryDownloadAllMediaJobInfo(this, 5000000L * gallery.size(), post);
-            ((JobScheduler) getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+            downloadQueue.enqueue(DownloadMediaService.constructGalleryDownloadAllMediaTask(this, post));
 
             Toast.makeText(this, R.string.download_started, Toast.LENGTH_SHORT).show();
             return true;
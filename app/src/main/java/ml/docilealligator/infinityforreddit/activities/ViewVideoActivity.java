@@ -7,9 +7,6 @@ import static androidx.appcompat.app.AppCompatDelegate.MODE_NIGHT_YES;
 
 import android.Manifest;
 import android.app.Dialog;
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
-import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.ActivityInfo;
@@ -101,6 +98,7 @@ import ml.docilealligator.infinityforreddit.bottomsheetfragments.PlaybackSpeedBo
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewVideoBinding;
 import ml.docilealligator.infinityforreddit.databinding.ActivityViewVideoZoomableBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.events.FinishViewMediaActivityEvent;
 import ml.docilealligator.infinityforreddit.font.ContentFontFamily;
 import ml.docilealligator.infinityforreddit.font.ContentFontStyle;
@@ -214,11 +212,14 @@ public class ViewVideoActivity extends AppCompatActivity implements CustomFontRe
     CustomThemeWrapper mCustomThemeWrapper;
 
     @Inject
+    @Named("io")
     Executor mExecutor;
 
     @UnstableApi
     @Inject
     SimpleCache mSimpleCache;
+    @Inject
+    DownloadQueue mDownloadQueue;
 
     private Post post;
 
@@ -1022,9 +1023,7 @@ public class ViewVideoActivity extends AppCompatActivity implements CustomFontRe
             extras.putString(DownloadMediaService.EXTRA_SUBREDDIT_NAME, subredditName);
             extras.putInt(DownloadMediaService.EXTRA_IS_NSFW, isNSFW ? 1 : 0);
 
-            //TODO: contentEstimatedBytes
-            JobInfo jobInfo = DownloadMediaService.constructJobInfo(this, 5000000, extras);
-            ((JobScheduler) getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+            mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(extras));
         } else {
             PersistableBundle extras = new PersistableBundle();
             extras.putString(DownloadRedditVideoService.EXTRA_VIDEO_URL, videoDownloadUrl);
@@ -1032,9 +1031,7 @@ public class ViewVideoActivity extends AppCompatActivity implements CustomFontRe
             extras.putString(DownloadRedditVideoService.EXTRA_SUBREDDIT, subredditName);
             extras.putInt(DownloadRedditVideoService.EXTRA_IS_NSFW, isNSFW ? 1 : 0);
 
-            //TODO: contentEstimatedBytes
-            JobInfo jobInfo = DownloadRedditVideoService.constructJobInfo(this, 5000000, extras);
-            ((JobScheduler) getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+            mDownloadQueue.enqueue(DownloadRedditVideoService.constructDownloadTask(extras));
         }
 
         Toast.makeText(this, R.string.download_started, Toast.LENGTH_SHORT).show();
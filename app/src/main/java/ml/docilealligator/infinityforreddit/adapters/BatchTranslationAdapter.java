@@ -9,6 +9,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 
 import ml.docilealligator.infinityforreddit.R;
@@ -28,6 +29,8 @@ public class BatchTranslationAdapter extends RecyclerView.Adapter<RecyclerView.V
 
     private final BatchTranslationResult mResult;
     private final ArrayList<Comment> mComments;
+    // 评论 id -> 在 mComments 中的位置，用于分块结果到达时局部刷新
+    private final HashMap<String, Integer> mCommentPositions = new HashMap<>();
     private final int[] mCommentColors;
     private final int mCommentColor;
     private final int mSecondaryTextColor;
@@ -36,6 +39,9 @@ public class BatchTranslationAdapter extends RecyclerView.Adapter<RecyclerView.V
                                     CustomThemeWrapper customThemeWrapper) {
         mResult = result;
         mComments = filterValidComments(comments);
+        for (int i = 0; i < mComments.size(); i++) {
+            mCommentPositions.put(mComments.get(i).getId(), i);
+        }
         mCommentColors = new int[]{
                 customThemeWrapper.getCommentVerticalBarColor1(),
                 customThemeWrapper.getCommentVerticalBarColor2(),
@@ -60,6 +66,21 @@ public class BatchTranslationAdapter extends RecyclerView.Adapter<RecyclerView.V
         return filtered;
     }
 
+    /**
+     * 新的分块翻译结果合并后刷新对应的条目
+     */
+    public void onTranslationsUpdated(boolean postUpdated, Collection<String> updatedCommentIds) {
+        if (postUpdated) {
+            notifyItemChanged(0);
+        }
+        for (String commentId : updatedCommentIds) {
+            Integer position = mCommentPositions.get(commentId);
+            if (position != null) {
+                notifyItemChanged(position + 1);
+            }
+        }
+    }
+
     @Override
     public int getItemViewType(int position) {
         return position == 0 ? VIEW_TYPE_POST_HEADER : VIEW_TYPE_COMMENT;
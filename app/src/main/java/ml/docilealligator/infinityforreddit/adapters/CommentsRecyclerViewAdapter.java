@@ -26,12 +26,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.RequestManager;
-import com.bumptech.glide.request.RequestOptions;
 import com.google.android.material.button.MaterialButton;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 import io.noties.markwon.AbstractMarkwonPlugin;
@@ -39,7 +40,6 @@ import io.noties.markwon.Markwon;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonPlugin;
 import io.noties.markwon.core.MarkwonTheme;
-import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
 import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.account.Account;
 import ml.docilealligator.infinityforreddit.activities.BaseActivity;
@@ -73,13 +73,20 @@ import ml.docilealligator.infinityforreddit.markdown.EmotePlugin;
 import ml.docilealligator.infinityforreddit.markdown.EvenBetterLinkMovementMethod;
 import ml.docilealligator.infinityforreddit.markdown.ImageAndGifEntry;
 import ml.docilealligator.infinityforreddit.markdown.ImageAndGifPlugin;
+import ml.docilealligator.infinityforreddit.markdown.MarkdownPreParser;
 import ml.docilealligator.infinityforreddit.markdown.MarkdownUtils;
+import ml.docilealligator.infinityforreddit.markdown.ParsedMarkdownCache;
 import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.thing.DisplayModel;
 import ml.docilealligator.infinityforreddit.thing.SaveThing;
 import ml.docilealligator.infinityforreddit.thing.SortType;
 import ml.docilealligator.infinityforreddit.thing.VoteThing;
+import ml.docilealligator.infinityforreddit.translation.CommentTranslationScheduler;
 import ml.docilealligator.infinityforreddit.user.UserProfileImagesBatchLoader;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
+import ml.docilealligator.infinityforreddit.utils.BindTimeStats;
+import ml.docilealligator.infinityforreddit.utils.FrameTimeStats;
+import ml.docilealligator.infinityforreddit.utils.GlideTransformations;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
 import retrofit2.Retrofit;
@@ -101,17 +108,25 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
     private final BaseActivity mActivity;
     private final ViewPostDetailFragment mFragment;
     private final Executor mExecutor;
+    private final Executor mCpuExecutor;
     private final Retrofit mRetrofit;
     private final Retrofit mOauthRetrofit;
     private final EmoteCloseBracketInlineProcessor mEmoteCloseBracketInlineProcessor;
     private final EmotePlugin mEmotePlugin;
     private final ImageAndGifPlugin mImageAndGifPlugin;
     private final Markwon mCommentMarkwon;
+    private final MarkdownPreParser mMarkdownPreParser;
+    private final RecyclerView.OnScrollListener mFrameTimeScrollListener = FrameTimeStats.COMMENTS.createScrollListener();
     private final ImageAndGifEntry mImageAndGifEntry;
     private final String mAccessToken;
     private final String mAccountName;
     private final Post mPost;
     private final ArrayList<Comment> mVisibleComments;
+    // fullName -> position in mVisibleComments of non placeholder comments, rebuilt lazily after
+    // the list changes. Positions are always checked against the list before they are used.
+    private final HashMap<String, Integer> mVisibleCommentPositions = new HashMap<>();
+    private boolean mVisibleCommentPositionsValid;
+    private int mVisibleCommentPositionsListSize;
     private final Locale mLocale;
     private final RequestManager mGlide;
     private final RecyclerView.RecycledViewPool recycledViewPool;
@@ -169,7 +184,9 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
 
     public CommentsRecyclerViewAdapter(BaseActivity activity, ViewPostDetailFragment fragment,
                                        CustomThemeWrapper customThemeWrapper,
-                                       Executor executor, Retrofit retrofit, Retrofit oauthRetrofit,
+                                       Executor executor, Executor cpuExecutor,
+                                       ParsedMarkdownCache parsedMarkdownCache,
+                                       Retrofit retrofit, Retrofit oauthRetrofit,
                                        @Nullable String accessToken, @NonNull String accountName,
                                        Post post, Locale locale, String singleCommentId,
                                        boolean isSingleCommentThreadMode,
@@ -179,6 +196,7 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         mActivity = activity;
         mFragment = fragment;
         mExecutor = executor;
+        mCpuExecutor = cpuExecutor;
         mRetrofit = retrofit;
         mOauthRetrofit = oauthRetrofit;
         mAccessToken = accessToken;
@@ -243,6 +261,8 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         mCommentMarkwon = MarkdownUtils.createFullRedditMarkwon(mActivity,
                 miscPlugin, mEmoteCloseBracketInlineProcessor, mEmotePlugin, mImageAndGifPlugin, mCommentTextColor,
                 commentSpoilerBackgroundColor, onLinkLongClickListener);
+        mMarkdownPreParser = new MarkdownPreParser(mActivity, miscPlugin, mEmotePlugin, mCommentTextColor,
+                commentSpoilerBackgroundColor, parsedMarkdownCache, cpuExecutor);
 
         boolean needBlurNsfw = nsfwAndSpoilerSharedPreferences.getBoolean((mAccountName.equals(Account.ANONYMOUS_ACCOUNT) ? "" : mAccountName) + SharedPreferencesUtils.BLUR_NSFW_BASE, true);
         boolean doNotBlurNsfwInNsfwSubreddits = nsfwAndSpoilerSharedPreferences.getBoolean((mAccountName.equals(Account.ANONYMOUS_ACCOUNT) ? "" : mAccountName) + SharedPreferencesUtils.DO_NOT_BLUR_NSFW_IN_NSFW_SUBREDDITS, false);
@@ -267,6 +287,27 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         recycledViewPool = new RecyclerView.RecycledViewPool();
         mPost = post;
         mVisibleComments = new ArrayList<>();
+        registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                mVisibleCommentPositionsValid = false;
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                mVisibleCommentPositionsValid = false;
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                mVisibleCommentPositionsValid = false;
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                mVisibleCommentPositionsValid = false;
+            }
+        });
         mLocale = locale;
         mSingleCommentId = singleCommentId;
         mIsSingleCommentThreadMode = isSingleCommentThreadMode;
@@ -417,9 +458,16 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        long start = System.nanoTime();
+        onBindCommentViewHolder(holder, position);
+        BindTimeStats.COMMENTS.onBind(System.nanoTime() - start);
+    }
+
+    private void onBindCommentViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof CommentBaseViewHolder) {
             Comment comment = getCurrentComment(position);
             if (comment != null) {
+                DisplayModel displayModel = getDisplayModel(comment);
                 if (mIsSingleCommentThreadMode && comment.getId().equals(mSingleCommentId)) {
                     holder.itemView.setBackgroundColor(mSingleCommentThreadBackgroundColor);
                 }
@@ -429,7 +477,12 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
 
                 if (comment.getAuthorFlairHTML() != null && !comment.getAuthorFlairHTML().equals("")) {
                     ((CommentBaseViewHolder) holder).authorFlairTextView.setVisibility(View.VISIBLE);
-                    Utils.setHTMLWithImageToTextView(((CommentBaseViewHolder) holder).authorFlairTextView, comment.getAuthorFlairHTML(), true);
+                    Spanned authorFlair = displayModel.getFlair(comment.getAuthorFlairHTML());
+                    if (authorFlair != null) {
+                        ((CommentBaseViewHolder) holder).authorFlairTextView.setText(authorFlair);
+                    } else {
+                        Utils.setHTMLWithImageToTextView(((CommentBaseViewHolder) holder).authorFlairTextView, comment.getAuthorFlairHTML(), true);
+                    }
                 } else if (comment.getAuthorFlair() != null && !comment.getAuthorFlair().equals("")) {
                     ((CommentBaseViewHolder) holder).authorFlairTextView.setVisibility(View.VISIBLE);
                     ((CommentBaseViewHolder) holder).authorFlairTextView.setText(comment.getAuthorFlair());
@@ -465,18 +518,18 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                                 Comment currentComment = getCurrentComment(holder);
                                 if (currentComment != null && authorFullName.equals(currentComment.getAuthorFullName())) {
                                     mGlide.load(iconUrl)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                    .apply(GlideTransformations.ROUNDED_ICON))
                                             .into(((CommentBaseViewHolder) holder).authorIconImageView);
                                 }
                             });
                         }
                     } else {
                         mGlide.load(comment.getAuthorIconUrl())
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                        .apply(GlideTransformations.ROUNDED_ICON))
                                 .into(((CommentBaseViewHolder) holder).authorIconImageView);
                     }
                 }
@@ -485,7 +538,7 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                     ((CommentBaseViewHolder) holder).commentTimeTextView.setText(
                             Utils.getElapsedTime(mActivity, comment.getCommentTimeMillis()));
                 } else {
-                    ((CommentBaseViewHolder) holder).commentTimeTextView.setText(Utils.getFormattedTime(mLocale, comment.getCommentTimeMillis(), mTimeFormatPattern));
+                    ((CommentBaseViewHolder) holder).commentTimeTextView.setText(displayModel.getFormattedTime(mLocale, mTimeFormatPattern));
                 }
 
                 if (mCommentToolbarHidden) {
@@ -498,9 +551,25 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                     ((CommentBaseViewHolder) holder).topScoreTextView.setVisibility(View.GONE);
                 }
 
+                String commentMarkdown = comment.getCommentMarkdown();
+                CommentTranslationScheduler translationScheduler = mFragment == null ? null : mFragment.getCommentTranslationScheduler();
+                if (translationScheduler != null) {
+                    String translation = translationScheduler.getTranslation(comment);
+                    if (translation != null) {
+                        commentMarkdown = translation;
+                    }
+                    int commentIndex = translatePositionToCommentIndex(position);
+                    if (commentIndex >= 0) {
+                        // Ask for the comments about to be scrolled to as well.
+                        translationScheduler.request(mVisibleComments.subList(commentIndex,
+                                Math.min(mVisibleComments.size(), commentIndex + 1 + CommentTranslationScheduler.LOOK_AHEAD_COUNT)));
+                    }
+                }
+
                 mEmoteCloseBracketInlineProcessor.setMediaMetadataMap(comment.getMediaMetadataMap());
                 mImageAndGifPlugin.setMediaMetadataMap(comment.getMediaMetadataMap());
-                ((CommentBaseViewHolder) holder).mMarkwonAdapter.setMarkdown(mCommentMarkwon, comment.getCommentMarkdown());
+                ((CommentBaseViewHolder) holder).mMarkwonAdapter.setParsedMarkdown(mCommentMarkwon,
+                        mMarkdownPreParser.getParsedMarkdown(mCommentMarkwon, MarkdownPreParser.getKey(comment), commentMarkdown));
                 // noinspection NotifyDataSetChanged
                 ((CommentBaseViewHolder) holder).mMarkwonAdapter.notifyDataSetChanged();
 
@@ -510,11 +579,9 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                     if (comment.isScoreHidden()) {
                         commentText = mActivity.getString(R.string.hidden);
                     } else {
-                        commentText = Utils.getNVotes(mShowAbsoluteNumberOfVotes,
+                        commentText = displayModel.getVotesText(mShowAbsoluteNumberOfVotes,
                                 comment.getScore() + comment.getVoteType());
-                        topScoreText = mActivity.getString(R.string.top_score,
-                                Utils.getNVotes(mShowAbsoluteNumberOfVotes,
-                                        comment.getScore() + comment.getVoteType()));
+                        topScoreText = mActivity.getString(R.string.top_score, commentText);
                     }
                     ((CommentBaseViewHolder) holder).scoreTextView.setText(commentText);
                     ((CommentBaseViewHolder) holder).topScoreTextView.setText(topScoreText);
@@ -596,6 +663,7 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         } else if (holder instanceof CommentFullyCollapsedViewHolder) {
             Comment comment = getCurrentComment(position);
             if (comment != null) {
+                DisplayModel displayModel = getDisplayModel(comment);
                 String authorWithPrefix = "u/" + comment.getAuthor();
                 ((CommentFullyCollapsedViewHolder) holder).binding.userNameTextViewItemCommentFullyCollapsed.setText(authorWithPrefix);
 
@@ -612,18 +680,18 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                                 Comment currentComment = getCurrentComment(holder);
                                 if (currentComment != null && authorFullName.equals(currentComment.getAuthorFullName())) {
                                     mGlide.load(iconUrl)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                    .apply(GlideTransformations.ROUNDED_ICON))
                                             .into(((CommentFullyCollapsedViewHolder) holder).binding.authorIconImageViewItemCommentFullyCollapsed);
                                 }
                             });
                         }
                     } else {
                         mGlide.load(comment.getAuthorIconUrl())
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                        .apply(GlideTransformations.ROUNDED_ICON))
                                 .into(((CommentFullyCollapsedViewHolder) holder).binding.authorIconImageViewItemCommentFullyCollapsed);
                     }
                 }
@@ -637,11 +705,11 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                 if (mShowElapsedTime) {
                     ((CommentFullyCollapsedViewHolder) holder).binding.timeTextViewItemCommentFullyCollapsed.setText(Utils.getElapsedTime(mActivity, comment.getCommentTimeMillis()));
                 } else {
-                    ((CommentFullyCollapsedViewHolder) holder).binding.timeTextViewItemCommentFullyCollapsed.setText(Utils.getFormattedTime(mLocale, comment.getCommentTimeMillis(), mTimeFormatPattern));
+                    ((CommentFullyCollapsedViewHolder) holder).binding.timeTextViewItemCommentFullyCollapsed.setText(displayModel.getFormattedTime(mLocale, mTimeFormatPattern));
                 }
                 if (!comment.isScoreHidden() && !mHideTheNumberOfVotes) {
                     ((CommentFullyCollapsedViewHolder) holder).binding.scoreTextViewItemCommentFullyCollapsed.setText(mActivity.getString(R.string.top_score,
-                            Utils.getNVotes(mShowAbsoluteNumberOfVotes, comment.getScore() + comment.getVoteType())));
+                            displayModel.getVotesText(mShowAbsoluteNumberOfVotes, comment.getScore() + comment.getVoteType())));
                 } else if (mHideTheNumberOfVotes) {
                     ((CommentFullyCollapsedViewHolder) holder).binding.scoreTextViewItemCommentFullyCollapsed.setText(mActivity.getString(R.string.vote));
                 } else {
@@ -697,6 +765,8 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                                     public void onFetchMoreCommentSuccess(ArrayList<Comment> topLevelComments,
                                                                           ArrayList<Comment> expandedComments,
                                                                           ArrayList<String> moreChildrenIds) {
+                                        mMarkdownPreParser.preParseComments(topLevelComments);
+                                        precomputeDisplayModels(topLevelComments);
                                         if (mVisibleComments.size() > parentPosition
                                                 && parentComment.getFullName().equals(mVisibleComments.get(parentPosition).getFullName())) {
                                             if (mVisibleComments.get(parentPosition).isExpanded()) {
@@ -757,38 +827,35 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
                                                 notifyItemChanged(parentPosition);
                                             }
                                         } else {
-                                            for (int i = 0; i < mVisibleComments.size(); i++) {
-                                                if (mVisibleComments.get(i).getFullName().equals(parentComment.getFullName())) {
-                                                    if (mVisibleComments.get(i).isExpanded()) {
-                                                        int placeholderPositionHint = i + mVisibleComments.get(i).getChildren().size();
-                                                        int placeholderPosition = findLoadMoreCommentsPlaceholderPosition(parentComment.getFullName(), placeholderPositionHint);
-
-                                                        if (placeholderPosition != -1) {
-                                                            mVisibleComments.get(placeholderPosition).setLoadingMoreChildren(false);
-                                                            mVisibleComments.get(placeholderPosition).setLoadMoreChildrenFailed(false);
-                                                            ((LoadMoreChildCommentsViewHolder) holder).binding.placeholderTextViewItemLoadMoreComments.setText(R.string.comment_load_more_comments);
-
-                                                            mVisibleComments.addAll(placeholderPosition, expandedComments);
-                                                            if (mIsSingleCommentThreadMode) {
-                                                                notifyItemRangeInserted(placeholderPosition + 1, expandedComments.size());
-                                                            } else {
-                                                                notifyItemRangeInserted(placeholderPosition, expandedComments.size());
-                                                            }
-                                                        }
-                                                    }
+                                            int i = findCommentPosition(parentComment.getFullName(), -1);
+                                            if (i != -1) {
+                                                if (mVisibleComments.get(i).isExpanded()) {
+                                                    int placeholderPositionHint = i + mVisibleComments.get(i).getChildren().size();
+                                                    int placeholderPosition = findLoadMoreCommentsPlaceholderPosition(parentComment.getFullName(), placeholderPositionHint);
 
-                                                    mVisibleComments.get(i).getChildren().get(mVisibleComments.get(i).getChildren().size() - 1)
-                                                            .setLoadingMoreChildren(false);
-                                                    mVisibleComments.get(i).getChildren().get(mVisibleComments.get(i).getChildren().size() - 1)
-                                                            .setLoadMoreChildrenFailed(false);
-                                                    mVisibleComments.get(i).addChildren(topLevelComments);
-                                                    if (mIsSingleCommentThreadMode) {
-                                                        notifyItemChanged(i + 1);
-                                                    } else {
-                                                        notifyItemChanged(i);
+                                                    if (placeholderPosition != -1) {
+                                                        mVisibleComments.get(placeholderPosition).setLoadingMoreChildren(false);
+                                                        mVisibleComments.get(placeholderPosition).setLoadMoreChildrenFailed(false);
+                                                        ((LoadMoreChildCommentsViewHolder) holder).binding.placeholderTextViewItemLoadMoreComments.setText(R.string.comment_load_more_comments);
+
+                                                        mVisibleComments.addAll(placeholderPosition, expandedComments);
+                                                        if (mIsSingleCommentThreadMode) {
+                                                            notifyItemRangeInserted(placeholderPosition + 1, expandedComments.size());
+                                                        } else {
+                                                            notifyItemRangeInserted(placeholderPosition, expandedComments.size());
+                                                        }
                                                     }
+                                                }
 
-                                                    break;
+                                                mVisibleComments.get(i).getChildren().get(mVisibleComments.get(i).getChildren().size() - 1)
+                                                        .setLoadingMoreChildren(false);
+                                                mVisibleComments.get(i).getChildren().get(mVisibleComments.get(i).getChildren().size() - 1)
+                                                        .setLoadMoreChildrenFailed(false);
+                                                mVisibleComments.get(i).addChildren(topLevelComments);
+                                                if (mIsSingleCommentThreadMode) {
+                                                    notifyItemChanged(i + 1);
+                                                } else {
+                                                    notifyItemChanged(i);
                                                 }
                                             }
                                         }
@@ -875,6 +942,18 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         return -1;
     }
 
+    /**
+     * Rebinds the comments whose translation arrived, so it replaces the original text in place.
+     */
+    public void onCommentTranslationsUpdated(Set<String> commentFullNames) {
+        for (String fullName : commentFullNames) {
+            int position = findCommentPositionByIndex(fullName);
+            if (position >= 0) {
+                notifyItemChanged(mIsSingleCommentThreadMode ? position + 1 : position);
+            }
+        }
+    }
+
     private int getParentPosition(int position) {
         if (position >= 0 && position < mVisibleComments.size()) {
             int childDepth = mVisibleComments.get(position).getDepth();
@@ -903,6 +982,10 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
             return positionHint;
         }
 
+        if (placeholderType == Comment.NOT_PLACEHOLDER) {
+            return findCommentPositionByIndex(fullName);
+        }
+
         for (int i = 0; i < mVisibleComments.size(); i++) {
             Comment comment = mVisibleComments.get(i);
             if (comment.getFullName().equals(fullName) && comment.getPlaceholderType() == placeholderType) {
@@ -912,6 +995,45 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         return -1;
     }
 
+    private int findCommentPositionByIndex(String fullName) {
+        // A list that changed size without a notification yet makes the index stale too.
+        if (!mVisibleCommentPositionsValid || mVisibleCommentPositionsListSize != mVisibleComments.size()) {
+            rebuildVisibleCommentPositions();
+        }
+        Integer position = mVisibleCommentPositions.get(fullName);
+        if (position == null) {
+            // Collapsed or not loaded. The index is current, so rebuilding it would not find it either.
+            return -1;
+        }
+        if (isVisibleCommentAt(fullName, position)) {
+            return position;
+        }
+
+        // The list was rearranged without a notification.
+        rebuildVisibleCommentPositions();
+        position = mVisibleCommentPositions.get(fullName);
+        return position == null ? -1 : position;
+    }
+
+    private boolean isVisibleCommentAt(String fullName, int position) {
+        return position < mVisibleComments.size()
+                && mVisibleComments.get(position).getFullName().equals(fullName)
+                && mVisibleComments.get(position).getPlaceholderType() == Comment.NOT_PLACEHOLDER;
+    }
+
+    private void rebuildVisibleCommentPositions() {
+        mVisibleCommentPositions.clear();
+        for (int i = 0; i < mVisibleComments.size(); i++) {
+            Comment comment = mVisibleComments.get(i);
+            if (comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER
+                    && !mVisibleCommentPositions.containsKey(comment.getFullName())) {
+                mVisibleCommentPositions.put(comment.getFullName(), i);
+            }
+        }
+        mVisibleCommentPositionsListSize = mVisibleComments.size();
+        mVisibleCommentPositionsValid = true;
+    }
+
     /**
      * Find position of comment with given {@code fullName} and
      * {@link Comment#PLACEHOLDER_LOAD_MORE_COMMENTS} placeholder type
@@ -959,7 +1081,62 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         }
     }
 
+    /**
+     * Computes the time, score and flair of the comments and their loaded replies on the cpu lane, so binding
+     * them only has to set the results.
+     */
+    private void precomputeDisplayModels(List<Comment> comments) {
+        List<Comment> commentsToCompute = new ArrayList<>();
+        collectCommentsWithoutDisplayModel(comments, commentsToCompute);
+        if (commentsToCompute.isEmpty()) {
+            return;
+        }
+
+        Locale locale = mLocale;
+        String timeFormatPattern = mTimeFormatPattern;
+        boolean showAbsoluteNumberOfVotes = mShowAbsoluteNumberOfVotes;
+        mCpuExecutor.execute(() -> {
+            for (Comment comment : commentsToCompute) {
+                if (comment.getDisplayModel() == null) {
+                    comment.setDisplayModel(DisplayModel.create(comment, locale, timeFormatPattern, showAbsoluteNumberOfVotes, true));
+                }
+            }
+        });
+    }
+
+    private void collectCommentsWithoutDisplayModel(@Nullable List<Comment> comments, List<Comment> result) {
+        if (comments == null) {
+            return;
+        }
+        for (Comment comment : comments) {
+            if (comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER && comment.getDisplayModel() == null) {
+                result.add(comment);
+            }
+            collectCommentsWithoutDisplayModel(comment.getChildren(), result);
+        }
+    }
+
+    /**
+     * @return the display model computed by {@link #precomputeDisplayModels(List)}, or a new one if the
+     * comment or the settings changed since then
+     */
+    private DisplayModel getDisplayModel(Comment comment) {
+        DisplayModel displayModel = comment.getDisplayModel();
+        if (displayModel != null && displayModel.isUpToDate(mLocale, mTimeFormatPattern, mShowAbsoluteNumberOfVotes,
+                comment.getScore() + comment.getVoteType(), comment.getAuthorFlairHTML())) {
+            if (displayModel.isPrecomputed()) {
+                BindTimeStats.COMMENTS.onPrecomputedBind();
+            }
+            return displayModel;
+        }
+        displayModel = DisplayModel.create(comment, mLocale, mTimeFormatPattern, mShowAbsoluteNumberOfVotes, false);
+        comment.setDisplayModel(displayModel);
+        return displayModel;
+    }
+
     public void addComments(@NonNull ArrayList<Comment> comments, boolean hasMoreComments) {
+        mMarkdownPreParser.preParseComments(comments);
+        precomputeDisplayModels(comments);
         if (mVisibleComments.isEmpty()) {
             isInitiallyLoading = false;
             isInitiallyLoadingFailed = false;
@@ -1012,11 +1189,9 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
 
     public void addChildComment(Comment comment, String parentFullname, int parentPosition) {
         if (!parentFullname.equals(mVisibleComments.get(parentPosition).getFullName())) {
-            for (int i = 0; i < mVisibleComments.size(); i++) {
-                if (parentFullname.equals(mVisibleComments.get(i).getFullName())) {
-                    parentPosition = i;
-                    break;
-                }
+            int position = findCommentPosition(parentFullname, -1);
+            if (position != -1) {
+                parentPosition = position;
             }
         }
 
@@ -1265,6 +1440,18 @@ public class CommentsRecyclerViewAdapter extends RecyclerView.Adapter<RecyclerVi
         mSearchCommentIndex = -1;
     }
 
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        recyclerView.addOnScrollListener(mFrameTimeScrollListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        recyclerView.removeOnScrollListener(mFrameTimeScrollListener);
+    }
+
     @Override
     public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
         if (holder instanceof CommentBaseViewHolder) {
@@ -53,7 +53,6 @@ import com.bumptech.glide.RequestManager;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.request.RequestListener;
-import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.Target;
 import com.google.android.material.button.MaterialButton;
 import com.google.common.collect.ImmutableList;
@@ -70,8 +69,6 @@ import io.noties.markwon.Markwon;
 import io.noties.markwon.MarkwonConfiguration;
 import io.noties.markwon.MarkwonPlugin;
 import io.noties.markwon.core.MarkwonTheme;
-import jp.wasabeef.glide.transformations.BlurTransformation;
-import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
 import ml.docilealligator.infinityforreddit.FetchVideoLinkListener;
 import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
@@ -114,7 +111,9 @@ import ml.docilealligator.infinityforreddit.markdown.EmotePlugin;
 import ml.docilealligator.infinityforreddit.markdown.EvenBetterLinkMovementMethod;
 import ml.docilealligator.infinityforreddit.markdown.ImageAndGifEntry;
 import ml.docilealligator.infinityforreddit.markdown.ImageAndGifPlugin;
+import ml.docilealligator.infinityforreddit.markdown.MarkdownPreParser;
 import ml.docilealligator.infinityforreddit.markdown.MarkdownUtils;
+import ml.docilealligator.infinityforreddit.markdown.ParsedMarkdownCache;
 import ml.docilealligator.infinityforreddit.post.FetchStreamableVideo;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.post.PostType;
@@ -122,6 +121,7 @@ import ml.docilealligator.infinityforreddit.thing.SaveThing;
 import ml.docilealligator.infinityforreddit.thing.StreamableVideo;
 import ml.docilealligator.infinityforreddit.thing.VoteThing;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
+import ml.docilealligator.infinityforreddit.utils.GlideTransformations;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
 import ml.docilealligator.infinityforreddit.videoautoplay.CacheManager;
@@ -159,6 +159,7 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
     private final EmoteCloseBracketInlineProcessor mEmoteCloseBracketInlineProcessor;
     private final EmotePlugin mEmotePlugin;
     private final ImageAndGifPlugin mImageAndGifPlugin;
+    private final MarkdownPreParser mMarkdownPreParser;
     private final Markwon mPostDetailMarkwon;
     private final ImageAndGifEntry mImageAndGifEntry;
     private final CustomMarkwonAdapter mMarkwonAdapter;
@@ -232,7 +233,9 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
     private boolean canPlayVideo = true;
 
     public PostDetailRecyclerViewAdapter(@NonNull BaseActivity activity, ViewPostDetailFragment fragment,
-                                         Executor executor, CustomThemeWrapper customThemeWrapper,
+                                         Executor executor, Executor cpuExecutor,
+                                         ParsedMarkdownCache parsedMarkdownCache,
+                                         CustomThemeWrapper customThemeWrapper,
                                          Retrofit oauthRetrofit, Retrofit retrofit,
                                          Retrofit redgifsRetrofit, Provider<StreamableAPI> streamableApiProvider,
                                          RedditDataRoomDatabase redditDataRoomDatabase, RequestManager glide,
@@ -416,6 +419,9 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
         mPostDetailMarkwon = MarkdownUtils.createFullRedditMarkwon(mActivity,
                 miscPlugin, mEmoteCloseBracketInlineProcessor, mEmotePlugin, mImageAndGifPlugin, markdownColor,
                 postSpoilerBackgroundColor, onLinkLongClickListener);
+        mMarkdownPreParser = new MarkdownPreParser(mActivity, miscPlugin, mEmotePlugin, markdownColor,
+                postSpoilerBackgroundColor, parsedMarkdownCache, cpuExecutor);
+        mMarkdownPreParser.preParsePost(post);
         mImageAndGifEntry = new ImageAndGifEntry(activity,
                 mGlide, Integer.parseInt(postDetailsSharedPreferences.getString(SharedPreferencesUtils.EMBEDDED_MEDIA_TYPE, "15")),
                 mDataSavingMode, mDisableImagePreview,
@@ -542,13 +548,13 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                         if (mActivity != null && getItemCount() > 0) {
                             if (iconImageUrl == null || iconImageUrl.isEmpty()) {
                                 mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                        .apply(GlideTransformations.ROUNDED_ICON)
                                         .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                             } else {
                                 mGlide.load(iconImageUrl)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                        .apply(GlideTransformations.ROUNDED_ICON)
                                         .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                .apply(GlideTransformations.ROUNDED_ICON))
                                         .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                             }
 
@@ -559,13 +565,13 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                     });
                 } else if (!mPost.getAuthorIconUrl().equals("")) {
                     mGlide.load(mPost.getAuthorIconUrl())
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                    .apply(GlideTransformations.ROUNDED_ICON))
                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                 } else {
                     mGlide.load(R.drawable.subreddit_default_icon)
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                 }
             } else {
@@ -576,13 +582,13 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                             iconImageUrl -> {
                                 if (iconImageUrl == null || iconImageUrl.equals("")) {
                                     mGlide.load(R.drawable.subreddit_default_icon)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                                 } else {
                                     mGlide.load(iconImageUrl)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                    .apply(GlideTransformations.ROUNDED_ICON))
                                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                                 }
 
@@ -590,13 +596,13 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                             });
                 } else if (!mPost.getSubredditIconUrl().equals("")) {
                     mGlide.load(mPost.getSubredditIconUrl())
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                    .apply(GlideTransformations.ROUNDED_ICON))
                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                 } else {
                     mGlide.load(R.drawable.subreddit_default_icon)
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .into(((PostDetailBaseViewHolder) holder).iconGifImageView);
                 }
             }
@@ -707,7 +713,8 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                 ((PostDetailBaseViewHolder) holder).contentMarkdownView.setAdapter(mMarkwonAdapter);
                 mEmoteCloseBracketInlineProcessor.setMediaMetadataMap(mPost.getMediaMetadataMap());
                 mImageAndGifPlugin.setMediaMetadataMap(mPost.getMediaMetadataMap());
-                mMarkwonAdapter.setMarkdown(mPostDetailMarkwon, mPost.getSelfText());
+                mMarkwonAdapter.setParsedMarkdown(mPostDetailMarkwon,
+                        mMarkdownPreParser.getParsedMarkdown(mPostDetailMarkwon, MarkdownPreParser.getKey(mPost), mPost.getSelfText()));
                 // noinspection NotifyDataSetChanged
                 mMarkwonAdapter.notifyDataSetChanged();
             }
@@ -926,7 +933,7 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                     });
 
             if (blurImage) {
-                imageRequestBuilder.apply(RequestOptions.bitmapTransform(new BlurTransformation(50, 10))).into(((PostDetailImageAndGifAutoplayViewHolder) holder).binding.imageViewItemPostDetailImageAndGifAutoplay);
+                imageRequestBuilder.apply(GlideTransformations.BLUR).into(((PostDetailImageAndGifAutoplayViewHolder) holder).binding.imageViewItemPostDetailImageAndGifAutoplay);
             } else {
                 imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostDetailImageAndGifAutoplayViewHolder) holder).binding.imageViewItemPostDetailImageAndGifAutoplay);
             }
@@ -953,7 +960,7 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                     });
 
             if ((mPost.isNSFW() && mNeedBlurNsfw && !(mDoNotBlurNsfwInNsfwSubreddits && mFragment != null && mFragment.getIsNsfwSubreddit())) || (mPost.isSpoiler() && mNeedBlurSpoiler)) {
-                imageRequestBuilder.apply(RequestOptions.bitmapTransform(new BlurTransformation(50, 10)))
+                imageRequestBuilder.apply(GlideTransformations.BLUR)
                         .into(((PostDetailVideoAndGifPreviewHolder) holder).binding.imageViewItemPostDetailVideoAndGifPreview);
             } else {
                 imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostDetailVideoAndGifPreviewHolder) holder).binding.imageViewItemPostDetailVideoAndGifPreview);
@@ -981,7 +988,7 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
                     });
 
             if ((mPost.isNSFW() && mNeedBlurNsfw && !(mDoNotBlurNsfwInNsfwSubreddits && mFragment != null && mFragment.getIsNsfwSubreddit())) || (mPost.isSpoiler() && mNeedBlurSpoiler)) {
-                imageRequestBuilder.apply(RequestOptions.bitmapTransform(new BlurTransformation(50, 10)))
+                imageRequestBuilder.apply(GlideTransformations.BLUR)
                         .into(((PostDetailLinkViewHolder) holder).binding.imageViewItemPostDetailLink);
             } else {
                 imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostDetailLinkViewHolder) holder).binding.imageViewItemPostDetailLink);
@@ -991,6 +998,7 @@ public class PostDetailRecyclerViewAdapter extends RecyclerView.Adapter<Recycler
 
     public void updatePost(Post post) {
         mPost = post;
+        mMarkdownPreParser.preParsePost(post);
         notifyItemChanged(0);
     }
 
@@ -11,6 +11,9 @@ import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.text.Spanned;
+import android.util.SparseIntArray;
 import android.view.HapticFeedbackConstants;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
@@ -45,7 +48,10 @@ import androidx.media3.ui.DefaultTimeBar;
 import androidx.media3.ui.PlayerView;
 import androidx.media3.ui.TimeBar;
 import androidx.media3.ui.TrackSelectionDialogBuilder;
+import androidx.paging.ItemSnapshotList;
+import androidx.paging.PagingData;
 import androidx.paging.PagingDataAdapter;
+import androidx.paging.PagingDataTransforms;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.PagerSnapHelper;
@@ -57,7 +63,6 @@ import com.bumptech.glide.RequestManager;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.request.RequestListener;
-import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.Target;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.loadingindicator.LoadingIndicator;
@@ -67,13 +72,19 @@ import com.libRG.CustomTextView;
 import org.greenrobot.eventbus.EventBus;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Provider;
 
-import jp.wasabeef.glide.transformations.BlurTransformation;
-import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
 import ml.docilealligator.infinityforreddit.FetchVideoLinkListener;
 import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
@@ -117,19 +128,24 @@ import ml.docilealligator.infinityforreddit.databinding.ItemPostVideoTypeAutopla
 import ml.docilealligator.infinityforreddit.databinding.ItemPostWithPreviewBinding;
 import ml.docilealligator.infinityforreddit.events.PostUpdateEventToPostDetailFragment;
 import ml.docilealligator.infinityforreddit.fragments.PostFragmentBase;
+import ml.docilealligator.infinityforreddit.post.FeedImagePreloader;
 import ml.docilealligator.infinityforreddit.post.FetchStreamableVideo;
 import ml.docilealligator.infinityforreddit.post.MarkPostAsReadInterface;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.post.PostType;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostModification;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostType;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostsUtils;
+import ml.docilealligator.infinityforreddit.thing.DisplayModel;
 import ml.docilealligator.infinityforreddit.thing.SaveThing;
 import ml.docilealligator.infinityforreddit.thing.StreamableVideo;
 import ml.docilealligator.infinityforreddit.thing.VoteThing;
+import ml.docilealligator.infinityforreddit.translation.FeedTranslator;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
+import ml.docilealligator.infinityforreddit.utils.BindTimeStats;
+import ml.docilealligator.infinityforreddit.utils.GlideTransformations;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
+import ml.docilealligator.infinityforreddit.videoautoplay.AutoplayWarmUp;
 import ml.docilealligator.infinityforreddit.videoautoplay.CacheManager;
 import ml.docilealligator.infinityforreddit.videoautoplay.ExoCreator;
 import ml.docilealligator.infinityforreddit.videoautoplay.ExoPlayerViewHelper;
@@ -185,6 +201,11 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
     private SharedPreferences mPostHistorySharedPreferences;
     private RedditDataRoomDatabase mRedditDataRoomDatabase;
     private Executor mExecutor;
+    private Executor mCpuExecutor;
+    // Posts of newly loaded pages, queued on the cpu lane until the main thread handles them.
+    private final Queue<Post> mNewPosts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mNewPostsScheduled = new AtomicBoolean();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
     private Retrofit mOauthRetrofit;
     private Retrofit mRedgifsRetrofit;
     private Provider<StreamableAPI> mStreamableApiProvider;
@@ -193,6 +214,10 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
     private RequestManager mGlide;
     private int mMaxResolution;
     private SaveMemoryCenterInisdeDownsampleStrategy mSaveMemoryCenterInsideDownsampleStrategy;
+    private FeedImagePreloader mFeedImagePreloader;
+    private AutoplayWarmUp mAutoplayWarmUp;
+    // Width of the preview image view of each view type, known once a post of that type has loaded its image.
+    private final SparseIntArray mPreviewImageViewWidths = new SparseIntArray();
     private CustomThemeWrapper mCustomThemeWrapper;
     private Locale mLocale;
     private boolean canStartActivity = true;
@@ -282,7 +307,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
 
     // postHistorySharedPreferences will be null when being used in HistoryPostFragment.
     public PostRecyclerViewAdapter(BaseActivity activity, PostFragmentBase fragment, RedditDataRoomDatabase redditDataRoomDatabase,
-                                   Executor executor, Retrofit oauthRetrofit,
+                                   Executor executor, Executor cpuExecutor, Retrofit oauthRetrofit,
                                    Retrofit redgifsRetrofit, Provider<StreamableAPI> streamableApiProvider,
                                    CustomThemeWrapper customThemeWrapper, Locale locale,
                                    @Nullable String accessToken, @NonNull String accountName, @PostType int postType,
@@ -299,6 +324,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
             mCurrentAccountSharedPreferences = currentAccountSharedPreferences;
             mRedditDataRoomDatabase = redditDataRoomDatabase;
             mExecutor = executor;
+            mCpuExecutor = cpuExecutor;
             mOauthRetrofit = oauthRetrofit;
             mRedgifsRetrofit = redgifsRetrofit;
             mStreamableApiProvider = streamableApiProvider;
@@ -409,9 +435,33 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
             mGlide = Glide.with(mActivity);
             mMaxResolution = Integer.parseInt(mSharedPreferences.getString(SharedPreferencesUtils.POST_FEED_MAX_RESOLUTION, "5000000"));
             mSaveMemoryCenterInsideDownsampleStrategy = new SaveMemoryCenterInisdeDownsampleStrategy(mMaxResolution);
+            mFeedImagePreloader = new FeedImagePreloader(mGlide, new FeedImagePreloader.PreloadRequestProvider() {
+                @Override
+                public boolean isPreloadEnabled() {
+                    return !mDataSavingMode;
+                }
+
+                @Nullable
+                @Override
+                public RequestBuilder<Drawable> getPreloadRequest(int position) {
+                    return getPreviewPreloadRequest(position);
+                }
+            });
             mCustomThemeWrapper = customThemeWrapper;
             mLocale = locale;
             mExoCreator = exoCreator;
+            mAutoplayWarmUp = new AutoplayWarmUp(activity, exoCreator, executor, new AutoplayWarmUp.VideoProvider() {
+                @Override
+                public boolean isWarmUpEnabled() {
+                    return mAutoplay && !mDataSavingMode && canPlayVideo;
+                }
+
+                @Nullable
+                @Override
+                public Uri getAutoplayVideoUri(int position) {
+                    return PostRecyclerViewAdapter.this.getAutoplayVideoUri(position);
+                }
+            });
             mCallback = callback;
 
             mGalleryRecycledViewPool = new RecyclerView.RecycledViewPool();
@@ -423,6 +473,124 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         this.canStartActivity = canStartActivity;
     }
 
+    /**
+     * Hands the posts of every page to {@link #prefetchIcons(List)} and {@link #translatePosts(List)} as the
+     * page is loaded, before it is submitted. Each post passes through once, so the icons and translations
+     * of a new page are requested together, and pages that were already handled are not looked at again.
+     */
+    public PagingData<Post> handleNewPosts(PagingData<Post> posts) {
+        if (mFragment == null || mCpuExecutor == null) {
+            return posts;
+        }
+        return PagingDataTransforms.map(posts, mCpuExecutor, post -> {
+            mNewPosts.add(post);
+            if (mNewPostsScheduled.compareAndSet(false, true)) {
+                mMainHandler.post(this::handleQueuedNewPosts);
+            }
+            return post;
+        });
+    }
+
+    private void handleQueuedNewPosts() {
+        // Cleared first, so posts added while draining schedule another round.
+        mNewPostsScheduled.set(false);
+        List<Post> posts = new ArrayList<>();
+        Post post;
+        while ((post = mNewPosts.poll()) != null) {
+            posts.add(post);
+        }
+        prefetchIcons(posts);
+        translatePosts(posts);
+    }
+
+    /**
+     * Queues the icons the given posts will ask for when they are bound, following the same
+     * choice of subreddit or author icon as onBindViewHolder.
+     */
+    private void prefetchIcons(List<Post> posts) {
+        if (mFragment == null) {
+            return;
+        }
+        Set<String> subredditNames = new HashSet<>();
+        Map<String, String> authors = new HashMap<>();
+        for (Post post : posts) {
+            if (post == null) {
+                continue;
+            }
+            if (mDisplaySubredditName && !post.getAuthorNamePrefixed().equals(post.getSubredditNamePrefixed())) {
+                if (post.getSubredditIconUrl() == null) {
+                    subredditNames.add(post.getSubredditName());
+                }
+            } else if (post.getAuthorIconUrl() == null) {
+                if (!mDisplaySubredditName && post.isAuthorDeleted()) {
+                    subredditNames.add(post.getSubredditName());
+                } else if (post.getAuthorFullName() != null) {
+                    authors.put(post.getAuthor(), post.getAuthorFullName());
+                }
+            }
+        }
+        mFragment.prefetchIcons(subredditNames, authors);
+    }
+
+    /**
+     * Translates the titles and text previews of a freshly loaded page in one request when the
+     * translated feed mode is on. Translations arrive through {@link #onPostTranslationsUpdated}.
+     */
+    private void translatePosts(List<Post> posts) {
+        FeedTranslator feedTranslator = mFragment == null ? null : mFragment.getFeedTranslator();
+        if (feedTranslator != null) {
+            feedTranslator.translate(posts);
+        }
+    }
+
+    /**
+     * Computes the time, score, flair and preview of every post of a page on the cpu lane before the page
+     * is submitted, so binding them only has to set the results.
+     */
+    public PagingData<Post> precomputeDisplayModels(PagingData<Post> posts) {
+        if (mCpuExecutor == null) {
+            return posts;
+        }
+
+        Locale locale = mLocale;
+        String timeFormatPattern = mTimeFormatPattern;
+        boolean showAbsoluteNumberOfVotes = mShowAbsoluteNumberOfVotes;
+        boolean dataSavingMode = mDataSavingMode;
+        int maxResolution = mMaxResolution;
+        return PagingDataTransforms.map(posts, mCpuExecutor, post -> {
+            if (post.getDisplayModel() == null) {
+                post.setDisplayModel(DisplayModel.create(post, locale, timeFormatPattern, showAbsoluteNumberOfVotes,
+                        getVotes(post), dataSavingMode, maxResolution, true));
+            }
+            return post;
+        });
+    }
+
+    /**
+     * Rebinds the loaded posts whose title or preview translation changed.
+     */
+    public void onPostTranslationsUpdated(Set<String> postIds) {
+        ItemSnapshotList<Post> posts = snapshot();
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            if (post != null && postIds.contains(post.getId())) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    private String getDisplayedTitle(Post post) {
+        FeedTranslator feedTranslator = mFragment == null ? null : mFragment.getFeedTranslator();
+        String translatedTitle = feedTranslator == null ? null : feedTranslator.getTranslatedTitle(post);
+        return translatedTitle != null ? translatedTitle : post.getTitle();
+    }
+
+    private String getDisplayedPreview(Post post) {
+        FeedTranslator feedTranslator = mFragment == null ? null : mFragment.getFeedTranslator();
+        String translatedPreview = feedTranslator == null ? null : feedTranslator.getTranslatedPreview(post);
+        return translatedPreview != null ? translatedPreview : post.getSelfTextPlainTrimmed();
+    }
+
     @Override
     public int getItemViewType(int position) {
         if (mPostLayout == SharedPreferencesUtils.POST_LAYOUT_CARD) {
@@ -655,15 +823,22 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         }
     }
 
-    @OptIn(markerClass = UnstableApi.class)
     @Override
     public void onBindViewHolder(@NonNull final RecyclerView.ViewHolder holder, int position) {
+        long start = System.nanoTime();
+        onBindPostViewHolder(holder, position);
+        BindTimeStats.POSTS.onBind(System.nanoTime() - start);
+    }
+
+    @OptIn(markerClass = UnstableApi.class)
+    private void onBindPostViewHolder(@NonNull final RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof PostViewHolder) {
             Post post = getItem(position);
             if (post == null) {
                 return;
             }
 
+            DisplayModel displayModel = getDisplayModel(post);
             ((PostViewHolder) holder).post = post;
             ((PostViewHolder) holder).currentPosition = position;
 
@@ -675,17 +850,17 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
             if (mDisplaySubredditName) {
                 if (post.getAuthorNamePrefixed().equals(post.getSubredditNamePrefixed())) {
                     if (post.getAuthorIconUrl() == null) {
-                        mFragment.loadIcon(post.getAuthor(), false, (subredditOrUserName, iconUrl) -> {
+                        mFragment.loadIcon(post.getAuthor(), false, post.getAuthorFullName(), (subredditOrUserName, iconUrl) -> {
                             if (mActivity != null && getItemCount() > 0 && post.getAuthor().equals(subredditOrUserName)) {
                                 if (iconUrl == null || iconUrl.isEmpty()) {
                                     mGlide.load(R.drawable.subreddit_default_icon)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .into(((PostViewHolder) holder).iconGifImageView);
                                 } else {
                                     mGlide.load(iconUrl)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                    .apply(GlideTransformations.ROUNDED_ICON))
                                             .into(((PostViewHolder) holder).iconGifImageView);
                                 }
 
@@ -696,13 +871,13 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         });
                     } else if (!post.getAuthorIconUrl().isEmpty()) {
                         mGlide.load(post.getAuthorIconUrl())
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                        .apply(GlideTransformations.ROUNDED_ICON))
                                 .into(((PostViewHolder) holder).iconGifImageView);
                     } else {
                         mGlide.load(R.drawable.subreddit_default_icon)
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .into(((PostViewHolder) holder).iconGifImageView);
                     }
                 } else {
@@ -711,13 +886,13 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                             if (mActivity != null && getItemCount() > 0 && post.getSubredditName().equals(subredditOrUserName)) {
                                 if (iconUrl == null || iconUrl.isEmpty()) {
                                     mGlide.load(R.drawable.subreddit_default_icon)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .into(((PostViewHolder) holder).iconGifImageView);
                                 } else {
                                     mGlide.load(iconUrl)
-                                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                            .apply(GlideTransformations.ROUNDED_ICON)
                                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                    .apply(GlideTransformations.ROUNDED_ICON))
                                             .into(((PostViewHolder) holder).iconGifImageView);
                                 }
 
@@ -728,30 +903,30 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         });
                     } else if (!post.getSubredditIconUrl().isEmpty()) {
                         mGlide.load(post.getSubredditIconUrl())
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                        .apply(GlideTransformations.ROUNDED_ICON))
                                 .into(((PostViewHolder) holder).iconGifImageView);
                     } else {
                         mGlide.load(R.drawable.subreddit_default_icon)
-                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                .apply(GlideTransformations.ROUNDED_ICON)
                                 .into(((PostViewHolder) holder).iconGifImageView);
                     }
                 }
             } else {
                 if (post.getAuthorIconUrl() == null) {
                     String authorName = post.isAuthorDeleted() ? post.getSubredditName() : post.getAuthor();
-                    mFragment.loadIcon(authorName, post.isAuthorDeleted(), (subredditOrUserName, iconUrl) -> {
+                    mFragment.loadIcon(authorName, post.isAuthorDeleted(), post.getAuthorFullName(), (subredditOrUserName, iconUrl) -> {
                         if (mActivity != null && getItemCount() > 0) {
                             if (iconUrl == null || iconUrl.isEmpty() && authorName.equals(subredditOrUserName)) {
                                 mGlide.load(R.drawable.subreddit_default_icon)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                        .apply(GlideTransformations.ROUNDED_ICON)
                                         .into(((PostViewHolder) holder).iconGifImageView);
                             } else {
                                 mGlide.load(iconUrl)
-                                        .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                                        .apply(GlideTransformations.ROUNDED_ICON)
                                         .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                                .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                                .apply(GlideTransformations.ROUNDED_ICON))
                                         .into(((PostViewHolder) holder).iconGifImageView);
                             }
 
@@ -762,13 +937,13 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     });
                 } else if (!post.getAuthorIconUrl().isEmpty()) {
                     mGlide.load(post.getAuthorIconUrl())
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .error(mGlide.load(R.drawable.subreddit_default_icon)
-                                    .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0))))
+                                    .apply(GlideTransformations.ROUNDED_ICON))
                             .into(((PostViewHolder) holder).iconGifImageView);
                 } else {
                     mGlide.load(R.drawable.subreddit_default_icon)
-                            .apply(RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)))
+                            .apply(GlideTransformations.ROUNDED_ICON)
                             .into(((PostViewHolder) holder).iconGifImageView);
                 }
             }
@@ -777,13 +952,12 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                 ((PostViewHolder) holder).postTimeTextView.setText(
                         Utils.getElapsedTime(mActivity, post.getPostTimeMillis()));
             } else {
-                ((PostViewHolder) holder).postTimeTextView.setText(Utils.getFormattedTime(mLocale, post.getPostTimeMillis(), mTimeFormatPattern));
+                ((PostViewHolder) holder).postTimeTextView.setText(displayModel.getFormattedTime(mLocale, mTimeFormatPattern));
             }
 
-            ((PostViewHolder) holder).titleTextView.setText(post.getTitle());
+            ((PostViewHolder) holder).titleTextView.setText(getDisplayedTitle(post));
             if (!mHideTheNumberOfVotes) {
-                ((PostViewHolder) holder).scoreTextView.setText(Utils.getNVotes(mShowAbsoluteNumberOfVotes,
-                        post.getScore() + (Account.ANONYMOUS_ACCOUNT.equals(mAccountName) ? 0 : post.getVoteType())));
+                ((PostViewHolder) holder).scoreTextView.setText(displayModel.getVotesText(mShowAbsoluteNumberOfVotes, getVotes(post)));
             } else {
                 ((PostViewHolder) holder).scoreTextView.setText(mActivity.getString(R.string.vote));
             }
@@ -813,7 +987,12 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     ((PostViewHolder) holder).flairTextView.setVisibility(View.GONE);
                 } else {
                     ((PostViewHolder) holder).flairTextView.setVisibility(View.VISIBLE);
-                    Utils.setHTMLWithImageToTextView(((PostViewHolder) holder).flairTextView, post.getFlair(), false);
+                    Spanned flair = displayModel.getFlair(post.getFlair());
+                    if (flair != null) {
+                        ((PostViewHolder) holder).flairTextView.setText(flair);
+                    } else {
+                        Utils.setHTMLWithImageToTextView(((PostViewHolder) holder).flairTextView, post.getFlair(), false);
+                    }
                 }
             }
 
@@ -882,7 +1061,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
 
                 if (holder instanceof PostBaseVideoAutoplayViewHolder) {
                     ((PostBaseVideoAutoplayViewHolder) holder).toroPlayer.previewImageView.setVisibility(View.VISIBLE);
-                    Post.Preview preview = getSuitablePreview(post.getPreviews());
+                    Post.Preview preview = displayModel.getPreview();
                     if (!mFixedHeightPreviewInCard && preview != null) {
                         ((PostBaseVideoAutoplayViewHolder) holder).toroPlayer.aspectRatioFrameLayout.setAspectRatio((float) preview.getPreviewWidth() / preview.getPreviewHeight());
                         mGlide.load(preview.getPreviewUrl()).centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostBaseVideoAutoplayViewHolder) holder).toroPlayer.previewImageView);
@@ -951,7 +1130,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                             ((PostWithPreviewTypeViewHolder) holder).imageViewNoPreviewGallery.setImageResource(R.drawable.ic_image_day_night_24dp);
                             ((PostWithPreviewTypeViewHolder) holder).videoOrGifIndicator.setVisibility(View.GONE);
                         } else {
-                            Post.Preview preview = getSuitablePreview(post.getPreviews());
+                            Post.Preview preview = displayModel.getPreview();
                             ((PostWithPreviewTypeViewHolder) holder).preview = preview;
                             if (preview != null) {
                                 if (((PostWithPreviewTypeViewHolder) holder).imageWrapperFrameLayout != null) {
@@ -996,7 +1175,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     } else {
                         ((PostBaseGalleryTypeViewHolder) holder).frameLayout.setVisibility(View.VISIBLE);
                         ((PostBaseGalleryTypeViewHolder) holder).imageIndexTextView.setText(mActivity.getString(R.string.image_index_in_gallery, 1, post.getGallery().size()));
-                        Post.Preview preview = getSuitablePreview(post.getPreviews());
+                        Post.Preview preview = displayModel.getPreview();
                         if (preview != null) {
                             if (mFixedHeightPreviewInCard || (preview.getPreviewWidth() <= 0 || preview.getPreviewHeight() <= 0)) {
                                 ((PostBaseGalleryTypeViewHolder) holder).adapter.setRatio(-1);
@@ -1016,7 +1195,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         if (mHandleReadPost && post.isRead()) {
                             ((PostTextTypeViewHolder) holder).contentTextView.setTextColor(mReadPostContentColor);
                         }
-                        ((PostTextTypeViewHolder) holder).contentTextView.setText(post.getSelfTextPlainTrimmed());
+                        ((PostTextTypeViewHolder) holder).contentTextView.setText(getDisplayedPreview(post));
                     }
                 }
                 mCallback.currentlyBindItem(holder.getBindingAdapterPosition());
@@ -1159,6 +1338,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         } else if (holder instanceof PostGalleryViewHolder) {
             Post post = getItem(position);
             if (post != null) {
+                DisplayModel displayModel = getDisplayModel(post);
                 ((PostGalleryViewHolder) holder).post = post;
                 ((PostGalleryViewHolder) holder).currentPosition = position;
                 if (mHandleReadPost && post.isRead()) {
@@ -1183,7 +1363,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                 } else {
                     switch (post.getPostType()) {
                         case Post.IMAGE_TYPE: {
-                            Post.Preview preview = getSuitablePreview(post.getPreviews());
+                            Post.Preview preview = displayModel.getPreview();
                             ((PostGalleryViewHolder) holder).preview = preview;
                             if (preview != null) {
                                 ((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery.setVisibility(View.VISIBLE);
@@ -1214,7 +1394,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                                 ((PostGalleryViewHolder) holder).binding.imageViewNoPreviewItemPostGallery.setVisibility(View.VISIBLE);
                                 ((PostGalleryViewHolder) holder).binding.imageViewNoPreviewItemPostGallery.setImageResource(R.drawable.ic_image_day_night_24dp);
                             } else {
-                                Post.Preview preview = getSuitablePreview(post.getPreviews());
+                                Post.Preview preview = displayModel.getPreview();
                                 ((PostGalleryViewHolder) holder).preview = preview;
                                 if (preview != null) {
                                     ((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery.setVisibility(View.VISIBLE);
@@ -1244,7 +1424,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                             break;
                         }
                         case Post.VIDEO_TYPE: {
-                            Post.Preview preview = getSuitablePreview(post.getPreviews());
+                            Post.Preview preview = displayModel.getPreview();
                             ((PostGalleryViewHolder) holder).preview = preview;
                             if (preview != null) {
                                 ((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery.setVisibility(View.VISIBLE);
@@ -1273,7 +1453,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                             break;
                         }
                         case Post.LINK_TYPE: {
-                            Post.Preview preview = getSuitablePreview(post.getPreviews());
+                            Post.Preview preview = displayModel.getPreview();
                             ((PostGalleryViewHolder) holder).preview = preview;
                             if (preview != null) {
                                 ((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery.setVisibility(View.VISIBLE);
@@ -1308,7 +1488,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         }
                         case Post.TEXT_TYPE: {
                             ((PostGalleryViewHolder) holder).binding.titleTextViewItemPostGallery.setVisibility(View.VISIBLE);
-                            ((PostGalleryViewHolder) holder).binding.titleTextViewItemPostGallery.setText(post.getTitle());
+                            ((PostGalleryViewHolder) holder).binding.titleTextViewItemPostGallery.setText(getDisplayedTitle(post));
                             break;
                         }
                     }
@@ -1317,6 +1497,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         } else if (holder instanceof PostGalleryBaseGalleryTypeViewHolder) {
             Post post = getItem(position);
             if (post != null) {
+                DisplayModel displayModel = getDisplayModel(post);
                 ((PostGalleryBaseGalleryTypeViewHolder) holder).post = post;
                 ((PostGalleryBaseGalleryTypeViewHolder) holder).currentPosition = position;
                 if (mHandleReadPost && post.isRead()) {
@@ -1327,7 +1508,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     ((PostGalleryBaseGalleryTypeViewHolder) holder).noPreviewImageView.setVisibility(View.VISIBLE);
                     ((PostGalleryBaseGalleryTypeViewHolder) holder).noPreviewImageView.setImageResource(R.drawable.ic_gallery_day_night_24dp);
                 } else {
-                    Post.Preview preview = getSuitablePreview(post.getPreviews());
+                    Post.Preview preview = displayModel.getPreview();
                     ((PostGalleryBaseGalleryTypeViewHolder) holder).preview = preview;
 
                     ((PostGalleryBaseGalleryTypeViewHolder) holder).frameLayout.setVisibility(View.VISIBLE);
@@ -1349,33 +1530,32 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         }
     }
 
-    @Nullable
-    private Post.Preview getSuitablePreview(ArrayList<Post.Preview> previews) {
-        Post.Preview preview;
-        if (!previews.isEmpty()) {
-            int previewIndex;
-            if (mDataSavingMode && previews.size() > 2) {
-                previewIndex = previews.size() / 2;
-            } else {
-                previewIndex = 0;
-            }
-            preview = previews.get(previewIndex);
-            if (preview.getPreviewWidth() * preview.getPreviewHeight() > mMaxResolution) {
-                for (int i = previews.size() - 1; i >= 1; i--) {
-                    preview = previews.get(i);
-                    if (preview.getPreviewWidth() * preview.getPreviewHeight() <= mMaxResolution) {
-                        return preview;
-                    }
-                }
+    private int getVotes(Post post) {
+        return post.getScore() + (Account.ANONYMOUS_ACCOUNT.equals(mAccountName) ? 0 : post.getVoteType());
+    }
+
+    /**
+     * @return the display model computed by {@link #precomputeDisplayModels(PagingData)}, or a new one if the post
+     * or the settings changed since then
+     */
+    private DisplayModel getDisplayModel(Post post) {
+        DisplayModel displayModel = post.getDisplayModel();
+        if (displayModel != null && displayModel.isUpToDate(mLocale, mTimeFormatPattern, mShowAbsoluteNumberOfVotes, getVotes(post), post.getFlair())
+                && displayModel.hasPreview(post.getPreviews(), mDataSavingMode, mMaxResolution)) {
+            if (displayModel.isPrecomputed()) {
+                BindTimeStats.POSTS.onPrecomputedBind();
             }
-            return preview;
+            return displayModel;
         }
-
-        return null;
+        displayModel = DisplayModel.create(post, mLocale, mTimeFormatPattern, mShowAbsoluteNumberOfVotes, getVotes(post),
+                mDataSavingMode, mMaxResolution, false);
+        post.setDisplayModel(displayModel);
+        return displayModel;
     }
 
     private void loadImage(final RecyclerView.ViewHolder holder) {
         if (holder instanceof PostWithPreviewTypeViewHolder) {
+            mPreviewImageViewWidths.put(holder.getItemViewType(), ((PostWithPreviewTypeViewHolder) holder).imageView.getWidth());
             ((PostWithPreviewTypeViewHolder) holder).loadingIndicator.setVisibility(View.VISIBLE);
             Post post = ((PostWithPreviewTypeViewHolder) holder).post;
             Post.Preview preview = ((PostWithPreviewTypeViewHolder) holder).preview;
@@ -1389,7 +1569,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                 }
                 RequestBuilder<Drawable> imageRequestBuilder = mGlide.load(url).listener(((PostWithPreviewTypeViewHolder) holder).glideRequestListener);
                 if (blurImage) {
-                    imageRequestBuilder.apply(RequestOptions.bitmapTransform(new BlurTransformation(50, 10)))
+                    imageRequestBuilder.apply(GlideTransformations.BLUR)
                             .into(((PostWithPreviewTypeViewHolder) holder).imageView);
                 } else {
                     imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostWithPreviewTypeViewHolder) holder).imageView);
@@ -1410,12 +1590,13 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         .error(R.drawable.ic_error_outline_black_day_night_24dp).listener(((PostCompactBaseViewHolder) holder).requestListener);
                 if ((post.isNSFW() && mNeedBlurNsfw && !(mDoNotBlurNsfwInNsfwSubreddits && mFragment != null && mFragment.getIsNsfwSubreddit())) || (post.isSpoiler() && mNeedBlurSpoiler)) {
                     imageRequestBuilder
-                            .transform(new BlurTransformation(50, 2)).into(((PostCompactBaseViewHolder) holder).imageView);
+                            .transform(GlideTransformations.BLUR_THUMBNAIL).into(((PostCompactBaseViewHolder) holder).imageView);
                 } else {
                     imageRequestBuilder.into(((PostCompactBaseViewHolder) holder).imageView);
                 }
             }
         } else if (holder instanceof PostGalleryViewHolder) {
+            mPreviewImageViewWidths.put(holder.getItemViewType(), ((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery.getWidth());
             ((PostGalleryViewHolder) holder).binding.progressBarItemPostGallery.setVisibility(View.VISIBLE);
             Post post = ((PostGalleryViewHolder) holder).post;
             Post.Preview preview = ((PostGalleryViewHolder) holder).preview;
@@ -1430,7 +1611,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                 RequestBuilder<Drawable> imageRequestBuilder = mGlide.load(url).listener(((PostGalleryViewHolder) holder).requestListener);
 
                 if (blurImage) {
-                    imageRequestBuilder.apply(RequestOptions.bitmapTransform(new BlurTransformation(50, 10)))
+                    imageRequestBuilder.apply(GlideTransformations.BLUR)
                             .into(((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery);
                 } else {
                     imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy).into(((PostGalleryViewHolder) holder).binding.imageViewItemPostGallery);
@@ -1439,6 +1620,100 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
         }
     }
 
+    /**
+     * Builds the same request as {@link #loadImage(RecyclerView.ViewHolder)} for the post at the position,
+     * sized as its image view will be, so the preloaded image is found in the memory cache when it is bound.
+     */
+    @Nullable
+    private RequestBuilder<Drawable> getPreviewPreloadRequest(int position) {
+        if (position < 0 || position >= super.getItemCount()) {
+            return null;
+        }
+        int imageViewWidth = mPreviewImageViewWidths.get(getItemViewType(position));
+        Post post = peek(position);
+        if (imageViewWidth <= 0 || post == null || post.getPreviews() == null) {
+            return null;
+        }
+        DisplayModel displayModel = post.getDisplayModel();
+        Post.Preview preview = displayModel != null && displayModel.hasPreview(post.getPreviews(), mDataSavingMode, mMaxResolution)
+                ? displayModel.getPreview() : DisplayModel.getSuitablePreview(post.getPreviews(), mDataSavingMode, mMaxResolution);
+        if (preview == null) {
+            return null;
+        }
+
+        boolean blurImage = (post.isNSFW() && mNeedBlurNsfw && !(mDoNotBlurNsfwInNsfwSubreddits && mFragment != null && mFragment.getIsNsfwSubreddit()) && !(post.getPostType() == Post.GIF_TYPE && mAutoplay && mAutoplayNsfwVideos)) || (post.isSpoiler() && mNeedBlurSpoiler);
+        if (post.getPostType() == Post.GIF_TYPE && blurImage) {
+            // A placeholder is shown instead.
+            return null;
+        }
+        String url;
+        if (post.getPostType() == Post.GIF_TYPE && mAutoplay) {
+            url = post.getUrl();
+        } else {
+            url = preview.getPreviewUrl();
+        }
+
+        // The preview image views have no padding, so Glide loads them at the size of the view.
+        int imageViewHeight;
+        if (mFixedHeightPreviewInCard || (preview.getPreviewWidth() <= 0 || preview.getPreviewHeight() <= 0)) {
+            imageViewHeight = (int) (400 * mScale);
+        } else {
+            // Same as AspectRatioGifImageView.onMeasure
+            imageViewHeight = (int) ((float) imageViewWidth * ((float) preview.getPreviewHeight() / preview.getPreviewWidth()));
+        }
+
+        RequestBuilder<Drawable> imageRequestBuilder = mGlide.load(url).override(imageViewWidth, imageViewHeight);
+        if (blurImage) {
+            return imageRequestBuilder.apply(GlideTransformations.BLUR);
+        }
+        return imageRequestBuilder.centerInside().downsample(mSaveMemoryCenterInsideDownsampleStrategy);
+    }
+
+    /**
+     * @return the Uri the autoplay view holder of the post at the position will play, or null if the
+     * post is not shown with one or its Uri still has to be fetched
+     */
+    @Nullable
+    private Uri getAutoplayVideoUri(int position) {
+        if (position < 0 || position >= super.getItemCount()) {
+            return null;
+        }
+        int viewType = getItemViewType(position);
+        if (viewType != VIEW_TYPE_POST_CARD_VIDEO_AUTOPLAY_TYPE && viewType != VIEW_TYPE_POST_CARD_2_VIDEO_AUTOPLAY_TYPE
+                && viewType != VIEW_TYPE_POST_CARD_3_VIDEO_AUTOPLAY_TYPE) {
+            return null;
+        }
+        Post post = peek(position);
+        if (post == null || post.getVideoUrl() == null || (post.isStreamable() && !post.isLoadedStreamableVideoAlready())) {
+            return null;
+        }
+        return Uri.parse(post.getVideoUrl());
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (mFeedImagePreloader != null) {
+            recyclerView.addOnScrollListener(mFeedImagePreloader);
+        }
+        if (mAutoplayWarmUp != null) {
+            recyclerView.addOnScrollListener(mAutoplayWarmUp);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mFeedImagePreloader != null) {
+            recyclerView.removeOnScrollListener(mFeedImagePreloader);
+            mFeedImagePreloader.cancel();
+        }
+        if (mAutoplayWarmUp != null) {
+            recyclerView.removeOnScrollListener(mAutoplayWarmUp);
+            mAutoplayWarmUp.cancel();
+        }
+    }
+
     private void shareLink(Post post) {
         Bundle bundle = new Bundle();
         bundle.putString(ShareBottomSheetFragment.EXTRA_POST_LINK, post.getPermalink());
@@ -1506,6 +1781,9 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
 
     public void setAutoplay(boolean autoplay) {
         mAutoplay = autoplay;
+        if (!autoplay && mAutoplayWarmUp != null) {
+            mAutoplayWarmUp.cancel();
+        }
     }
 
     public boolean isAutoplay() {
@@ -1542,6 +1820,12 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
 
     public void setDataSavingMode(boolean dataSavingMode) {
         mDataSavingMode = dataSavingMode;
+        if (dataSavingMode && mFeedImagePreloader != null) {
+            mFeedImagePreloader.cancel();
+        }
+        if (dataSavingMode && mAutoplayWarmUp != null) {
+            mAutoplayWarmUp.cancel();
+        }
     }
 
     public void setDisableImagePreview(boolean disableImagePreview) {
@@ -1935,6 +2219,9 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
 
     public void setCanPlayVideo(boolean canPlayVideo) {
         this.canPlayVideo = canPlayVideo;
+        if (!canPlayVideo && mAutoplayWarmUp != null) {
+            mAutoplayWarmUp.cancel();
+        }
     }
 
     public abstract class PostViewHolder extends RecyclerView.ViewHolder {
@@ -2221,7 +2508,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     }
 
                     if (Account.ANONYMOUS_ACCOUNT.equals(mAccountName)) {
-                        ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, mActivity.accountName,
+                        mFragment.getReadPostsIndex().insertReadPost(mActivity.accountName,
                                 post.getId(), ReadPostType.ANONYMOUS_UPVOTED_POSTS,
                                 ReadPostsUtils.GetReadPostsLimit(mActivity.accountName, mPostHistorySharedPreferences));
                         EventBus.getDefault().post(new PostUpdateEventToPostDetailFragment(post));
@@ -2335,7 +2622,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                     }
 
                     if (Account.ANONYMOUS_ACCOUNT.equals(mAccountName)) {
-                        ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, mActivity.accountName,
+                        mFragment.getReadPostsIndex().insertReadPost(mActivity.accountName,
                                 post.getId(), ReadPostType.ANONYMOUS_DOWNVOTED_POSTS,
                                 ReadPostsUtils.GetReadPostsLimit(mActivity.accountName, mPostHistorySharedPreferences));
                         EventBus.getDefault().post(new PostUpdateEventToPostDetailFragment(post));
@@ -2413,7 +2700,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         if (post.isSaved()) {
                             saveButton.setIconResource(R.drawable.ic_bookmark_border_grey_24dp);
                             if (mAccountName.equals(Account.ANONYMOUS_ACCOUNT)) {
-                                ReadPostModification.deleteReadPost(mRedditDataRoomDatabase, mExecutor, mActivity.accountName,
+                                mFragment.getReadPostsIndex().deleteReadPost(mActivity.accountName,
                                         post.getId(), ReadPostType.ANONYMOUS_SAVED_POSTS);
                                 post.setSaved(!post.isSaved());
                                 Toast.makeText(mActivity, R.string.post_unsaved_success, Toast.LENGTH_SHORT).show();
@@ -2445,7 +2732,7 @@ public class PostRecyclerViewAdapter extends PagingDataAdapter<Post, RecyclerVie
                         } else {
                             saveButton.setIconResource(R.drawable.ic_bookmark_grey_24dp);
                             if (mAccountName.equals(Account.ANONYMOUS_ACCOUNT)) {
-                                ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, mActivity.accountName,
+                                mFragment.getReadPostsIndex().insertReadPost(mActivity.accountName,
                                         post.getId(), ReadPostType.ANONYMOUS_SAVED_POSTS,
                                         ReadPostsUtils.GetReadPostsLimit(mActivity.accountName, mPostHistorySharedPreferences));
                                 post.setSaved(!post.isSaved());
@@ -131,14 +131,47 @@ public class RedditGallerySubmissionRecyclerViewAdapter extends RecyclerView.Ada
         notifyItemInserted(redditGalleryImageInfoList.size() - 1);
     }
 
-    public void setImageAsUploaded(String mediaId) {
-        redditGalleryImageInfoList.get(redditGalleryImageInfoList.size() - 1).payload = new RedditGalleryPayload.Item("", "", mediaId);
-        notifyItemChanged(redditGalleryImageInfoList.size() - 1);
+    public void setImageAsUploaded(String imageUrl, String mediaId) {
+        int position = findUploadingImage(imageUrl);
+        if (position >= 0) {
+            redditGalleryImageInfoList.get(position).payload = new RedditGalleryPayload.Item("", "", mediaId);
+            notifyItemChanged(position);
+        }
+    }
+
+    public void removeFailedToUploadImage(String imageUrl) {
+        int position = findUploadingImage(imageUrl);
+        if (position >= 0) {
+            redditGalleryImageInfoList.remove(position);
+            notifyItemRemoved(position);
+        }
     }
 
-    public void removeFailedToUploadImage() {
-        redditGalleryImageInfoList.remove(redditGalleryImageInfoList.size() - 1);
-        notifyItemRemoved(redditGalleryImageInfoList.size());
+    public boolean isUploading() {
+        if (redditGalleryImageInfoList != null) {
+            for (RedditGalleryImageInfo info : redditGalleryImageInfoList) {
+                if (info.payload == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Images upload concurrently and finish in any order, so results are matched by Uri.
+     */
+    private int findUploadingImage(String imageUrl) {
+        if (redditGalleryImageInfoList == null) {
+            return -1;
+        }
+        for (int i = 0; i < redditGalleryImageInfoList.size(); i++) {
+            RedditGalleryImageInfo info = redditGalleryImageInfoList.get(i);
+            if (info.payload == null && info.imageUrlString.equals(imageUrl)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     public void setCaptionAndUrl(int position, String caption, String url) {
@@ -83,6 +83,13 @@ public interface RedditAPI {
     @GET("/api/info.json?raw_json=1")
     Call<String> getInfoOauth(@Query("id") String id, @HeaderMap Map<String, String> headers);
 
+    @GET("/api/info.json?raw_json=1")
+    Call<String> getSubredditsInfo(@Query("sr_name") String commaSeparatedSubredditNames);
+
+    @GET("/api/info.json?raw_json=1")
+    Call<String> getSubredditsInfoOauth(@Query("sr_name") String commaSeparatedSubredditNames,
+                                        @HeaderMap Map<String, String> headers);
+
     @GET("subreddits/search.json?raw_json=1")
     Call<String> searchSubreddits(@Query("q") String subredditName, @Query("after") String after,
                                   @Query("sort") SortType.Type sort, @Query("include_over_18") int nsfw,
@@ -1,9 +1,11 @@
 package ml.docilealligator.infinityforreddit.apis;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.HeaderMap;
 import retrofit2.http.POST;
+import retrofit2.http.Streaming;
 
 import java.util.Map;
 
@@ -11,4 +13,8 @@ public interface VolcanoEngineAPI {
 
     @POST("api/v3/responses")
     Call<String> translate(@HeaderMap Map<String, String> headers, @Body Map<String, Object> body);
+
+    @Streaming
+    @POST("api/v3/responses")
+    Call<ResponseBody> translateStream(@HeaderMap Map<String, String> headers, @Body Map<String, Object> body);
 }
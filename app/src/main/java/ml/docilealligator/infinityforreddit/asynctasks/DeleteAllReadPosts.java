@@ -5,14 +5,16 @@ import android.os.Handler;
 import java.util.concurrent.Executor;
 
 import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
 
 public class DeleteAllReadPosts {
 
-    public static void deleteAllReadPosts(Executor executor, Handler handler,
-                                          RedditDataRoomDatabase redditDataRoomDatabase,
+    public static void deleteAllReadPosts(Executor dbExecutor, Handler handler,
+                                          RedditDataRoomDatabase redditDataRoomDatabase, ReadPostsIndex readPostsIndex,
                                           DeleteAllReadPostsAsyncTaskListener deleteAllReadPostsAsyncTaskListener) {
-        executor.execute(() -> {
+        dbExecutor.execute(() -> {
             redditDataRoomDatabase.readPostDao().deleteAllReadPosts();
+            readPostsIndex.clear();
             handler.post(deleteAllReadPostsAsyncTaskListener::success);
         });
     }
@@ -46,6 +46,7 @@ public class AccountChooserBottomSheetFragment extends LandscapeExpandedRoundedB
     @Named("security")
     SharedPreferences sharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
     BaseActivity activity;
     AccountChooserRecyclerViewAdapter adapter;
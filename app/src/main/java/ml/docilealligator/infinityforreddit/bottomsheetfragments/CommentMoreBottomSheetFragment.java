@@ -64,6 +64,7 @@ public class CommentMoreBottomSheetFragment extends LandscapeExpandedRoundedBott
     Retrofit mVolcanoEngineRetrofit;
 
     @Inject
+    @Named("io")
     Executor mExecutor;
 
     @Inject
@@ -234,8 +235,24 @@ public class CommentMoreBottomSheetFragment extends LandscapeExpandedRoundedBott
                     model,
                     comment.getCommentRawText(),
                     new ml.docilealligator.infinityforreddit.translation.TranslateContent.TranslateListener() {
+                        private TranslatedTextBottomSheetFragment translatedTextSheet;
+
+                        @Override
+                        public void onTranslatePartial(String partialText) {
+                            if (translatedTextSheet == null) {
+                                translatedTextSheet = TranslatedTextBottomSheetFragment.show(activity.getSupportFragmentManager(),
+                                        comment.getCommentRawText(), partialText);
+                            } else {
+                                translatedTextSheet.setTranslatedText(partialText);
+                            }
+                        }
+
                         @Override
                         public void onTranslateSuccess(String translatedText) {
+                            if (translatedTextSheet != null) {
+                                translatedTextSheet.setTranslatedText(translatedText);
+                                return;
+                            }
                             TranslatedTextBottomSheetFragment.show(activity.getSupportFragmentManager(),
                                     comment.getCommentRawText(), translatedText);
                         }
@@ -45,6 +45,7 @@ public class FlairBottomSheetFragment extends LandscapeExpandedRoundedBottomShee
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mSubredditName;
     private BaseActivity mActivity;
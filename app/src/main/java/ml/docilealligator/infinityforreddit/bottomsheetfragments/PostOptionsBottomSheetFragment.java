@@ -1,7 +1,5 @@
 package ml.docilealligator.infinityforreddit.bottomsheetfragments;
 
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
@@ -30,6 +28,7 @@ import ml.docilealligator.infinityforreddit.activities.ReportActivity;
 import ml.docilealligator.infinityforreddit.activities.SubmitCrosspostActivity;
 import ml.docilealligator.infinityforreddit.customviews.LandscapeExpandedRoundedBottomSheetDialogFragment;
 import ml.docilealligator.infinityforreddit.databinding.FragmentPostOptionsBottomSheetBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.events.PostUpdateEventToPostList;
 import ml.docilealligator.infinityforreddit.post.HidePost;
 import ml.docilealligator.infinityforreddit.post.Post;
@@ -56,6 +55,8 @@ public class PostOptionsBottomSheetFragment extends LandscapeExpandedRoundedBott
     @Inject
     @Named("oauth")
     Retrofit mOauthRetrofit;
+    @Inject
+    DownloadQueue mDownloadQueue;
 
     public PostOptionsBottomSheetFragment() {
         // Required empty public constructor
@@ -132,17 +133,14 @@ public class PostOptionsBottomSheetFragment extends LandscapeExpandedRoundedBott
                             extras.putString(DownloadRedditVideoService.EXTRA_SUBREDDIT, mPost.getSubredditName());
                             extras.putInt(DownloadRedditVideoService.EXTRA_IS_NSFW, mPost.isNSFW() ? 1 : 0);
 
-                            //TODO: contentEstimatedBytes
-                            JobInfo jobInfo = DownloadRedditVideoService.constructJobInfo(mBaseActivity, 5000000, extras);
-                            ((JobScheduler) mBaseActivity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+                            mDownloadQueue.enqueue(DownloadRedditVideoService.constructDownloadTask(extras));
 
                             dismiss();
                             return;
                         }
                     }
 
-                    JobInfo jobInfo = DownloadMediaService.constructJobInfo(mBaseActivity, 5000000, mPost, getArguments().getInt(EXTRA_GALLERY_INDEX, 0));
-                    ((JobScheduler) mBaseActivity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+                    mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(mPost, getArguments().getInt(EXTRA_GALLERY_INDEX, 0)));
 
                     dismiss();
                 });
@@ -151,8 +149,7 @@ public class PostOptionsBottomSheetFragment extends LandscapeExpandedRoundedBott
             if (mPost.getPostType() == Post.GALLERY_TYPE) {
                 binding.downloadAllTextViewPostOptionsBottomSheetFragment.setVisibility(View.VISIBLE);
                 binding.downloadAllTextViewPostOptionsBottomSheetFragment.setOnClickListener(view -> {
-                    JobInfo jobInfo = DownloadMediaService.constructGalleryDownloadAllMediaJobInfo(mBaseActivity, 5000000, mPost);
-                    ((JobScheduler) mBaseActivity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+                    mDownloadQueue.enqueue(DownloadMediaService.constructGalleryDownloadAllMediaTask(mBaseActivity, mPost));
 
                     dismiss();
                 });
@@ -21,14 +21,29 @@ public class TranslatedTextBottomSheetFragment extends LandscapeExpandedRoundedB
     public static final String EXTRA_TRANSLATED_TEXT = "ETT";
 
     private BaseActivity activity;
+    private TextView translatedTextView;
 
-    public static void show(FragmentManager fragmentManager, String originalText, String translatedText) {
+    public static TranslatedTextBottomSheetFragment show(FragmentManager fragmentManager, String originalText, String translatedText) {
         TranslatedTextBottomSheetFragment fragment = new TranslatedTextBottomSheetFragment();
         Bundle bundle = new Bundle();
         bundle.putString(EXTRA_ORIGINAL_TEXT, originalText);
         bundle.putString(EXTRA_TRANSLATED_TEXT, translatedText);
         fragment.setArguments(bundle);
         fragment.show(fragmentManager, fragment.getTag());
+        return fragment;
+    }
+
+    /**
+     * Replaces the translated text, e.g. while a streamed translation is still arriving.
+     */
+    public void setTranslatedText(String translatedText) {
+        Bundle bundle = getArguments();
+        if (bundle != null) {
+            bundle.putString(EXTRA_TRANSLATED_TEXT, translatedText);
+        }
+        if (translatedTextView != null) {
+            translatedTextView.setText(translatedText);
+        }
     }
 
     @Override
@@ -36,7 +51,7 @@ public class TranslatedTextBottomSheetFragment extends LandscapeExpandedRoundedB
         View rootView = inflater.inflate(R.layout.fragment_translated_text_bottom_sheet, container, false);
 
         TextView originalTextView = rootView.findViewById(R.id.original_text_view);
-        TextView translatedTextView = rootView.findViewById(R.id.translated_text_view);
+        translatedTextView = rootView.findViewById(R.id.translated_text_view);
 
         Bundle bundle = getArguments();
         if (bundle != null) {
@@ -54,6 +69,12 @@ public class TranslatedTextBottomSheetFragment extends LandscapeExpandedRoundedB
         return rootView;
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        translatedTextView = null;
+    }
+
     @Override
     public void onAttach(@NonNull Context context) {
         super.onAttach(context);
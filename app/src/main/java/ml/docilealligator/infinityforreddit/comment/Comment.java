@@ -3,10 +3,13 @@ package ml.docilealligator.infinityforreddit.comment;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import androidx.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Map;
 
 import ml.docilealligator.infinityforreddit.BuildConfig;
+import ml.docilealligator.infinityforreddit.thing.DisplayModel;
 import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 
@@ -71,6 +74,9 @@ public class Comment implements Parcelable {
     private boolean loadMoreChildrenFailed;
     private long editedTimeMillis;
     private Map<String, MediaMetadata> mediaMetadataMap;
+    // Set on the cpu lane and read while binding, not parcelled.
+    @Nullable
+    private transient volatile DisplayModel displayModel;
 
     public Comment(String id, String fullName, String author, String authorFullName, String authorFlair,
                    String authorFlairHTML, String linkAuthor,
@@ -510,6 +516,15 @@ public class Comment implements Parcelable {
         this.mediaMetadataMap = mediaMetadataMap;
     }
 
+    @Nullable
+    public DisplayModel getDisplayModel() {
+        return displayModel;
+    }
+
+    public void setDisplayModel(@Nullable DisplayModel displayModel) {
+        this.displayModel = displayModel;
+    }
+
     @Override
     public int describeContents() {
         return 0;
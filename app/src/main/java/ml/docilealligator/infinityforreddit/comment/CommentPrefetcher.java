@@ -0,0 +1,305 @@
+package ml.docilealligator.infinityforreddit.comment;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
+import ml.docilealligator.infinityforreddit.account.Account;
+import ml.docilealligator.infinityforreddit.commentfilter.CommentFilter;
+import ml.docilealligator.infinityforreddit.commentfilter.CommentFilterUsage;
+import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.thing.SortType;
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+import ml.docilealligator.infinityforreddit.utils.Utils;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Fetches and parses the comment trees of the posts following the one being viewed in
+ * ViewPostDetailActivity, so swiping to the next post shows its comments without a spinner.
+ *
+ * All state is confined to the main thread. Network calls are enqueued on OkHttp's dispatcher,
+ * the comment filter is loaded on the io lane and parsing runs on the cpu lane, like a normal
+ * comment fetch.
+ */
+public class CommentPrefetcher {
+    private static final int PREFETCH_COUNT = 2;
+    private static final int MAX_CACHED_POSTS = 6;
+    private static final long SETTLE_DELAY_MILLIS = 800;
+
+    private final Context context;
+    private final Executor executor;
+    private final Executor cpuExecutor;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Retrofit retrofit;
+    private final Retrofit oauthRetrofit;
+    private final RedditDataRoomDatabase redditDataRoomDatabase;
+    private final SharedPreferences sharedPreferences;
+    private final SharedPreferences sortTypeSharedPreferences;
+    private final String accessToken;
+    private final String accountName;
+
+    private final LruCache<String, PrefetchedComments> cache = new LruCache<>(MAX_CACHED_POSTS);
+    private final Map<String, InFlightPrefetch> inFlight = new HashMap<>();
+    private Runnable pendingPrefetch;
+    private boolean destroyed;
+
+    public CommentPrefetcher(Context context, Executor executor, Executor cpuExecutor, Retrofit retrofit,
+                             Retrofit oauthRetrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+                             SharedPreferences sharedPreferences, SharedPreferences sortTypeSharedPreferences,
+                             @Nullable String accessToken, @NonNull String accountName) {
+        this.context = context.getApplicationContext();
+        this.executor = executor;
+        this.cpuExecutor = cpuExecutor;
+        this.retrofit = retrofit;
+        this.oauthRetrofit = oauthRetrofit;
+        this.redditDataRoomDatabase = redditDataRoomDatabase;
+        this.sharedPreferences = sharedPreferences;
+        this.sortTypeSharedPreferences = sortTypeSharedPreferences;
+        this.accessToken = accessToken;
+        this.accountName = accountName;
+    }
+
+    /**
+     * Called when the pager settles on {@code position}. Prefetching starts after a short delay so
+     * fast swipes through several posts do not start requests for every post passed by.
+     */
+    @MainThread
+    public void onPostSelected(@Nullable List<Post> posts, int position) {
+        if (pendingPrefetch != null) {
+            handler.removeCallbacks(pendingPrefetch);
+            pendingPrefetch = null;
+        }
+        if (destroyed || posts == null) {
+            return;
+        }
+
+        Set<String> wanted = new HashSet<>();
+        List<Post> toPrefetch = new ArrayList<>();
+        for (int i = position + 1; i <= position + PREFETCH_COUNT && i < posts.size(); i++) {
+            Post post = posts.get(i);
+            wanted.add(post.getId());
+            toPrefetch.add(post);
+        }
+        if (position >= 0 && position < posts.size()) {
+            // The current post may be consuming a prefetch right now.
+            wanted.add(posts.get(position).getId());
+        }
+        cancelAllExcept(wanted);
+
+        if (toPrefetch.isEmpty() || isDataSavingMode()) {
+            return;
+        }
+        pendingPrefetch = () -> {
+            pendingPrefetch = null;
+            for (Post post : toPrefetch) {
+                prefetch(post);
+            }
+        };
+        handler.postDelayed(pendingPrefetch, SETTLE_DELAY_MILLIS);
+    }
+
+    /**
+     * Delivers prefetched comments of a post to {@code listener}, either right away or when the
+     * running prefetch finishes. The cached entry is handed over, so it is delivered only once.
+     *
+     * @return false if nothing was prefetched for this post and sort type, in which case the
+     * caller has to fetch the comments itself
+     */
+    @MainThread
+    public boolean consume(@NonNull String postId, @NonNull SortType.Type sortType,
+                           @NonNull FetchComment.FetchCommentListener listener) {
+        String key = getKey(postId, sortType);
+        PrefetchedComments prefetchedComments = cache.remove(key);
+        if (prefetchedComments != null) {
+            listener.onFetchCommentSuccess(prefetchedComments.expandedComments, prefetchedComments.parentId,
+                    prefetchedComments.moreChildrenIds);
+            return true;
+        }
+        InFlightPrefetch prefetch = inFlight.get(key);
+        if (prefetch != null) {
+            prefetch.waitingListener = listener;
+            return true;
+        }
+        return false;
+    }
+
+    @MainThread
+    public void destroy() {
+        destroyed = true;
+        if (pendingPrefetch != null) {
+            handler.removeCallbacks(pendingPrefetch);
+            pendingPrefetch = null;
+        }
+        cancelAllExcept(new HashSet<>());
+        cache.evictAll();
+    }
+
+    private void prefetch(Post post) {
+        SortType.Type sortType = getSortType(post);
+        String key = getKey(post.getId(), sortType);
+        if (destroyed || cache.get(key) != null || inFlight.containsKey(key)) {
+            return;
+        }
+
+        boolean expandChildren = !sharedPreferences.getBoolean(SharedPreferencesUtils.SHOW_TOP_LEVEL_COMMENTS_FIRST, false);
+        Retrofit api = accountName.equals(Account.ANONYMOUS_ACCOUNT) ? retrofit : oauthRetrofit;
+        Call<String> call = FetchComment.getPostAndCommentsCall(api, accessToken, accountName, post.getId(),
+                null, sortType, null);
+        InFlightPrefetch prefetch = new InFlightPrefetch(post.getId(), call);
+        inFlight.put(key, prefetch);
+
+        call.enqueue(new Callback<>() {
+            @Override
+            public void onResponse(@NonNull Call<String> call, @NonNull Response<String> response) {
+                if (prefetch.cancelled) {
+                    return;
+                }
+                if (!response.isSuccessful()) {
+                    onPrefetchFailed(key, prefetch);
+                    return;
+                }
+                String body = response.body();
+                executor.execute(() -> {
+                    // Same filter the post detail screen loads for this subreddit.
+                    CommentFilter commentFilter = CommentFilter.mergeCommentFilter(redditDataRoomDatabase.commentFilterDao()
+                            .getValidCommentFilters(CommentFilterUsage.SUBREDDIT_TYPE, post.getSubredditName()));
+                    ParseComment.parseComment(cpuExecutor, handler, body, expandChildren, commentFilter,
+                            new ParseComment.ParseCommentListener() {
+                                @Override
+                                public void onParseCommentSuccess(ArrayList<Comment> topLevelComments,
+                                                                  ArrayList<Comment> expandedComments,
+                                                                  String parentId, ArrayList<String> moreChildrenIds) {
+                                    if (prefetch.cancelled) {
+                                        return;
+                                    }
+                                    inFlight.remove(key);
+                                    if (prefetch.waitingListener != null) {
+                                        prefetch.waitingListener.onFetchCommentSuccess(expandedComments, parentId, moreChildrenIds);
+                                    } else {
+                                        cache.put(key, new PrefetchedComments(expandedComments, parentId, moreChildrenIds));
+                                    }
+                                }
+
+                                @Override
+                                public void onParseCommentFailed() {
+                                    onPrefetchFailed(key, prefetch);
+                                }
+                            });
+                });
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<String> call, @NonNull Throwable t) {
+                if (!prefetch.cancelled) {
+                    onPrefetchFailed(key, prefetch);
+                }
+            }
+        });
+    }
+
+    private void onPrefetchFailed(String key, InFlightPrefetch prefetch) {
+        if (prefetch.cancelled) {
+            return;
+        }
+        inFlight.remove(key);
+        if (prefetch.waitingListener != null) {
+            prefetch.waitingListener.onFetchCommentFailed();
+        }
+    }
+
+    private void cancelAllExcept(Set<String> postIdsToKeep) {
+        Iterator<Map.Entry<String, InFlightPrefetch>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            InFlightPrefetch prefetch = iterator.next().getValue();
+            // Never drop a prefetch the visible post is already waiting for.
+            if (!postIdsToKeep.contains(prefetch.postId) && prefetch.waitingListener == null) {
+                prefetch.cancelled = true;
+                prefetch.call.cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Mirrors the sort type ViewPostDetailFragment picks for a post. When the subreddit's
+     * recommended sort has to be fetched first, the prefetch may use a different sort and simply
+     * goes unused.
+     */
+    private SortType.Type getSortType(Post post) {
+        if (sharedPreferences.getBoolean(SharedPreferencesUtils.RESPECT_SUBREDDIT_RECOMMENDED_COMMENT_SORT_TYPE, false)) {
+            String suggestedSort = post.getSuggestedSort();
+            if (suggestedSort != null && !suggestedSort.equals("null") && !suggestedSort.isEmpty()) {
+                try {
+                    return SortType.Type.valueOf(suggestedSort.toUpperCase(Locale.US));
+                } catch (IllegalArgumentException ignore) {}
+            }
+        }
+        String sortTypeName = sortTypeSharedPreferences.getString(SharedPreferencesUtils.SORT_TYPE_POST_COMMENT, SortType.Type.CONFIDENCE.name());
+        if (SortType.Type.BEST.name().equals(sortTypeName)) {
+            return SortType.Type.CONFIDENCE;
+        }
+        try {
+            return SortType.Type.valueOf(sortTypeName);
+        } catch (IllegalArgumentException e) {
+            return SortType.Type.CONFIDENCE;
+        }
+    }
+
+    private boolean isDataSavingMode() {
+        String dataSavingMode = sharedPreferences.getString(SharedPreferencesUtils.DATA_SAVING_MODE, SharedPreferencesUtils.DATA_SAVING_MODE_OFF);
+        if (dataSavingMode.equals(SharedPreferencesUtils.DATA_SAVING_MODE_ALWAYS)) {
+            return true;
+        }
+        return dataSavingMode.equals(SharedPreferencesUtils.DATA_SAVING_MODE_ONLY_ON_CELLULAR_DATA)
+                && Utils.getConnectedNetwork(context) == Utils.NETWORK_TYPE_CELLULAR;
+    }
+
+    private static String getKey(String postId, SortType.Type sortType) {
+        return postId + "|" + sortType.name();
+    }
+
+    private static class InFlightPrefetch {
+        final String postId;
+        final Call<String> call;
+        boolean cancelled;
+        @Nullable
+        FetchComment.FetchCommentListener waitingListener;
+
+        InFlightPrefetch(String postId, Call<String> call) {
+            this.postId = postId;
+            this.call = call;
+        }
+    }
+
+    private static class PrefetchedComments {
+        final ArrayList<Comment> expandedComments;
+        final String parentId;
+        final ArrayList<String> moreChildrenIds;
+
+        PrefetchedComments(ArrayList<Comment> expandedComments, String parentId, ArrayList<String> moreChildrenIds) {
+            this.expandedComments = expandedComments;
+            this.parentId = parentId;
+            this.moreChildrenIds = moreChildrenIds;
+        }
+    }
+}
@@ -24,22 +24,8 @@ public class FetchComment {
                                      String commentId, SortType.Type sortType, String contextNumber,
                                      boolean expandChildren, CommentFilter commentFilter,
                                      FetchCommentListener fetchCommentListener) {
-        RedditAPI api = retrofit.create(RedditAPI.class);
-        Call<String> comments;
-        if (accountName.equals(Account.ANONYMOUS_ACCOUNT)) {
-            if (commentId == null) {
-                comments = api.getPostAndCommentsById(article, sortType);
-            } else {
-                comments = api.getPostAndCommentsSingleThreadById(article, commentId, sortType, contextNumber);
-            }
-        } else {
-            if (commentId == null) {
-                comments = api.getPostAndCommentsByIdOauth(article, sortType, APIUtils.getOAuthHeader(accessToken));
-            } else {
-                comments = api.getPostAndCommentsSingleThreadByIdOauth(article, commentId, sortType, contextNumber,
-                        APIUtils.getOAuthHeader(accessToken));
-            }
-        }
+        Call<String> comments = getPostAndCommentsCall(retrofit, accessToken, accountName, article,
+                commentId, sortType, contextNumber);
 
         comments.enqueue(new Callback<>() {
             @Override
@@ -73,6 +59,27 @@ public class FetchComment {
         });
     }
 
+    static Call<String> getPostAndCommentsCall(Retrofit retrofit, @Nullable String accessToken,
+                                               @NonNull String accountName, String article,
+                                               @Nullable String commentId, SortType.Type sortType,
+                                               String contextNumber) {
+        RedditAPI api = retrofit.create(RedditAPI.class);
+        if (accountName.equals(Account.ANONYMOUS_ACCOUNT)) {
+            if (commentId == null) {
+                return api.getPostAndCommentsById(article, sortType);
+            } else {
+                return api.getPostAndCommentsSingleThreadById(article, commentId, sortType, contextNumber);
+            }
+        } else {
+            if (commentId == null) {
+                return api.getPostAndCommentsByIdOauth(article, sortType, APIUtils.getOAuthHeader(accessToken));
+            } else {
+                return api.getPostAndCommentsSingleThreadByIdOauth(article, commentId, sortType, contextNumber,
+                        APIUtils.getOAuthHeader(accessToken));
+            }
+        }
+    }
+
     public static void fetchMoreComment(Executor executor, Handler handler, Retrofit retrofit,
                                         @Nullable String accessToken, @NonNull String accountName,
                                         ArrayList<String> allChildren,
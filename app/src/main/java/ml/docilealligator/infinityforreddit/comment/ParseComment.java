@@ -9,12 +9,14 @@ import android.text.Html;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -67,6 +69,9 @@ public class ParseComment {
                 ArrayList<Comment> newComments = new ArrayList<>();
                 ArrayList<Comment> expandedNewComments = new ArrayList<>();
                 ArrayList<String> moreChildrenIds = new ArrayList<>();
+                // Parents always come before their children in the response, so every parent is
+                // already indexed when one of its children is read.
+                Map<String, Comment> commentsByFullName = new HashMap<>();
 
                 // api response is a flat list of comments tree
                 // process it in order and rebuild the tree
@@ -83,7 +88,7 @@ public class ParseComment {
                                 localMoreChildrenIds.add(childrenIds.getString(j));
                             }
 
-                            Comment parentComment = findCommentByFullName(newComments, parentFullName);
+                            Comment parentComment = commentsByFullName.get(parentFullName);
                             if (parentComment != null) {
                                 parentComment.setHasReply(true);
                                 parentComment.setMoreChildrenIds(localMoreChildrenIds);
@@ -99,7 +104,7 @@ public class ParseComment {
                                     Comment.PLACEHOLDER_CONTINUE_THREAD
                             );
 
-                            Comment parentComment = findCommentByFullName(newComments, parentFullName);
+                            Comment parentComment = commentsByFullName.get(parentFullName);
                             if (parentComment != null) {
                                 parentComment.setHasReply(true);
                                 parentComment.addChild(continueThreadPlaceholder, parentComment.getChildCount());
@@ -111,18 +116,7 @@ public class ParseComment {
                         }
                     } else {
                         try {
-                            Comment comment = parseSingleComment(childData, 0);
-                            String parentFullName = comment.getParentId();
-
-                            Comment parentComment = findCommentByFullName(newComments, parentFullName);
-                            if (parentComment != null) {
-                                parentComment.setHasReply(true);
-                                parentComment.addChild(comment, parentComment.getChildCount());
-                                parentComment.setChildCount(parentComment.getChildCount() + 1);
-                            } else {
-                                // assume that it is parent of this call
-                                newComments.add(comment);
-                            }
+                            addMoreComment(parseSingleComment(childData, 0), commentsByFullName, newComments);
                         } catch (JSONException e) {
                             // Well we need to catch and ignore the exception to not show "error loading comments" to users
                             e.printStackTrace();
@@ -148,6 +142,28 @@ public class ParseComment {
         });
     }
 
+    /**
+     * Adds a comment of a morechildren response to the tree rebuilt from it, under its parent if the
+     * parent was read before, or as a top level comment of the batch otherwise.
+     */
+    @VisibleForTesting
+    static void addMoreComment(Comment comment, Map<String, Comment> commentsByFullName,
+                               List<Comment> newComments) {
+        if (!commentsByFullName.containsKey(comment.getFullName())) {
+            commentsByFullName.put(comment.getFullName(), comment);
+        }
+
+        Comment parentComment = commentsByFullName.get(comment.getParentId());
+        if (parentComment != null) {
+            parentComment.setHasReply(true);
+            parentComment.addChild(comment, parentComment.getChildCount());
+            parentComment.setChildCount(parentComment.getChildCount() + 1);
+        } else {
+            // assume that it is parent of this call
+            newComments.add(comment);
+        }
+    }
+
     static void parseSentComment(Executor executor, Handler handler, String response, int depth,
                                  ParseSentCommentListener parseSentCommentListener) {
         executor.execute(() -> {
@@ -214,7 +230,7 @@ public class ParseComment {
                         commentFilter);
                 singleComment.addChildren(children);
                 singleComment.setMoreChildrenIds(nextMoreChildrenIds);
-                singleComment.setChildCount(getChildCount(singleComment));
+                singleComment.setChildCount(getChildCount(children));
             }
 
             singleComment.setIsFilteredOut(isFilteredOut);
@@ -222,15 +238,19 @@ public class ParseComment {
         }
     }
 
-    private static int getChildCount(Comment comment) {
-        if (comment.getChildren() == null) {
+    /**
+     * Counts all descendants of a comment from its direct children. The children's own counts
+     * must already be up to date, so the tree is counted bottom-up in a single pass.
+     */
+    private static int getChildCount(@Nullable List<Comment> children) {
+        if (children == null) {
             return 0;
         }
-        int count = 0;
-        for (Comment c : comment.getChildren()) {
-            count += getChildCount(c);
+        int count = children.size();
+        for (Comment c : children) {
+            count += c.getChildCount();
         }
-        return comment.getChildren().size() + count;
+        return count;
     }
 
     private static void expandChildren(ArrayList<Comment> comments, ArrayList<Comment> visibleComments,
@@ -365,29 +385,13 @@ public class ParseComment {
         return null;
     }
 
-    @Nullable
-    private static Comment findCommentByFullName(@NonNull List<Comment> comments, @NonNull String fullName) {
-        for (Comment comment: comments) {
-            if (comment.getFullName().equals(fullName) &&
-                    comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER) {
-                return comment;
-            }
-            if (comment.getChildren() != null) {
-                Comment result = findCommentByFullName(comment.getChildren(), fullName);
-                if (result != null) {
-                    return result;
-                }
-            }
-        }
-        return null;
-    }
-
-    private static void updateChildrenCount(@NonNull List<Comment> comments) {
+    @VisibleForTesting
+    static void updateChildrenCount(@NonNull List<Comment> comments) {
         for (Comment comment: comments) {
-            comment.setChildCount(getChildCount(comment));
             if (comment.getChildren() != null) {
                 updateChildrenCount(comment.getChildren());
             }
+            comment.setChildCount(getChildCount(comment.getChildren()));
         }
     }
 
@@ -0,0 +1,96 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.os.SystemClock;
+
+import androidx.annotation.WorkerThread;
+import androidx.core.net.ConnectivityManagerCompat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+
+/**
+ * Token bucket shared by all downloads that caps their combined speed on metered networks.
+ *
+ * The limit is read from {@link SharedPreferencesUtils#DOWNLOAD_BANDWIDTH_LIMIT_ON_METERED} in
+ * KB/s, 0 meaning no limit. Unmetered networks are never limited.
+ */
+public class BandwidthLimiter {
+    // How often the network and the setting are checked again.
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+    // Longest single sleep, so cancelled downloads stop quickly.
+    private static final long MAX_SLEEP_MILLIS = 200;
+
+    private final ConnectivityManager connectivityManager;
+    private final SharedPreferences sharedPreferences;
+    private long lastCheckTime = -CHECK_INTERVAL_MILLIS;
+    // Bytes per second, 0 if downloads are not limited right now.
+    private long bytesPerSecond;
+    // Can be negative, it is the time downloads have to wait for then.
+    private long availableBytes;
+    private long lastRefillTime;
+
+    public BandwidthLimiter(Context context, SharedPreferences sharedPreferences) {
+        this.connectivityManager = (ConnectivityManager) context.getApplicationContext()
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.sharedPreferences = sharedPreferences;
+    }
+
+    /**
+     * Call after reading bytes. Blocks until the limit allows them.
+     *
+     * @throws SegmentedDownloader.CancelledException if cancelled is set while waiting
+     */
+    @WorkerThread
+    public void acquire(int bytes, AtomicBoolean cancelled) throws SegmentedDownloader.CancelledException {
+        long waitMillis;
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            if (now - lastCheckTime >= CHECK_INTERVAL_MILLIS) {
+                lastCheckTime = now;
+                updateLimit();
+            }
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            // Allow bursts of at most one second.
+            availableBytes = Math.min(bytesPerSecond, availableBytes + (now - lastRefillTime) * bytesPerSecond / 1000);
+            lastRefillTime = now;
+            availableBytes -= bytes;
+            waitMillis = availableBytes >= 0 ? 0 : -availableBytes * 1000 / bytesPerSecond;
+        }
+
+        long wakeUpTime = SystemClock.elapsedRealtime() + waitMillis;
+        long remainingMillis = waitMillis;
+        while (remainingMillis > 0) {
+            if (cancelled.get()) {
+                throw new SegmentedDownloader.CancelledException();
+            }
+            try {
+                Thread.sleep(Math.min(remainingMillis, MAX_SLEEP_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SegmentedDownloader.CancelledException();
+            }
+            remainingMillis = wakeUpTime - SystemClock.elapsedRealtime();
+        }
+    }
+
+    private void updateLimit() {
+        long limit = 0;
+        if (connectivityManager != null && ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager)) {
+            try {
+                limit = Long.parseLong(sharedPreferences.getString(SharedPreferencesUtils.DOWNLOAD_BANDWIDTH_LIMIT_ON_METERED, "0")) * 1024;
+            } catch (NumberFormatException e) {
+                limit = 0;
+            }
+        }
+        if (limit != bytesPerSecond) {
+            bytesPerSecond = limit;
+            availableBytes = limit;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.net.NetworkRequest;
+import android.os.Build;
+import android.os.PersistableBundle;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
+import ml.docilealligator.infinityforreddit.services.DownloadMediaService;
+import ml.docilealligator.infinityforreddit.services.DownloadRedditVideoService;
+
+/**
+ * Persistent queue of media downloads, stored in the download_tasks table.
+ *
+ * Screens add tasks here instead of scheduling a job per file. At most
+ * {@link #MAX_CONCURRENT_DOWNLOADS} worker jobs run at once, across both download services, and
+ * each worker keeps taking the queued task with the highest priority until none of its kind is left.
+ * Tasks survive process death: a task that was running when the process died is queued again the
+ * next time workers are scheduled.
+ */
+public class DownloadQueue {
+    public static final int MAX_CONCURRENT_DOWNLOADS = 3;
+    // Worker job ids are taken from WORKER_JOB_ID to WORKER_JOB_ID + 2 * MAX_CONCURRENT_DOWNLOADS - 1,
+    // so a finishing worker can hand over to a new one before its own job is gone.
+    private static final int WORKER_JOB_ID = 20000;
+    private static final int WORKER_JOB_ID_COUNT = 2 * MAX_CONCURRENT_DOWNLOADS;
+
+    private final Context context;
+    private final DownloadTaskDao downloadTaskDao;
+    private final Executor dbExecutor;
+    // Task id -> task being downloaded in this process, so cancelling it stops the download.
+    private final Map<Long, DownloadTask> runningTasks = new ConcurrentHashMap<>();
+
+    public DownloadQueue(Context context, RedditDataRoomDatabase redditDataRoomDatabase, Executor dbExecutor) {
+        this.context = context.getApplicationContext();
+        this.downloadTaskDao = redditDataRoomDatabase.downloadTaskDao();
+        this.dbExecutor = dbExecutor;
+    }
+
+    /**
+     * Adds the task and starts a worker if there is a free slot. Call it while the app is in the
+     * foreground, so the worker can run as a user-initiated job.
+     *
+     * A task with the same source and destination as one already in the queue is not added again.
+     * The existing one gets the higher of the two priorities, and is retried if it had failed.
+     */
+    public void enqueue(DownloadTask downloadTask) {
+        dbExecutor.execute(() -> {
+            if (downloadTaskDao.insert(downloadTask) == -1) {
+                DownloadTask existingTask = downloadTaskDao.getDownloadTask(downloadTask.getDedupKey());
+                if (existingTask != null && existingTask.getState() != DownloadTask.STATE_RUNNING) {
+                    downloadTaskDao.requeue(existingTask.getId(), downloadTask.getPriority());
+                }
+            }
+            schedule(true, -1);
+        });
+    }
+
+    /**
+     * Queues a failed task again with user priority.
+     */
+    public void retry(DownloadTask downloadTask) {
+        dbExecutor.execute(() -> {
+            downloadTaskDao.requeue(downloadTask.getId(), DownloadTask.PRIORITY_USER);
+            schedule(true, -1);
+        });
+    }
+
+    /**
+     * Removes the task from the queue and stops it if it is being downloaded.
+     */
+    public void cancel(DownloadTask downloadTask) {
+        dbExecutor.execute(() -> {
+            downloadTaskDao.delete(downloadTask.getId());
+            DownloadTask runningTask = runningTasks.remove(downloadTask.getId());
+            if (runningTask != null) {
+                runningTask.getCancelled().set(true);
+            }
+        });
+    }
+
+    public LiveData<List<DownloadTask>> getAllDownloadTasksLiveData() {
+        return downloadTaskDao.getAllDownloadTasksLiveData();
+    }
+
+    /**
+     * Takes the next queued task of the kind for a worker.
+     *
+     * @return null if no task of the kind is queued
+     */
+    @WorkerThread
+    @Nullable
+    public DownloadTask claimNext(int kind) {
+        DownloadTask downloadTask = downloadTaskDao.claimNext(kind);
+        if (downloadTask != null) {
+            runningTasks.put(downloadTask.getId(), downloadTask);
+        }
+        return downloadTask;
+    }
+
+    /**
+     * Removes a downloaded task from the queue.
+     */
+    @WorkerThread
+    public void complete(DownloadTask downloadTask) {
+        runningTasks.remove(downloadTask.getId());
+        downloadTaskDao.delete(downloadTask.getId());
+    }
+
+    /**
+     * Keeps a task that could not be downloaded in the queue, so it can be retried from the queue screen.
+     */
+    @WorkerThread
+    public void fail(DownloadTask downloadTask) {
+        runningTasks.remove(downloadTask.getId());
+        if (!downloadTask.getCancelled().get()) {
+            downloadTaskDao.updateState(downloadTask.getId(), DownloadTask.STATE_FAILED);
+        }
+    }
+
+    /**
+     * Saves the progress of a running task in its extras, so it is kept if the task is queued again.
+     */
+    @WorkerThread
+    public void updateExtras(DownloadTask downloadTask, PersistableBundle extras) {
+        String json = DownloadTask.toJson(extras);
+        downloadTask.setExtras(json);
+        downloadTaskDao.updateExtras(downloadTask.getId(), json);
+    }
+
+    /**
+     * Returns a task to the queue because its worker was stopped. A task cancelled from the queue
+     * screen was already deleted by {@link #cancel(DownloadTask)}, so it is not queued again.
+     */
+    @WorkerThread
+    public void requeue(DownloadTask downloadTask) {
+        if (runningTasks.remove(downloadTask.getId()) == null) {
+            // Cancelled, or already completed or failed.
+            return;
+        }
+        downloadTaskDao.requeue(downloadTask.getId(), downloadTask.getPriority());
+    }
+
+    /**
+     * Starts workers for queued tasks while fewer than {@link #MAX_CONCURRENT_DOWNLOADS} are running.
+     *
+     * @param userInitiated true if the app is in the foreground. Workers started from the background
+     *                      are regular jobs, since Android 14 only allows user-initiated jobs from
+     *                      the foreground.
+     * @param finishingJobId the job id of a worker that is about to finish, or -1
+     */
+    @WorkerThread
+    public synchronized void schedule(boolean userInitiated, int finishingJobId) {
+        JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        Set<Integer> usedJobIds = new HashSet<>();
+        int activeWorkers = 0;
+        for (JobInfo jobInfo : jobScheduler.getAllPendingJobs()) {
+            int jobId = jobInfo.getId();
+            if (jobId >= WORKER_JOB_ID && jobId < WORKER_JOB_ID + WORKER_JOB_ID_COUNT) {
+                usedJobIds.add(jobId);
+                if (jobId != finishingJobId) {
+                    activeWorkers++;
+                }
+            }
+        }
+
+        if (activeWorkers == 0 && runningTasks.isEmpty()) {
+            // Left running when the process died.
+            downloadTaskDao.requeueAllRunning();
+        }
+
+        int freeSlots = MAX_CONCURRENT_DOWNLOADS - activeWorkers;
+        if (freeSlots <= 0) {
+            return;
+        }
+        int jobId = WORKER_JOB_ID;
+        for (int kind : downloadTaskDao.getNextQueuedKinds(freeSlots)) {
+            while (usedJobIds.contains(jobId)) {
+                jobId++;
+            }
+            if (jobId >= WORKER_JOB_ID + WORKER_JOB_ID_COUNT) {
+                return;
+            }
+            jobScheduler.schedule(constructWorkerJobInfo(jobId, kind, userInitiated));
+            usedJobIds.add(jobId);
+        }
+    }
+
+    private JobInfo constructWorkerJobInfo(int jobId, int kind, boolean userInitiated) {
+        ComponentName componentName = new ComponentName(context, kind == DownloadTask.KIND_REDDIT_VIDEO ?
+                DownloadRedditVideoService.class : DownloadMediaService.class);
+        if (userInitiated && Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+            return new JobInfo.Builder(jobId, componentName)
+                    .setUserInitiated(true)
+                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
+                    .build();
+        } else {
+            return new JobInfo.Builder(jobId, componentName)
+                    .setOverrideDeadline(0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import android.os.PersistableBundle;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A download waiting in, or taken from, the {@link DownloadQueue}.
+ *
+ * The extras are the ones the download services used to receive in their JobInfo, stored as JSON.
+ */
+@Entity(tableName = "download_tasks", indices = {@Index(value = {"dedup_key"}, unique = true)})
+public class DownloadTask {
+    public static final int KIND_MEDIA = 0;
+    public static final int KIND_REDDIT_VIDEO = 1;
+
+    // Downloads of a whole gallery or album.
+    public static final int PRIORITY_BULK = 0;
+    // Downloads of one file the user tapped.
+    public static final int PRIORITY_USER = 1;
+
+    public static final int STATE_QUEUED = 0;
+    public static final int STATE_RUNNING = 1;
+    public static final int STATE_FAILED = 2;
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+    @ColumnInfo(name = "kind")
+    private int kind;
+    // Source and destination of the download, so the same file is never queued twice.
+    @NonNull
+    @ColumnInfo(name = "dedup_key")
+    private String dedupKey;
+    @ColumnInfo(name = "priority")
+    private int priority;
+    @ColumnInfo(name = "state")
+    private int state;
+    @NonNull
+    @ColumnInfo(name = "title")
+    private String title;
+    @NonNull
+    @ColumnInfo(name = "extras")
+    private String extras;
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+    // Set when the task is cancelled or its job is stopped while it is running.
+    @Ignore
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public DownloadTask(int kind, @NonNull String dedupKey, int priority, int state, @NonNull String title,
+                        @NonNull String extras, long createdAt) {
+        this.kind = kind;
+        this.dedupKey = dedupKey;
+        this.priority = priority;
+        this.state = state;
+        this.title = title;
+        this.extras = extras;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public void setKind(int kind) {
+        this.kind = kind;
+    }
+
+    @NonNull
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(@NonNull String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public void setState(int state) {
+        this.state = state;
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(@NonNull String title) {
+        this.title = title;
+    }
+
+    @NonNull
+    public String getExtras() {
+        return extras;
+    }
+
+    public void setExtras(@NonNull String extras) {
+        this.extras = extras;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public AtomicBoolean getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @param source the URL or id the file is downloaded from
+     * @param destination the name the file is saved as
+     */
+    public static DownloadTask create(int kind, String source, String destination, int priority, String title,
+                                      PersistableBundle extras) {
+        return new DownloadTask(kind, kind + ":" + source + "|" + destination, priority, STATE_QUEUED,
+                title == null ? "" : title, toJson(extras), System.currentTimeMillis());
+    }
+
+    public PersistableBundle getExtrasBundle() {
+        return fromJson(extras);
+    }
+
+    /**
+     * Only String and int values are kept, which is all the download services use.
+     */
+    static String toJson(PersistableBundle bundle) {
+        JSONObject jsonObject = new JSONObject();
+        try {
+            for (String key : bundle.keySet()) {
+                Object value = bundle.get(key);
+                if (value instanceof String || value instanceof Integer) {
+                    jsonObject.put(key, value);
+                }
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return jsonObject.toString();
+    }
+
+    static PersistableBundle fromJson(String json) {
+        PersistableBundle bundle = new PersistableBundle();
+        try {
+            JSONObject jsonObject = new JSONObject(json);
+            Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                Object value = jsonObject.get(key);
+                if (value instanceof Integer) {
+                    bundle.putInt(key, (Integer) value);
+                } else {
+                    bundle.putString(key, String.valueOf(value));
+                }
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return bundle;
+    }
+}
@@ -0,0 +1,59 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public interface DownloadTaskDao {
+    /**
+     * @return the row id, or -1 if a task with the same dedup key is already queued
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(DownloadTask downloadTask);
+
+    @Query("SELECT * FROM download_tasks WHERE dedup_key = :dedupKey")
+    DownloadTask getDownloadTask(String dedupKey);
+
+    @Query("SELECT * FROM download_tasks ORDER BY state = 1 DESC, state = 2 ASC, priority DESC, id ASC")
+    LiveData<List<DownloadTask>> getAllDownloadTasksLiveData();
+
+    @Query("SELECT * FROM download_tasks WHERE kind = :kind AND state = 0 ORDER BY priority DESC, id ASC LIMIT 1")
+    DownloadTask getNextQueuedDownloadTask(int kind);
+
+    @Query("SELECT kind FROM download_tasks WHERE state = 0 ORDER BY priority DESC, id ASC LIMIT :limit")
+    List<Integer> getNextQueuedKinds(int limit);
+
+    @Query("UPDATE download_tasks SET state = :state WHERE id = :id")
+    void updateState(long id, int state);
+
+    @Query("UPDATE download_tasks SET extras = :extras WHERE id = :id")
+    void updateExtras(long id, String extras);
+
+    @Query("UPDATE download_tasks SET state = 0, priority = MAX(priority, :priority) WHERE id = :id")
+    void requeue(long id, int priority);
+
+    @Query("UPDATE download_tasks SET state = 0 WHERE state = 1")
+    void requeueAllRunning();
+
+    @Query("DELETE FROM download_tasks WHERE id = :id")
+    void delete(long id);
+
+    /**
+     * Marks the next queued task of the kind as running, so other workers skip it.
+     */
+    @Transaction
+    default DownloadTask claimNext(int kind) {
+        DownloadTask downloadTask = getNextQueuedDownloadTask(kind);
+        if (downloadTask != null) {
+            updateState(downloadTask.getId(), DownloadTask.STATE_RUNNING);
+            downloadTask.setState(DownloadTask.STATE_RUNNING);
+        }
+        return downloadTask;
+    }
+}
@@ -0,0 +1,196 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import android.util.Xml;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Finds the audio track of a v.redd.it video.
+ *
+ * The DASH manifest next to the video lists the exact audio representations, so it is read first
+ * and the one with the highest bandwidth is used. Older videos without a manifest fall back to the
+ * known file names, checked with parallel HEAD requests instead of one GET after another.
+ */
+public class RedditVideoAudioResolver {
+    private static final String DASH_MANIFEST_NAME = "/DASHPlaylist.mpd";
+    private static final String[] POSSIBLE_AUDIO_URL_SUFFICES = new String[]{"/CMAF_AUDIO_128.mp4", "/CMAF_AUDIO_64.mp4",
+            "/DASH_AUDIO_128.mp4", "/DASH_audio.mp4", "/DASH_audio", "/audio.mp4", "/audio"};
+    private static final long PROBE_TIMEOUT_SECONDS = 30;
+
+    private final OkHttpClient okHttpClient;
+    private final Executor probeExecutor;
+
+    public RedditVideoAudioResolver(OkHttpClient okHttpClient, Executor probeExecutor) {
+        this.okHttpClient = okHttpClient;
+        this.probeExecutor = probeExecutor;
+    }
+
+    /**
+     * @param videoUrl the URL of a video track, e.g. https://v.redd.it/abc/DASH_720.mp4
+     * @return the URL of the audio track, or null if the video has none
+     */
+    @WorkerThread
+    @Nullable
+    public String resolve(@NonNull String videoUrl) throws IOException {
+        String urlPrefix = videoUrl.substring(0, videoUrl.lastIndexOf('/'));
+        String audioUrl = readDashManifest(urlPrefix + DASH_MANIFEST_NAME);
+        if (audioUrl != null) {
+            return audioUrl;
+        }
+        return probe(urlPrefix);
+    }
+
+    @Nullable
+    private String readDashManifest(String manifestUrl) {
+        Request request = new Request.Builder().url(manifestUrl).build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return null;
+            }
+            String baseUrl = parseAudioBaseUrl(body.byteStream());
+            if (baseUrl == null) {
+                return null;
+            }
+            HttpUrl resolvedUrl = response.request().url().resolve(baseUrl);
+            return resolvedUrl == null ? null : resolvedUrl.toString();
+        } catch (IOException | XmlPullParserException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the BaseURL of the audio representation with the highest bandwidth
+     */
+    @Nullable
+    private static String parseAudioBaseUrl(InputStream inputStream) throws XmlPullParserException, IOException {
+        XmlPullParser parser = Xml.newPullParser();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, false);
+        parser.setInput(inputStream, null);
+
+        String bestBaseUrl = null;
+        long bestBandwidth = -1;
+        boolean inAudioAdaptationSet = false;
+        boolean inAudioRepresentation = false;
+        long representationBandwidth = 0;
+
+        int eventType = parser.getEventType();
+        while (eventType != XmlPullParser.END_DOCUMENT) {
+            if (eventType == XmlPullParser.START_TAG) {
+                switch (parser.getName()) {
+                    case "AdaptationSet":
+                        inAudioAdaptationSet = isAudio(parser.getAttributeValue(null, "contentType"),
+                                parser.getAttributeValue(null, "mimeType"));
+                        break;
+                    case "Representation":
+                        inAudioRepresentation = inAudioAdaptationSet
+                                || isAudio(null, parser.getAttributeValue(null, "mimeType"));
+                        representationBandwidth = parseLong(parser.getAttributeValue(null, "bandwidth"));
+                        break;
+                    case "BaseURL":
+                        if (inAudioRepresentation) {
+                            String baseUrl = parser.nextText().trim();
+                            if (!baseUrl.isEmpty() && representationBandwidth > bestBandwidth) {
+                                bestBandwidth = representationBandwidth;
+                                bestBaseUrl = baseUrl;
+                            }
+                        }
+                        break;
+                }
+            } else if (eventType == XmlPullParser.END_TAG) {
+                if ("AdaptationSet".equals(parser.getName())) {
+                    inAudioAdaptationSet = false;
+                } else if ("Representation".equals(parser.getName())) {
+                    inAudioRepresentation = false;
+                }
+            }
+            eventType = parser.next();
+        }
+        return bestBaseUrl;
+    }
+
+    /**
+     * Checks all known audio file names at once.
+     *
+     * @return the first name in order of preference that exists, or null if none does
+     */
+    @Nullable
+    private String probe(String urlPrefix) throws IOException {
+        // 1 if the file exists, 0 if the server said it does not, -1 if the request failed
+        int[] results = new int[POSSIBLE_AUDIO_URL_SUFFICES.length];
+        CountDownLatch latch = new CountDownLatch(POSSIBLE_AUDIO_URL_SUFFICES.length);
+        for (int i = 0; i < POSSIBLE_AUDIO_URL_SUFFICES.length; i++) {
+            int index = i;
+            probeExecutor.execute(() -> {
+                Request request = new Request.Builder()
+                        .url(urlPrefix + POSSIBLE_AUDIO_URL_SUFFICES[index]).head().build();
+                try (Response response = okHttpClient.newCall(request).execute()) {
+                    synchronized (results) {
+                        results[index] = response.isSuccessful() ? 1 : 0;
+                    }
+                } catch (IOException e) {
+                    synchronized (results) {
+                        results[index] = -1;
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            if (!latch.await(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("Timed out looking for the audio track");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        boolean anyFailed = false;
+        synchronized (results) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == 1) {
+                    return urlPrefix + POSSIBLE_AUDIO_URL_SUFFICES[i];
+                }
+                anyFailed |= results[i] == -1;
+            }
+        }
+        if (anyFailed) {
+            // Cannot tell whether the video has no audio or the network failed.
+            throw new IOException("Cannot reach the audio track");
+        }
+        return null;
+    }
+
+    private static boolean isAudio(@Nullable String contentType, @Nullable String mimeType) {
+        return "audio".equals(contentType) || (mimeType != null && mimeType.startsWith("audio/"));
+    }
+
+    private static long parseLong(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,581 @@
+package ml.docilealligator.infinityforreddit.download;
+
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.WorkerThread;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.ContentMetadata;
+import androidx.media3.datasource.cache.SimpleCache;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ml.docilealligator.infinityforreddit.DownloadProgressResponseBody;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Downloads a file into the app's cache directory, fetching large files as several byte ranges at
+ * once.
+ *
+ * Each download gets a part file and a small JSON state file holding the bytes written per segment.
+ * Both survive process death, so a download of the same URL that was interrupted continues where
+ * it stopped instead of starting over. The part file is synced to disk before each state save, so
+ * after a power loss the state never claims bytes that were not stored. Servers without range support, or that report a different
+ * validator than the one saved, fall back to a plain single request.
+ *
+ * Segment requests run on their own executor and never wait on each other, so callers may block on
+ * {@link #download} from any background lane.
+ *
+ * Byte ranges the video player already stored in the {@link SimpleCache} are copied from there,
+ * and only the ranges it is missing are requested. A file that was played to the end is saved
+ * without contacting the server. This only helps progressive files the player streamed from the
+ * same URL, e.g. Redgifs, Streamable, Imgur and gallery videos. Reddit hosted videos are played
+ * as HLS, so the cache holds their playlist segments under other URLs. Their DASH files are
+ * fetched from the network unless the player fell back to playing that same file.
+ *
+ * Bytes read from the network go through the {@link BandwidthLimiter}, which slows all downloads
+ * down together on metered networks if the user set a limit.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class SegmentedDownloader {
+    // Files smaller than two segments are fetched with a single request.
+    private static final String TAG = "SegmentedDownloader";
+    private static final long MIN_SEGMENT_BYTES = 1024 * 1024;
+    private static final int MAX_SEGMENTS = 4;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    // How often a segment's progress is written to the state file.
+    private static final long SAVE_STATE_INTERVAL_BYTES = 512 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    private static final String STATE_SUFFIX = ".json";
+
+    private final OkHttpClient okHttpClient;
+    private final Executor segmentExecutor;
+    private final File directory;
+    private final SimpleCache simpleCache;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    public SegmentedDownloader(OkHttpClient okHttpClient, Executor segmentExecutor, File directory,
+                               SimpleCache simpleCache, BandwidthLimiter bandwidthLimiter) {
+        this.okHttpClient = okHttpClient;
+        this.segmentExecutor = segmentExecutor;
+        this.directory = directory;
+        this.simpleCache = simpleCache;
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    /**
+     * Thrown when a download stops because it was cancelled. Progress is kept for the next attempt.
+     */
+    public static class CancelledException extends IOException {
+        CancelledException() {
+            super("Download cancelled");
+        }
+    }
+
+    /**
+     * Downloads the file, resuming an earlier attempt of the same URL if one was interrupted.
+     *
+     * @param progressListener called with the bytes written across all segments, from any thread
+     * @param cancelled checked between reads; once set the download stops with
+     *                  {@link CancelledException}
+     * @return the complete file. Pass it to {@link #discard(String)} once it has been copied.
+     */
+    @WorkerThread
+    @NonNull
+    public File download(String url, @Nullable DownloadProgressResponseBody.ProgressListener progressListener,
+                         AtomicBoolean cancelled) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        String key = hash(url);
+        File partFile = new File(directory, key + PART_SUFFIX);
+        File stateFile = new File(directory, key + STATE_SUFFIX);
+
+        DownloadState state = DownloadState.read(stateFile, url);
+        if (state == null || partFile.length() != state.contentLength) {
+            state = createState(url);
+            if (state == null) {
+                stateFile.delete();
+                downloadWhole(url, partFile, progressListener, cancelled);
+                return partFile;
+            }
+            try (RandomAccessFile file = new RandomAccessFile(partFile, "rw")) {
+                file.setLength(state.contentLength);
+                planSegments(state, file, cancelled);
+            }
+            state.write(stateFile, partFile);
+        }
+
+        try {
+            downloadSegments(state, partFile, stateFile, progressListener, cancelled);
+        } catch (ValidatorChangedException e) {
+            // The file changed on the server since the saved progress, start over without ranges.
+            stateFile.delete();
+            downloadWhole(url, partFile, progressListener, cancelled);
+            return partFile;
+        }
+        stateFile.delete();
+        return partFile;
+    }
+
+    /**
+     * Deletes the downloaded file and any saved progress for the URL.
+     */
+    public void discard(String url) {
+        String key = hash(url);
+        new File(directory, key + PART_SUFFIX).delete();
+        new File(directory, key + STATE_SUFFIX).delete();
+    }
+
+    /**
+     * @return the state of a new download without segments, or null if the server does not support
+     * ranges
+     */
+    @Nullable
+    private DownloadState createState(String url) throws IOException {
+        long cachedContentLength = ContentMetadata.getContentLength(simpleCache.getContentMetadata(url));
+        if (cachedContentLength > 0 && simpleCache.isCached(url, 0, cachedContentLength)) {
+            // Played to the end, everything can be copied from the cache.
+            return new DownloadState(url, cachedContentLength, null, new ArrayList<>());
+        }
+        return probe(url);
+    }
+
+    /**
+     * Asks for the size and validators of the file.
+     *
+     * @return null if the server does not support ranges
+     */
+    @Nullable
+    private DownloadState probe(String url) throws IOException {
+        Request request = new Request.Builder().url(url).head().build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                return null;
+            }
+            long contentLength = parseLong(response.header("Content-Length"));
+            if (contentLength <= 0 || !"bytes".equalsIgnoreCase(response.header("Accept-Ranges"))) {
+                return null;
+            }
+            String validator = response.header("ETag");
+            if (validator == null || validator.startsWith("W/")) {
+                // Weak ETags are not allowed in If-Range.
+                validator = response.header("Last-Modified");
+            }
+            return new DownloadState(url, contentLength, validator, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Copies the ranges found in the player's cache into the part file and splits the rest into
+     * segments to fetch. Copied ranges are added as complete segments so progress covers them.
+     */
+    private void planSegments(DownloadState state, RandomAccessFile file, AtomicBoolean cancelled) throws IOException {
+        long cachedContentLength = ContentMetadata.getContentLength(simpleCache.getContentMetadata(state.url));
+        // The cache holds a different version of the file if the lengths disagree.
+        boolean useCache = cachedContentLength == C.LENGTH_UNSET || cachedContentLength == state.contentLength;
+
+        List<long[]> missingRanges = new ArrayList<>();
+        long missingBytes = 0;
+        long position = 0;
+        while (position < state.contentLength) {
+            long remaining = state.contentLength - position;
+            long cachedLength = useCache ? simpleCache.getCachedLength(state.url, position, remaining) : -remaining;
+            long copied = cachedLength > 0 ? copyFromCache(state.url, position, cachedLength, file, cancelled) : 0;
+            if (copied > 0) {
+                state.segments.add(new Segment(position, position + copied - 1, copied));
+                position += copied;
+            } else {
+                long missingLength = cachedLength < 0 ? -cachedLength : remaining;
+                missingRanges.add(new long[]{position, position + missingLength - 1});
+                missingBytes += missingLength;
+                position += missingLength;
+            }
+        }
+
+        long segmentSize = Math.max(MIN_SEGMENT_BYTES, missingBytes / MAX_SEGMENTS);
+        for (long[] range : missingRanges) {
+            long start = range[0];
+            // Split ranges into about segmentSize, without leaving a small tail segment.
+            while (range[1] - start + 1 >= 2 * segmentSize) {
+                state.segments.add(new Segment(start, start + segmentSize - 1, 0));
+                start += segmentSize;
+            }
+            state.segments.add(new Segment(start, range[1], 0));
+        }
+    }
+
+    /**
+     * @return the number of bytes copied, less than length if the cache evicted the data meanwhile
+     */
+    private long copyFromCache(String url, long position, long length, RandomAccessFile file,
+                               AtomicBoolean cancelled) throws IOException {
+        // No upstream, so reads fail instead of going to the network.
+        CacheDataSource dataSource = new CacheDataSource(simpleCache, null);
+        long copied = 0;
+        try {
+            dataSource.open(new DataSpec.Builder()
+                    .setUri(Uri.parse(url))
+                    .setPosition(position)
+                    .setLength(length)
+                    .build());
+            file.seek(position);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while (copied < length && (read = dataSource.read(buffer, 0,
+                    (int) Math.min(buffer.length, length - copied))) != C.RESULT_END_OF_INPUT) {
+                if (cancelled.get()) {
+                    throw new CancelledException();
+                }
+                file.write(buffer, 0, read);
+                copied += read;
+            }
+        } catch (CancelledException e) {
+            throw e;
+        } catch (IOException e) {
+            // Evicted while copying, the rest is fetched from the network.
+            Log.w(TAG, "Cannot copy " + url + " from the cache", e);
+        } finally {
+            try {
+                dataSource.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return copied;
+    }
+
+    private void downloadSegments(DownloadState state, File partFile, File stateFile,
+                                  @Nullable DownloadProgressResponseBody.ProgressListener progressListener,
+                                  AtomicBoolean cancelled) throws IOException {
+        AtomicLong totalBytes = new AtomicLong();
+        List<Segment> remainingSegments = new ArrayList<>();
+        for (Segment segment : state.segments) {
+            totalBytes.addAndGet(segment.downloaded);
+            if (!segment.isComplete()) {
+                remainingSegments.add(segment);
+            }
+        }
+
+        CountDownLatch latch = new CountDownLatch(remainingSegments.size());
+        AtomicReference<IOException> error = new AtomicReference<>();
+        // Set when a segment gives up, so the others stop early. Their progress is saved.
+        AtomicBoolean failed = new AtomicBoolean();
+        for (Segment segment : remainingSegments) {
+            segmentExecutor.execute(() -> {
+                try {
+                    downloadSegment(state, segment, partFile, stateFile, totalBytes, progressListener, cancelled, failed);
+                } catch (IOException e) {
+                    if (!(e instanceof CancelledException)) {
+                        error.compareAndSet(null, e);
+                        failed.set(true);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            failed.set(true);
+            Thread.currentThread().interrupt();
+            throw new CancelledException();
+        }
+        state.write(stateFile, partFile);
+
+        IOException e = error.get();
+        if (e != null) {
+            throw e;
+        }
+        if (!state.isComplete()) {
+            throw new CancelledException();
+        }
+    }
+
+    private void downloadSegment(DownloadState state, Segment segment, File partFile, File stateFile,
+                                 AtomicLong totalBytes,
+                                 @Nullable DownloadProgressResponseBody.ProgressListener progressListener,
+                                 AtomicBoolean cancelled, AtomicBoolean failed) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                fetchRange(state, segment, partFile, stateFile, totalBytes, progressListener, cancelled, failed);
+                return;
+            } catch (CancelledException | ValidatorChangedException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS || cancelled.get() || failed.get()) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancelledException();
+            }
+        }
+    }
+
+    private void fetchRange(DownloadState state, Segment segment, File partFile, File stateFile,
+                            AtomicLong totalBytes,
+                            @Nullable DownloadProgressResponseBody.ProgressListener progressListener,
+                            AtomicBoolean cancelled, AtomicBoolean failed) throws IOException {
+        if (segment.isComplete()) {
+            return;
+        }
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(state.url)
+                .header("Range", "bytes=" + (segment.start + segment.downloaded) + "-" + segment.end);
+        if (state.validator != null) {
+            requestBuilder.header("If-Range", state.validator);
+        }
+
+        Call call = okHttpClient.newCall(requestBuilder.build());
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (response.code() == 200) {
+                // The server ignored the range, usually because If-Range did not match.
+                throw new ValidatorChangedException();
+            }
+            if (response.code() != 206 || body == null) {
+                throw new IOException("Unexpected response " + response.code());
+            }
+
+            try (RandomAccessFile file = new RandomAccessFile(partFile, "rw");
+                 InputStream inputStream = body.byteStream()) {
+                file.seek(segment.start + segment.downloaded);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long unsavedBytes = 0;
+                int read;
+                while (!segment.isComplete() && (read = inputStream.read(buffer, 0,
+                        (int) Math.min(buffer.length, segment.getRemaining()))) != -1) {
+                    if (cancelled.get() || failed.get()) {
+                        call.cancel();
+                        throw new CancelledException();
+                    }
+                    bandwidthLimiter.acquire(read, cancelled);
+                    file.write(buffer, 0, read);
+                    segment.downloaded += read;
+                    unsavedBytes += read;
+                    long total = totalBytes.addAndGet(read);
+                    if (progressListener != null) {
+                        progressListener.update(total, state.contentLength, false);
+                    }
+                    if (unsavedBytes >= SAVE_STATE_INTERVAL_BYTES) {
+                        unsavedBytes = 0;
+                        state.write(stateFile, partFile);
+                    }
+                }
+            }
+        }
+        if (!segment.isComplete()) {
+            throw new IOException("Connection closed before the segment was complete");
+        }
+    }
+
+    /**
+     * Fetches the file in one request, for servers without range support.
+     */
+    private void downloadWhole(String url, File partFile,
+                               @Nullable DownloadProgressResponseBody.ProgressListener progressListener,
+                               AtomicBoolean cancelled) throws IOException {
+        Call call = okHttpClient.newCall(new Request.Builder().url(url).build());
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Unexpected response " + response.code());
+            }
+            long contentLength = body.contentLength();
+            try (InputStream inputStream = body.byteStream();
+                 OutputStream outputStream = new FileOutputStream(partFile)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long total = 0;
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    if (cancelled.get()) {
+                        call.cancel();
+                        throw new CancelledException();
+                    }
+                    bandwidthLimiter.acquire(read, cancelled);
+                    outputStream.write(buffer, 0, read);
+                    total += read;
+                    if (progressListener != null) {
+                        progressListener.update(total, contentLength, false);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long parseLong(@Nullable String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String hash(String url) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] digest = md.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    private static class ValidatorChangedException extends IOException {
+        ValidatorChangedException() {
+            super("The file changed on the server");
+        }
+    }
+
+    private static class Segment {
+        final long start;
+        // Inclusive.
+        final long end;
+        // Written only by the thread fetching this segment.
+        volatile long downloaded;
+
+        Segment(long start, long end, long downloaded) {
+            this.start = start;
+            this.end = end;
+            this.downloaded = downloaded;
+        }
+
+        long getRemaining() {
+            return end - start + 1 - downloaded;
+        }
+
+        boolean isComplete() {
+            return getRemaining() <= 0;
+        }
+    }
+
+    private static class DownloadState {
+        final String url;
+        final long contentLength;
+        @Nullable
+        final String validator;
+        final List<Segment> segments;
+
+        DownloadState(String url, long contentLength, @Nullable String validator, List<Segment> segments) {
+            this.url = url;
+            this.contentLength = contentLength;
+            this.validator = validator;
+            this.segments = segments;
+        }
+
+        boolean isComplete() {
+            for (Segment segment : segments) {
+                if (!segment.isComplete()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Nullable
+        static DownloadState read(File stateFile, String url) {
+            if (!stateFile.exists()) {
+                return null;
+            }
+            try (InputStream inputStream = new FileInputStream(stateFile)) {
+                byte[] bytes = new byte[(int) stateFile.length()];
+                int offset = 0;
+                int read;
+                while (offset < bytes.length && (read = inputStream.read(bytes, offset, bytes.length - offset)) != -1) {
+                    offset += read;
+                }
+                JSONObject json = new JSONObject(new String(bytes, 0, offset, StandardCharsets.UTF_8));
+                if (!url.equals(json.getString("url"))) {
+                    return null;
+                }
+                JSONArray segmentsJson = json.getJSONArray("segments");
+                List<Segment> segments = new ArrayList<>();
+                for (int i = 0; i < segmentsJson.length(); i++) {
+                    JSONArray segmentJson = segmentsJson.getJSONArray(i);
+                    segments.add(new Segment(segmentJson.getLong(0), segmentJson.getLong(1), segmentJson.getLong(2)));
+                }
+                return new DownloadState(url, json.getLong("length"),
+                        json.isNull("validator") ? null : json.getString("validator"), segments);
+            } catch (IOException | JSONException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Saves the progress, replacing the previous state file in one rename. The progress is read
+         * first and the part file synced after, so every byte it covers is on disk before it is saved.
+         */
+        synchronized void write(File stateFile, File partFile) {
+            try {
+                JSONArray segmentsJson = new JSONArray();
+                for (Segment segment : segments) {
+                    segmentsJson.put(new JSONArray().put(segment.start).put(segment.end).put(segment.downloaded));
+                }
+                JSONObject json = new JSONObject()
+                        .put("url", url)
+                        .put("length", contentLength)
+                        .put("validator", validator == null ? JSONObject.NULL : validator)
+                        .put("segments", segmentsJson);
+                // Syncing any descriptor of the file flushes what every segment wrote to it.
+                try (RandomAccessFile file = new RandomAccessFile(partFile, "rw")) {
+                    file.getFD().sync();
+                }
+                File tempFile = new File(stateFile.getPath() + ".tmp");
+                try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+                    outputStream.write(json.toString().getBytes(StandardCharsets.UTF_8));
+                    outputStream.getFD().sync();
+                }
+                if (!tempFile.renameTo(stateFile)) {
+                    throw new IOException("Cannot rename " + tempFile);
+                }
+            } catch (IOException | JSONException e) {
+                // Progress is only lost back to the previous save.
+                Log.w(TAG, "Cannot save the progress of " + url, e);
+            }
+        }
+    }
+}
@@ -93,6 +93,7 @@ public class CommentsListingFragment extends Fragment implements FragmentCommuni
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private RequestManager mGlide;
     private BaseActivity mActivity;
@@ -66,6 +66,7 @@ public class CustomThemeListingFragment extends Fragment {
     @Named("amoled_theme")
     SharedPreferences amoledThemeSharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
     public CustomThemeViewModel customThemeViewModel;
     private BaseActivity mActivity;
@@ -63,6 +63,7 @@ public class FollowedUsersListingFragment extends Fragment implements FragmentCo
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     SubscribedUserViewModel mSubscribedUserViewModel;
     private BaseActivity mActivity;
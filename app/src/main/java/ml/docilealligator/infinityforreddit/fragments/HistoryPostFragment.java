@@ -109,6 +109,7 @@ public class HistoryPostFragment extends PostFragmentBase implements FragmentCom
     @Inject
     ExoCreator mExoCreator;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private PostRecyclerViewAdapter mAdapter;
     private int maxPosition = -1;
@@ -204,7 +205,7 @@ public class HistoryPostFragment extends PostFragmentBase implements FragmentCom
 
         postLayout = mPostLayoutSharedPreferences.getInt(SharedPreferencesUtils.HISTORY_POST_LAYOUT_READ_POST, defaultPostLayout);
 
-        mAdapter = new PostRecyclerViewAdapter(mActivity, this, mRedditDataRoomDatabase, mExecutor,
+        mAdapter = new PostRecyclerViewAdapter(mActivity, this, mRedditDataRoomDatabase, mExecutor, mCpuExecutor,
                 mOauthRetrofit, mRedgifsRetrofit, mStreamableApiProvider, mCustomThemeWrapper, locale,
                 mActivity.accessToken, mActivity.accountName, PostType.READ_POSTS, postLayout, true,
                 mSharedPreferences, mCurrentAccountSharedPreferences, mNsfwAndSpoilerSharedPreferences,
@@ -336,7 +337,8 @@ public class HistoryPostFragment extends PostFragmentBase implements FragmentCom
     }
 
     private void bindPostViewModel() {
-        mHistoryPostViewModel.getPosts().observe(getViewLifecycleOwner(), posts -> mAdapter.submitData(getViewLifecycleOwner().getLifecycle(), posts));
+        mHistoryPostViewModel.getPosts().observe(getViewLifecycleOwner(), posts -> mAdapter.submitData(getViewLifecycleOwner().getLifecycle(),
+                mAdapter.handleNewPosts(mAdapter.precomputeDisplayModels(posts))));
 
         mAdapter.addLoadStateListener(combinedLoadStates -> {
             LoadState refreshLoadState = combinedLoadStates.getRefresh();
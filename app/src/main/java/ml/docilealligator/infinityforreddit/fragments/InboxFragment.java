@@ -62,6 +62,7 @@ public class InboxFragment extends Fragment implements FragmentCommunicator {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private String mWhere;
     private MessageRecyclerViewAdapter mAdapter;
@@ -60,6 +60,7 @@ public class MultiRedditListingFragment extends Fragment implements FragmentComm
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
 
     public MultiRedditViewModel mMultiRedditViewModel;
@@ -13,6 +13,7 @@ import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.os.CountDownTimer;
 import android.os.Handler;
+import android.os.Looper;
 import android.view.HapticFeedbackConstants;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
@@ -45,7 +46,7 @@ import com.bumptech.glide.RequestManager;
 import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Executor;
 
@@ -56,8 +57,6 @@ import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
 import ml.docilealligator.infinityforreddit.activities.BaseActivity;
 import ml.docilealligator.infinityforreddit.adapters.PostRecyclerViewAdapter;
-import ml.docilealligator.infinityforreddit.asynctasks.LoadSubredditIcon;
-import ml.docilealligator.infinityforreddit.asynctasks.LoadUserData;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
 import ml.docilealligator.infinityforreddit.customviews.AdjustableTouchSlopItemTouchHelper;
 import ml.docilealligator.infinityforreddit.customviews.LinearLayoutManagerBugFixed;
@@ -99,6 +98,10 @@ import ml.docilealligator.infinityforreddit.events.PostUpdateEventToPostList;
 import ml.docilealligator.infinityforreddit.events.ShowDividerInCompactLayoutPreferenceEvent;
 import ml.docilealligator.infinityforreddit.events.ShowThumbnailOnTheLeftInCompactLayoutEvent;
 import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
+import ml.docilealligator.infinityforreddit.thing.FeedIconBatchLoader;
+import ml.docilealligator.infinityforreddit.translation.FeedTranslator;
+import ml.docilealligator.infinityforreddit.translation.TranslationCache;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesLiveDataKt;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
@@ -120,7 +123,21 @@ public abstract class PostFragmentBase extends Fragment {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     protected Executor mExecutor;
+    @Inject
+    @Named("cpu")
+    protected Executor mCpuExecutor;
+    @Inject
+    @Named("long")
+    protected Executor mLongExecutor;
+    @Inject
+    @Named("volcano_engine")
+    Retrofit mVolcanoEngineRetrofit;
+    @Inject
+    TranslationCache mTranslationCache;
+    @Inject
+    protected ReadPostsIndex mReadPostsIndex;
     protected BaseActivity mActivity;
     protected RequestManager mGlide;
     protected Window window;
@@ -150,7 +167,9 @@ public abstract class PostFragmentBase extends Fragment {
     protected int swipeRightAction;
     protected AdjustableTouchSlopItemTouchHelper touchHelper;
     private boolean shouldSwipeBack;
-    protected final Map<String, String> subredditOrUserIcons = new HashMap<>();
+    private FeedIconBatchLoader feedIconBatchLoader;
+    @Nullable
+    private FeedTranslator feedTranslator;
 
     public PostFragmentBase() {
         // Required empty public constructor
@@ -357,6 +376,10 @@ public abstract class PostFragmentBase extends Fragment {
     @Override
     public void onDestroy() {
         EventBus.getDefault().unregister(this);
+        if (feedTranslator != null) {
+            feedTranslator.destroy();
+            feedTranslator = null;
+        }
         super.onDestroy();
     }
 
@@ -534,24 +557,70 @@ public abstract class PostFragmentBase extends Fragment {
     }
 
     public final void loadIcon(String subredditOrUserName, boolean isSubreddit, LoadIconListener loadIconListener) {
-        if (subredditOrUserIcons.containsKey(subredditOrUserName)) {
-            loadIconListener.loadIconSuccess(subredditOrUserName, subredditOrUserIcons.get(subredditOrUserName));
+        loadIcon(subredditOrUserName, isSubreddit, null, loadIconListener);
+    }
+
+    /**
+     * @param userFullName the user's t2_ fullname. Lets user icons be fetched together with the
+     *                     rest of the page instead of one about.json request each.
+     */
+    public final void loadIcon(String subredditOrUserName, boolean isSubreddit, @Nullable String userFullName,
+                               LoadIconListener loadIconListener) {
+        if (isSubreddit) {
+            getFeedIconBatchLoader().loadSubredditIcon(subredditOrUserName, loadIconListener::loadIconSuccess);
         } else {
-            if (isSubreddit) {
-                LoadSubredditIcon.loadSubredditIcon(mExecutor, new Handler(), mRedditDataRoomDatabase,
-                        subredditOrUserName, mActivity.accessToken, mActivity.accountName, mOauthRetrofit, mRetrofit,
-                        iconImageUrl -> {
-                            subredditOrUserIcons.put(subredditOrUserName, iconImageUrl);
-                            loadIconListener.loadIconSuccess(subredditOrUserName, iconImageUrl);
-                        });
-            } else {
-                LoadUserData.loadUserData(mExecutor, new Handler(), mRedditDataRoomDatabase, mActivity.accessToken,
-                        subredditOrUserName, mOauthRetrofit, mRetrofit, iconImageUrl -> {
-                            subredditOrUserIcons.put(subredditOrUserName, iconImageUrl);
-                            loadIconListener.loadIconSuccess(subredditOrUserName, iconImageUrl);
-                        });
+            getFeedIconBatchLoader().loadUserIcon(subredditOrUserName, userFullName, loadIconListener::loadIconSuccess);
+        }
+    }
+
+    /**
+     * Queues the icons of a freshly loaded page so they are resolved in one batch.
+     *
+     * @param authors user name -> t2_ fullname
+     */
+    public final void prefetchIcons(Collection<String> subredditNames, Map<String, String> authors) {
+        getFeedIconBatchLoader().prefetch(subredditNames, authors);
+    }
+
+    private FeedIconBatchLoader getFeedIconBatchLoader() {
+        if (feedIconBatchLoader == null) {
+            feedIconBatchLoader = new FeedIconBatchLoader(mExecutor, mRedditDataRoomDatabase, mRetrofit,
+                    mOauthRetrofit, mActivity.accessToken, mActivity.accountName);
+        }
+        return feedIconBatchLoader;
+    }
+
+    public final ReadPostsIndex getReadPostsIndex() {
+        return mReadPostsIndex;
+    }
+
+    /**
+     * @return the translator of the translated feed mode, or null if the mode is off or no
+     * translation API key is set
+     */
+    @Nullable
+    public final FeedTranslator getFeedTranslator() {
+        if (!mSharedPreferences.getBoolean(SharedPreferencesUtils.TRANSLATE_FEED, false)) {
+            if (feedTranslator != null) {
+                feedTranslator.destroy();
+                feedTranslator = null;
             }
+            return null;
+        }
+        if (feedTranslator == null) {
+            String apiKey = mSharedPreferences.getString("volcano_engine_api_key", "");
+            if (apiKey.isEmpty()) {
+                return null;
+            }
+            String model = mSharedPreferences.getString("volcano_engine_model_id", "deepseek-v3-2-251201");
+            feedTranslator = new FeedTranslator(mTranslationCache, mLongExecutor, new Handler(Looper.getMainLooper()),
+                    mVolcanoEngineRetrofit, apiKey, model, postIds -> {
+                        if (getPostAdapter() != null) {
+                            getPostAdapter().onPostTranslationsUpdated(postIds);
+                        }
+                    });
         }
+        return feedTranslator;
     }
 
     protected abstract boolean scrollPostsByCount(int count);
@@ -80,6 +80,7 @@ public class SidebarFragment extends Fragment {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private ViewSubredditDetailActivity mActivity;
     private String subredditName;
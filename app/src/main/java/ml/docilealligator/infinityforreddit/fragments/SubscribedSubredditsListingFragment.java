@@ -63,6 +63,7 @@ public class SubscribedSubredditsListingFragment extends Fragment implements Fra
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     public SubscribedSubredditViewModel mSubscribedSubredditViewModel;
     private BaseActivity mActivity;
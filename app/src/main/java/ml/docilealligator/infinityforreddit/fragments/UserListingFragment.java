@@ -79,6 +79,7 @@ public class UserListingFragment extends Fragment implements FragmentCommunicato
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private LinearLayoutManagerBugFixed mLinearLayoutManager;
     private String mQuery;
@@ -1,8 +1,6 @@
 package ml.docilealligator.infinityforreddit.fragments;
 
 import android.Manifest;
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
@@ -53,6 +51,7 @@ import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.activities.ViewImgurMediaActivity;
 import ml.docilealligator.infinityforreddit.bottomsheetfragments.PlaybackSpeedBottomSheetFragment;
 import ml.docilealligator.infinityforreddit.databinding.FragmentViewImgurVideoBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.post.ImgurMedia;
 import ml.docilealligator.infinityforreddit.services.DownloadMediaService;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
@@ -87,6 +86,8 @@ public class ViewImgurVideoFragment extends Fragment {
     @UnstableApi
     @Inject
     SimpleCache mSimpleCache;
+    @Inject
+    DownloadQueue mDownloadQueue;
     private ViewImgurVideoFragmentBindingAdapter binding;
 
     public ViewImgurVideoFragment() {
@@ -263,9 +264,7 @@ public class ViewImgurVideoFragment extends Fragment {
     private void download() {
         isDownloading = false;
 
-        //TODO: contentEstimatedBytes
-        JobInfo jobInfo = DownloadMediaService.constructJobInfo(activity, 5000000, imgurMedia);
-        ((JobScheduler) activity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+        mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(imgurMedia));
 
         Toast.makeText(activity, R.string.download_started, Toast.LENGTH_SHORT).show();
     }
@@ -102,13 +102,13 @@ import ml.docilealligator.infinityforreddit.events.ChangeSpoilerBlurEvent;
 import ml.docilealligator.infinityforreddit.events.FlairSelectedEvent;
 import ml.docilealligator.infinityforreddit.events.PostUpdateEventToPostDetailFragment;
 import ml.docilealligator.infinityforreddit.events.PostUpdateEventToPostList;
+import ml.docilealligator.infinityforreddit.markdown.ParsedMarkdownCache;
 import ml.docilealligator.infinityforreddit.message.ReadMessage;
 import ml.docilealligator.infinityforreddit.post.FetchPost;
 import ml.docilealligator.infinityforreddit.post.HidePost;
 import ml.docilealligator.infinityforreddit.post.ParsePost;
 import ml.docilealligator.infinityforreddit.post.Post;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostModification;
-import ml.docilealligator.infinityforreddit.readpost.ReadPostType;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostsUtils;
 import ml.docilealligator.infinityforreddit.subreddit.FetchSubredditData;
 import ml.docilealligator.infinityforreddit.subreddit.Flair;
@@ -117,6 +117,8 @@ import ml.docilealligator.infinityforreddit.thing.DeleteThing;
 import ml.docilealligator.infinityforreddit.thing.ReplyNotificationsToggle;
 import ml.docilealligator.infinityforreddit.thing.SaveThing;
 import ml.docilealligator.infinityforreddit.thing.SortType;
+import ml.docilealligator.infinityforreddit.translation.CommentTranslationScheduler;
+import ml.docilealligator.infinityforreddit.translation.TranslationCache;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
@@ -177,7 +179,23 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
     @Inject
     ExoCreator mExoCreator;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    @Named("cpu")
+    Executor mCpuExecutor;
+    @Inject
+    @Named("long")
+    Executor mLongExecutor;
+    @Inject
+    ReadPostsIndex mReadPostsIndex;
+    @Inject
+    @Named("volcano_engine")
+    Retrofit mVolcanoEngineRetrofit;
+    @Inject
+    TranslationCache mTranslationCache;
+    @Inject
+    ParsedMarkdownCache mParsedMarkdownCache;
     @State
     Post mPost;
     @State
@@ -225,6 +243,8 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
     private ConcatAdapter mConcatAdapter;
     private PostDetailRecyclerViewAdapter mPostAdapter;
     private CommentsRecyclerViewAdapter mCommentsAdapter;
+    @Nullable
+    private CommentTranslationScheduler mCommentTranslationScheduler;
     private RecyclerView.SmoothScroller mSmoothScroller;
     private Drawable mSavedIcon;
     private Drawable mUnsavedIcon;
@@ -610,13 +630,13 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
             setupMenu();
 
             mPostAdapter = new PostDetailRecyclerViewAdapter(mActivity,
-                    this, mExecutor, mCustomThemeWrapper, mOauthRetrofit, mRetrofit,
+                    this, mExecutor, mCpuExecutor, mParsedMarkdownCache, mCustomThemeWrapper, mOauthRetrofit, mRetrofit,
                     mRedgifsRetrofit, mStreamableApiProvider, mRedditDataRoomDatabase, mGlide,
                     mSeparatePostAndComments, mActivity.accessToken, mActivity.accountName, mPost, mLocale,
                     mSharedPreferences, mCurrentAccountSharedPreferences, mNsfwAndSpoilerSharedPreferences, mPostDetailsSharedPreferences,
                     mExoCreator, post -> EventBus.getDefault().post(new PostUpdateEventToPostList(mPost, postListPosition)));
             mCommentsAdapter = new CommentsRecyclerViewAdapter(mActivity,
-                    this, mCustomThemeWrapper, mExecutor, mRetrofit, mOauthRetrofit,
+                    this, mCustomThemeWrapper, mExecutor, mCpuExecutor, mParsedMarkdownCache, mRetrofit, mOauthRetrofit,
                     mActivity.accessToken, mActivity.accountName, mPost, mLocale, mSingleCommentId,
                     isSingleCommentThreadMode, mSharedPreferences, mNsfwAndSpoilerSharedPreferences,
                     new CommentsRecyclerViewAdapter.CommentRecyclerViewAdapterCallback() {
@@ -945,6 +965,48 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
         mActivity.loadAuthorIcons(comments, loadIconListener);
     }
 
+    /**
+     * @return the scheduler translating comments as they are shown, or null if auto-translating
+     * comments is off or no translation API key is set
+     */
+    @Nullable
+    public CommentTranslationScheduler getCommentTranslationScheduler() {
+        boolean enabled = mSharedPreferences.getBoolean(SharedPreferencesUtils.AUTO_TRANSLATE_COMMENTS, false);
+        if (!enabled) {
+            if (mCommentTranslationScheduler != null) {
+                mCommentTranslationScheduler.destroy();
+                mCommentTranslationScheduler = null;
+            }
+            return null;
+        }
+        if (mCommentTranslationScheduler == null && mPost != null) {
+            String apiKey = mSharedPreferences.getString("volcano_engine_api_key", "");
+            if (apiKey.isEmpty()) {
+                return null;
+            }
+            String model = mSharedPreferences.getString("volcano_engine_model_id", "deepseek-v3-2-251201");
+            mCommentTranslationScheduler = new CommentTranslationScheduler(mTranslationCache, mLongExecutor,
+                    new Handler(Looper.getMainLooper()), mVolcanoEngineRetrofit, apiKey, model, mPost,
+                    commentFullNames -> {
+                        if (mCommentsAdapter != null) {
+                            mCommentsAdapter.onCommentTranslationsUpdated(commentFullNames);
+                        }
+                    });
+        }
+        return mCommentTranslationScheduler;
+    }
+
+    /**
+     * Rebinds the comments after auto-translating comments was turned on or off.
+     */
+    public void onAutoTranslateCommentsChanged() {
+        if (mCommentsAdapter != null) {
+            // Creates or drops the scheduler before the comments are bound again.
+            getCommentTranslationScheduler();
+            mCommentsAdapter.notifyItemRangeChanged(0, mCommentsAdapter.getItemCount());
+        }
+    }
+
     @Override
     public void onCreateOptionsMenu(@NonNull Menu menu, @NonNull MenuInflater inflater) {
         inflater.inflate(R.menu.view_post_detail_fragment, menu);
@@ -1209,7 +1271,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
         if (mMarkPostsAsRead && mPost != null && !mPost.isRead()) {
             mPost.markAsRead();
             int readPostsLimit = ReadPostsUtils.GetReadPostsLimit(mActivity.accountName, mPostHistorySharedPreferences);
-            ReadPostModification.insertReadPost(mRedditDataRoomDatabase, mExecutor, mActivity.accountName, mPost.getId(), ReadPostType.READ_POSTS, readPostsLimit);
+            mReadPostsIndex.markRead(mActivity.accountName, mPost.getId(), readPostsLimit);
             EventBus.getDefault().post(new PostUpdateEventToPostList(mPost, postListPosition));
         }
     }
@@ -1255,6 +1317,10 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
 
     @Override
     public void onDestroyView() {
+        if (mCommentTranslationScheduler != null) {
+            mCommentTranslationScheduler.destroy();
+            mCommentTranslationScheduler = null;
+        }
         Bridge.clear(this);
         EventBus.getDefault().unregister(this);
         binding.postDetailRecyclerViewViewPostDetailFragment.addOnWindowFocusChangedListener(null);
@@ -1308,7 +1374,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
                 binding.swipeRefreshLayoutViewPostDetailFragment.setRefreshing(false);
 
                 if (response.isSuccessful()) {
-                    ParsePost.parsePost(mExecutor, new Handler(), response.body(), new ParsePost.ParsePostListener() {
+                    ParsePost.parsePost(mCpuExecutor, new Handler(), response.body(), new ParsePost.ParsePostListener() {
                         @Override
                         public void onParsePostSuccess(Post post) {
                             mPost = post;
@@ -1322,8 +1388,8 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
                             setupMenu();
 
                             mPostAdapter = new PostDetailRecyclerViewAdapter(mActivity,
-                                    ViewPostDetailFragment.this, mExecutor, mCustomThemeWrapper,
-                                    mOauthRetrofit, mRetrofit, mRedgifsRetrofit,
+                                    ViewPostDetailFragment.this, mExecutor, mCpuExecutor, mParsedMarkdownCache,
+                                    mCustomThemeWrapper, mOauthRetrofit, mRetrofit, mRedgifsRetrofit,
                                     mStreamableApiProvider, mRedditDataRoomDatabase, mGlide, mSeparatePostAndComments,
                                     mActivity.accessToken, mActivity.accountName, mPost, mLocale, mSharedPreferences,
                                     mCurrentAccountSharedPreferences, mNsfwAndSpoilerSharedPreferences,
@@ -1332,7 +1398,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
 
                             mCommentsAdapter = new CommentsRecyclerViewAdapter(mActivity,
                                     ViewPostDetailFragment.this, mCustomThemeWrapper, mExecutor,
-                                    mRetrofit, mOauthRetrofit, mActivity.accessToken, mActivity.accountName, mPost, mLocale,
+                                    mCpuExecutor, mParsedMarkdownCache, mRetrofit, mOauthRetrofit, mActivity.accessToken, mActivity.accountName, mPost, mLocale,
                                     mSingleCommentId, isSingleCommentThreadMode, mSharedPreferences,
                                     mNsfwAndSpoilerSharedPreferences,
                                     new CommentsRecyclerViewAdapter.CommentRecyclerViewAdapterCallback() {
@@ -1372,7 +1438,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
                                             if (mRespectSubredditRecommendedSortType) {
                                                 fetchCommentsRespectRecommendedSort(false);
                                             } else {
-                                                ParseComment.parseComment(mExecutor, new Handler(), response.body(),
+                                                ParseComment.parseComment(mCpuExecutor, new Handler(), response.body(),
                                                         mExpandChildren, mCommentFilter, new ParseComment.ParseCommentListener() {
                                                             @Override
                                                             public void onParseCommentSuccess(ArrayList<Comment> topLevelComments, ArrayList<Comment> expandedComments, String parentId, ArrayList<String> moreChildrenIds) {
@@ -1517,80 +1583,88 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
             commentId = mSingleCommentId;
         }
 
-        Retrofit retrofit = mActivity.accountName.equals(Account.ANONYMOUS_ACCOUNT) ? mRetrofit : mOauthRetrofit;
-        FetchComment.fetchComments(mExecutor, new Handler(), retrofit, mActivity.accessToken, mActivity.accountName, mPost.getId(), commentId, sortType,
-                mContextNumber, mExpandChildren, mCommentFilter, new FetchComment.FetchCommentListener() {
-                    @Override
-                    public void onFetchCommentSuccess(ArrayList<Comment> expandedComments,
-                                                      String parentId, ArrayList<String> children) {
-                        ViewPostDetailFragment.this.children = children;
+        FetchComment.FetchCommentListener fetchCommentListener = new FetchComment.FetchCommentListener() {
+            @Override
+            public void onFetchCommentSuccess(ArrayList<Comment> expandedComments,
+                                              String parentId, ArrayList<String> children) {
+                ViewPostDetailFragment.this.children = children;
 
-                        comments = expandedComments;
-                        hasMoreChildren = children.size() != 0;
-                        mCommentsAdapter.addComments(expandedComments, hasMoreChildren);
+                comments = expandedComments;
+                hasMoreChildren = children.size() != 0;
+                mCommentsAdapter.addComments(expandedComments, hasMoreChildren);
 
-                        if (children.size() > 0) {
-                            (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).clearOnScrollListeners();
-                            (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).addOnScrollListener(new RecyclerView.OnScrollListener() {
-                                @Override
-                                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
-                                    super.onScrolled(recyclerView, dx, dy);
-                                    if (!mIsSmoothScrolling && !mLockFab) {
-                                        if (!recyclerView.canScrollVertically(1)) {
-                                            mActivity.hideFab();
+                if (children.size() > 0) {
+                    (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).clearOnScrollListeners();
+                    (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).addOnScrollListener(new RecyclerView.OnScrollListener() {
+                        @Override
+                        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                            super.onScrolled(recyclerView, dx, dy);
+                            if (!mIsSmoothScrolling && !mLockFab) {
+                                if (!recyclerView.canScrollVertically(1)) {
+                                    mActivity.hideFab();
+                                } else {
+                                    if (dy > 0) {
+                                        if (mSwipeUpToHideFab) {
+                                            mActivity.showFab();
                                         } else {
-                                            if (dy > 0) {
-                                                if (mSwipeUpToHideFab) {
-                                                    mActivity.showFab();
-                                                } else {
-                                                    mActivity.hideFab();
-                                                }
-                                            } else {
-                                                if (mSwipeUpToHideFab) {
-                                                    mActivity.hideFab();
-                                                } else {
-                                                    mActivity.showFab();
-                                                }
-                                            }
+                                            mActivity.hideFab();
                                         }
-                                    }
-
-                                    if (!isLoadingMoreChildren && loadMoreChildrenSuccess) {
-                                        int visibleItemCount = (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager().getChildCount();
-                                        int totalItemCount = (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager().getItemCount();
-                                        int firstVisibleItemPosition = ((LinearLayoutManagerBugFixed) (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager()).findFirstVisibleItemPosition();
-
-                                        if ((visibleItemCount + firstVisibleItemPosition >= totalItemCount) && firstVisibleItemPosition >= 0) {
-                                            fetchMoreComments();
+                                    } else {
+                                        if (mSwipeUpToHideFab) {
+                                            mActivity.hideFab();
+                                        } else {
+                                            mActivity.showFab();
                                         }
                                     }
                                 }
+                            }
 
-                                @Override
-                                public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
-                                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
-                                        mIsSmoothScrolling = false;
-                                    }
+                            if (!isLoadingMoreChildren && loadMoreChildrenSuccess) {
+                                int visibleItemCount = (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager().getChildCount();
+                                int totalItemCount = (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager().getItemCount();
+                                int firstVisibleItemPosition = ((LinearLayoutManagerBugFixed) (mCommentsRecyclerView == null ? binding.postDetailRecyclerViewViewPostDetailFragment : mCommentsRecyclerView).getLayoutManager()).findFirstVisibleItemPosition();
+
+                                if ((visibleItemCount + firstVisibleItemPosition >= totalItemCount) && firstVisibleItemPosition >= 0) {
+                                    fetchMoreComments();
                                 }
-                            });
+                            }
                         }
-                        if (changeRefreshState) {
-                            isRefreshing = false;
+
+                        @Override
+                        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                                mIsSmoothScrolling = false;
+                            }
                         }
+                    });
+                }
+                if (changeRefreshState) {
+                    isRefreshing = false;
+                }
 
-                        isFetchingComments = false;
-                    }
+                isFetchingComments = false;
+            }
 
-                    @Override
-                    public void onFetchCommentFailed() {
-                        isFetchingComments = false;
+            @Override
+            public void onFetchCommentFailed() {
+                isFetchingComments = false;
 
-                        mCommentsAdapter.initiallyLoadCommentsFailed();
-                        if (changeRefreshState) {
-                            isRefreshing = false;
-                        }
-                    }
-                });
+                mCommentsAdapter.initiallyLoadCommentsFailed();
+                if (changeRefreshState) {
+                    isRefreshing = false;
+                }
+            }
+        };
+
+        // A refresh or a single thread always goes to the network.
+        if (!changeRefreshState && !isSingleCommentThreadMode
+                && mActivity.getCommentPrefetcher().consume(mPost.getId(), sortType, fetchCommentListener)) {
+            return;
+        }
+
+        Retrofit retrofit = mActivity.accountName.equals(Account.ANONYMOUS_ACCOUNT) ? mRetrofit : mOauthRetrofit;
+        FetchComment.fetchComments(mCpuExecutor, new Handler(), retrofit, mActivity.accessToken, mActivity.accountName, mPost.getId(), commentId, sortType,
+                mContextNumber, mExpandChildren, mCommentFilter, fetchCommentListener);
     }
 
     private void fetchCommentsRespectRecommendedSort(boolean changeRefreshState) {
@@ -1605,7 +1679,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
         isLoadingMoreChildren = true;
 
         Retrofit retrofit = mActivity.accountName.equals(Account.ANONYMOUS_ACCOUNT) ? mRetrofit : mOauthRetrofit;
-        FetchComment.fetchMoreComment(mExecutor, new Handler(), retrofit, mActivity.accessToken, mActivity.accountName,
+        FetchComment.fetchMoreComment(mCpuExecutor, new Handler(), retrofit, mActivity.accessToken, mActivity.accountName,
                 children, mExpandChildren, mPost.getFullName(), sortType, new FetchComment.FetchMoreCommentListener() {
                     @Override
                     public void onFetchMoreCommentSuccess(ArrayList<Comment> topLevelComments,
@@ -1645,7 +1719,7 @@ public class ViewPostDetailFragment extends Fragment implements FragmentCommunic
                 } else {
                     retrofit = mOauthRetrofit;
                 }
-                FetchPost.fetchPost(mExecutor, new Handler(), retrofit, mPost.getId(), mActivity.accessToken, mActivity.accountName,
+                FetchPost.fetchPost(mCpuExecutor, new Handler(), retrofit, mPost.getId(), mActivity.accessToken, mActivity.accountName,
                         new FetchPost.FetchPostListener() {
                             @Override
                             public void fetchPostSuccess(Post post) {
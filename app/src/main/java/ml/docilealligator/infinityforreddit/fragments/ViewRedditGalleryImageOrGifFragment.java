@@ -1,8 +1,6 @@
 package ml.docilealligator.infinityforreddit.fragments;
 
 import android.Manifest;
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
@@ -65,6 +63,7 @@ import ml.docilealligator.infinityforreddit.bottomsheetfragments.SetAsWallpaperB
 import ml.docilealligator.infinityforreddit.bottomsheetfragments.UrlMenuBottomSheetFragment;
 import ml.docilealligator.infinityforreddit.customviews.GlideGifImageViewFactory;
 import ml.docilealligator.infinityforreddit.databinding.FragmentViewRedditGalleryImageOrGifBinding;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.services.DownloadMediaService;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
@@ -83,7 +82,10 @@ public class ViewRedditGalleryImageOrGifFragment extends Fragment {
     @Named("default")
     SharedPreferences mSharedPreferences;
     @Inject
+    @Named("io")
     Executor mExecutor;
+    @Inject
+    DownloadQueue mDownloadQueue;
 
     private ViewRedditGalleryActivity activity;
     private RequestManager glide;
@@ -391,9 +393,7 @@ public class ViewRedditGalleryImageOrGifFragment extends Fragment {
         extras.putString(DownloadMediaService.EXTRA_SUBREDDIT_NAME, subredditName);
         extras.putInt(DownloadMediaService.EXTRA_IS_NSFW, isNsfw ? 1 : 0);
 
-        //TODO: contentEstimatedBytes
-        JobInfo jobInfo = DownloadMediaService.constructJobInfo(activity, 5000000, extras);
-        ((JobScheduler) activity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+        mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(extras));
 
         Toast.makeText(activity, R.string.download_started, Toast.LENGTH_SHORT).show();
     }
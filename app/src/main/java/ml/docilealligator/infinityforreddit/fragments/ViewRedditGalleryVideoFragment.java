@@ -1,8 +1,6 @@
 package ml.docilealligator.infinityforreddit.fragments;
 
 import android.Manifest;
-import android.app.job.JobInfo;
-import android.app.job.JobScheduler;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
@@ -53,6 +51,7 @@ import ml.docilealligator.infinityforreddit.Infinity;
 import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.activities.ViewRedditGalleryActivity;
 import ml.docilealligator.infinityforreddit.bottomsheetfragments.PlaybackSpeedBottomSheetFragment;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.services.DownloadMediaService;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
@@ -91,6 +90,8 @@ public class ViewRedditGalleryVideoFragment extends Fragment {
     @UnstableApi
     @Inject
     SimpleCache mSimpleCache;
+    @Inject
+    DownloadQueue mDownloadQueue;
     private ViewRedditGalleryVideoFragmentBindingAdapter binding;
 
     public ViewRedditGalleryVideoFragment() {
@@ -270,9 +271,7 @@ public class ViewRedditGalleryVideoFragment extends Fragment {
         extras.putString(DownloadMediaService.EXTRA_SUBREDDIT_NAME, subredditName);
         extras.putInt(DownloadMediaService.EXTRA_IS_NSFW, isNsfw ? 1 : 0);
 
-        //TODO: contentEstimatedBytes
-        JobInfo jobInfo = DownloadMediaService.constructJobInfo(activity, 5000000, extras);
-        ((JobScheduler) activity.getSystemService(Context.JOB_SCHEDULER_SERVICE)).schedule(jobInfo);
+        mDownloadQueue.enqueue(DownloadMediaService.constructDownloadTask(extras));
 
         Toast.makeText(activity, R.string.download_started, Toast.LENGTH_SHORT).show();
     }
@@ -0,0 +1,155 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import android.content.Context;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.commonmark.node.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import io.noties.markwon.Markwon;
+import io.noties.markwon.MarkwonPlugin;
+import io.noties.markwon.MarkwonReducer;
+import ml.docilealligator.infinityforreddit.comment.Comment;
+import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
+
+/**
+ * Parses markdown on the cpu lane as soon as it is loaded, so binding a comment or a post body only has
+ * to render nodes taken from the {@link ParsedMarkdownCache}.
+ *
+ * Markwon's inline processors keep state while parsing, so the pre-parser builds its own Markwon
+ * instance with the same parsing plugins and never touches the one used on the main thread.
+ */
+public class MarkdownPreParser {
+    private final ParsedMarkdownCache parsedMarkdownCache;
+    private final Executor cpuExecutor;
+    private final EmoteCloseBracketInlineProcessor emoteCloseBracketInlineProcessor = new EmoteCloseBracketInlineProcessor();
+    private final ImageAndGifPlugin imageAndGifPlugin = new ImageAndGifPlugin();
+    // Same as the one CustomMarkwonAdapter uses by default.
+    private final MarkwonReducer reducer = MarkwonReducer.directChildren();
+    private final Markwon markwon;
+
+    /**
+     * Takes the same arguments as {@link MarkdownUtils#createFullRedditMarkwon}, the markdown must be
+     * rendered by a Markwon created from them.
+     */
+    public MarkdownPreParser(@NonNull Context context, @NonNull MarkwonPlugin miscPlugin,
+                             @NonNull EmotePlugin emotePlugin, int markdownColor, int spoilerBackgroundColor,
+                             @NonNull ParsedMarkdownCache parsedMarkdownCache, @NonNull Executor cpuExecutor) {
+        this.parsedMarkdownCache = parsedMarkdownCache;
+        this.cpuExecutor = cpuExecutor;
+        markwon = MarkdownUtils.createFullRedditMarkwon(context, miscPlugin, emoteCloseBracketInlineProcessor,
+                emotePlugin, imageAndGifPlugin, markdownColor, spoilerBackgroundColor, null);
+    }
+
+    public static String getKey(@NonNull Comment comment) {
+        return comment.getFullName() + "@" + comment.getEditedTimeMillis();
+    }
+
+    public static String getKey(@NonNull Post post) {
+        return post.getFullName();
+    }
+
+    /**
+     * Parses the comments and all their loaded replies in the background.
+     */
+    @MainThread
+    public void preParseComments(@NonNull List<Comment> comments) {
+        List<Job> jobs = new ArrayList<>();
+        collectJobs(comments, jobs, new HashSet<>());
+        submit(jobs);
+    }
+
+    @MainThread
+    public void preParsePost(@NonNull Post post) {
+        String selfText = post.getSelfText();
+        if (selfText != null && !selfText.isEmpty() && !parsedMarkdownCache.contains(getKey(post), selfText)) {
+            List<Job> jobs = new ArrayList<>(1);
+            jobs.add(new Job(getKey(post), selfText, post.getMediaMetadataMap()));
+            submit(jobs);
+        }
+    }
+
+    /**
+     * Returns the parsed markdown from the cache, or parses it with the given Markwon on a miss. The media
+     * metadata of the markdown must already be set on that Markwon's plugins.
+     */
+    @MainThread
+    @NonNull
+    public List<Node> getParsedMarkdown(@NonNull Markwon mainThreadMarkwon, @NonNull String key, @NonNull String markdown) {
+        List<Node> nodes = parsedMarkdownCache.get(key, markdown);
+        if (nodes == null) {
+            long start = System.nanoTime();
+            nodes = reducer.reduce(mainThreadMarkwon.parse(markdown));
+            parsedMarkdownCache.onParsedOnMainThread(System.nanoTime() - start);
+            parsedMarkdownCache.put(key, markdown, nodes);
+        }
+        return nodes;
+    }
+
+    private void collectJobs(@Nullable List<Comment> comments, List<Job> jobs, Set<String> keys) {
+        if (comments == null) {
+            return;
+        }
+        for (Comment comment : comments) {
+            if (comment.getPlaceholderType() != Comment.NOT_PLACEHOLDER) {
+                continue;
+            }
+            String key = getKey(comment);
+            String markdown = comment.getCommentMarkdown();
+            if (markdown != null && keys.add(key) && !parsedMarkdownCache.contains(key, markdown)) {
+                jobs.add(new Job(key, markdown, comment.getMediaMetadataMap()));
+            }
+            collectJobs(comment.getChildren(), jobs, keys);
+        }
+    }
+
+    private void submit(List<Job> jobs) {
+        if (!jobs.isEmpty()) {
+            cpuExecutor.execute(() -> {
+                for (Job job : jobs) {
+                    parse(job);
+                }
+            });
+        }
+    }
+
+    @WorkerThread
+    private void parse(Job job) {
+        if (parsedMarkdownCache.contains(job.key, job.markdown)) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Node> nodes;
+        synchronized (markwon) {
+            emoteCloseBracketInlineProcessor.setMediaMetadataMap(job.mediaMetadataMap);
+            imageAndGifPlugin.setMediaMetadataMap(job.mediaMetadataMap);
+            nodes = reducer.reduce(markwon.parse(job.markdown));
+        }
+        parsedMarkdownCache.put(job.key, job.markdown, nodes);
+        parsedMarkdownCache.onPreParsed(System.nanoTime() - start);
+    }
+
+    private static class Job {
+        final String key;
+        final String markdown;
+        @Nullable
+        final Map<String, MediaMetadata> mediaMetadataMap;
+
+        Job(String key, String markdown, @Nullable Map<String, MediaMetadata> mediaMetadataMap) {
+            this.key = key;
+            this.markdown = markdown;
+            this.mediaMetadataMap = mediaMetadataMap;
+        }
+    }
+}
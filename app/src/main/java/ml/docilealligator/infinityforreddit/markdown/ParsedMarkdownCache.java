@@ -0,0 +1,119 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.commonmark.node.Node;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide cache of markdown that has been parsed and split into blocks for a {@link CustomMarkwonAdapter}.
+ *
+ * Entries are keyed by the comment or post the markdown belongs to, and also keep the markdown itself, so
+ * an edit or a translation never gets an outdated tree. Parsed nodes do not depend on the theme, colours are
+ * only applied when they are rendered.
+ */
+public class ParsedMarkdownCache {
+    // Total characters of the cached markdown. The parsed nodes take roughly ten times as many bytes.
+    private static final int MAX_CHARS = 256 * 1024;
+
+    private final LruCache<String, Entry> cache = new LruCache<String, Entry>(MAX_CHARS) {
+        @Override
+        protected int sizeOf(String key, Entry value) {
+            return Math.max(1, value.markdown.length());
+        }
+    };
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong preParsedCount = new AtomicLong();
+    private final AtomicLong preParseTimeNanos = new AtomicLong();
+    private final AtomicLong mainThreadParseTimeNanos = new AtomicLong();
+
+    /**
+     * @return the blocks of the markdown, or null if it has not been parsed yet
+     */
+    @Nullable
+    public List<Node> get(@NonNull String key, @NonNull String markdown) {
+        Entry entry = cache.get(key);
+        if (entry != null && entry.markdown.equals(markdown)) {
+            hitCount.incrementAndGet();
+            return entry.nodes;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Like {@link #get(String, String)} but not counted as a hit or a miss.
+     */
+    boolean contains(@NonNull String key, @NonNull String markdown) {
+        Entry entry = cache.get(key);
+        return entry != null && entry.markdown.equals(markdown);
+    }
+
+    void put(@NonNull String key, @NonNull String markdown, @NonNull List<Node> nodes) {
+        cache.put(key, new Entry(markdown, nodes));
+    }
+
+    void onPreParsed(long durationNanos) {
+        preParsedCount.incrementAndGet();
+        preParseTimeNanos.addAndGet(durationNanos);
+    }
+
+    void onParsedOnMainThread(long durationNanos) {
+        mainThreadParseTimeNanos.addAndGet(durationNanos);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getPreParsedCount() {
+        return preParsedCount.get();
+    }
+
+    public long getPreParseTimeMillis() {
+        return preParseTimeNanos.get() / 1_000_000;
+    }
+
+    /**
+     * @return the time spent parsing markdown that missed the cache while binding, in milliseconds
+     */
+    public long getMainThreadParseTimeMillis() {
+        return mainThreadParseTimeNanos.get() / 1_000_000;
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return cache.maxSize();
+    }
+
+    public void resetStats() {
+        hitCount.set(0);
+        missCount.set(0);
+        preParsedCount.set(0);
+        preParseTimeNanos.set(0);
+        mainThreadParseTimeNanos.set(0);
+    }
+
+    private static class Entry {
+        final String markdown;
+        final List<Node> nodes;
+
+        Entry(String markdown, List<Node> nodes) {
+            this.markdown = markdown;
+            this.nodes = nodes;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
+
+/**
+ * Rewrites Reddit specific syntax in markdown before it is parsed.
+ *
+ * Both methods scan the text once and copy it into a single buffer, instead of running a regex pass per
+ * rule. They produce exactly what the regexes they replace produced:
+ * <ul>
+ *     <li>{@code ((?<=[\s])|^)/[rRuU]/[\w-]+/{0,1}} and {@code ((?<=[\s])|^)[rRuU]/[\w-]+/{0,1}} become links.</li>
+ *     <li>{@code \^{2,}} becomes a single caret.</li>
+ *     <li>{@code (\[caption]\()?https://preview.redd.it/id.ext?query} and
+ *     {@code (\[caption]\()?https://i.redd.it/id.ext} become images when the id is in the media metadata.
+ *     As in the regex, every {@code .} in the host and before the extension matches any character
+ *     except a line terminator, and a caption cannot contain an unescaped {@code [}.</li>
+ * </ul>
+ */
+public final class RedditMarkdownPreprocessor {
+    private static final String REDDIT_URL = "https://www.reddit.com";
+    private static final String PREVIEW_REDD_IT = "https://preview.redd.it/";
+    private static final String I_REDD_IT = "https://i.redd.it/";
+    private static final String[] PREVIEW_REDD_IT_EXTENSIONS = {"jpg", "png", "jpeg"};
+    private static final String[] I_REDD_IT_EXTENSIONS = {"jpg", "png", "jpeg", "gif"};
+
+    private RedditMarkdownPreprocessor() {}
+
+    /**
+     * Links r/, u/, /r/ and /u/ mentions to Reddit and collapses repeated superscript carets.
+     */
+    public static String modifyMarkdown(String markdown) {
+        int length = markdown.length();
+        StringBuilder stringBuilder = null;
+        // Everything before this index has been copied to stringBuilder
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            char c = markdown.charAt(i);
+            if (c == '^') {
+                int end = i + 1;
+                while (end < length && markdown.charAt(end) == '^') {
+                    end++;
+                }
+                if (end - i >= 2) {
+                    if (stringBuilder == null) {
+                        stringBuilder = new StringBuilder(length + 64);
+                    }
+                    stringBuilder.append(markdown, copied, i).append('^');
+                    copied = end;
+                }
+                i = end;
+                continue;
+            }
+
+            if (i == 0 || isWhitespace(markdown.charAt(i - 1))) {
+                boolean startsWithSlash = c == '/';
+                int end = matchSubredditOrUser(markdown, startsWithSlash ? i + 1 : i);
+                if (end != -1) {
+                    if (stringBuilder == null) {
+                        stringBuilder = new StringBuilder(length + 64);
+                    }
+                    stringBuilder.append(markdown, copied, i)
+                            .append('[').append(markdown, i, end).append("](").append(REDDIT_URL);
+                    if (!startsWithSlash) {
+                        stringBuilder.append('/');
+                    }
+                    stringBuilder.append(markdown, i, end).append(')');
+                    copied = end;
+                    i = end;
+                    continue;
+                }
+            }
+            i++;
+        }
+
+        if (stringBuilder == null) {
+            return markdown;
+        }
+        return stringBuilder.append(markdown, copied, length).toString();
+    }
+
+    /**
+     * Turns links to images uploaded to Reddit into image blocks, and sets the caption of their media metadata.
+     */
+    public static String parseRedditImagesBlock(String markdown, @Nullable Map<String, MediaMetadata> mediaMetadataMap) {
+        if (mediaMetadataMap == null || !markdown.contains("redd")) {
+            return markdown;
+        }
+
+        int length = markdown.length();
+        StringBuilder stringBuilder = null;
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            char c = markdown.charAt(i);
+            if (c != '[' && c != 'h') {
+                i++;
+                continue;
+            }
+
+            String urlPrefix = PREVIEW_REDD_IT;
+            int end = matchImage(markdown, i, true);
+            if (end == -1) {
+                urlPrefix = I_REDD_IT;
+                end = matchImage(markdown, i, false);
+                if (end == -1) {
+                    i++;
+                    continue;
+                }
+            }
+
+            String id;
+            String caption = null;
+            boolean hasCaption = c == '[';
+            if (hasCaption) {
+                int urlStartIndex = markdown.lastIndexOf(urlPrefix, end);
+                id = markdown.substring(urlPrefix.length() + urlStartIndex,
+                        markdown.indexOf(".", urlPrefix.length() + urlStartIndex));
+                //Minus "](".length()
+                caption = markdown.substring(i + 1, urlStartIndex - 2);
+            } else {
+                id = markdown.substring(i + urlPrefix.length(), markdown.indexOf(".", i + urlPrefix.length()));
+            }
+
+            MediaMetadata mediaMetadata = mediaMetadataMap.get(id);
+            if (mediaMetadata != null) {
+                mediaMetadata.caption = caption;
+
+                if (stringBuilder == null) {
+                    stringBuilder = new StringBuilder(length + 16);
+                }
+                stringBuilder.append(markdown, copied, i);
+                if (hasCaption) {
+                    stringBuilder.append('!');
+                    copied = i;
+                } else {
+                    stringBuilder.append("![](").append(markdown, i, end).append(')');
+                    copied = end;
+                }
+            }
+            i = end;
+        }
+
+        if (stringBuilder == null) {
+            return markdown;
+        }
+        return stringBuilder.append(markdown, copied, length).toString();
+    }
+
+    /**
+     * @param start index of the r or u
+     * @return the end of {@code [rRuU]/[\w-]+/?}, or -1
+     */
+    private static int matchSubredditOrUser(String markdown, int start) {
+        int length = markdown.length();
+        if (start + 2 >= length) {
+            return -1;
+        }
+        char c = markdown.charAt(start);
+        if ((c != 'r' && c != 'R' && c != 'u' && c != 'U') || markdown.charAt(start + 1) != '/') {
+            return -1;
+        }
+        int end = start + 2;
+        while (end < length && (isWordCharacter(markdown.charAt(end)) || markdown.charAt(end) == '-')) {
+            end++;
+        }
+        if (end == start + 2) {
+            return -1;
+        }
+        if (end < length && markdown.charAt(end) == '/') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Matches an optional {@code [caption](} followed by an image URL, taking the shortest caption.
+     *
+     * @return the end of the match, or -1
+     */
+    private static int matchImage(String markdown, int start, boolean previewReddIt) {
+        if (markdown.charAt(start) != '[') {
+            return matchImageUrl(markdown, start, previewReddIt);
+        }
+
+        int length = markdown.length();
+        for (int i = start + 1; i < length; i++) {
+            char c = markdown.charAt(i);
+            if (c == ']' && i + 1 < length && markdown.charAt(i + 1) == '(') {
+                int end = matchImageUrl(markdown, i + 2, previewReddIt);
+                if (end != -1) {
+                    return end;
+                }
+            }
+            if (isLineTerminator(c) || (c == '[' && markdown.charAt(i - 1) != '\\')) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches {@code https://preview.redd.it/\w+.(jpg|png|jpeg)} with an optional query, or
+     * {@code https://i.redd.it/\w+.(jpg|png|jpeg|gif)}.
+     *
+     * @return the end of the match, or -1
+     */
+    private static int matchImageUrl(String markdown, int start, boolean previewReddIt) {
+        String host = previewReddIt ? "https://preview" : "https://i";
+        int length = markdown.length();
+        int i = start + host.length();
+        if (i + 9 > length || !markdown.startsWith(host, start)
+                || isLineTerminator(markdown.charAt(i)) || !markdown.startsWith("redd", i + 1)
+                || isLineTerminator(markdown.charAt(i + 5)) || !markdown.startsWith("it/", i + 6)) {
+            return -1;
+        }
+        i += 9;
+
+        int idEnd = i;
+        while (idEnd < length && isWordCharacter(markdown.charAt(idEnd))) {
+            idEnd++;
+        }
+        // Like the greedy \w+ of the regex, give back characters until the extension matches.
+        for (int dot = idEnd; dot > i; dot--) {
+            if (dot >= length || isLineTerminator(markdown.charAt(dot))) {
+                continue;
+            }
+            int end = matchExtension(markdown, dot + 1,
+                    previewReddIt ? PREVIEW_REDD_IT_EXTENSIONS : I_REDD_IT_EXTENSIONS);
+            if (end != -1) {
+                return previewReddIt ? matchQuery(markdown, end) : end;
+            }
+        }
+        return -1;
+    }
+
+    private static int matchExtension(String markdown, int start, String[] extensions) {
+        for (String extension : extensions) {
+            if (markdown.startsWith(extension, start)) {
+                return start + extension.length();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the end of {@code \?+[-a-zA-Z0-9()@:%_+.~#?&/=]*} starting at start, or start if there is no query
+     */
+    private static int matchQuery(String markdown, int start) {
+        int length = markdown.length();
+        if (start >= length || markdown.charAt(start) != '?') {
+            return start;
+        }
+        int end = start + 1;
+        while (end < length && isQueryCharacter(markdown.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    // \s without Pattern.UNICODE_CHARACTER_CLASS
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // \w without Pattern.UNICODE_CHARACTER_CLASS
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    // Characters . does not match without Pattern.DOTALL
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isQueryCharacter(char c) {
+        if (isWordCharacter(c)) {
+            return true;
+        }
+        switch (c) {
+            case '-':
+            case '(':
+            case ')':
+            case '@':
+            case ':':
+            case '%':
+            case '+':
+            case '.':
+            case '~':
+            case '#':
+            case '?':
+            case '&':
+            case '/':
+            case '=':
+                return true;
+            default:
+                return false;
+        }
+    }
+}
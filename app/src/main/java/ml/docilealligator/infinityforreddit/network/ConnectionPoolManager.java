@@ -0,0 +1,110 @@
+package ml.docilealligator.infinityforreddit.network;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.ThreadMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import ml.docilealligator.infinityforreddit.events.SwitchAccountEvent;
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+import okhttp3.ConnectionPool;
+
+/**
+ * Owns the OkHttp connection pools shared by the app's clients.
+ *
+ * Reddit API calls and media requests (video segments, CDN downloads) get separate pools, so a
+ * burst of media connections cannot push the warm oauth.reddit.com connection out of the pool.
+ * Idle connection count and keep-alive are read from the settings once at startup.
+ */
+public class ConnectionPoolManager {
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final int DEFAULT_KEEP_ALIVE_SECONDS = 300;
+    private static final int MEDIA_KEEP_ALIVE_SECONDS = 60;
+
+    private final ConnectionPool apiConnectionPool;
+    private final ConnectionPool mediaConnectionPool;
+    private final ConnectionReuseEventListener.Factory apiEventListenerFactory;
+    private final ConnectionReuseEventListener.Factory mediaEventListenerFactory;
+    // SharedPreferences only keeps weak references to its listeners.
+    private final SharedPreferences.OnSharedPreferenceChangeListener proxyChangeListener;
+
+    public ConnectionPoolManager(SharedPreferences sharedPreferences, SharedPreferences proxySharedPreferences,
+                                 Executor executor) {
+        int maxIdleConnections = parseInt(sharedPreferences.getString(
+                SharedPreferencesUtils.CONNECTION_POOL_MAX_IDLE_CONNECTIONS, null), DEFAULT_MAX_IDLE_CONNECTIONS);
+        // OkHttp rejects a zero keep-alive, idle connections are disabled with maxIdleConnections instead.
+        int keepAliveSeconds = Math.max(1, parseInt(sharedPreferences.getString(
+                SharedPreferencesUtils.CONNECTION_POOL_KEEP_ALIVE_SECONDS, null), DEFAULT_KEEP_ALIVE_SECONDS));
+
+        apiConnectionPool = new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+        mediaConnectionPool = new ConnectionPool(maxIdleConnections,
+                Math.min(keepAliveSeconds, MEDIA_KEEP_ALIVE_SECONDS), TimeUnit.SECONDS);
+        apiEventListenerFactory = new ConnectionReuseEventListener.Factory(ConnectionReuseStats.API);
+        mediaEventListenerFactory = new ConnectionReuseEventListener.Factory(ConnectionReuseStats.MEDIA);
+
+        // Closing TLS sockets may write to the network, so never do it on the main thread.
+        proxyChangeListener = (preferences, key) -> executor.execute(this::evictAll);
+        proxySharedPreferences.registerOnSharedPreferenceChangeListener(proxyChangeListener);
+        EventBus.getDefault().register(this);
+    }
+
+    @NonNull
+    public ConnectionPool getApiConnectionPool() {
+        return apiConnectionPool;
+    }
+
+    @NonNull
+    public ConnectionPool getMediaConnectionPool() {
+        return mediaConnectionPool;
+    }
+
+    @NonNull
+    public ConnectionReuseEventListener.Factory getApiEventListenerFactory() {
+        return apiEventListenerFactory;
+    }
+
+    @NonNull
+    public ConnectionReuseEventListener.Factory getMediaEventListenerFactory() {
+        return mediaEventListenerFactory;
+    }
+
+    public int getIdleConnectionCount() {
+        return apiConnectionPool.idleConnectionCount() + mediaConnectionPool.idleConnectionCount();
+    }
+
+    public int getConnectionCount() {
+        return apiConnectionPool.connectionCount() + mediaConnectionPool.connectionCount();
+    }
+
+    /**
+     * Closes every idle connection. In-flight calls keep their connection until they finish.
+     */
+    public void evictAll() {
+        apiConnectionPool.evictAll();
+        mediaConnectionPool.evictAll();
+    }
+
+    @Subscribe(threadMode = ThreadMode.BACKGROUND)
+    public void onSwitchAccountEvent(SwitchAccountEvent event) {
+        // Connections are not bound to an account, but dropping them makes sure nothing
+        // negotiated for the previous account outlives the switch.
+        apiConnectionPool.evictAll();
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ml.docilealligator.infinityforreddit.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * Records for every call whether it got a pooled connection or had to open a new one.
+ */
+public class ConnectionReuseEventListener extends EventListener {
+    private final ConnectionReuseStats stats;
+    private long connectStartNanos = -1;
+    private boolean connected;
+    private boolean tls;
+
+    private ConnectionReuseEventListener(ConnectionReuseStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        stats.onCall();
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        tls = true;
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        if (connectStartNanos >= 0) {
+            stats.onConnectEnd(System.nanoTime() - connectStartNanos, tls);
+            connected = true;
+        }
+    }
+
+    @Override
+    public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+        // A call can acquire several connections (redirects, retries). Each one is new only if it
+        // was connected since the previous acquisition.
+        stats.onConnectionAcquired(!connected);
+        connected = false;
+        connectStartNanos = -1;
+        tls = false;
+    }
+
+    public static class Factory implements EventListener.Factory {
+        private final ConnectionReuseStats stats;
+
+        Factory(ConnectionReuseStats stats) {
+            this.stats = stats;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            return new ConnectionReuseEventListener(stats);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ml.docilealligator.infinityforreddit.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide counters of how often HTTP calls could reuse a pooled connection, per host class.
+ */
+public class ConnectionReuseStats {
+    public static final ConnectionReuseStats API = new ConnectionReuseStats("API");
+    public static final ConnectionReuseStats MEDIA = new ConnectionReuseStats("Media");
+
+    private final String name;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong connectTimeNanos = new AtomicLong();
+
+    private ConnectionReuseStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void onCall() {
+        calls.incrementAndGet();
+    }
+
+    void onConnectionAcquired(boolean reused) {
+        if (reused) {
+            reusedConnections.incrementAndGet();
+        } else {
+            newConnections.incrementAndGet();
+        }
+    }
+
+    void onConnectEnd(long durationNanos, boolean tls) {
+        connectTimeNanos.addAndGet(durationNanos);
+        if (tls) {
+            tlsHandshakes.incrementAndGet();
+        }
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getReusedConnections() {
+        return reusedConnections.get();
+    }
+
+    public long getNewConnections() {
+        return newConnections.get();
+    }
+
+    public long getTlsHandshakes() {
+        return tlsHandshakes.get();
+    }
+
+    /**
+     * @return average time spent on TCP connect + TLS handshake for new connections, in milliseconds
+     */
+    public long getAverageConnectTimeMillis() {
+        long connections = newConnections.get();
+        return connections == 0 ? 0 : connectTimeNanos.get() / connections / 1_000_000;
+    }
+
+    /**
+     * @return an estimate of the time saved by reusing connections, in milliseconds
+     */
+    public long getEstimatedTimeSavedMillis() {
+        return getAverageConnectTimeMillis() * reusedConnections.get();
+    }
+
+    public void reset() {
+        calls.set(0);
+        reusedConnections.set(0);
+        newConnections.set(0);
+        tlsHandshakes.set(0);
+        connectTimeNanos.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        long acquired = reusedConnections.get() + newConnections.get();
+        long reusePercent = acquired == 0 ? 0 : reusedConnections.get() * 100 / acquired;
+        return "Calls: " + calls.get()
+                + "\nReused connections: " + reusedConnections.get() + " (" + reusePercent + "%)"
+                + "\nNew connections: " + newConnections.get()
+                + "\nTLS handshakes: " + tlsHandshakes.get()
+                + "\nAverage connect time: " + getAverageConnectTimeMillis() + " ms"
+                + "\nEstimated time saved: " + getEstimatedTimeSavedMillis() + " ms";
+    }
+}
@@ -0,0 +1,178 @@
+package ml.docilealligator.infinityforreddit.network;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import ml.docilealligator.infinityforreddit.utils.ImageMetadataStripper;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body that streams a file straight from a content Uri while it is being sent, so uploads
+ * hold a small buffer instead of the whole file or a decoded bitmap.
+ *
+ * The Uri is opened again for every write, which lets OkHttp retry the request. Images can have
+ * their metadata removed on the way with {@link ImageMetadataStripper}.
+ */
+public class ContentUriRequestBody extends RequestBody {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ContentResolver contentResolver;
+    private final Uri uri;
+    @Nullable
+    private final MediaType mediaType;
+    @Nullable
+    private final ProgressListener progressListener;
+    private final boolean stripImageMetadata;
+    private long contentLength = -2;
+
+    public ContentUriRequestBody(ContentResolver contentResolver, Uri uri, @Nullable MediaType mediaType,
+                                 @Nullable ProgressListener progressListener) {
+        this(contentResolver, uri, mediaType, progressListener, false);
+    }
+
+    /**
+     * @param stripImageMetadata whether to send a JPEG or PNG without its EXIF, XMP and text metadata
+     */
+    public ContentUriRequestBody(ContentResolver contentResolver, Uri uri, @Nullable MediaType mediaType,
+                                 @Nullable ProgressListener progressListener, boolean stripImageMetadata) {
+        this.contentResolver = contentResolver;
+        this.uri = uri;
+        this.mediaType = mediaType;
+        this.progressListener = progressListener;
+        this.stripImageMetadata = stripImageMetadata;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        if (contentLength == -2) {
+            contentLength = querySize();
+        }
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        long contentLength = contentLength();
+        ProgressOutputStream out = new ProgressOutputStream(sink, contentLength);
+        try (InputStream in = openInputStream()) {
+            if (stripImageMetadata) {
+                ImageMetadataStripper.strip(in, out);
+            } else {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+        if (progressListener != null) {
+            progressListener.update(out.bytesWritten, contentLength, true);
+        }
+    }
+
+    private InputStream openInputStream() throws FileNotFoundException {
+        InputStream inputStream = contentResolver.openInputStream(uri);
+        if (inputStream == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        return inputStream;
+    }
+
+    /**
+     * @return the size of the body, or -1 if it cannot be found out
+     */
+    private long querySize() {
+        long size = queryFileSize();
+        if (!stripImageMetadata || size < 0) {
+            return size;
+        }
+        // The metadata is only known after reading the headers of the image.
+        try (InputStream in = openInputStream()) {
+            return ImageMetadataStripper.getStrippedLength(in, size);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * @return the size of the file, or -1 if it cannot be found out, in which case the body is
+     * sent chunked
+     */
+    private long queryFileSize() {
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme()) && uri.getPath() != null) {
+            return new File(uri.getPath()).length();
+        }
+        try (Cursor cursor = contentResolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            // Not every provider supports queries.
+        }
+        // S3 rejects chunked uploads, so ask the provider for the file itself as a last resort.
+        try (AssetFileDescriptor descriptor = contentResolver.openAssetFileDescriptor(uri, "r")) {
+            if (descriptor != null) {
+                return descriptor.getLength();
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    private class ProgressOutputStream extends OutputStream {
+        private final BufferedSink sink;
+        private final long contentLength;
+        long bytesWritten;
+
+        ProgressOutputStream(BufferedSink sink, long contentLength) {
+            this.sink = sink;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            sink.writeByte(b);
+            onWritten(1);
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            sink.write(b, off, len);
+            onWritten(len);
+        }
+
+        private void onWritten(int count) {
+            bytesWritten += count;
+            if (progressListener != null) {
+                progressListener.update(bytesWritten, contentLength, false);
+            }
+        }
+    }
+
+    public interface ProgressListener {
+        void update(long bytesWritten, long contentLength, boolean done);
+    }
+}
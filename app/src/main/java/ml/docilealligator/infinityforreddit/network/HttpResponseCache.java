@@ -0,0 +1,245 @@
+package ml.docilealligator.infinityforreddit.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ml.docilealligator.infinityforreddit.account.Account;
+import ml.docilealligator.infinityforreddit.utils.APIUtils;
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Disk backed HTTP cache for Reddit's "about" style endpoints: subreddit and user about.json,
+ * rules, flairs and wiki pages.
+ *
+ * Reddit marks these responses as immediately stale, so they are rewritten to be storable and
+ * the request side decides how long a stored copy may be used without asking the server
+ * ("max-stale", configurable in settings). After that OkHttp revalidates with ETag/Last-Modified
+ * when the server sent them. While offline, stored responses are served without touching the
+ * network. Every other request passes through untouched.
+ *
+ * Responses differ between accounts, so stored copies are keyed on the account name instead of the
+ * Authorization header. The access token changes every hour and would make every stored copy
+ * unusable after a refresh, offline included.
+ */
+public class HttpResponseCache {
+    public static final String DEFAULT_MAX_STALE_SECONDS = "60";
+    private static final long MAX_SIZE_BYTES = 10 * 1024 * 1024;
+    // Only used by the cache for Vary, it is removed before the request goes out.
+    private static final String CACHE_ACCOUNT_HEADER = "X-Cache-Account";
+
+    public enum EndpointFamily {
+        SUBREDDIT_ABOUT("Subreddit about"),
+        USER_ABOUT("User about"),
+        RULES("Rules"),
+        FLAIRS("Flairs"),
+        WIKI("Wiki");
+
+        private final String displayName;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong conditionalHits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        EndpointFamily(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getConditionalHits() {
+            return conditionalHits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        void reset() {
+            hits.set(0);
+            conditionalHits.set(0);
+            misses.set(0);
+        }
+
+        /**
+         * @return the family of {@code request}, or null if it must not be cached
+         */
+        @Nullable
+        static EndpointFamily of(@NonNull Request request) {
+            if (!"GET".equals(request.method())) {
+                return null;
+            }
+            List<String> segments = request.url().pathSegments();
+            int size = segments.size();
+            if (size < 3) {
+                return null;
+            }
+            String first = segments.get(0);
+            String last = segments.get(size - 1);
+            if (first.equals("r")) {
+                if (size == 3 && last.equals("about.json")) {
+                    return SUBREDDIT_ABOUT;
+                }
+                if (size == 4 && segments.get(2).equals("about") && last.equals("rules.json")) {
+                    return RULES;
+                }
+                if (size == 4 && segments.get(2).equals("api")
+                        && (last.equals("link_flair.json") || last.equals("user_flair_v2.json"))) {
+                    return FLAIRS;
+                }
+                if (size >= 4 && segments.get(2).equals("wiki") && last.endsWith(".json")) {
+                    return WIKI;
+                }
+            } else if (first.equals("user") && size == 3 && last.equals("about.json")) {
+                return USER_ABOUT;
+            }
+            return null;
+        }
+    }
+
+    private final Context context;
+    private final SharedPreferences sharedPreferences;
+    private final SharedPreferences currentAccountSharedPreferences;
+    private final Cache cache;
+
+    public HttpResponseCache(Context context, SharedPreferences sharedPreferences,
+                             SharedPreferences currentAccountSharedPreferences, File cacheDirectory) {
+        this.context = context.getApplicationContext();
+        this.sharedPreferences = sharedPreferences;
+        this.currentAccountSharedPreferences = currentAccountSharedPreferences;
+        this.cache = new Cache(cacheDirectory, MAX_SIZE_BYTES);
+    }
+
+    /**
+     * Adds the cache and its interceptors to a client used for Reddit API calls.
+     */
+    @NonNull
+    public OkHttpClient.Builder applyTo(@NonNull OkHttpClient.Builder builder) {
+        return builder.cache(cache)
+                .addInterceptor(this::interceptRequest)
+                .addNetworkInterceptor(this::interceptNetworkResponse);
+    }
+
+    public long getSize() {
+        try {
+            return cache.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public long getMaxSize() {
+        return cache.maxSize();
+    }
+
+    public void resetStats() {
+        for (EndpointFamily family : EndpointFamily.values()) {
+            family.reset();
+        }
+    }
+
+    public void evictAll() throws IOException {
+        cache.evictAll();
+    }
+
+    private Response interceptRequest(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        EndpointFamily family = EndpointFamily.of(request);
+        if (family == null) {
+            return chain.proceed(request);
+        }
+
+        CacheControl cacheControl;
+        if (isOffline()) {
+            cacheControl = new CacheControl.Builder()
+                    .onlyIfCached()
+                    .maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS)
+                    .build();
+        } else {
+            cacheControl = new CacheControl.Builder()
+                    .maxStale(getMaxStaleSeconds(), TimeUnit.SECONDS)
+                    .build();
+        }
+
+        // Requests without a token are made as the anonymous account.
+        String accountName = request.header(APIUtils.AUTHORIZATION_KEY) == null ? Account.ANONYMOUS_ACCOUNT
+                : currentAccountSharedPreferences.getString(SharedPreferencesUtils.ACCOUNT_NAME, Account.ANONYMOUS_ACCOUNT);
+        Response response = chain.proceed(request.newBuilder()
+                .cacheControl(cacheControl)
+                .header(CACHE_ACCOUNT_HEADER, accountName)
+                .build());
+        if (response.networkResponse() == null) {
+            if (response.cacheResponse() != null) {
+                family.hits.incrementAndGet();
+            }
+        } else if (response.cacheResponse() != null) {
+            family.conditionalHits.incrementAndGet();
+        } else {
+            family.misses.incrementAndGet();
+        }
+        return response;
+    }
+
+    private Response interceptNetworkResponse(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(CACHE_ACCOUNT_HEADER) == null) {
+            // Not a cached endpoint family.
+            return chain.proceed(request);
+        }
+        Response response = chain.proceed(request.newBuilder().removeHeader(CACHE_ACCOUNT_HEADER).build());
+        if (!response.isSuccessful() && response.code() != HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return response.newBuilder().request(request).build();
+        }
+        // Storable but always stale, the request's max-stale decides when to revalidate. A 304's
+        // headers are merged into the stored response, so they get the same rewrite. The cache reads
+        // Vary values from the response's request, so it gets back the account header.
+        return response.newBuilder()
+                .request(request)
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "private, max-age=0")
+                .header("Vary", CACHE_ACCOUNT_HEADER)
+                .build();
+    }
+
+    private int getMaxStaleSeconds() {
+        try {
+            return Integer.parseInt(sharedPreferences.getString(
+                    SharedPreferencesUtils.HTTP_CACHE_MAX_STALE_SECONDS, DEFAULT_MAX_STALE_SECONDS));
+        } catch (NumberFormatException e) {
+            return Integer.parseInt(DEFAULT_MAX_STALE_SECONDS);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private boolean isOffline() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return false;
+        }
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        return networkInfo == null || !networkInfo.isConnected();
+    }
+}
@@ -0,0 +1,173 @@
+package ml.docilealligator.infinityforreddit.post;
+
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.ArrayDeque;
+
+/**
+ * Starts loading the preview images of the posts the user is scrolling towards, so they are already in
+ * Glide's memory cache when the posts are bound.
+ *
+ * The more posts a second are scrolled, the further ahead it preloads, between {@link #MIN_PRELOAD_ITEMS}
+ * and {@link #MAX_PRELOAD_ITEMS} posts. Preloads still running are cancelled when the scroll direction
+ * changes or {@link #cancel()} is called.
+ */
+public class FeedImagePreloader extends RecyclerView.OnScrollListener {
+    private static final int MIN_PRELOAD_ITEMS = 2;
+    private static final int MAX_PRELOAD_ITEMS = 8;
+    // How far ahead in time the posts are preloaded at the current scroll speed.
+    private static final long LOOKAHEAD_MILLIS = 1000;
+
+    public interface PreloadRequestProvider {
+        /**
+         * @return false if nothing should be preloaded, e.g. in data saving mode
+         */
+        boolean isPreloadEnabled();
+
+        /**
+         * @return the request the post at the position makes when it is bound, with the size of its image
+         * view as override, or null if it has nothing to preload
+         */
+        @Nullable
+        RequestBuilder<Drawable> getPreloadRequest(int position);
+    }
+
+    private final RequestManager requestManager;
+    private final PreloadRequestProvider preloadRequestProvider;
+    private final ArrayDeque<Target<Drawable>> targets = new ArrayDeque<>();
+    private int direction;
+    // The furthest position preloaded in the current direction.
+    private int preloadedPosition = RecyclerView.NO_POSITION;
+    private long lastScrollTimeMillis;
+    private float pixelsPerMillis;
+
+    public FeedImagePreloader(@NonNull RequestManager requestManager, @NonNull PreloadRequestProvider preloadRequestProvider) {
+        this.requestManager = requestManager;
+        this.preloadRequestProvider = preloadRequestProvider;
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            lastScrollTimeMillis = 0;
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0) {
+            return;
+        }
+        if (!preloadRequestProvider.isPreloadEnabled()) {
+            cancel();
+            return;
+        }
+
+        int newDirection = dy > 0 ? 1 : -1;
+        if (newDirection != direction) {
+            cancel();
+            direction = newDirection;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        if (lastScrollTimeMillis != 0 && now > lastScrollTimeMillis) {
+            pixelsPerMillis = (pixelsPerMillis + (float) Math.abs(dy) / (now - lastScrollTimeMillis)) / 2;
+        }
+        lastScrollTimeMillis = now;
+
+        int[] visibleRange = getVisibleRange(recyclerView.getLayoutManager());
+        if (visibleRange == null) {
+            return;
+        }
+        int visibleItemCount = visibleRange[1] - visibleRange[0] + 1;
+        float pixelsPerItem = (float) recyclerView.getHeight() / visibleItemCount;
+        int preloadItemCount = pixelsPerItem <= 0 ? MIN_PRELOAD_ITEMS :
+                Math.max(MIN_PRELOAD_ITEMS, Math.min(MAX_PRELOAD_ITEMS,
+                        Math.round(pixelsPerMillis * LOOKAHEAD_MILLIS / pixelsPerItem)));
+
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        int itemCount = adapter == null ? 0 : adapter.getItemCount();
+        if (direction > 0) {
+            int start = preloadedPosition == RecyclerView.NO_POSITION ? visibleRange[1] + 1
+                    : Math.max(visibleRange[1] + 1, preloadedPosition + 1);
+            int end = Math.min(visibleRange[1] + preloadItemCount, itemCount - 1);
+            for (int i = start; i <= end; i++) {
+                preload(i);
+            }
+        } else {
+            int start = preloadedPosition == RecyclerView.NO_POSITION ? visibleRange[0] - 1
+                    : Math.min(visibleRange[0] - 1, preloadedPosition - 1);
+            int end = Math.max(visibleRange[0] - preloadItemCount, 0);
+            for (int i = start; i >= end; i--) {
+                preload(i);
+            }
+        }
+    }
+
+    /**
+     * Cancels the preloads that are still running. Images that already finished stay in the memory cache.
+     */
+    public void cancel() {
+        for (Target<Drawable> target : targets) {
+            requestManager.clear(target);
+        }
+        targets.clear();
+        preloadedPosition = RecyclerView.NO_POSITION;
+    }
+
+    private void preload(int position) {
+        preloadedPosition = position;
+        RequestBuilder<Drawable> request = preloadRequestProvider.getPreloadRequest(position);
+        if (request == null) {
+            return;
+        }
+        targets.add(request.preload());
+        if (targets.size() > MAX_PRELOAD_ITEMS) {
+            requestManager.clear(targets.poll());
+        }
+    }
+
+    /**
+     * @return the first and last visible positions, or null if nothing is laid out
+     */
+    @Nullable
+    private static int[] getVisibleRange(@Nullable RecyclerView.LayoutManager layoutManager) {
+        int first;
+        int last;
+        if (layoutManager instanceof LinearLayoutManager) {
+            first = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            last = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+            first = Integer.MAX_VALUE;
+            last = RecyclerView.NO_POSITION;
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findFirstVisibleItemPositions(null)) {
+                if (position != RecyclerView.NO_POSITION) {
+                    first = Math.min(first, position);
+                }
+            }
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(null)) {
+                last = Math.max(last, position);
+            }
+            if (first == Integer.MAX_VALUE) {
+                first = RecyclerView.NO_POSITION;
+            }
+        } else {
+            return null;
+        }
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) {
+            return null;
+        }
+        return new int[]{first, last};
+    }
+}
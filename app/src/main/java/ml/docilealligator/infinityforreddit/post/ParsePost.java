@@ -15,7 +15,6 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,48 +30,15 @@ import ml.docilealligator.infinityforreddit.utils.Utils;
  */
 
 public class ParsePost {
+    /**
+     * Parses a post listing with {@link PostListingStreamParser}, without building a JSON tree for
+     * the whole response.
+     */
     @WorkerThread
+    @Nullable
     public static LinkedHashSet<Post> parsePostsSync(String response, int nPosts, PostFilter postFilter, @Nullable ReadPostsListInterface readPostsList) {
-        LinkedHashSet<Post> newPosts = new LinkedHashSet<>();
-        try {
-            JSONObject jsonResponse = new JSONObject(response);
-            JSONArray allPostsData = jsonResponse.getJSONObject(JSONUtils.DATA_KEY).getJSONArray(JSONUtils.CHILDREN_KEY);
-
-            //Posts listing
-            int numberOfPosts = (nPosts < 0 || nPosts > allPostsData.length()) ?
-                    allPostsData.length() : nPosts;
-
-            ArrayList<String> newPostsIds = new ArrayList<>();
-            for (int i = 0; i < numberOfPosts; i++) {
-                try {
-                    if (!allPostsData.getJSONObject(i).getString(JSONUtils.KIND_KEY).equals("t3")) {
-                        continue;
-                    }
-                    JSONObject data = allPostsData.getJSONObject(i).getJSONObject(JSONUtils.DATA_KEY);
-                    Post post = parseBasicData(data);
-                    if (PostFilter.isPostAllowed(post, postFilter)) {
-                        newPosts.add(post);
-                        newPostsIds.add(post.getId());
-                    }
-                } catch (JSONException e) {
-                    e.printStackTrace();
-                }
-            }
-
-            if (readPostsList != null) {
-                Set<String> readPostsIds = readPostsList.getReadPostsIdsByIds(newPostsIds);
-                for (Post post: newPosts) {
-                    if (readPostsIds.contains(post.getId())) {
-                        post.markAsRead();
-                    }
-                }
-            }
-
-            return newPosts;
-        } catch (JSONException e) {
-            e.printStackTrace();
-            return null;
-        }
+        PostListingStreamParser.Listing listing = PostListingStreamParser.parse(response, nPosts, postFilter, readPostsList);
+        return listing == null ? null : listing.posts;
     }
 
     public static String getLastItem(String response) {
@@ -152,6 +118,7 @@ public class ParsePost {
         String subredditName = data.getString(JSONUtils.SUBREDDIT_KEY);
         String subredditNamePrefixed = data.getString(JSONUtils.SUBREDDIT_NAME_PREFIX_KEY);
         String author = data.getString(JSONUtils.AUTHOR_KEY);
+        String authorFullName = data.isNull(JSONUtils.AUTHOR_FULLNAME_KEY) ? null : data.getString(JSONUtils.AUTHOR_FULLNAME_KEY);
         StringBuilder authorFlairHTMLBuilder = new StringBuilder();
         if (data.has(JSONUtils.AUTHOR_FLAIR_RICHTEXT_KEY)) {
             JSONArray flairArray = data.getJSONArray(JSONUtils.AUTHOR_FLAIR_RICHTEXT_KEY);
@@ -252,15 +219,18 @@ public class ParsePost {
                     true, canModPost, approved, approvedAtUTC, approvedBy, spam, distinguished,
                     suggestedSort);
             post.setCrosspostParentId(crosspostParent.getId());
+            post.setAuthorFullName(authorFullName);
             return post;
         } else {
-            return parseData(data, permalink, id, fullName, subredditName, subredditNamePrefixed,
+            Post post = parseData(data, permalink, id, fullName, subredditName, subredditNamePrefixed,
                     author, authorFlair, authorFlairHTMLBuilder.toString(),
                     postTime, title, previews, mediaMetadataMap,
                     score, voteType, nComments, upvoteRatio, flair, hidden,
                     spoiler, nsfw, stickied, archived, locked, saved, sendReplies, deleted, removed,
                     false, canModPost, approved, approvedAtUTC, approvedBy, spam, distinguished,
                     suggestedSort);
+            post.setAuthorFullName(authorFullName);
+            return post;
         }
     }
 
@@ -9,6 +9,7 @@ import androidx.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Map;
 
+import ml.docilealligator.infinityforreddit.thing.DisplayModel;
 import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 
@@ -34,6 +35,8 @@ public class Post implements Parcelable {
     private String author;
     private String authorNamePrefixed;
     private String authorIconUrl;
+    @Nullable
+    private String authorFullName;
     private final String authorFlair;
     private final String authorFlairHTML;
     private String title;
@@ -83,6 +86,9 @@ public class Post implements Parcelable {
     private String approvedBy;
     private boolean removed;
     private boolean spam;
+    // Set on the cpu lane and read while binding, not parcelled.
+    @Nullable
+    private transient volatile DisplayModel displayModel;
 
     //Text and video posts
     public Post(String id, String fullName, String subredditName, String subredditNamePrefixed,
@@ -183,6 +189,7 @@ public class Post implements Parcelable {
         author = in.readString();
         authorNamePrefixed = in.readString();
         authorIconUrl = in.readString();
+        authorFullName = in.readString();
         authorFlair = in.readString();
         authorFlairHTML = in.readString();
         title = in.readString();
@@ -301,6 +308,18 @@ public class Post implements Parcelable {
         this.authorIconUrl = authorIconUrl;
     }
 
+    /**
+     * @return the author's t2_ fullname, or null for deleted authors
+     */
+    @Nullable
+    public String getAuthorFullName() {
+        return authorFullName;
+    }
+
+    public void setAuthorFullName(@Nullable String authorFullName) {
+        this.authorFullName = authorFullName;
+    }
+
     public long getPostTimeMillis() {
         return postTimeMillis;
     }
@@ -529,6 +548,7 @@ public class Post implements Parcelable {
         dest.writeString(author);
         dest.writeString(authorNamePrefixed);
         dest.writeString(authorIconUrl);
+        dest.writeString(authorFullName);
         dest.writeString(authorFlair);
         dest.writeString(authorFlairHTML);
         dest.writeString(title);
@@ -692,6 +712,15 @@ public class Post implements Parcelable {
         this.mediaMetadataMap = mediaMetadataMap;
     }
 
+    @Nullable
+    public DisplayModel getDisplayModel() {
+        return displayModel;
+    }
+
+    public void setDisplayModel(@Nullable DisplayModel displayModel) {
+        this.displayModel = displayModel;
+    }
+
     public ArrayList<Gallery> getGallery() {
         return gallery;
     }
@@ -0,0 +1,274 @@
+package ml.docilealligator.infinityforreddit.post;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import ml.docilealligator.infinityforreddit.postfilter.PostFilter;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsListInterface;
+import ml.docilealligator.infinityforreddit.utils.JSONUtils;
+
+/**
+ * Pull parser for post listings (/hot, /best, /new...).
+ *
+ * Instead of building an org.json tree for the whole listing, the response is read token by token
+ * and every children[i].data object is materialized on its own, keeping only the fields that
+ * {@link ParsePost#parseBasicData(JSONObject)} reads. Everything else (awardings, embed html,
+ * treatment tags...) is skipped without being allocated, so only one small post object is alive
+ * at a time.
+ */
+public class PostListingStreamParser {
+    /**
+     * Top level fields of a post that the post mapping needs. Values of these fields are kept as a
+     * whole, e.g. the entire preview object.
+     */
+    @VisibleForTesting
+    static final Set<String> POST_FIELDS = new HashSet<>(Arrays.asList(
+            JSONUtils.ID_KEY, JSONUtils.NAME_KEY, JSONUtils.SUBREDDIT_KEY, JSONUtils.SUBREDDIT_NAME_PREFIX_KEY,
+            JSONUtils.AUTHOR_KEY, JSONUtils.AUTHOR_FULLNAME_KEY, JSONUtils.AUTHOR_FLAIR_RICHTEXT_KEY, JSONUtils.AUTHOR_FLAIR_TEXT_KEY,
+            JSONUtils.DISTINGUISHED_KEY, JSONUtils.SUGGESTED_SORT_KEY, JSONUtils.CREATED_UTC_KEY,
+            JSONUtils.TITLE_KEY, JSONUtils.SCORE_KEY, JSONUtils.NUM_COMMENTS_KEY, JSONUtils.UPVOTE_RATIO_KEY,
+            JSONUtils.HIDDEN_KEY, JSONUtils.SPOILER_KEY, JSONUtils.NSFW_KEY, JSONUtils.STICKIED_KEY,
+            JSONUtils.ARCHIVED_KEY, JSONUtils.LOCKED_KEY, JSONUtils.SAVED_KEY, JSONUtils.SEND_REPLIES_KEY,
+            JSONUtils.REMOVED_BY_CATEGORY_KEY, JSONUtils.CAN_MOD_POST_KEY, JSONUtils.APPROVED_KEY,
+            JSONUtils.APPROVED_AT_UTC_KEY, JSONUtils.APPROVED_BY_KEY, JSONUtils.SPAM_KEY,
+            JSONUtils.LINK_FLAIR_RICHTEXT_KEY, JSONUtils.LINK_FLAIR_TEXT_KEY, JSONUtils.LIKES_KEY,
+            JSONUtils.PERMALINK_KEY, JSONUtils.PREVIEW_KEY, JSONUtils.MEDIA_METADATA_KEY,
+            JSONUtils.IS_VIDEO_KEY, JSONUtils.URL_KEY, JSONUtils.MEDIA_KEY, JSONUtils.SELFTEXT_KEY,
+            JSONUtils.SELFTEXT_HTML_KEY, JSONUtils.GALLERY_DATA_KEY));
+
+    /**
+     * Same contract as {@link ParsePost#parsePostsSync(String, int, PostFilter, ReadPostsListInterface)}.
+     *
+     * @return the posts of the listing, or null if the listing itself is malformed
+     */
+    @WorkerThread
+    @Nullable
+    public static Listing parse(@NonNull String response, int nPosts, PostFilter postFilter,
+                                @Nullable ReadPostsListInterface readPostsList) {
+        try {
+            return parse(new StringReader(response), nPosts, postFilter, readPostsList);
+        } catch (IOException | IllegalStateException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @WorkerThread
+    @NonNull
+    public static Listing parse(@NonNull Reader response, int nPosts, PostFilter postFilter,
+                                @Nullable ReadPostsListInterface readPostsList) throws IOException {
+        LinkedHashSet<Post> newPosts = new LinkedHashSet<>();
+        ArrayList<String> newPostsIds = new ArrayList<>();
+        String after = null;
+        boolean hasChildren = false;
+
+        try (JsonReader reader = new JsonReader(response)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!JSONUtils.DATA_KEY.equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (JSONUtils.CHILDREN_KEY.equals(name)) {
+                        hasChildren = true;
+                        reader.beginArray();
+                        int index = 0;
+                        while (reader.hasNext()) {
+                            if (nPosts >= 0 && index >= nPosts) {
+                                reader.skipValue();
+                                continue;
+                            }
+                            index++;
+                            Post post = readChild(reader);
+                            if (post != null && PostFilter.isPostAllowed(post, postFilter)) {
+                                newPosts.add(post);
+                                newPostsIds.add(post.getId());
+                            }
+                        }
+                        reader.endArray();
+                    } else if (JSONUtils.AFTER_KEY.equals(name) && reader.peek() == JsonToken.STRING) {
+                        after = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+
+        if (!hasChildren) {
+            throw new IOException("Listing has no children");
+        }
+
+        if (readPostsList != null) {
+            Set<String> readPostsIds = readPostsList.getReadPostsIdsByIds(newPostsIds);
+            for (Post post : newPosts) {
+                if (readPostsIds.contains(post.getId())) {
+                    post.markAsRead();
+                }
+            }
+        }
+
+        return new Listing(newPosts, after);
+    }
+
+    /**
+     * Reads one {"kind": ..., "data": {...}} entry.
+     *
+     * @return the post, or null if the entry is not a post or cannot be mapped
+     */
+    @Nullable
+    private static Post readChild(JsonReader reader) throws IOException {
+        String kind = null;
+        JSONObject data = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (JSONUtils.KIND_KEY.equals(name) && reader.peek() == JsonToken.STRING) {
+                kind = reader.nextString();
+            } else if (JSONUtils.DATA_KEY.equals(name) && (kind == null || kind.equals("t3"))
+                    && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                data = readPostData(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!"t3".equals(kind) || data == null) {
+            return null;
+        }
+        try {
+            return ParsePost.parseBasicData(data);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Reads a post's data object, keeping only {@link #POST_FIELDS} and the crossposted parents.
+     */
+    @VisibleForTesting
+    static JSONObject readPostData(JsonReader reader) throws IOException {
+        JSONObject data = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            try {
+                if (JSONUtils.CROSSPOST_PARENT_LIST.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    JSONArray crosspostParents = new JSONArray();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            crosspostParents.put(readPostData(reader));
+                        } else {
+                            crosspostParents.put(readValue(reader));
+                        }
+                    }
+                    reader.endArray();
+                    data.put(name, crosspostParents);
+                } else if (POST_FIELDS.contains(name)) {
+                    data.put(name, readValue(reader));
+                } else {
+                    reader.skipValue();
+                }
+            } catch (JSONException e) {
+                // Only thrown for non-finite numbers, which Reddit never sends.
+                throw new IOException(e);
+            }
+        }
+        reader.endObject();
+        return data;
+    }
+
+    /**
+     * Reads the next value into the same types {@link org.json.JSONTokener} would produce, so the
+     * org.json getters behave exactly as they do on a fully parsed response.
+     */
+    private static Object readValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT: {
+                JSONObject object = new JSONObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    object.put(name, readValue(reader));
+                }
+                reader.endObject();
+                return object;
+            }
+            case BEGIN_ARRAY: {
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(readValue(reader));
+                }
+                reader.endArray();
+                return array;
+            }
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            case NUMBER:
+                return readNumber(reader.nextString());
+            default:
+                return reader.nextString();
+        }
+    }
+
+    private static Object readNumber(String literal) {
+        if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+            try {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            } catch (NumberFormatException ignore) {
+                // Fall through to double.
+            }
+        }
+        try {
+            return Double.valueOf(literal);
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+
+    public static class Listing {
+        @NonNull
+        public final LinkedHashSet<Post> posts;
+        @Nullable
+        public final String after;
+
+        Listing(@NonNull LinkedHashSet<Post> posts, @Nullable String after) {
+            this.posts = posts;
+            this.after = after;
+        }
+    }
+}
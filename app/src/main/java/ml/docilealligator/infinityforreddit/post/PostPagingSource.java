@@ -48,6 +48,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
     public static final String USER_WHERE_SAVED = "saved";
 
     private final Executor executor;
+    private final Executor ioExecutor;
     private final Retrofit retrofit;
     private final RedditDataRoomDatabase redditDataRoomDatabase;
     private final String accessToken;
@@ -67,11 +68,12 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
     private final LinkedHashSet<Post> postLinkedHashSet;
     private String previousLastItem;
 
-    PostPagingSource(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    PostPagingSource(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                      @Nullable String accessToken, @NonNull String accountName, SharedPreferences sharedPreferences,
                      SharedPreferences postFeedScrolledPositionSharedPreferences, @PostType int postType,
                      SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -86,12 +88,13 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
     }
 
     // PostPagingSource.TYPE_SUBREDDIT || PostPagingSource.TYPE_ANONYMOUS_FRONT_PAGE || PostPagingSource.TYPE_ANONYMOUS_MULTIREDDIT:
-    PostPagingSource(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    PostPagingSource(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                      @Nullable String accessToken, @NonNull String accountName,
                      SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                      String name, @PostType int postType, SortType sortType, PostFilter postFilter,
                      ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -118,12 +121,13 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
     }
 
     // PostPagingSource.TYPE_MULTI_REDDIT
-    PostPagingSource(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    PostPagingSource(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                      @Nullable String accessToken, @NonNull String accountName,
                      SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                      String path, String query, @PostType int postType, SortType sortType, PostFilter postFilter,
                      ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -147,12 +151,13 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
         postLinkedHashSet = new LinkedHashSet<>();
     }
 
-    PostPagingSource(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    PostPagingSource(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                      @Nullable String accessToken, @NonNull String accountName,
                      SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                      String subredditOrUserName, @PostType int postType, SortType sortType, PostFilter postFilter,
                      String where, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -168,12 +173,13 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
         postLinkedHashSet = new LinkedHashSet<>();
     }
 
-    PostPagingSource(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    PostPagingSource(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                      @Nullable String accessToken, @NonNull String accountName,
                      SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                      String subredditOrUserName, String query, String trendingSource, @PostType int postType,
                      SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -219,21 +225,18 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
     public LoadResult<String, Post> transformData(Response<String> response) {
         if (response.isSuccessful()) {
             String responseString = response.body();
-            LinkedHashSet<Post> newPosts = ParsePost.parsePostsSync(responseString, -1, postFilter, readPostsList);
-            String lastItem = ParsePost.getLastItem(responseString);
-            if (newPosts == null) {
+            PostListingStreamParser.Listing listing = PostListingStreamParser.parse(responseString, -1, postFilter, readPostsList);
+            if (listing == null) {
                 return new LoadResult.Error<>(new Exception("Error parsing posts"));
             } else {
+                LinkedHashSet<Post> newPosts = listing.posts;
+                String lastItem = listing.after;
                 int currentPostsSize = postLinkedHashSet.size();
                 if (lastItem != null && lastItem.equals(previousLastItem)) {
                     lastItem = null;
                 }
                 previousLastItem = lastItem;
 
-                if (Account.ANONYMOUS_ACCOUNT.equals(accountName)) {
-                    setMetadataToAnonymousPosts(newPosts);
-                }
-
                 postLinkedHashSet.addAll(newPosts);
                 if (currentPostsSize == postLinkedHashSet.size()) {
                     return new LoadResult.Page<>(new ArrayList<>(), null, lastItem);
@@ -246,7 +249,35 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
         }
     }
 
-    private void setMetadataToAnonymousPosts(LinkedHashSet<Post> posts) {
+    private ListenableFuture<LoadResult<String, Post>> transformPage(ListenableFuture<Response<String>> response) {
+        ListenableFuture<LoadResult<String, Post>> pageFuture;
+        if (readPostsList == null) {
+            pageFuture = Futures.transform(response, this::transformData, executor);
+        } else {
+            // The read posts are loaded from Room on the io lane while the page downloads, so the
+            // parser on the cpu lane only looks them up in memory.
+            ListenableFuture<?> readPostsLoaded = Futures.submit(readPostsList::load, ioExecutor);
+            pageFuture = Futures.whenAllSucceed(response, readPostsLoaded)
+                    .call(() -> transformData(Futures.getDone(response)), executor);
+        }
+        if (Account.ANONYMOUS_ACCOUNT.equals(accountName)) {
+            // Parsing stays on the cpu lane; the Room read for the anonymous votes runs on the io lane after it.
+            return Futures.transform(pageFuture, this::setMetadataToAnonymousPage, ioExecutor);
+        }
+        return pageFuture;
+    }
+
+    private LoadResult<String, Post> setMetadataToAnonymousPage(LoadResult<String, Post> loadResult) {
+        if (loadResult instanceof LoadResult.Page) {
+            List<Post> posts = ((LoadResult.Page<String, Post>) loadResult).getData();
+            if (!posts.isEmpty()) {
+                setMetadataToAnonymousPosts(posts);
+            }
+        }
+        return loadResult;
+    }
+
+    private void setMetadataToAnonymousPosts(List<Post> posts) {
         List<ReadPost> readPostsInDatabase = redditDataRoomDatabase.readPostDao().getAllReadPostsForMetadata(
                 accountName, posts.stream().map(Post::getId).collect(Collectors.toList()));
         Map<String, Post> existingPostsMap = posts.stream().collect(Collectors.toMap(Post::getId, post -> post));
@@ -288,7 +319,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
         bestPost = api.getBestPostsListenableFuture(sortType.getType(), sortType.getTime(), afterKey,
                 APIUtils.getOAuthHeader(accessToken));
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(bestPost, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(bestPost);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -309,7 +340,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
                     APIUtils.getOAuthHeader(accessToken));
         }
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(subredditPost, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(subredditPost);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -329,7 +360,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
                     subredditOrUserName, userWhere, loadParams.getKey(), USER_WHERE_SUBMITTED.equals(userWhere) ? sortType.getType() : null, USER_WHERE_SUBMITTED.equals(userWhere) ? sortType.getTime() : null);
         }
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(userPosts, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(userPosts);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -360,7 +391,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
             }
         }
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(searchPosts, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(searchPosts);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -389,7 +420,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
             }
         }
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(multiRedditPosts, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(multiRedditPosts);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -404,7 +435,7 @@ public class PostPagingSource extends ListenableFuturePagingSource<String, Post>
                 subredditOrUserName, sortType.getType(), sortType.getTime(), loadParams.getKey(),
                 APIUtils.subredditAPICallLimit(subredditOrUserName), APIUtils.ANONYMOUS_USER_AGENT);
 
-        ListenableFuture<LoadResult<String, Post>> pageFuture = Futures.transform(anonymousHomePosts, this::transformData, executor);
+        ListenableFuture<LoadResult<String, Post>> pageFuture = transformPage(anonymousHomePosts);
 
         ListenableFuture<LoadResult<String, Post>> partialLoadResultFuture =
                 Futures.catching(pageFuture, HttpException.class,
@@ -39,6 +39,7 @@ import retrofit2.Retrofit;
 
 public class PostViewModel extends ViewModel {
     private final Executor executor;
+    private final Executor ioExecutor;
     private final Retrofit retrofit;
     private final RedditDataRoomDatabase redditDataRoomDatabase;
     private final String accessToken;
@@ -66,12 +67,13 @@ public class PostViewModel extends ViewModel {
     public final SingleLiveEvent<PostModerationEvent> moderationEventLiveData = new SingleLiveEvent<>();
 
     // PostType.FRONT_PAGE
-    public PostViewModel(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    public PostViewModel(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                          @Nullable String accessToken, @NonNull String accountName,
                          SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                          @Nullable SharedPreferences postHistorySharedPreferences, @PostType int postType,
                          SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -108,12 +110,13 @@ public class PostViewModel extends ViewModel {
     }
 
     // PostType.SUBREDDIT || PostType.ANONYMOUS_FRONT_PAGE || PostType.ANONYMOUS_MULTIREDDIT
-    public PostViewModel(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    public PostViewModel(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                          @Nullable String accessToken, @NonNull String accountName,
                          SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                          @Nullable SharedPreferences postHistorySharedPreferences, String subredditName, @PostType int postType,
                          SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -152,12 +155,13 @@ public class PostViewModel extends ViewModel {
     }
 
     // PostType.MULTIREDDIT
-    public PostViewModel(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    public PostViewModel(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                          @Nullable String accessToken, @NonNull String accountName,
                          SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                          @Nullable SharedPreferences postHistorySharedPreferences, String multiredditPath, String query,
                          @PostType int postType, SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -196,7 +200,7 @@ public class PostViewModel extends ViewModel {
     }
 
     // PostPagingSource.TYPE_USER
-    public PostViewModel(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    public PostViewModel(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                          @Nullable String accessToken, @NonNull String accountName,
                          SharedPreferences sharedPreferences,
                          SharedPreferences postFeedScrolledPositionSharedPreferences,
@@ -204,6 +208,7 @@ public class PostViewModel extends ViewModel {
                          @PostType int postType, SortType sortType, PostFilter postFilter, String userWhere,
                          ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -243,13 +248,14 @@ public class PostViewModel extends ViewModel {
     }
 
     // postType == PostType.SEARCH
-    public PostViewModel(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+    public PostViewModel(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                          @Nullable String accessToken, @NonNull String accountName,
                          SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                          @Nullable SharedPreferences postHistorySharedPreferences, String subredditName, String query,
                          String trendingSource, @PostType int postType, SortType sortType, PostFilter postFilter,
                          ReadPostsListInterface readPostsList) {
         this.executor = executor;
+        this.ioExecutor = ioExecutor;
         this.retrofit = retrofit;
         this.redditDataRoomDatabase = redditDataRoomDatabase;
         this.accessToken = accessToken;
@@ -301,30 +307,30 @@ public class PostViewModel extends ViewModel {
         PostPagingSource paging3PagingSource;
         switch (postType) {
             case PostType.FRONT_PAGE:
-                paging3PagingSource = new PostPagingSource(executor, retrofit, redditDataRoomDatabase,
+                paging3PagingSource = new PostPagingSource(executor, ioExecutor, retrofit, redditDataRoomDatabase,
                         accessToken, accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postType, sortType, postFilter, readPostsList);
                 break;
             case PostType.SUBREDDIT:
             case PostType.ANONYMOUS_FRONT_PAGE:
             case PostType.ANONYMOUS_MULTIREDDIT:
-                paging3PagingSource = new PostPagingSource(executor, retrofit, redditDataRoomDatabase,
+                paging3PagingSource = new PostPagingSource(executor, ioExecutor, retrofit, redditDataRoomDatabase,
                         accessToken, accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         name, postType, sortType, postFilter, readPostsList);
                 break;
             case PostType.MULTIREDDIT:
-                paging3PagingSource = new PostPagingSource(executor, retrofit, redditDataRoomDatabase,
+                paging3PagingSource = new PostPagingSource(executor, ioExecutor, retrofit, redditDataRoomDatabase,
                         accessToken, accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         name, query, postType, sortType, postFilter, readPostsList);
                 break;
             case PostType.SEARCH:
-                paging3PagingSource = new PostPagingSource(executor, retrofit, redditDataRoomDatabase,
+                paging3PagingSource = new PostPagingSource(executor, ioExecutor, retrofit, redditDataRoomDatabase,
                         accessToken, accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         name, query, trendingSource, postType, sortType, postFilter, readPostsList);
                 break;
             default:
                 //User
-                paging3PagingSource = new PostPagingSource(executor, retrofit, redditDataRoomDatabase,
+                paging3PagingSource = new PostPagingSource(executor, ioExecutor, retrofit, redditDataRoomDatabase,
                         accessToken, accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         name, postType, sortType, postFilter, userWhere, readPostsList);
                 break;
@@ -347,6 +353,7 @@ public class PostViewModel extends ViewModel {
 
     public static class Factory extends ViewModelProvider.NewInstanceFactory {
         private final Executor executor;
+        private final Executor ioExecutor;
         private final Retrofit retrofit;
         private final RedditDataRoomDatabase redditDataRoomDatabase;
         private String accessToken;
@@ -365,12 +372,13 @@ public class PostViewModel extends ViewModel {
         private final ReadPostsListInterface readPostsList;
 
         // Front page
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        @Nullable String accessToken, @NonNull String accountName,
                        SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                        SharedPreferences postHistorySharedPreferences, @PostType int postType, SortType sortType,
                        PostFilter postFilter, ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.accessToken = accessToken;
@@ -385,12 +393,13 @@ public class PostViewModel extends ViewModel {
         }
 
         // PostType.SUBREDDIT
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        @Nullable String accessToken, @NonNull String accountName,
                        SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                        SharedPreferences postHistorySharedPreferences, String name, @PostType int postType, SortType sortType,
                        PostFilter postFilter, ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.accessToken = accessToken;
@@ -406,12 +415,13 @@ public class PostViewModel extends ViewModel {
         }
 
         // PostType.MULTIREDDIT
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        @Nullable String accessToken, @NonNull String accountName,
                        SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                        SharedPreferences postHistorySharedPreferences, String name, String query, @PostType int postType, SortType sortType,
                        PostFilter postFilter, ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.accessToken = accessToken;
@@ -428,12 +438,13 @@ public class PostViewModel extends ViewModel {
         }
 
         //User posts
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        @Nullable String accessToken, @NonNull String accountName,
                        SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                        SharedPreferences postHistorySharedPreferences, String username, @PostType int postType,
                        SortType sortType, PostFilter postFilter, String where, ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.accessToken = accessToken;
@@ -450,12 +461,13 @@ public class PostViewModel extends ViewModel {
         }
 
         // PostType.SEARCH
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        @Nullable String accessToken, @NonNull String accountName,
                        SharedPreferences sharedPreferences, SharedPreferences postFeedScrolledPositionSharedPreferences,
                        SharedPreferences postHistorySharedPreferences, String name, String query, String trendingSource,
                        @PostType int postType, SortType sortType, PostFilter postFilter, ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.accessToken = accessToken;
@@ -473,11 +485,12 @@ public class PostViewModel extends ViewModel {
         }
 
         //Anonymous Front Page
-        public Factory(Executor executor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
+        public Factory(Executor executor, Executor ioExecutor, Retrofit retrofit, RedditDataRoomDatabase redditDataRoomDatabase,
                        SharedPreferences sharedPreferences, String concatenatedSubredditNames,
                        @PostType int postType, SortType sortType, PostFilter postFilter,
                        ReadPostsListInterface readPostsList) {
             this.executor = executor;
+            this.ioExecutor = ioExecutor;
             this.retrofit = retrofit;
             this.redditDataRoomDatabase = redditDataRoomDatabase;
             this.sharedPreferences = sharedPreferences;
@@ -492,27 +505,27 @@ public class PostViewModel extends ViewModel {
         @Override
         public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
             if (postType == PostType.FRONT_PAGE) {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, accessToken,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, accessToken,
                         accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postHistorySharedPreferences, postType, sortType, postFilter, readPostsList);
             } else if (postType == PostType.SEARCH) {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, accessToken,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, accessToken,
                         accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postHistorySharedPreferences, name, query, trendingSource, postType, sortType, postFilter, readPostsList);
             } else if (postType == PostType.SUBREDDIT) {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, accessToken,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, accessToken,
                         accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postHistorySharedPreferences, name, postType, sortType, postFilter, readPostsList);
             } else if (postType == PostType.MULTIREDDIT) {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, accessToken,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, accessToken,
                         accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postHistorySharedPreferences, name, query, postType, sortType, postFilter, readPostsList);
             } else if (postType == PostType.ANONYMOUS_FRONT_PAGE || postType == PostType.ANONYMOUS_MULTIREDDIT) {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, null,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, null,
                         null, sharedPreferences, null,
                         null, name, postType, sortType, postFilter, readPostsList);
             } else {
-                return (T) new PostViewModel(executor, retrofit, redditDataRoomDatabase, accessToken,
+                return (T) new PostViewModel(executor, ioExecutor, retrofit, redditDataRoomDatabase, accessToken,
                         accountName, sharedPreferences, postFeedScrolledPositionSharedPreferences,
                         postHistorySharedPreferences, name, postType, sortType, postFilter, userWhere, readPostsList);
             }
@@ -1,6 +1,9 @@
 package ml.docilealligator.infinityforreddit.post;
 
+import android.content.ContentResolver;
+import android.content.Context;
 import android.graphics.Bitmap;
+import android.net.Uri;
 import android.os.Handler;
 
 import androidx.annotation.NonNull;
@@ -11,14 +14,15 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 
 import ml.docilealligator.infinityforreddit.subreddit.Flair;
 import ml.docilealligator.infinityforreddit.apis.RedditAPI;
+import ml.docilealligator.infinityforreddit.network.ContentUriRequestBody;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.JSONUtils;
 import ml.docilealligator.infinityforreddit.utils.UploadImageUtils;
@@ -40,12 +44,15 @@ public class SubmitPost {
                 flair, isSpoiler, isNSFW, receivePostReplyNotifications, isRichTextJSON, kind, null, submitPostListener);
     }
 
-    public static void submitImagePost(Executor executor, Handler handler, Retrofit oauthRetrofit, Retrofit uploadMediaRetrofit,
-                                       String accessToken, String subredditName, String title, String content,
-                                       Bitmap image, Flair flair, boolean isSpoiler, boolean isNSFW,
-                                       boolean receivePostReplyNotifications, SubmitPostListener submitPostListener) {
+    public static void submitImagePost(Context context, Executor executor, Handler handler, Retrofit oauthRetrofit,
+                                       Retrofit uploadMediaRetrofit, String accessToken, String subredditName,
+                                       String title, String content, Uri imageUri, Flair flair, boolean isSpoiler,
+                                       boolean isNSFW, boolean receivePostReplyNotifications,
+                                       @Nullable ContentUriRequestBody.ProgressListener progressListener,
+                                       SubmitPostListener submitPostListener) {
         try {
-            String imageUrlOrError = UploadImageUtils.uploadImage(oauthRetrofit, uploadMediaRetrofit, accessToken, image);
+            String imageUrlOrError = UploadImageUtils.uploadImage(context, oauthRetrofit, uploadMediaRetrofit,
+                    accessToken, imageUri, false, false, progressListener);
             if (imageUrlOrError != null && !imageUrlOrError.startsWith("Error: ")) {
                 submitPost(executor, handler, oauthRetrofit, accessToken,
                         subredditName, title, content, imageUrlOrError, flair, isSpoiler, isNSFW,
@@ -53,7 +60,7 @@ public class SubmitPost {
             } else {
                 submitPostListener.submitFailed(imageUrlOrError);
             }
-        } catch (IOException | JSONException | XmlPullParserException e) {
+        } catch (IOException | JSONException | XmlPullParserException | ExecutionException | InterruptedException e) {
             e.printStackTrace();
             submitPostListener.submitFailed(e.getMessage());
         }
@@ -61,9 +68,11 @@ public class SubmitPost {
 
     public static void submitVideoPost(Executor executor, Handler handler, Retrofit oauthRetrofit, Retrofit uploadMediaRetrofit,
                                        Retrofit uploadVideoRetrofit, String accessToken,
-                                       String subredditName, String title, String content, File buffer, String mimeType,
-                                       Bitmap posterBitmap, Flair flair, boolean isSpoiler, boolean isNSFW,
-                                       boolean receivePostReplyNotifications, SubmitPostListener submitPostListener) {
+                                       String subredditName, String title, String content, ContentResolver contentResolver,
+                                       Uri videoUri, String mimeType, Bitmap posterBitmap, Flair flair, boolean isSpoiler,
+                                       boolean isNSFW, boolean receivePostReplyNotifications,
+                                       @Nullable ContentUriRequestBody.ProgressListener progressListener,
+                                       SubmitPostListener submitPostListener) {
         RedditAPI api = oauthRetrofit.create(RedditAPI.class);
 
         String fileType = mimeType.substring(mimeType.indexOf("/") + 1);
@@ -78,7 +87,8 @@ public class SubmitPost {
             if (uploadImageResponse.isSuccessful()) {
                 Map<String, RequestBody> nameValuePairsMap = UploadImageUtils.parseJSONResponseFromAWS(uploadImageResponse.body());
 
-                RequestBody fileBody = RequestBody.create(buffer, MediaType.parse("application/octet-stream"));
+                RequestBody fileBody = new ContentUriRequestBody(contentResolver, videoUri,
+                        MediaType.parse("application/octet-stream"), progressListener);
                 MultipartBody.Part fileToUpload = MultipartBody.Part.createFormData("file", "post_video." + fileType, fileBody);
 
                 RedditAPI uploadVideoToAWSApi;
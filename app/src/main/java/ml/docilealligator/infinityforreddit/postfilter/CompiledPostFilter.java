@@ -0,0 +1,255 @@
+package ml.docilealligator.infinityforreddit.postfilter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+
+/**
+ * Immutable, pre-processed form of the text based rules of a {@link PostFilter}.
+ *
+ * Regexes are compiled once, comma separated name lists are turned into case folded hash sets and
+ * keyword lists into {@link KeywordMatcher}s, so checking a post no longer splits or compiles
+ * anything. The numeric and boolean rules are cheap and stay on {@link PostFilter} itself.
+ */
+public final class CompiledPostFilter {
+    // The source strings this instance was built from, used to detect a stale compilation.
+    private final String postTitleExcludesRegex;
+    private final String postTitleContainsRegex;
+    private final String postTitleExcludesStrings;
+    private final String postTitleContainsStrings;
+    private final String excludeSubreddits;
+    private final String containSubreddits;
+    private final String excludeUsers;
+    private final String containUsers;
+    private final String containFlairs;
+    private final String excludeFlairs;
+    private final String excludeDomains;
+    private final String containDomains;
+
+    @Nullable
+    private final Pattern titleExcludesPattern;
+    @Nullable
+    private final Pattern titleContainsPattern;
+    @Nullable
+    private final KeywordMatcher titleExcludesMatcher;
+    @Nullable
+    private final KeywordMatcher titleContainsMatcher;
+    @Nullable
+    private final Set<String> excludeSubredditSet;
+    @Nullable
+    private final Set<String> containSubredditSet;
+    @Nullable
+    private final Set<String> excludeUserSet;
+    @Nullable
+    private final Set<String> containUserSet;
+    @Nullable
+    private final Set<String> excludeFlairSet;
+    @Nullable
+    private final Set<String> containFlairSet;
+    @Nullable
+    private final KeywordMatcher excludeDomainsMatcher;
+    @Nullable
+    private final KeywordMatcher containDomainsMatcher;
+
+    private CompiledPostFilter(@NonNull PostFilter postFilter) {
+        postTitleExcludesRegex = postFilter.postTitleExcludesRegex;
+        postTitleContainsRegex = postFilter.postTitleContainsRegex;
+        postTitleExcludesStrings = postFilter.postTitleExcludesStrings;
+        postTitleContainsStrings = postFilter.postTitleContainsStrings;
+        excludeSubreddits = postFilter.excludeSubreddits;
+        containSubreddits = postFilter.containSubreddits;
+        excludeUsers = postFilter.excludeUsers;
+        containUsers = postFilter.containUsers;
+        containFlairs = postFilter.containFlairs;
+        excludeFlairs = postFilter.excludeFlairs;
+        excludeDomains = postFilter.excludeDomains;
+        containDomains = postFilter.containDomains;
+
+        titleExcludesPattern = compileRegex(postTitleExcludesRegex);
+        titleContainsPattern = compileRegex(postTitleContainsRegex);
+
+        // Title keywords are lowercased before trimming, domains the other way around. This keeps
+        // the exact behaviour of the original string comparisons.
+        if (isSet(postTitleExcludesStrings)) {
+            List<String> keywords = new ArrayList<>();
+            for (String t : postTitleExcludesStrings.split(",", 0)) {
+                if (!t.trim().equals("")) {
+                    keywords.add(t.toLowerCase().trim());
+                }
+            }
+            titleExcludesMatcher = new KeywordMatcher(keywords);
+        } else {
+            titleExcludesMatcher = null;
+        }
+        if (isSet(postTitleContainsStrings)) {
+            List<String> keywords = new ArrayList<>();
+            for (String t : postTitleContainsStrings.split(",", 0)) {
+                // An empty keyword is kept on purpose: it matches every title.
+                keywords.add(t.toLowerCase().trim());
+            }
+            titleContainsMatcher = new KeywordMatcher(keywords);
+        } else {
+            titleContainsMatcher = null;
+        }
+
+        excludeSubredditSet = toFoldedSet(excludeSubreddits);
+        containSubredditSet = toFoldedSet(containSubreddits);
+        excludeUserSet = toFoldedSet(excludeUsers);
+        containUserSet = toFoldedSet(containUsers);
+        excludeFlairSet = toFoldedSet(excludeFlairs);
+        containFlairSet = isSet(containFlairs) && containFlairs.split(",", 0).length > 0 ? toFoldedSet(containFlairs) : null;
+
+        if (isSet(excludeDomains)) {
+            List<String> domains = new ArrayList<>();
+            for (String f : excludeDomains.split(",", 0)) {
+                if (!f.trim().equals("")) {
+                    domains.add(f.trim().toLowerCase());
+                }
+            }
+            excludeDomainsMatcher = new KeywordMatcher(domains);
+        } else {
+            excludeDomainsMatcher = null;
+        }
+        if (isSet(containDomains)) {
+            List<String> domains = new ArrayList<>();
+            for (String f : containDomains.split(",", 0)) {
+                domains.add(f.trim().toLowerCase());
+            }
+            containDomainsMatcher = new KeywordMatcher(domains);
+        } else {
+            containDomainsMatcher = null;
+        }
+    }
+
+    @NonNull
+    public static CompiledPostFilter compile(@NonNull PostFilter postFilter) {
+        return new CompiledPostFilter(postFilter);
+    }
+
+    /**
+     * @return true if this instance still reflects the text rules of {@code postFilter}. Fields are
+     * compared by reference, so reassigning a rule always triggers a recompilation.
+     */
+    boolean isCompiledFrom(@NonNull PostFilter postFilter) {
+        return postTitleExcludesRegex == postFilter.postTitleExcludesRegex
+                && postTitleContainsRegex == postFilter.postTitleContainsRegex
+                && postTitleExcludesStrings == postFilter.postTitleExcludesStrings
+                && postTitleContainsStrings == postFilter.postTitleContainsStrings
+                && excludeSubreddits == postFilter.excludeSubreddits
+                && containSubreddits == postFilter.containSubreddits
+                && excludeUsers == postFilter.excludeUsers
+                && containUsers == postFilter.containUsers
+                && containFlairs == postFilter.containFlairs
+                && excludeFlairs == postFilter.excludeFlairs
+                && excludeDomains == postFilter.excludeDomains
+                && containDomains == postFilter.containDomains;
+    }
+
+    /**
+     * Checks the title, subreddit, user, flair and domain rules in the same order as
+     * {@link PostFilter#isPostAllowed(Post, PostFilter)} used to.
+     */
+    boolean isPostAllowed(@NonNull Post post) {
+        if (titleExcludesPattern != null && titleExcludesPattern.matcher(post.getTitle()).find()) {
+            return false;
+        }
+        if (titleContainsPattern != null && !titleContainsPattern.matcher(post.getTitle()).find()) {
+            return false;
+        }
+        if (titleExcludesMatcher != null || titleContainsMatcher != null) {
+            String lowercaseTitle = post.getTitle().toLowerCase();
+            if (titleExcludesMatcher != null && titleExcludesMatcher.containsAny(lowercaseTitle)) {
+                return false;
+            }
+            if (titleContainsMatcher != null && !titleContainsMatcher.containsAny(lowercaseTitle)) {
+                return false;
+            }
+        }
+        if (excludeSubredditSet != null && excludeSubredditSet.contains(foldCase(post.getSubredditName()))) {
+            return false;
+        }
+        if (containSubredditSet != null && !containSubredditSet.contains(foldCase(post.getSubredditName()))) {
+            return false;
+        }
+        if (excludeUserSet != null && excludeUserSet.contains(foldCase(post.getAuthor()))) {
+            return false;
+        }
+        if (containUserSet != null && !containUserSet.contains(foldCase(post.getAuthor()))) {
+            return false;
+        }
+        if (excludeFlairSet != null && excludeFlairSet.contains(foldCase(post.getFlair()))) {
+            return false;
+        }
+        if (post.getUrl() != null && (excludeDomainsMatcher != null || containDomainsMatcher != null)) {
+            String url = post.getUrl().toLowerCase();
+            if (excludeDomainsMatcher != null && excludeDomainsMatcher.containsAny(url)) {
+                return false;
+            }
+            if (containDomainsMatcher != null && !containDomainsMatcher.containsAny(url)) {
+                return false;
+            }
+        }
+        if (containFlairSet != null) {
+            return containFlairSet.contains(foldCase(post.getFlair()));
+        }
+        return true;
+    }
+
+    private static boolean isSet(@Nullable String value) {
+        return value != null && !value.equals("");
+    }
+
+    @Nullable
+    private static Pattern compileRegex(@Nullable String regex) {
+        if (!isSet(regex)) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Splits a comma separated list into a set of trimmed, case folded, non-empty names.
+     *
+     * @return null if the rule is not set, so callers can skip it entirely
+     */
+    @Nullable
+    private static Set<String> toFoldedSet(@Nullable String commaSeparated) {
+        if (!isSet(commaSeparated)) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (String s : commaSeparated.split(",", 0)) {
+            String trimmed = s.trim();
+            if (!trimmed.equals("")) {
+                result.add(foldCase(trimmed));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Folds each char the same way {@link String#equalsIgnoreCase(String)} compares them, so set
+     * membership gives exactly the same answer as the previous equalsIgnoreCase loops.
+     */
+    @NonNull
+    private static String foldCase(@NonNull String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
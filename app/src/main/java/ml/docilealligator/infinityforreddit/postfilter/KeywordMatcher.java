@@ -0,0 +1,123 @@
+package ml.docilealligator.infinityforreddit.postfilter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton answering "does the text contain any of the keywords" in a single pass
+ * over the text, regardless of how many keywords there are.
+ *
+ * The automaton is immutable once built and is safe to share between threads.
+ */
+class KeywordMatcher {
+    private static final int ROOT = 0;
+
+    // Sparse transitions of each state, stored as parallel arrays sorted by character.
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final boolean[] terminal;
+
+    KeywordMatcher(@NonNull Collection<String> keywords) {
+        List<Map<Character, Integer>> goTo = new ArrayList<>();
+        List<Boolean> terminalList = new ArrayList<>();
+        goTo.add(new HashMap<>());
+        terminalList.add(false);
+
+        for (String keyword : keywords) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = goTo.get(state).get(c);
+                if (next == null) {
+                    next = goTo.size();
+                    goTo.add(new HashMap<>());
+                    terminalList.add(false);
+                    goTo.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminalList.set(state, true);
+        }
+
+        int size = goTo.size();
+        transitionChars = new char[size][];
+        transitionTargets = new int[size][];
+        failure = new int[size];
+        terminal = new boolean[size];
+        for (int s = 0; s < size; s++) {
+            Map<Character, Integer> edges = goTo.get(s);
+            char[] chars = new char[edges.size()];
+            int j = 0;
+            for (Character c : edges.keySet()) {
+                chars[j++] = c;
+            }
+            Arrays.sort(chars);
+            int[] targets = new int[chars.length];
+            for (j = 0; j < chars.length; j++) {
+                targets[j] = edges.get(chars[j]);
+            }
+            transitionChars[s] = chars;
+            transitionTargets[s] = targets;
+            terminal[s] = terminalList.get(s);
+        }
+
+        // Breadth-first construction of the failure links. A state is terminal if any suffix of
+        // it is a keyword, so matching only has to look at the current state.
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : transitionTargets[ROOT]) {
+            failure[target] = ROOT;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            char[] chars = transitionChars[state];
+            int[] targets = transitionTargets[state];
+            for (int j = 0; j < chars.length; j++) {
+                int target = targets[j];
+                int fallback = failure[state];
+                int next;
+                while ((next = step(fallback, chars[j])) < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+                failure[target] = next < 0 ? ROOT : next;
+                terminal[target] |= terminal[failure[target]];
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * @return true if {@code text} contains at least one keyword. An empty keyword matches any text.
+     */
+    boolean containsAny(@NonNull String text) {
+        if (terminal[ROOT]) {
+            return true;
+        }
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(state, c)) < 0 && state != ROOT) {
+                state = failure[state];
+            }
+            state = next < 0 ? ROOT : next;
+            if (terminal[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int step(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index < 0 ? -1 : transitionTargets[state][index];
+    }
+}
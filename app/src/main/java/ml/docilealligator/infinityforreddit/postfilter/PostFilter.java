@@ -10,9 +10,6 @@ import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import ml.docilealligator.infinityforreddit.post.Post;
 
@@ -76,6 +73,8 @@ public class PostFilter implements Parcelable {
     public boolean containVideoType = true;
     @ColumnInfo(name = "contain_gallery_type")
     public boolean containGalleryType = true;
+    @Ignore
+    private transient volatile CompiledPostFilter compiledPostFilter;
 
     public PostFilter() {
 
@@ -173,147 +172,28 @@ public class PostFilter implements Parcelable {
         if (!postFilter.containGalleryType && post.getPostType() == Post.GALLERY_TYPE) {
             return false;
         }
-        if (postFilter.postTitleExcludesRegex != null && !postFilter.postTitleExcludesRegex.equals("")) {
-            try {
-                Pattern pattern = Pattern.compile(postFilter.postTitleExcludesRegex);
-                Matcher matcher = pattern.matcher(post.getTitle());
-                if (matcher.find()) {
-                    return false;
-                }
-            } catch (PatternSyntaxException ignore) {}
-        }
-        if (postFilter.postTitleContainsRegex != null && !postFilter.postTitleContainsRegex.equals("")) {
-            try {
-                Pattern pattern = Pattern.compile(postFilter.postTitleContainsRegex);
-                Matcher matcher = pattern.matcher(post.getTitle());
-                if (!matcher.find()) {
-                    return false;
-                }
-            } catch (PatternSyntaxException e) {
-                e.printStackTrace();
-            }
-        }
-        if (postFilter.postTitleExcludesStrings != null && !postFilter.postTitleExcludesStrings.equals("")) {
-            String[] titles = postFilter.postTitleExcludesStrings.split(",", 0);
-            for (String t : titles) {
-                if (!t.trim().equals("") && post.getTitle().toLowerCase().contains(t.toLowerCase().trim())) {
-                    return false;
-                }
-            }
-        }
-        if (postFilter.postTitleContainsStrings != null && !postFilter.postTitleContainsStrings.equals("")) {
-            String[] titles = postFilter.postTitleContainsStrings.split(",", 0);
-            boolean hasRequiredString = false;
-            for (String t : titles) {
-                if (post.getTitle().toLowerCase().contains(t.toLowerCase().trim())) {
-                    hasRequiredString = true;
-                    break;
-                }
-            }
-            if (!hasRequiredString) {
-                return false;
-            }
-        }
-        if (postFilter.excludeSubreddits != null && !postFilter.excludeSubreddits.equals("")) {
-            String[] subreddits = postFilter.excludeSubreddits.split(",", 0);
-            for (String s : subreddits) {
-                if (!s.trim().equals("") && post.getSubredditName().equalsIgnoreCase(s.trim())) {
-                    return false;
-                }
-            }
-        }
-        if (postFilter.containSubreddits != null && !postFilter.containSubreddits.equals("")) {
-            String[] subreddits = postFilter.containSubreddits.split(",", 0);
-            boolean hasRequiredSubreddit = false;
-            String subreddit = post.getSubredditName();
-            for (String s : subreddits) {
-                if (!s.trim().equals("") && subreddit.equalsIgnoreCase(s.trim())) {
-                    hasRequiredSubreddit = true;
-                    break;
-                }
-            }
-            if (!hasRequiredSubreddit) {
-                return false;
-            }
-        }
-        if (postFilter.excludeUsers != null && !postFilter.excludeUsers.equals("")) {
-            String[] users = postFilter.excludeUsers.split(",", 0);
-            for (String u : users) {
-                if (!u.trim().equals("") && post.getAuthor().equalsIgnoreCase(u.trim())) {
-                    return false;
-                }
-            }
-        }
-        if (postFilter.containUsers != null && !postFilter.containUsers.equals("")) {
-            String[] users = postFilter.containUsers.split(",", 0);
-            boolean hasRequiredUser = false;
-            String user = post.getAuthor();
-            for (String s : users) {
-                if (!s.trim().equals("") && user.equalsIgnoreCase(s.trim())) {
-                    hasRequiredUser = true;
-                    break;
-                }
-            }
-            if (!hasRequiredUser) {
-                return false;
-            }
-        }
-        if (postFilter.excludeFlairs != null && !postFilter.excludeFlairs.equals("")) {
-            String[] flairs = postFilter.excludeFlairs.split(",", 0);
-            for (String f : flairs) {
-                if (!f.trim().equals("") && post.getFlair().equalsIgnoreCase(f.trim())) {
-                    return false;
-                }
-            }
-        }
-        if (post.getUrl() != null && postFilter.excludeDomains != null && !postFilter.excludeDomains.equals("")) {
-            String[] domains = postFilter.excludeDomains.split(",", 0);
-            String url = post.getUrl().toLowerCase();
-            for (String f : domains) {
-                if (!f.trim().equals("") && url.contains(f.trim().toLowerCase())) {
-                    return false;
-                }
-            }
-        }
-        if (post.getUrl() != null && postFilter.containDomains != null && !postFilter.containDomains.equals("")) {
-            String[] domains = postFilter.containDomains.split(",", 0);
-            String url = post.getUrl().toLowerCase();
-            boolean hasRequiredDomain = false;
-            for (String f : domains) {
-                if (url.contains(f.trim().toLowerCase())) {
-                    hasRequiredDomain = true;
-                    break;
-                }
-            }
-            if (!hasRequiredDomain) {
-                return false;
-            }
-        }
-        if (postFilter.containFlairs != null && !postFilter.containFlairs.equals("")) {
-            String[] flairs = postFilter.containFlairs.split(",", 0);
-            if (flairs.length > 0) {
-                boolean match = false;
-                for (int i = 0; i < flairs.length; i++) {
-                    String flair = flairs[i].trim();
-                    if (flair.equals("") && i == flairs.length - 1) {
-                       return false;
-                    }
-                    if (!flair.equals("") && post.getFlair().equalsIgnoreCase(flair)) {
-                        match = true;
-                        break;
-                    }
-                }
+        return postFilter.getCompiledPostFilter().isPostAllowed(post);
+    }
 
-                return match;
-            }
+    /**
+     * @return the compiled text rules of this filter. They are built once and rebuilt only if one
+     * of the rules is reassigned afterwards.
+     */
+    @NonNull
+    public CompiledPostFilter getCompiledPostFilter() {
+        CompiledPostFilter compiled = compiledPostFilter;
+        if (compiled == null || !compiled.isCompiledFrom(this)) {
+            compiled = CompiledPostFilter.compile(this);
+            compiledPostFilter = compiled;
         }
-
-        return true;
+        return compiled;
     }
 
     public static PostFilter mergePostFilter(List<PostFilter> postFilterList) {
         if (postFilterList.size() == 1) {
-            return postFilterList.get(0);
+            PostFilter postFilter = postFilterList.get(0);
+            postFilter.getCompiledPostFilter();
+            return postFilter;
         }
         PostFilter postFilter = new PostFilter();
         StringBuilder stringBuilder;
@@ -405,6 +285,7 @@ public class PostFilter implements Parcelable {
             postFilter.containGalleryType = p.containGalleryType && postFilter.containGalleryType;
         }
 
+        postFilter.getCompiledPostFilter();
         return postFilter;
     }
 
@@ -0,0 +1,95 @@
+package ml.docilealligator.infinityforreddit.readpost;
+
+/**
+ * Open addressing set of positive longs, one array slot per entry and no boxing.
+ * Not thread safe.
+ */
+class LongHashSet {
+    private static final int MIN_CAPACITY = 64;
+
+    // 0 marks an empty slot, so only positive values can be stored.
+    private long[] table;
+    private int size;
+
+    LongHashSet() {
+        table = new long[MIN_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long value) {
+        int mask = table.length - 1;
+        for (int i = index(value, mask); table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean add(long value) {
+        // Keep the load factor under 1/2 so probe sequences stay short.
+        if ((size + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (table[i] != 0) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (table[i] != value) {
+            if (table[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = 0;
+        size--;
+
+        // Shift back the entries after the hole that would no longer be found.
+        int hole = i;
+        for (int j = (i + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int home = index(table[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = table[j];
+                table[j] = 0;
+                hole = j;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        table = new long[MIN_CAPACITY];
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldTable = table;
+        table = new long[capacity];
+        size = 0;
+        for (long value : oldTable) {
+            if (value != 0) {
+                add(value);
+            }
+        }
+    }
+
+    private static int index(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
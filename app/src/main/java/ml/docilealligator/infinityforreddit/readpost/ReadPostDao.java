@@ -35,14 +35,23 @@ public interface ReadPostDao {
     @Query("DELETE FROM read_posts WHERE username = :username AND id = :postId AND read_post_type = :readPostType")
     void deleteReadPost(String username, String postId, @ReadPostType int readPostType);
 
-    @Query("DELETE FROM read_posts WHERE rowid IN (SELECT rowid FROM read_posts WHERE username = :username AND read_post_type = :readPostType ORDER BY time ASC LIMIT 100)")
-    void deleteOldestReadPosts(String username, @ReadPostType int readPostType);
+    @Query("DELETE FROM read_posts WHERE rowid IN (SELECT rowid FROM read_posts WHERE username = :username AND read_post_type = :readPostType ORDER BY time ASC LIMIT :count)")
+    void deleteOldestReadPosts(String username, @ReadPostType int readPostType, int count);
+
+    @Query("SELECT id FROM read_posts WHERE username = :username AND read_post_type = :readPostType ORDER BY time ASC LIMIT :count")
+    List<String> getOldestReadPostIds(String username, @ReadPostType int readPostType, int count);
+
+    @Query("DELETE FROM read_posts WHERE username = :username AND read_post_type = :readPostType AND id IN (:postIds)")
+    void deleteReadPosts(String username, @ReadPostType int readPostType, List<String> postIds);
 
     @Query("DELETE FROM read_posts")
     void deleteAllReadPosts();
 
-    @Query("SELECT id FROM read_posts WHERE id IN (:ids) AND username = :username")
-    List<String> getReadPostsIdsByIds(List<String> ids, String username);
+    @Query("SELECT id FROM read_posts WHERE username = :username AND read_post_type = :readPostType")
+    List<String> getAllReadPostIds(String username, @ReadPostType int readPostType);
+
+    @Query("SELECT id FROM read_posts WHERE id IN (:ids) AND username = :username AND read_post_type != :readPostType")
+    List<String> getReadPostsIdsByIdsExcludingType(List<String> ids, String username, @ReadPostType int readPostType);
 
     default int getMaxReadPostEntrySize() { // in bytes
         return  20 + // max username size
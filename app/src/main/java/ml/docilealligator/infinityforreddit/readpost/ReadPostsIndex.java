@@ -0,0 +1,313 @@
+package ml.docilealligator.infinityforreddit.readpost;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
+import ml.docilealligator.infinityforreddit.account.Account;
+
+/**
+ * In-memory copy of each account's read posts, so checking a page of posts costs no database
+ * query.
+ *
+ * The ids of each account and read post type are loaded with one query the first time they are
+ * needed, then kept in sync write-through: {@link #insertReadPost} and {@link #deleteReadPost}
+ * update memory right away and write to Room on the db executor. Ids are base 36, so they are
+ * packed into longs and kept in a {@link LongHashSet}.
+ *
+ * Posts the anonymous account voted on, hid or saved also count as read, so for that account the
+ * ids of those types are kept in memory too.
+ *
+ * Instead of counting rows after every insert, each type is trimmed back to the limit in one
+ * transaction once it grows {@link #TRIM_SLACK} rows past it.
+ */
+public class ReadPostsIndex {
+    private static final int TRIM_SLACK = 100;
+    private static final int MIN_READ_POSTS_LIMIT = 100;
+    // Stays below SQLite's limit of 999 bound variables.
+    private static final int DELETE_CHUNK_SIZE = 500;
+    // 36^12 is still below Long.MAX_VALUE.
+    private static final int MAX_PACKED_ID_LENGTH = 12;
+    private static final int[] ANONYMOUS_READ_POST_TYPES = {ReadPostType.ANONYMOUS_UPVOTED_POSTS,
+            ReadPostType.ANONYMOUS_DOWNVOTED_POSTS, ReadPostType.ANONYMOUS_HIDDEN_POSTS,
+            ReadPostType.ANONYMOUS_SAVED_POSTS};
+
+    private final RedditDataRoomDatabase redditDataRoomDatabase;
+    private final Executor dbExecutor;
+    private final Map<String, ReadPostIds> readPostIds = new ConcurrentHashMap<>();
+
+    public ReadPostsIndex(RedditDataRoomDatabase redditDataRoomDatabase, Executor dbExecutor) {
+        this.redditDataRoomDatabase = redditDataRoomDatabase;
+        this.dbExecutor = dbExecutor;
+    }
+
+    /**
+     * Loads the read posts of {@code accountName} if they are not in memory yet, so later lookups
+     * do not query the database.
+     */
+    @WorkerThread
+    public void load(@NonNull String accountName) {
+        getLoaded(accountName, ReadPostType.READ_POSTS);
+        if (Account.ANONYMOUS_ACCOUNT.equals(accountName)) {
+            for (int readPostType : ANONYMOUS_READ_POST_TYPES) {
+                getLoaded(accountName, readPostType);
+            }
+        }
+    }
+
+    /**
+     * @return the ids in {@code ids} that {@code accountName} has read
+     */
+    @WorkerThread
+    @NonNull
+    public Set<String> getReadPostsIds(@NonNull String accountName, @NonNull List<String> ids) {
+        Set<String> readPostsIds = new HashSet<>();
+        collectContained(getLoaded(accountName, ReadPostType.READ_POSTS), ids, readPostsIds);
+        if (Account.ANONYMOUS_ACCOUNT.equals(accountName)) {
+            // Posts voted on, hidden or saved without an account count as read too.
+            for (int readPostType : ANONYMOUS_READ_POST_TYPES) {
+                collectContained(getLoaded(accountName, readPostType), ids, readPostsIds);
+            }
+        }
+        return readPostsIds;
+    }
+
+    /**
+     * Marks a post as read now and stores it in the background.
+     *
+     * @param readPostsLimit the most read posts to keep, or -1 to keep all of them
+     */
+    public void markRead(String accountName, String postId, int readPostsLimit) {
+        insertReadPost(accountName, postId, ReadPostType.READ_POSTS, readPostsLimit);
+    }
+
+    /**
+     * Adds a post to the read posts of {@code readPostType} now and stores it in the background. An
+     * anonymous upvote replaces a downvote of the same post and the other way around.
+     *
+     * @param readPostsLimit the most posts of this type to keep, or -1 to keep all of them
+     */
+    public void insertReadPost(String accountName, String postId, @ReadPostType int readPostType,
+                               int readPostsLimit) {
+        if (accountName == null || accountName.isEmpty()) {
+            return;
+        }
+        int oppositeReadPostType = getOppositeVoteType(readPostType);
+        add(accountName, postId, readPostType);
+        if (oppositeReadPostType != ReadPostType.INVALID) {
+            remove(accountName, postId, oppositeReadPostType);
+        }
+
+        dbExecutor.execute(() -> {
+            if (!redditDataRoomDatabase.accountDao().isAnonymousAccountInserted()) {
+                redditDataRoomDatabase.accountDao().insert(Account.getAnonymousAccount());
+            }
+            ReadPostDao readPostDao = redditDataRoomDatabase.readPostDao();
+            readPostDao.insert(new ReadPost(accountName, postId, readPostType));
+            if (oppositeReadPostType != ReadPostType.INVALID) {
+                readPostDao.deleteReadPost(accountName, postId, oppositeReadPostType);
+            }
+            if (readPostsLimit != -1) {
+                trim(accountName, readPostType, Math.max(readPostsLimit, MIN_READ_POSTS_LIMIT));
+            }
+        });
+    }
+
+    /**
+     * Removes a post from the read posts of {@code readPostType} now and deletes it in the background.
+     */
+    public void deleteReadPost(String accountName, String postId, @ReadPostType int readPostType) {
+        if (accountName == null || accountName.isEmpty()) {
+            return;
+        }
+        remove(accountName, postId, readPostType);
+        dbExecutor.execute(() -> redditDataRoomDatabase.readPostDao().deleteReadPost(accountName, postId, readPostType));
+    }
+
+    /**
+     * Forgets everything. Call after the read_posts table has been cleared.
+     */
+    public void clear() {
+        for (ReadPostIds ids : readPostIds.values()) {
+            synchronized (ids) {
+                ids.clear();
+                // The table is empty now, so a load still in flight must not add its ids back.
+                ids.loaded = true;
+            }
+        }
+    }
+
+    private static int getOppositeVoteType(@ReadPostType int readPostType) {
+        if (readPostType == ReadPostType.ANONYMOUS_UPVOTED_POSTS) {
+            return ReadPostType.ANONYMOUS_DOWNVOTED_POSTS;
+        } else if (readPostType == ReadPostType.ANONYMOUS_DOWNVOTED_POSTS) {
+            return ReadPostType.ANONYMOUS_UPVOTED_POSTS;
+        }
+        return ReadPostType.INVALID;
+    }
+
+    private static void collectContained(ReadPostIds readPostIds, List<String> ids, Set<String> contained) {
+        synchronized (readPostIds) {
+            for (String id : ids) {
+                if (readPostIds.contains(id)) {
+                    contained.add(id);
+                }
+            }
+        }
+    }
+
+    private ReadPostIds get(String accountName, @ReadPostType int readPostType) {
+        return readPostIds.computeIfAbsent(readPostType + ":" + accountName, key -> new ReadPostIds());
+    }
+
+    private void add(String accountName, String postId, @ReadPostType int readPostType) {
+        ReadPostIds ids = get(accountName, readPostType);
+        synchronized (ids) {
+            ids.add(postId);
+        }
+    }
+
+    private void remove(String accountName, String postId, @ReadPostType int readPostType) {
+        ReadPostIds ids = get(accountName, readPostType);
+        synchronized (ids) {
+            ids.remove(postId);
+        }
+    }
+
+    @WorkerThread
+    private void trim(String accountName, @ReadPostType int readPostType, int limit) {
+        ReadPostIds ids = getLoaded(accountName, readPostType);
+        int excess;
+        synchronized (ids) {
+            excess = ids.size() - limit;
+        }
+        if (excess <= TRIM_SLACK) {
+            return;
+        }
+
+        ReadPostDao readPostDao = redditDataRoomDatabase.readPostDao();
+        List<String> oldestIds = readPostDao.getOldestReadPostIds(accountName, readPostType, excess);
+        redditDataRoomDatabase.runInTransaction(() -> {
+            for (int i = 0; i < oldestIds.size(); i += DELETE_CHUNK_SIZE) {
+                readPostDao.deleteReadPosts(accountName, readPostType,
+                        oldestIds.subList(i, Math.min(oldestIds.size(), i + DELETE_CHUNK_SIZE)));
+            }
+        });
+        synchronized (ids) {
+            for (String id : oldestIds) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    @WorkerThread
+    private ReadPostIds getLoaded(String accountName, @ReadPostType int readPostType) {
+        ReadPostIds ids = get(accountName, readPostType);
+        synchronized (ids) {
+            if (ids.loaded) {
+                return ids;
+            }
+        }
+
+        // Queried without holding the lock so writes on the main thread do not wait for it.
+        List<String> storedIds = redditDataRoomDatabase.readPostDao().getAllReadPostIds(accountName, readPostType);
+        synchronized (ids) {
+            if (!ids.loaded) {
+                // Merged with what was added and removed before the first load.
+                for (String id : storedIds) {
+                    if (!ids.removedBeforeLoad.contains(id)) {
+                        ids.add(id);
+                    }
+                }
+                ids.removedBeforeLoad.clear();
+                ids.loaded = true;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Packs a lowercase base 36 id into a positive long.
+     *
+     * @return the packed id, or -1 if it does not fit and has to be kept as a string
+     */
+    static long pack(String id) {
+        int length = id.length();
+        // A leading zero would make "0a" and "a" collide, and 0 marks an empty slot.
+        if (length == 0 || length > MAX_PACKED_ID_LENGTH || id.charAt(0) == '0') {
+            return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 10;
+            } else {
+                return -1;
+            }
+            packed = packed * 36 + digit;
+        }
+        return packed;
+    }
+
+    /**
+     * The read post ids of one account and type. Guarded by its own monitor.
+     */
+    private static class ReadPostIds {
+        final LongHashSet packedIds = new LongHashSet();
+        // Ids that are not plain base 36. Reddit does not hand those out, but old rows may have them.
+        final Set<String> otherIds = new HashSet<>();
+        // Removed before the first load, so the load must not add them back if it read them first.
+        final Set<String> removedBeforeLoad = new HashSet<>();
+        boolean loaded;
+
+        boolean contains(String id) {
+            long packed = pack(id);
+            return packed == -1 ? otherIds.contains(id) : packedIds.contains(packed);
+        }
+
+        void add(String id) {
+            if (!loaded) {
+                removedBeforeLoad.remove(id);
+            }
+            long packed = pack(id);
+            if (packed == -1) {
+                otherIds.add(id);
+            } else {
+                packedIds.add(packed);
+            }
+        }
+
+        void remove(String id) {
+            if (!loaded) {
+                removedBeforeLoad.add(id);
+            }
+            long packed = pack(id);
+            if (packed == -1) {
+                otherIds.remove(id);
+            } else {
+                packedIds.remove(packed);
+            }
+        }
+
+        int size() {
+            return packedIds.size() + otherIds.size();
+        }
+
+        void clear() {
+            packedIds.clear();
+            otherIds.clear();
+            removedBeforeLoad.clear();
+        }
+    }
+}
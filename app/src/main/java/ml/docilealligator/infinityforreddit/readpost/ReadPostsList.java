@@ -4,21 +4,30 @@ import androidx.annotation.WorkerThread;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ReadPostsList implements ReadPostsListInterface {
-    private final ReadPostDao readPostDao;
+    private final ReadPostsIndex readPostsIndex;
     private final String accountName;
     private final boolean readPostsDisabled;
 
-    public ReadPostsList(ReadPostDao readPostDao, String accountName, boolean readPostsDisabled) {
+    public ReadPostsList(ReadPostsIndex readPostsIndex, String accountName, boolean readPostsDisabled) {
         this.accountName = accountName;
-        this.readPostDao = readPostDao;
+        this.readPostsIndex = readPostsIndex;
         this.readPostsDisabled = readPostsDisabled;
     }
 
     @WorkerThread
     @Override
-    public HashSet<String> getReadPostsIdsByIds(List<String> ids) {
-        return readPostsDisabled ? new HashSet<>() : new HashSet<>(this.readPostDao.getReadPostsIdsByIds(ids, accountName));
+    public void load() {
+        if (!readPostsDisabled) {
+            readPostsIndex.load(accountName);
+        }
+    }
+
+    @WorkerThread
+    @Override
+    public Set<String> getReadPostsIdsByIds(List<String> ids) {
+        return readPostsDisabled ? new HashSet<>() : readPostsIndex.getReadPostsIds(accountName, ids);
     }
 }
@@ -5,4 +5,9 @@ import java.util.Set;
 
 public interface ReadPostsListInterface {
     Set<String> getReadPostsIdsByIds(List<String> ids);
+
+    /**
+     * Loads what {@link #getReadPostsIdsByIds} needs up front, so the lookup itself does not block.
+     */
+    default void load() {}
 }
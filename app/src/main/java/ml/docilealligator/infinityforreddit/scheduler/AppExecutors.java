@@ -0,0 +1,93 @@
+package ml.docilealligator.infinityforreddit.scheduler;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The app's background lanes. Work should go to the lane matching what it blocks on, so a slow
+ * network call can never hold up parsing a feed:
+ * <ul>
+ *     <li>cpu: parsing and other short computations, one thread per core.</li>
+ *     <li>io: short blocking network and disk I/O, such as a single API call or database read.
+ *     Large, since its threads mostly wait.</li>
+ *     <li>long: jobs that hold a thread for minutes, such as translation batches and the download
+ *     services' work loops. Kept apart from io so a few stalled jobs can never take all of its
+ *     threads.</li>
+ *     <li>db: database writes, run one at a time in submission order.</li>
+ *     <li>download: byte range requests of media downloads. Kept apart from io so the jobs
+ *     waiting on them can never take all of its threads.</li>
+ *     <li>upload: media uploads. Small, so several uploads share the connection without each
+ *     getting a slower share.</li>
+ * </ul>
+ * There is no unqualified {@link java.util.concurrent.Executor} binding, so every call site has to
+ * name its lane.
+ */
+public class AppExecutors {
+    public static final String CPU = "cpu";
+    public static final String IO = "io";
+    public static final String DB = "db";
+    public static final String LONG = "long";
+    public static final String DOWNLOAD = "download";
+    public static final String UPLOAD = "upload";
+
+    private static final int IO_POOL_SIZE = 16;
+    private static final int LONG_POOL_SIZE = 8;
+    private static final int DOWNLOAD_POOL_SIZE = 8;
+    private static final int UPLOAD_POOL_SIZE = 3;
+
+    private final MonitoredExecutor cpuExecutor;
+    private final MonitoredExecutor ioExecutor;
+    private final MonitoredExecutor dbExecutor;
+    private final MonitoredExecutor longExecutor;
+    private final MonitoredExecutor downloadExecutor;
+    private final MonitoredExecutor uploadExecutor;
+
+    public AppExecutors() {
+        int cpuPoolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+        cpuExecutor = new MonitoredExecutor(CPU, cpuPoolSize, Process.THREAD_PRIORITY_BACKGROUND);
+        ioExecutor = new MonitoredExecutor(IO, IO_POOL_SIZE, Process.THREAD_PRIORITY_BACKGROUND);
+        dbExecutor = new MonitoredExecutor(DB, 1, Process.THREAD_PRIORITY_BACKGROUND);
+        longExecutor = new MonitoredExecutor(LONG, LONG_POOL_SIZE, Process.THREAD_PRIORITY_BACKGROUND);
+        downloadExecutor = new MonitoredExecutor(DOWNLOAD, DOWNLOAD_POOL_SIZE, Process.THREAD_PRIORITY_BACKGROUND);
+        uploadExecutor = new MonitoredExecutor(UPLOAD, UPLOAD_POOL_SIZE, Process.THREAD_PRIORITY_BACKGROUND);
+    }
+
+    @NonNull
+    public MonitoredExecutor cpu() {
+        return cpuExecutor;
+    }
+
+    @NonNull
+    public MonitoredExecutor io() {
+        return ioExecutor;
+    }
+
+    @NonNull
+    public MonitoredExecutor db() {
+        return dbExecutor;
+    }
+
+    @NonNull
+    public MonitoredExecutor longRunning() {
+        return longExecutor;
+    }
+
+    @NonNull
+    public MonitoredExecutor download() {
+        return downloadExecutor;
+    }
+
+    @NonNull
+    public MonitoredExecutor upload() {
+        return uploadExecutor;
+    }
+
+    @NonNull
+    public List<MonitoredExecutor> getAll() {
+        return Arrays.asList(cpuExecutor, ioExecutor, dbExecutor, longExecutor, downloadExecutor, uploadExecutor);
+    }
+}
@@ -0,0 +1,131 @@
+package ml.docilealligator.infinityforreddit.scheduler;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread pool with named threads that records how long tasks wait in its queue.
+ *
+ * Threads are created on demand up to the pool size and time out when idle, so an unused lane
+ * costs nothing.
+ */
+public class MonitoredExecutor extends ThreadPoolExecutor {
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+    private final AtomicLong executedTaskCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    public MonitoredExecutor(@NonNull String name, int poolSize, int threadPriority) {
+        super(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamedThreadFactory(name, threadPriority));
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        super.execute(new TimedRunnable(command));
+        int queueDepth = getQueue().size();
+        int peak;
+        while (queueDepth > (peak = peakQueueDepth.get())) {
+            if (peakQueueDepth.compareAndSet(peak, queueDepth)) {
+                break;
+            }
+        }
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public long getExecutedTaskCount() {
+        return executedTaskCount.get();
+    }
+
+    public long getAverageWaitMillis() {
+        long count = executedTaskCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public void resetStats() {
+        executedTaskCount.set(0);
+        totalWaitNanos.set(0);
+        maxWaitNanos.set(0);
+        peakQueueDepth.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: %d/%d busy, queue %d (peak %d), %d tasks, wait avg %d ms, max %d ms",
+                name, getActiveCount(), getMaximumPoolSize(), getQueueDepth(), getPeakQueueDepth(),
+                getExecutedTaskCount(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    private class TimedRunnable implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAtNanos = System.nanoTime();
+
+        TimedRunnable(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long waitNanos = System.nanoTime() - enqueuedAtNanos;
+            executedTaskCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            long max;
+            while (waitNanos > (max = maxWaitNanos.get())) {
+                if (maxWaitNanos.compareAndSet(max, waitNanos)) {
+                    break;
+                }
+            }
+            task.run();
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final int threadPriority;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        NamedThreadFactory(String name, int threadPriority) {
+            this.name = name;
+            this.threadPriority = threadPriority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(threadPriority);
+                runnable.run();
+            }, name + "-" + threadNumber.getAndIncrement());
+        }
+    }
+}
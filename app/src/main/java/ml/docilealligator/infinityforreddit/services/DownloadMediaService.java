@@ -4,17 +4,14 @@ import static android.os.Environment.getExternalStoragePublicDirectory;
 
 import android.app.Notification;
 import android.app.PendingIntent;
-import android.app.job.JobInfo;
 import android.app.job.JobParameters;
 import android.app.job.JobService;
-import android.content.ComponentName;
 import android.content.ContentResolver;
 import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.media.MediaScannerConnection;
-import android.net.NetworkRequest;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
@@ -29,14 +26,19 @@ import androidx.documentfile.provider.DocumentFile;
 import org.apache.commons.io.FilenameUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -47,18 +49,16 @@ import ml.docilealligator.infinityforreddit.Infinity;
 import ml.docilealligator.infinityforreddit.R;
 import ml.docilealligator.infinityforreddit.VideoLinkFetcher;
 import ml.docilealligator.infinityforreddit.activities.ViewVideoActivity;
-import ml.docilealligator.infinityforreddit.apis.DownloadFile;
 import ml.docilealligator.infinityforreddit.apis.StreamableAPI;
 import ml.docilealligator.infinityforreddit.broadcastreceivers.DownloadedMediaDeleteActionBroadcastReceiver;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
+import ml.docilealligator.infinityforreddit.download.DownloadTask;
+import ml.docilealligator.infinityforreddit.download.SegmentedDownloader;
 import ml.docilealligator.infinityforreddit.post.ImgurMedia;
 import ml.docilealligator.infinityforreddit.post.Post;
-import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.NotificationUtils;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
-import okhttp3.OkHttpClient;
-import okhttp3.ResponseBody;
-import retrofit2.Response;
 import retrofit2.Retrofit;
 
 public class DownloadMediaService extends JobService {
@@ -77,6 +77,8 @@ public class DownloadMediaService extends JobService {
     public static final String EXTRA_ALL_GALLERY_IMAGE_URLS = "EAGIU";
     public static final String EXTRA_ALL_GALLERY_IMAGE_MEDIA_TYPES = "EAGIMT";
     public static final String EXTRA_ALL_GALLERY_IMAGE_FILE_NAMES = "EAGIFN";
+    // Indices of the gallery or album items already saved, so a resumed task skips them.
+    private static final String EXTRA_COMPLETED_GALLERY_MEDIA_INDICES = "ECGMI";
 
     private static final int NO_ERROR = -1;
     private static final int ERROR_CANNOT_GET_DESTINATION_DIRECTORY = 0;
@@ -86,11 +88,11 @@ public class DownloadMediaService extends JobService {
     private static final int ERROR_CANNOT_FETCH_STREAMABLE_VIDEO_LINK = 4;
     private static final int ERROR_INVALID_ARGUMENT = 5;
 
-    private static int JOB_ID = 20000;
+    // Gallery and album items downloaded at the same time. Each item may itself use several connections.
+    private static final int MAX_PARALLEL_MEDIA_DOWNLOADS = 3;
 
     @Inject
-    @Named("download_media")
-    Retrofit retrofit;
+    SegmentedDownloader mSegmentedDownloader;
     @Inject
     @Named("redgifs")
     Retrofit mRedgifsRetrofit;
@@ -105,21 +107,26 @@ public class DownloadMediaService extends JobService {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("long")
     Executor mExecutor;
+    @Inject
+    DownloadQueue mDownloadQueue;
     private NotificationManagerCompat notificationManager;
+    // Job id -> set when the system stops the job
+    private final Map<Integer, AtomicBoolean> mStoppedJobs = new ConcurrentHashMap<>();
+    // Job id -> task the job is downloading
+    private final Map<Integer, DownloadTask> mCurrentTasks = new ConcurrentHashMap<>();
 
     public DownloadMediaService() {
     }
 
     /**
      *
-     * @param context
-     * @param contentEstimatedBytes
      * @param post
      * @param galleryIndex if post is not a gallery post, then galleryIndex should be 0
-     * @return JobInfo for DownloadMediaService
+     * @return the task to add to the {@link DownloadQueue}
      */
-    public static JobInfo constructJobInfo(Context context, long contentEstimatedBytes, Post post, int galleryIndex) {
+    public static DownloadTask constructDownloadTask(Post post, int galleryIndex) {
         PersistableBundle extras = new PersistableBundle();
         if (post.getPostType() == Post.IMAGE_TYPE) {
             extras.putString(EXTRA_URL, post.getUrl());
@@ -177,22 +184,10 @@ public class DownloadMediaService extends JobService {
             }
         }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
-        } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
-        }
+        return constructDownloadTask(extras, extras.getString(EXTRA_FILE_NAME), DownloadTask.PRIORITY_USER);
     }
 
-    public static JobInfo constructGalleryDownloadAllMediaJobInfo(Context context, long contentEstimatedBytes, Post post) {
+    public static DownloadTask constructGalleryDownloadAllMediaTask(Context context, Post post) {
         PersistableBundle extras = new PersistableBundle();
         if (post.getPostType() == Post.GALLERY_TYPE) {
             extras.putString(EXTRA_SUBREDDIT_NAME, post.getSubredditName());
@@ -236,22 +231,11 @@ public class DownloadMediaService extends JobService {
             extras.putInt(EXTRA_IS_ALL_GALLERY_MEDIA, 1);
         }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
-        } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
-        }
+        return constructDownloadTask(extras, context.getString(R.string.download_all_gallery_media_notification_title),
+                DownloadTask.PRIORITY_BULK);
     }
 
-    public static JobInfo constructJobInfo(Context context, long contentEstimatedBytes, ImgurMedia imgurMedia) {
+    public static DownloadTask constructDownloadTask(ImgurMedia imgurMedia) {
         PersistableBundle extras = new PersistableBundle();
         extras.putString(EXTRA_URL, imgurMedia.getLink());
         extras.putString(EXTRA_FILE_NAME, imgurMedia.getFileName());
@@ -261,22 +245,10 @@ public class DownloadMediaService extends JobService {
             extras.putInt(EXTRA_MEDIA_TYPE, EXTRA_MEDIA_TYPE_IMAGE);
         }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
-        } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
-        }
+        return constructDownloadTask(extras, extras.getString(EXTRA_FILE_NAME), DownloadTask.PRIORITY_USER);
     }
 
-    public static JobInfo constructImgurAlbumDownloadAllMediaJobInfo(Context context, long contentEstimatedBytes, List<ImgurMedia> imgurMedia) {
+    public static DownloadTask constructImgurAlbumDownloadAllMediaTask(Context context, List<ImgurMedia> imgurMedia) {
         PersistableBundle extras = new PersistableBundle();
 
         StringBuilder concatUrlsBuilder = new StringBuilder();
@@ -313,35 +285,29 @@ public class DownloadMediaService extends JobService {
         extras.putString(EXTRA_ALL_GALLERY_IMAGE_MEDIA_TYPES, concatMediaTypesBuilder.toString());
         extras.putString(EXTRA_ALL_GALLERY_IMAGE_FILE_NAMES, concatFileNamesBuilder.toString());
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
-        } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
-        }
+        return constructDownloadTask(extras, context.getString(R.string.download_all_imgur_album_media_notification_title),
+                DownloadTask.PRIORITY_BULK);
     }
 
-    public static JobInfo constructJobInfo(Context context, long contentEstimatedBytes, PersistableBundle extras) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
+    public static DownloadTask constructDownloadTask(PersistableBundle extras) {
+        return constructDownloadTask(extras, extras.getString(EXTRA_FILE_NAME), DownloadTask.PRIORITY_USER);
+    }
+
+    private static DownloadTask constructDownloadTask(PersistableBundle extras, String title, int priority) {
+        String source;
+        String destination;
+        if (extras.containsKey(EXTRA_ALL_GALLERY_IMAGE_URLS)) {
+            source = extras.getString(EXTRA_ALL_GALLERY_IMAGE_URLS);
+            destination = extras.getString(EXTRA_ALL_GALLERY_IMAGE_FILE_NAMES);
         } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadMediaService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
+            source = extras.getString(EXTRA_URL);
+            if (source == null) {
+                source = extras.containsKey(EXTRA_REDGIFS_ID) ? extras.getString(EXTRA_REDGIFS_ID)
+                        : extras.getString(EXTRA_STREAMABLE_SHORT_CODE);
+            }
+            destination = extras.getString(EXTRA_FILE_NAME);
         }
+        return DownloadTask.create(DownloadTask.KIND_MEDIA, source, destination, priority, title, extras);
     }
 
     @Override
@@ -352,7 +318,63 @@ public class DownloadMediaService extends JobService {
 
     @Override
     public boolean onStartJob(JobParameters params) {
-        PersistableBundle extras = params.getExtras();
+        AtomicBoolean stopped = new AtomicBoolean();
+        mStoppedJobs.put(params.getJobId(), stopped);
+        mExecutor.execute(() -> {
+            DownloadTask task;
+            while (!stopped.get() && (task = mDownloadQueue.claimNext(DownloadTask.KIND_MEDIA)) != null) {
+                mCurrentTasks.put(params.getJobId(), task);
+                if (stopped.get()) {
+                    // onStopJob ran before the task was visible to it.
+                    task.getCancelled().set(true);
+                }
+                boolean success = downloadTask(params, task, stopped);
+                mCurrentTasks.remove(params.getJobId());
+                if (stopped.get()) {
+                    // The job is rescheduled and the task resumes from the saved progress, skipping
+                    // the gallery items already saved.
+                    mDownloadQueue.requeue(task);
+                } else if (success) {
+                    mDownloadQueue.complete(task);
+                } else {
+                    mDownloadQueue.fail(task);
+                }
+            }
+
+            mStoppedJobs.remove(params.getJobId());
+            if (!stopped.get()) {
+                // Hand the slot over to the other download service if it has queued tasks.
+                mDownloadQueue.schedule(false, params.getJobId());
+                jobFinished(params, false);
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        AtomicBoolean stopped = mStoppedJobs.remove(params.getJobId());
+        if (stopped != null) {
+            stopped.set(true);
+        }
+        DownloadTask task = mCurrentTasks.get(params.getJobId());
+        if (task != null) {
+            task.getCancelled().set(true);
+        }
+        // Reschedule, the downloader keeps the progress so the next run does not start from zero.
+        return true;
+    }
+
+    /**
+     * Downloads one task from the queue, showing its own notification.
+     *
+     * @param stopped set when the job is stopped
+     * @return true if everything was downloaded
+     */
+    private boolean downloadTask(JobParameters params, DownloadTask task, AtomicBoolean stopped) {
+        PersistableBundle extras = task.getExtrasBundle();
+        AtomicBoolean cancelled = task.getCancelled();
         int mediaType = extras.getInt(EXTRA_MEDIA_TYPE, EXTRA_MEDIA_TYPE_IMAGE);
         NotificationCompat.Builder builder = new NotificationCompat.Builder(this, getNotificationChannelId(mediaType));
 
@@ -365,126 +387,179 @@ public class DownloadMediaService extends JobService {
         notificationManager.createNotificationChannel(serviceChannel);
 
         int randomNotificationIdOffset = new Random().nextInt(10000);
-        String notificationTitle = extras.containsKey(EXTRA_FILE_NAME) ?
-                extras.getString(EXTRA_FILE_NAME) :
-                (extras.getInt(EXTRA_IS_ALL_GALLERY_MEDIA, 0) == 1 ?
-                        getString(R.string.download_all_gallery_media_notification_title) : getString(R.string.download_all_imgur_album_media_notification_title));
-        switch (extras.getInt(EXTRA_MEDIA_TYPE, EXTRA_MEDIA_TYPE_IMAGE)) {
-            case EXTRA_MEDIA_TYPE_GIF:
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-                    setNotification(params,
-                            NotificationUtils.DOWNLOAD_GIF_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle),
-                            JobService.JOB_END_NOTIFICATION_POLICY_DETACH);
-                } else {
-                    notificationManager.notify(NotificationUtils.DOWNLOAD_GIF_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle));
-                }
-                break;
-            case EXTRA_MEDIA_TYPE_VIDEO:
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-                    setNotification(params,
-                            NotificationUtils.DOWNLOAD_VIDEO_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle),
-                            JobService.JOB_END_NOTIFICATION_POLICY_DETACH);
-                } else {
-                    notificationManager.notify(NotificationUtils.DOWNLOAD_VIDEO_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle));
-                }
-                break;
-            default:
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-                    setNotification(params,
-                            NotificationUtils.DOWNLOAD_IMAGE_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle),
-                            JobService.JOB_END_NOTIFICATION_POLICY_DETACH);
-                } else {
-                    notificationManager.notify(NotificationUtils.DOWNLOAD_IMAGE_NOTIFICATION_ID + randomNotificationIdOffset,
-                            createNotification(builder, notificationTitle));
-                }
+        Notification notification = createNotification(builder, task.getTitle());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE && params.isUserInitiatedJob()) {
+            setNotification(params, getNotificationId(mediaType, randomNotificationIdOffset), notification,
+                    JobService.JOB_END_NOTIFICATION_POLICY_DETACH);
+        } else {
+            notificationManager.notify(getNotificationId(mediaType, randomNotificationIdOffset), notification);
         }
 
-        mExecutor.execute(() -> {
-            String subredditName = extras.getString(EXTRA_SUBREDDIT_NAME);
-            boolean isNsfw = extras.getInt(EXTRA_IS_NSFW, 0) == 1;
-
-            if (extras.containsKey(EXTRA_ALL_GALLERY_IMAGE_URLS)) {
-                // Download all images in a gallery post
-                String concatUrls = extras.getString(EXTRA_ALL_GALLERY_IMAGE_URLS);
-                String concatMediaTypes = extras.getString(EXTRA_ALL_GALLERY_IMAGE_MEDIA_TYPES);
-                String concatFileNames = extras.getString(EXTRA_ALL_GALLERY_IMAGE_FILE_NAMES);
-
-                String[] urls = concatUrls.split(" ");
-                String[] mediaTypes = concatMediaTypes.split(" ");
-                String[] fileNames = concatFileNames.split(" ");
-
-                boolean allImagesDownloadedSuccessfully = true;
-                for (int i = 0; i < urls.length; i++) {
-                    String mimeType = Integer.parseInt(mediaTypes[i]) == EXTRA_MEDIA_TYPE_VIDEO ? "video/*" : "image/*";
-                    int finalI = i;
-                    allImagesDownloadedSuccessfully &= downloadMedia(params, urls[i], extras, builder, mediaType, randomNotificationIdOffset, fileNames[i],
-                            mimeType, subredditName, isNsfw, true,
-                            new DownloadProgressResponseBody.ProgressListener() {
-                                long time = 0;
-                                @Override
-                                public void update(long bytesRead, long contentLength, boolean done) {
-                                    if (!done) {
-                                        if (contentLength != -1) {
-                                            long currentTime = System.currentTimeMillis();
-                                            if (currentTime - time > 1000) {
-                                                time = currentTime;
-                                                int currentMediaProgress = (int) (((float) bytesRead / contentLength + (float) finalI / urls.length) * 100);
-                                                updateNotification(builder, mediaType, 0,
-                                                        currentMediaProgress, randomNotificationIdOffset,
-                                                        null, null);
+        boolean success;
+        String subredditName = extras.getString(EXTRA_SUBREDDIT_NAME);
+        boolean isNsfw = extras.getInt(EXTRA_IS_NSFW, 0) == 1;
+        if (extras.containsKey(EXTRA_ALL_GALLERY_IMAGE_URLS)) {
+            // Download all images in a gallery post
+            String concatUrls = extras.getString(EXTRA_ALL_GALLERY_IMAGE_URLS);
+            String concatMediaTypes = extras.getString(EXTRA_ALL_GALLERY_IMAGE_MEDIA_TYPES);
+            String concatFileNames = extras.getString(EXTRA_ALL_GALLERY_IMAGE_FILE_NAMES);
+
+            String[] urls = concatUrls.split(" ");
+            String[] mediaTypes = concatMediaTypes.split(" ");
+            String[] fileNames = concatFileNames.split(" ");
+            boolean[] completedMedia = getCompletedMedia(extras, urls.length);
+
+            AtomicBoolean allImagesDownloadedSuccessfully = new AtomicBoolean(true);
+            // Fraction of each item downloaded, for the notification's overall progress.
+            float[] mediaProgress = new float[urls.length];
+            long[] lastProgressUpdateTime = new long[1];
+            AtomicInteger nextMediaIndex = new AtomicInteger();
+            int[] finishedMediaCount = new int[1];
+
+            Runnable worker = () -> {
+                int i;
+                while ((i = nextMediaIndex.getAndIncrement()) < urls.length) {
+                    if (!cancelled.get() && !completedMedia[i]) {
+                        String mimeType = Integer.parseInt(mediaTypes[i]) == EXTRA_MEDIA_TYPE_VIDEO ? "video/*" : "image/*";
+                        int finalI = i;
+                        boolean downloaded = downloadMedia(urls[i], extras, builder, mediaType, randomNotificationIdOffset, fileNames[i],
+                                mimeType, subredditName, isNsfw, true, cancelled,
+                                (bytesRead, contentLength, done) -> {
+                                    if (done || contentLength <= 0) {
+                                        return;
+                                    }
+                                    synchronized (mediaProgress) {
+                                        mediaProgress[finalI] = (float) bytesRead / contentLength;
+                                        long currentTime = System.currentTimeMillis();
+                                        if (currentTime - lastProgressUpdateTime[0] > 1000) {
+                                            lastProgressUpdateTime[0] = currentTime;
+                                            float totalProgress = 0;
+                                            for (float progress : mediaProgress) {
+                                                totalProgress += progress;
                                             }
+                                            updateNotification(builder, mediaType, 0,
+                                                    (int) (totalProgress / urls.length * 100), randomNotificationIdOffset,
+                                                    null, null);
                                         }
                                     }
-                                }
-                            });
+                                });
+                        if (downloaded) {
+                            saveCompletedMedia(task, extras, completedMedia, i);
+                        } else {
+                            allImagesDownloadedSuccessfully.set(false);
+                        }
+                    }
+                    synchronized (mediaProgress) {
+                        mediaProgress[i] = 1;
+                        finishedMediaCount[0]++;
+                        mediaProgress.notifyAll();
+                    }
                 }
+            };
 
+            // This thread works through the items too, so they all finish even if no helper gets a thread.
+            for (int i = 1; i < Math.min(MAX_PARALLEL_MEDIA_DOWNLOADS, urls.length); i++) {
+                mExecutor.execute(worker);
+            }
+            worker.run();
+            synchronized (mediaProgress) {
+                while (finishedMediaCount[0] < urls.length) {
+                    try {
+                        mediaProgress.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancelled.set(true);
+                        break;
+                    }
+                }
+            }
+
+            success = allImagesDownloadedSuccessfully.get() && !cancelled.get();
+            if (!cancelled.get()) {
                 updateNotification(builder, mediaType,
-                        allImagesDownloadedSuccessfully ? R.string.downloading_media_finished : R.string.download_gallery_failed_some_images,
+                        success ? R.string.downloading_media_finished : R.string.download_gallery_failed_some_images,
                         -1, randomNotificationIdOffset,
                         null, null);
-                jobFinished(params, false);
-            } else {
-                String fileUrl = extras.getString(EXTRA_URL);
-                String fileName = extras.getString(EXTRA_FILE_NAME);
-                String mimeType = mediaType == EXTRA_MEDIA_TYPE_VIDEO ? "video/*" : "image/*";
-
-                downloadMedia(params, fileUrl, extras, builder, mediaType, randomNotificationIdOffset, fileName,
-                        mimeType, subredditName, isNsfw, false, new DownloadProgressResponseBody.ProgressListener() {
-                            long time = 0;
-                            @Override
-                            public void update(long bytesRead, long contentLength, boolean done) {
-                                if (!done) {
-                                    if (contentLength != -1) {
-                                        long currentTime = System.currentTimeMillis();
-                                        if (currentTime - time > 1000) {
-                                            time = currentTime;
-                                            updateNotification(builder, mediaType, 0,
-                                                    (int) ((100 * bytesRead) / contentLength), randomNotificationIdOffset, null, null);
-                                        }
+            }
+        } else {
+            String fileUrl = extras.getString(EXTRA_URL);
+            String fileName = extras.getString(EXTRA_FILE_NAME);
+            String mimeType = mediaType == EXTRA_MEDIA_TYPE_VIDEO ? "video/*" : "image/*";
+
+            success = downloadMedia(fileUrl, extras, builder, mediaType, randomNotificationIdOffset, fileName,
+                    mimeType, subredditName, isNsfw, false, cancelled, new DownloadProgressResponseBody.ProgressListener() {
+                        long time = 0;
+                        @Override
+                        public synchronized void update(long bytesRead, long contentLength, boolean done) {
+                            if (!done) {
+                                if (contentLength != -1) {
+                                    long currentTime = System.currentTimeMillis();
+                                    if (currentTime - time > 1000) {
+                                        time = currentTime;
+                                        updateNotification(builder, mediaType, 0,
+                                                (int) ((100 * bytesRead) / contentLength), randomNotificationIdOffset, null, null);
                                     }
                                 }
                             }
-                        });
+                        }
+                    });
+        }
+
+        if (cancelled.get() && !stopped.get()) {
+            // Cancelled from the download queue screen.
+            discardPartialDownloads(extras);
+            notificationManager.cancel(getNotificationId(mediaType, randomNotificationIdOffset));
+        }
+        return success;
+    }
+
+    private static boolean[] getCompletedMedia(PersistableBundle extras, int mediaCount) {
+        boolean[] completedMedia = new boolean[mediaCount];
+        String completedIndices = extras.getString(EXTRA_COMPLETED_GALLERY_MEDIA_INDICES);
+        if (completedIndices != null && !completedIndices.isEmpty()) {
+            for (String index : completedIndices.split(" ")) {
+                int i = Integer.parseInt(index);
+                if (i >= 0 && i < mediaCount) {
+                    completedMedia[i] = true;
+                }
             }
-        });
+        }
+        return completedMedia;
+    }
 
-        return true;
+    /**
+     * Records in the queued task that the item was saved, so it is not saved again if the job is
+     * stopped or the task is retried.
+     */
+    private void saveCompletedMedia(DownloadTask task, PersistableBundle extras, boolean[] completedMedia, int index) {
+        synchronized (completedMedia) {
+            completedMedia[index] = true;
+            StringBuilder completedIndices = new StringBuilder();
+            for (int i = 0; i < completedMedia.length; i++) {
+                if (completedMedia[i]) {
+                    completedIndices.append(i).append(" ");
+                }
+            }
+            completedIndices.deleteCharAt(completedIndices.length() - 1);
+            // The workers read extras while this runs, so the shared bundle is left unchanged.
+            PersistableBundle progressExtras = new PersistableBundle(extras);
+            progressExtras.putString(EXTRA_COMPLETED_GALLERY_MEDIA_INDICES, completedIndices.toString());
+            mDownloadQueue.updateExtras(task, progressExtras);
+        }
     }
 
-    @Override
-    public boolean onStopJob(JobParameters params) {
-        return false;
+    private void discardPartialDownloads(PersistableBundle extras) {
+        if (extras.containsKey(EXTRA_ALL_GALLERY_IMAGE_URLS)) {
+            for (String url : extras.getString(EXTRA_ALL_GALLERY_IMAGE_URLS).split(" ")) {
+                mSegmentedDownloader.discard(url);
+            }
+        } else if (extras.getString(EXTRA_URL) != null) {
+            mSegmentedDownloader.discard(extras.getString(EXTRA_URL));
+        }
     }
 
     /**
      *
-     * @param params
      * @param fileUrl
      * @param intent
      * @param builder
@@ -495,20 +570,22 @@ public class DownloadMediaService extends JobService {
      * @param subredditName
      * @param isNsfw
      * @param multipleDownloads
+     * @param cancelled set when the job is stopped or the task is cancelled
      * @param progressListener
      * @return true if download succeeded or false otherwise.
      */
-    private boolean downloadMedia(JobParameters params, String fileUrl, PersistableBundle intent,
+    private boolean downloadMedia(String fileUrl, PersistableBundle intent,
                                NotificationCompat.Builder builder, int mediaType, int randomNotificationIdOffset,
                                String fileName, String mimeType, String subredditName, boolean isNsfw,
-                               boolean multipleDownloads, DownloadProgressResponseBody.ProgressListener progressListener) {
+                               boolean multipleDownloads, AtomicBoolean cancelled,
+                               DownloadProgressResponseBody.ProgressListener progressListener) {
         if (fileUrl == null) {
             // Only Redgifs and Streamble video can go inside this if clause.
             String redgifsId = intent.getString(EXTRA_REDGIFS_ID, null);
             String streamableShortCode = intent.getString(EXTRA_STREAMABLE_SHORT_CODE, null);
 
             if (redgifsId == null && streamableShortCode == null) {
-                downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
+                downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
                         null,
                         ERROR_INVALID_ARGUMENT,
                         multipleDownloads);
@@ -520,7 +597,7 @@ public class DownloadMediaService extends JobService {
                     redgifsId, streamableShortCode);
 
             if (fileUrl == null) {
-                downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
+                downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
                         null,
                         redgifsId == null ? ERROR_CANNOT_FETCH_STREAMABLE_VIDEO_LINK : ERROR_FILE_CANNOT_FETCH_REDGIFS_VIDEO_LINK,
                         multipleDownloads);
@@ -528,119 +605,117 @@ public class DownloadMediaService extends JobService {
             }
         }
 
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addNetworkInterceptor(chain -> {
-                    okhttp3.Response originalResponse = chain.proceed(chain.request());
-                    return originalResponse.newBuilder()
-                            .body(new DownloadProgressResponseBody(originalResponse.body(), progressListener))
-                            .build();
-                })
-                .addInterceptor(chain -> chain.proceed(
-                        chain.request()
-                                .newBuilder()
-                                .header("User-Agent", APIUtils.USER_AGENT)
-                                .build()
-                ))
-                .build();
+        File downloadedFile;
+        try {
+            downloadedFile = mSegmentedDownloader.download(fileUrl, progressListener, cancelled);
+        } catch (SegmentedDownloader.CancelledException e) {
+            // The job was stopped and will be rescheduled, the downloaded part is kept unless the task
+            // was cancelled.
+            return false;
+        } catch (IOException e) {
+            e.printStackTrace();
+            downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType, null,
+                    ERROR_FILE_CANNOT_DOWNLOAD, multipleDownloads);
+            return false;
+        }
 
-        retrofit = retrofit.newBuilder().client(client).build();
+        try {
+            return saveDownloadedFile(downloadedFile, builder, mediaType, randomNotificationIdOffset,
+                    fileName, mimeType, subredditName, isNsfw, multipleDownloads);
+        } finally {
+            mSegmentedDownloader.discard(fileUrl);
+        }
+    }
 
+    /**
+     * Copies a downloaded file to the download location chosen for its media type.
+     *
+     * @return true if the file was saved or false otherwise.
+     */
+    private boolean saveDownloadedFile(File downloadedFile, NotificationCompat.Builder builder,
+                                       int mediaType, int randomNotificationIdOffset, String fileName, String mimeType,
+                                       String subredditName, boolean isNsfw, boolean multipleDownloads) {
         boolean separateDownloadFolder = mSharedPreferences.getBoolean(SharedPreferencesUtils.SEPARATE_FOLDER_FOR_EACH_SUBREDDIT, false);
 
-        Response<ResponseBody> response;
         String destinationFileUriString = null;
         boolean isDefaultDestination = true;
-        try {
-            response = retrofit.create(DownloadFile.class).downloadFile(fileUrl).execute();
-            if (response.isSuccessful() && response.body() != null) {
-                String destinationFileDirectory = getDownloadLocation(mediaType, isNsfw);
-                if (destinationFileDirectory.equals("")) {
-                    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
-                        File directory = getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES);
-                        if (directory != null) {
-                            String directoryPath = separateDownloadFolder && subredditName != null && !subredditName.equals("") ? directory.getAbsolutePath() + "/Infinity/" + subredditName + "/" : directory.getAbsolutePath() + "/Infinity/";
-                            File infinityDir = new File(directoryPath);
-                            if (!infinityDir.exists() && !infinityDir.mkdirs()) {
-                                downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
-                                        null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
-                                return false;
-                            }
-                            destinationFileUriString = directoryPath + fileName;
-                        } else {
-                            downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
-                                    null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
-                            return false;
-                        }
-                    } else {
-                        String dir = mediaType == EXTRA_MEDIA_TYPE_VIDEO ? Environment.DIRECTORY_MOVIES : Environment.DIRECTORY_PICTURES;
-                        destinationFileUriString = separateDownloadFolder && subredditName != null && !subredditName.equals("") ? dir + "/Infinity/" + subredditName + "/" : dir + "/Infinity/";
+        String destinationFileDirectory = getDownloadLocation(mediaType, isNsfw);
+        if (destinationFileDirectory.equals("")) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+                File directory = getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES);
+                if (directory != null) {
+                    String directoryPath = separateDownloadFolder && subredditName != null && !subredditName.equals("") ? directory.getAbsolutePath() + "/Infinity/" + subredditName + "/" : directory.getAbsolutePath() + "/Infinity/";
+                    File infinityDir = new File(directoryPath);
+                    if (!infinityDir.exists() && !infinityDir.mkdirs()) {
+                        downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
+                                null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
+                        return false;
                     }
+                    destinationFileUriString = directoryPath + fileName;
                 } else {
-                    isDefaultDestination = false;
-                    DocumentFile picFile;
-                    DocumentFile dir;
-                    if (separateDownloadFolder && subredditName != null && !subredditName.equals("")) {
-                        dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory));
-                        if (dir == null) {
-                            downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
-                                    null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
-                            return false;
-                        }
-                        dir = dir.findFile(subredditName);
-                        if (dir == null) {
-                            dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory)).createDirectory(subredditName);
-                            if (dir == null) {
-                                downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
-                                        null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
-                                return false;
-                            }
-                        }
-                    } else {
-                        dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory));
-                        if (dir == null) {
-                            downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
-                                    null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
-                            return false;
-                        }
-                    }
-                    DocumentFile checkForDuplicates = dir.findFile(fileName);
-                    int extensionPosition = fileName.lastIndexOf('.');
-                    String extension = fileName.substring(extensionPosition);
-                    int num = 1;
-                    while (checkForDuplicates != null) {
-                        fileName = fileName.substring(0, extensionPosition) + " (" + num + ")" + extension;
-                        checkForDuplicates = dir.findFile(fileName);
-                        num++;
-                    }
-                    picFile = dir.createFile(mimeType, fileName);
-                    if (picFile == null) {
-                        downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType,
+                    downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
+                            null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
+                    return false;
+                }
+            } else {
+                String dir = mediaType == EXTRA_MEDIA_TYPE_VIDEO ? Environment.DIRECTORY_MOVIES : Environment.DIRECTORY_PICTURES;
+                destinationFileUriString = separateDownloadFolder && subredditName != null && !subredditName.equals("") ? dir + "/Infinity/" + subredditName + "/" : dir + "/Infinity/";
+            }
+        } else {
+            isDefaultDestination = false;
+            DocumentFile picFile;
+            DocumentFile dir;
+            if (separateDownloadFolder && subredditName != null && !subredditName.equals("")) {
+                dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory));
+                if (dir == null) {
+                    downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
+                            null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
+                    return false;
+                }
+                dir = dir.findFile(subredditName);
+                if (dir == null) {
+                    dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory)).createDirectory(subredditName);
+                    if (dir == null) {
+                        downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
                                 null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
                         return false;
                     }
-                    destinationFileUriString = picFile.getUri().toString();
                 }
             } else {
-                downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType, null,
-                        ERROR_FILE_CANNOT_DOWNLOAD, multipleDownloads);
+                dir = DocumentFile.fromTreeUri(DownloadMediaService.this, Uri.parse(destinationFileDirectory));
+                if (dir == null) {
+                    downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
+                            null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
+                    return false;
+                }
+            }
+            DocumentFile checkForDuplicates = dir.findFile(fileName);
+            int extensionPosition = fileName.lastIndexOf('.');
+            String extension = fileName.substring(extensionPosition);
+            int num = 1;
+            while (checkForDuplicates != null) {
+                fileName = fileName.substring(0, extensionPosition) + " (" + num + ")" + extension;
+                checkForDuplicates = dir.findFile(fileName);
+                num++;
+            }
+            picFile = dir.createFile(mimeType, fileName);
+            if (picFile == null) {
+                downloadFinished(builder, mediaType, randomNotificationIdOffset, mimeType,
+                        null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, multipleDownloads);
                 return false;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            downloadFinished(params, builder, mediaType, randomNotificationIdOffset, mimeType, null,
-                    ERROR_FILE_CANNOT_DOWNLOAD, multipleDownloads);
-            return false;
+            destinationFileUriString = picFile.getUri().toString();
         }
 
         try {
-            Uri destinationFileUri = writeResponseBodyToDisk(response.body(), isDefaultDestination, destinationFileUriString,
+            Uri destinationFileUri = writeFileToDisk(downloadedFile, isDefaultDestination, destinationFileUriString,
                     fileName, mediaType);
-            downloadFinished(params, builder, mediaType, randomNotificationIdOffset,
+            downloadFinished(builder, mediaType, randomNotificationIdOffset,
                     mimeType, destinationFileUri, NO_ERROR, multipleDownloads);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
-            downloadFinished(params, builder, mediaType, randomNotificationIdOffset,
+            downloadFinished(builder, mediaType, randomNotificationIdOffset,
                     mimeType, null, ERROR_FILE_CANNOT_SAVE, multipleDownloads);
             return false;
         }
@@ -742,32 +817,28 @@ public class DownloadMediaService extends JobService {
         }
     }
 
-    private Uri writeResponseBodyToDisk(ResponseBody body, boolean isDefaultDestination,
+    private Uri writeFileToDisk(File file, boolean isDefaultDestination,
                                         String destinationFileUriString, String destinationFileName,
                                         int mediaType) throws IOException {
         ContentResolver contentResolver = getContentResolver();
         if (isDefaultDestination) {
             if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
-                InputStream inputStream = body.byteStream();
-                OutputStream outputStream = new FileOutputStream(destinationFileUriString);
-                byte[] fileReader = new byte[4096];
+                try (InputStream inputStream = new FileInputStream(file);
+                     OutputStream outputStream = new FileOutputStream(destinationFileUriString)) {
+                    byte[] fileReader = new byte[8192];
 
-                long fileSize = body.contentLength();
-                long fileSizeDownloaded = 0;
+                    while (true) {
+                        int read = inputStream.read(fileReader);
 
-                while (true) {
-                    int read = inputStream.read(fileReader);
+                        if (read == -1) {
+                            break;
+                        }
 
-                    if (read == -1) {
-                        break;
+                        outputStream.write(fileReader, 0, read);
                     }
 
-                    outputStream.write(fileReader, 0, read);
-
-                    fileSizeDownloaded += read;
+                    outputStream.flush();
                 }
-
-                outputStream.flush();
             } else {
                 ContentValues contentValues = new ContentValues();
                 contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, destinationFileName);
@@ -793,17 +864,17 @@ public class DownloadMediaService extends JobService {
                     throw new IOException("Failed to create new MediaStore record.");
                 }
 
-                OutputStream stream = contentResolver.openOutputStream(uri);
-
-                if (stream == null) {
-                    throw new IOException("Failed to get output stream.");
-                }
+                try (OutputStream stream = contentResolver.openOutputStream(uri);
+                     InputStream in = new FileInputStream(file)) {
+                    if (stream == null) {
+                        throw new IOException("Failed to get output stream.");
+                    }
 
-                InputStream in = body.byteStream();
-                byte[] buf = new byte[1024];
-                int len;
-                while ((len = in.read(buf)) > 0) {
-                    stream.write(buf, 0, len);
+                    byte[] buf = new byte[8192];
+                    int len;
+                    while ((len = in.read(buf)) > 0) {
+                        stream.write(buf, 0, len);
+                    }
                 }
                 contentValues.clear();
                 contentValues.put(MediaStore.MediaColumns.IS_PENDING, 0);
@@ -811,14 +882,13 @@ public class DownloadMediaService extends JobService {
                 destinationFileUriString = uri.toString();
             }
         } else {
-            try (OutputStream stream = contentResolver.openOutputStream(Uri.parse(destinationFileUriString))) {
+            try (OutputStream stream = contentResolver.openOutputStream(Uri.parse(destinationFileUriString));
+                 InputStream in = new FileInputStream(file)) {
                 if (stream == null) {
                     throw new IOException("Failed to get output stream.");
                 }
 
-                InputStream in = body.byteStream();
-
-                byte[] buf = new byte[1024];
+                byte[] buf = new byte[8192];
                 int len;
                 while ((len = in.read(buf)) > 0) {
                     stream.write(buf, 0, len);
@@ -828,7 +898,7 @@ public class DownloadMediaService extends JobService {
         return Uri.parse(destinationFileUriString);
     }
 
-    private void downloadFinished(JobParameters parameters, NotificationCompat.Builder builder, int mediaType,
+    private void downloadFinished(NotificationCompat.Builder builder, int mediaType,
                                   int randomNotificationIdOffset, String mimeType, Uri destinationFileUri,
                                   int errorCode, boolean multipleDownloads) {
         if (errorCode != NO_ERROR) {
@@ -871,9 +941,5 @@ public class DownloadMediaService extends JobService {
                     }
             );
         }
-
-        if (!multipleDownloads) {
-            jobFinished(parameters, false);
-        }
     }
 }
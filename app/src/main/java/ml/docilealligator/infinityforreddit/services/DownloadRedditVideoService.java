@@ -4,13 +4,10 @@ import static android.os.Environment.getExternalStoragePublicDirectory;
 
 import android.app.Notification;
 import android.app.PendingIntent;
-import android.app.job.JobInfo;
 import android.app.job.JobParameters;
 import android.app.job.JobService;
-import android.content.ComponentName;
 import android.content.ContentResolver;
 import android.content.ContentValues;
-import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.media.MediaCodec;
@@ -18,14 +15,12 @@ import android.media.MediaExtractor;
 import android.media.MediaFormat;
 import android.media.MediaMuxer;
 import android.media.MediaScannerConnection;
-import android.net.NetworkRequest;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
 import android.os.PersistableBundle;
 import android.provider.MediaStore;
 
-import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationChannelCompat;
 import androidx.core.app.NotificationCompat;
@@ -39,8 +34,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -48,16 +48,17 @@ import javax.inject.Named;
 import ml.docilealligator.infinityforreddit.DownloadProgressResponseBody;
 import ml.docilealligator.infinityforreddit.Infinity;
 import ml.docilealligator.infinityforreddit.R;
-import ml.docilealligator.infinityforreddit.apis.DownloadFile;
 import ml.docilealligator.infinityforreddit.broadcastreceivers.DownloadedMediaDeleteActionBroadcastReceiver;
 import ml.docilealligator.infinityforreddit.customtheme.CustomThemeWrapper;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
+import ml.docilealligator.infinityforreddit.download.DownloadTask;
+import ml.docilealligator.infinityforreddit.download.RedditVideoAudioResolver;
+import ml.docilealligator.infinityforreddit.download.SegmentedDownloader;
+import ml.docilealligator.infinityforreddit.scheduler.AppExecutors;
 import ml.docilealligator.infinityforreddit.utils.NotificationUtils;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 import ml.docilealligator.infinityforreddit.utils.Utils;
 import okhttp3.OkHttpClient;
-import okhttp3.ResponseBody;
-import retrofit2.Response;
-import retrofit2.Retrofit;
 
 public class DownloadRedditVideoService extends JobService {
 
@@ -75,38 +76,39 @@ public class DownloadRedditVideoService extends JobService {
     private static final int ERROR_MUXED_VIDEO_FILE_CANNOT_SAVE = 5;
     private static final int ERROR_CANNOT_GET_DESTINATION_DIRECTORY = 6;
 
-    private static int JOB_ID = 30000;
-
     @Inject
-    @Named("download_media")
-    Retrofit retrofit;
+    SegmentedDownloader segmentedDownloader;
+    @Inject
+    @Named("download")
+    OkHttpClient downloadOkHttpClient;
+    @Inject
+    AppExecutors appExecutors;
     @Inject
     @Named("default")
     SharedPreferences sharedPreferences;
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("long")
     Executor executor;
+    @Inject
+    DownloadQueue downloadQueue;
     private NotificationManagerCompat notificationManager;
-    private final String[] possibleAudioUrlSuffices = new String[]{"/CMAF_AUDIO_128.mp4", "/CMAF_AUDIO_64.mp4", "/DASH_AUDIO_128.mp4", "/DASH_audio.mp4", "/DASH_audio", "/audio.mp4", "/audio"};
+    // Job id -> set when the system stops the job
+    private final Map<Integer, AtomicBoolean> stoppedJobs = new ConcurrentHashMap<>();
+    // Job id -> task the job is downloading
+    private final Map<Integer, DownloadTask> currentTasks = new ConcurrentHashMap<>();
 
     public DownloadRedditVideoService() {
     }
 
-    public static JobInfo constructJobInfo(Context context, long contentEstimatedBytes, PersistableBundle extras) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadRedditVideoService.class))
-                    .setUserInitiated(true)
-                    .setRequiredNetwork(new NetworkRequest.Builder().clearCapabilities().build())
-                    .setEstimatedNetworkBytes(0, contentEstimatedBytes + 500)
-                    .setExtras(extras)
-                    .build();
-        } else {
-            return new JobInfo.Builder(JOB_ID++, new ComponentName(context, DownloadRedditVideoService.class))
-                    .setOverrideDeadline(0)
-                    .setExtras(extras)
-                    .build();
-        }
+    /**
+     * @return the task to add to the {@link DownloadQueue}
+     */
+    public static DownloadTask constructDownloadTask(PersistableBundle extras) {
+        String fileName = extras.getString(EXTRA_SUBREDDIT) + "-" + extras.getString(EXTRA_POST_ID) + ".mp4";
+        return DownloadTask.create(DownloadTask.KIND_REDDIT_VIDEO, extras.getString(EXTRA_VIDEO_URL), fileName,
+                DownloadTask.PRIORITY_USER, fileName, extras);
     }
 
     @Override
@@ -117,9 +119,64 @@ public class DownloadRedditVideoService extends JobService {
 
     @Override
     public boolean onStartJob(JobParameters params) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        stoppedJobs.put(params.getJobId(), stopped);
+        executor.execute(() -> {
+            DownloadTask task;
+            while (!stopped.get() && (task = downloadQueue.claimNext(DownloadTask.KIND_REDDIT_VIDEO)) != null) {
+                currentTasks.put(params.getJobId(), task);
+                if (stopped.get()) {
+                    // onStopJob ran before the task was visible to it.
+                    task.getCancelled().set(true);
+                }
+                boolean success = downloadTask(params, task, stopped);
+                currentTasks.remove(params.getJobId());
+                if (stopped.get()) {
+                    // The job is rescheduled and the task resumes from the downloaded parts.
+                    downloadQueue.requeue(task);
+                } else if (success) {
+                    downloadQueue.complete(task);
+                } else {
+                    downloadQueue.fail(task);
+                }
+            }
+
+            stoppedJobs.remove(params.getJobId());
+            if (!stopped.get()) {
+                // Hand the slot over to the other download service if it has queued tasks.
+                downloadQueue.schedule(false, params.getJobId());
+                jobFinished(params, false);
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        AtomicBoolean stopped = stoppedJobs.remove(params.getJobId());
+        if (stopped != null) {
+            stopped.set(true);
+        }
+        DownloadTask task = currentTasks.get(params.getJobId());
+        if (task != null) {
+            task.getCancelled().set(true);
+        }
+        // Reschedule, the downloader keeps the progress so the next run does not start from zero.
+        return true;
+    }
+
+    /**
+     * Downloads one task from the queue, showing its own notification.
+     *
+     * @param stopped set when the job is stopped
+     * @return true if the video was saved
+     */
+    private boolean downloadTask(JobParameters params, DownloadTask task, AtomicBoolean stopped) {
         NotificationCompat.Builder builder = new NotificationCompat.Builder(DownloadRedditVideoService.this, NotificationUtils.CHANNEL_ID_DOWNLOAD_REDDIT_VIDEO);
 
-        PersistableBundle intent = params.getExtras();
+        PersistableBundle intent = task.getExtrasBundle();
+        AtomicBoolean cancelled = task.getCancelled();
 
         String subredditName = intent.getString(EXTRA_SUBREDDIT);
         String fileNameWithoutExtension = subredditName + "-" + intent.getString(EXTRA_POST_ID);
@@ -133,7 +190,7 @@ public class DownloadRedditVideoService extends JobService {
         notificationManager.createNotificationChannel(serviceChannel);
 
         int randomNotificationIdOffset = new Random().nextInt(10000);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE && params.isUserInitiatedJob()) {
             setNotification(params,
                     NotificationUtils.DOWNLOAD_REDDIT_VIDEO_NOTIFICATION_ID + randomNotificationIdOffset,
                     createNotification(builder, fileNameWithoutExtension + ".mp4"),
@@ -145,277 +202,225 @@ public class DownloadRedditVideoService extends JobService {
 
         String videoUrl = intent.getString(EXTRA_VIDEO_URL);
 
-        String audioUrlPrefix = Build.VERSION.SDK_INT > Build.VERSION_CODES.N ? videoUrl.substring(0, videoUrl.lastIndexOf('/')) : null;
+        // Muxing needs MediaMuxer features from Android O, older versions save the video track only.
+        boolean downloadAudio = Build.VERSION.SDK_INT > Build.VERSION_CODES.N;
 
         boolean isNsfw = intent.getInt(EXTRA_IS_NSFW, 0) == 1;
 
-        executor.execute(() -> {
-            final DownloadProgressResponseBody.ProgressListener progressListener = new DownloadProgressResponseBody.ProgressListener() {
-                long time = 0;
-
-                @Override public void update(long bytesRead, long contentLength, boolean done) {
-                    if (!done) {
-                        if (contentLength != -1) {
-                            long currentTime = System.currentTimeMillis();
-                            if (currentTime - time > 1000) {
-                                time = currentTime;
-                                updateNotification(builder, 0, (int) ((100 * bytesRead) / contentLength),
-                                        randomNotificationIdOffset, null);
-                            }
-                        }
-                    }
-                }
-            };
-
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addNetworkInterceptor(chain -> {
-                        okhttp3.Response originalResponse = chain.proceed(chain.request());
-                        return originalResponse.newBuilder()
-                                .body(new DownloadProgressResponseBody(originalResponse.body(), progressListener))
-                                .build();
-                    })
-                    .build();
-
-            retrofit = retrofit.newBuilder().client(client).build();
-
-            DownloadFile downloadFileRetrofit = retrofit.create(DownloadFile.class);
+        // Bytes read and total size of the video and audio tracks, for one combined progress bar.
+        long[] progress = new long[4];
+        long[] lastProgressUpdateTime = new long[1];
+        DownloadProgressResponseBody.ProgressListener videoProgressListener = (bytesRead, contentLength, done) ->
+                updateProgress(builder, progress, lastProgressUpdateTime, 0, bytesRead, contentLength, randomNotificationIdOffset);
+        DownloadProgressResponseBody.ProgressListener audioProgressListener = (bytesRead, contentLength, done) ->
+                updateProgress(builder, progress, lastProgressUpdateTime, 2, bytesRead, contentLength, randomNotificationIdOffset);
+
+        File externalCacheDirectory = Utils.getCacheDir(this);
+        if (externalCacheDirectory == null) {
+            downloadFinished(builder, null, ERROR_CANNOT_GET_CACHE_DIRECTORY, randomNotificationIdOffset);
+            return false;
+        }
 
-            boolean separateDownloadFolder = sharedPreferences.getBoolean(SharedPreferencesUtils.SEPARATE_FOLDER_FOR_EACH_SUBREDDIT, false);
+        // Look up and fetch the audio track while the video track downloads.
+        String[] audioUrl = new String[1];
+        FutureTask<File> audioTask = null;
+        if (downloadAudio) {
+            audioTask = new FutureTask<>(() -> {
+                audioUrl[0] = new RedditVideoAudioResolver(downloadOkHttpClient, appExecutors.download())
+                        .resolve(videoUrl);
+                return audioUrl[0] == null ? null : segmentedDownloader.download(audioUrl[0], audioProgressListener, cancelled);
+            });
+            executor.execute(audioTask);
+        }
 
-            File externalCacheDirectory = Utils.getCacheDir(this);
-            if (externalCacheDirectory != null) {
-                String destinationFileName = fileNameWithoutExtension + ".mp4";
-                String finalFileNameWithoutExtension = fileNameWithoutExtension;
+        File videoFile;
+        File audioFile = null;
+        int errorCode = NO_ERROR;
+        boolean videoFailed = false;
+        try {
+            videoFile = segmentedDownloader.download(videoUrl, videoProgressListener, cancelled);
+        } catch (IOException e) {
+            e.printStackTrace();
+            videoFile = null;
+            errorCode = ERROR_VIDEO_FILE_CANNOT_DOWNLOAD;
+            if (!(e instanceof SegmentedDownloader.CancelledException)) {
+                videoFailed = true;
+                // No point in finishing the audio track.
+                cancelled.set(true);
+            }
+        }
 
-                try {
-                    Response<ResponseBody> videoResponse = downloadFileRetrofit.downloadFile(videoUrl).execute();
-                    if (videoResponse.isSuccessful() && videoResponse.body() != null) {
-                        String externalCacheDirectoryPath = externalCacheDirectory.getAbsolutePath() + "/";
-                        String destinationFileDirectory;
-                        if (isNsfw && sharedPreferences.getBoolean(SharedPreferencesUtils.SAVE_NSFW_MEDIA_IN_DIFFERENT_FOLDER, false)) {
-                            destinationFileDirectory = sharedPreferences.getString(SharedPreferencesUtils.NSFW_DOWNLOAD_LOCATION, "");
-                        } else {
-                            destinationFileDirectory = sharedPreferences.getString(SharedPreferencesUtils.VIDEO_DOWNLOAD_LOCATION, "");
-                        }
-                        String destinationFileUriString;
-                        boolean isDefaultDestination;
-                        if (destinationFileDirectory.equals("")) {
-                            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
-                                File destinationDirectory = getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES);
-                                if (destinationDirectory != null) {
-                                    String destinationDirectoryPath = separateDownloadFolder ? destinationDirectory.getAbsolutePath() + "/Infinity/" + subredditName + "/" : destinationDirectory.getAbsolutePath() + "/Infinity/";
-                                    File infinityDir = new File(destinationDirectoryPath);
-                                    if (!infinityDir.exists() && !infinityDir.mkdir()) {
-                                        downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                        return;
-                                    }
-                                    destinationFileUriString = destinationDirectoryPath + destinationFileName;
-                                } else {
-                                    downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                    return;
-                                }
-                            } else {
-                                destinationFileUriString = separateDownloadFolder ? Environment.DIRECTORY_MOVIES + "/Infinity/" + subredditName + "/" : Environment.DIRECTORY_MOVIES + "/Infinity/";
-                            }
-                            isDefaultDestination = true;
-                        } else {
-                            isDefaultDestination = false;
-                            DocumentFile picFile;
-                            DocumentFile dir;
-                            if (separateDownloadFolder) {
-                                dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory));
-                                if (dir == null) {
-                                    downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                    return;
-                                }
-                                dir = dir.findFile(subredditName);
-                                if (dir == null) {
-                                    dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory)).createDirectory(subredditName);
-                                    if (dir == null) {
-                                        downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                        return;
-                                    }
-                                }
-                            } else {
-                                dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory));
-                                if (dir == null) {
-                                    downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                    return;
-                                }
-                            }
-                            DocumentFile checkForDuplicates = dir.findFile(destinationFileName);
-                            int num = 1;
-                            while (checkForDuplicates != null) {
-                                finalFileNameWithoutExtension = finalFileNameWithoutExtension + " (" + num + ")";
-                                checkForDuplicates = dir.findFile(finalFileNameWithoutExtension + ".mp4");
-                                num++;
-                            }
-                            picFile = dir.createFile("video/mp4", finalFileNameWithoutExtension + ".mp4");
-                            if (picFile == null) {
-                                downloadFinished(params, builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
-                                return;
-                            }
-                            destinationFileUriString = picFile.getUri().toString();
-                        }
-
-                        updateNotification(builder, R.string.downloading_reddit_video_audio_track, 0,
-                                randomNotificationIdOffset, null);
-
-                        String videoFilePath = externalCacheDirectoryPath + finalFileNameWithoutExtension + "-cache.mp4";
-                        String savedVideoFilePath = writeResponseBodyToDisk(videoResponse.body(), videoFilePath);
-                        if (savedVideoFilePath == null) {
-                            downloadFinished(params, builder, null, ERROR_VIDEO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
-                            return;
-                        }
-
-                        if (audioUrlPrefix != null) {
-                            ResponseBody audioResponse = getAudioResponse(downloadFileRetrofit, audioUrlPrefix, 0);
-                            String outputFilePath = externalCacheDirectoryPath + finalFileNameWithoutExtension + ".mp4";
-                            if (audioResponse != null) {
-                                String audioFilePath = externalCacheDirectoryPath + finalFileNameWithoutExtension + "-cache.mp3";
-
-                                String savedAudioFilePath = writeResponseBodyToDisk(audioResponse, audioFilePath);
-                                if (savedAudioFilePath == null) {
-                                    downloadFinished(params, builder, null, ERROR_AUDIO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
-                                    return;
-                                }
-
-                                updateNotification(builder, R.string.downloading_reddit_video_muxing, -1,
-                                        randomNotificationIdOffset, null);
-                                if (!muxVideoAndAudio(videoFilePath, audioFilePath, outputFilePath)) {
-                                    downloadFinished(params, builder, null, ERROR_MUX_FAILED, randomNotificationIdOffset);
-                                    return;
-                                }
-
-                                updateNotification(builder, R.string.downloading_reddit_video_save_file_to_public_dir, -1,
-                                        randomNotificationIdOffset, null);
-                                try {
-                                    Uri destinationFileUri = copyToDestination(outputFilePath, destinationFileUriString, destinationFileName, isDefaultDestination);
-
-                                    new File(videoFilePath).delete();
-                                    new File(audioFilePath).delete();
-                                    new File(outputFilePath).delete();
-
-                                    downloadFinished(params, builder, destinationFileUri, NO_ERROR, randomNotificationIdOffset);
-                                } catch (IOException e) {
-                                    e.printStackTrace();
-                                    downloadFinished(params, builder, null, ERROR_MUXED_VIDEO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
-                                }
-                            } else {
-                                updateNotification(builder, R.string.downloading_reddit_video_muxing, -1,
-                                        randomNotificationIdOffset, null);
-                                if (!muxVideoAndAudio(videoFilePath, null, outputFilePath)) {
-                                    downloadFinished(params, builder, null, ERROR_MUX_FAILED, randomNotificationIdOffset);
-                                    return;
-                                }
-
-                                updateNotification(builder, R.string.downloading_reddit_video_save_file_to_public_dir, -1,
-                                        randomNotificationIdOffset, null);
-                                try {
-                                    Uri destinationFileUri = copyToDestination(outputFilePath, destinationFileUriString, destinationFileName, isDefaultDestination);
-
-                                    new File(videoFilePath).delete();
-                                    new File(outputFilePath).delete();
-
-                                    downloadFinished(params, builder, destinationFileUri, NO_ERROR, randomNotificationIdOffset);
-                                } catch (IOException e) {
-                                    e.printStackTrace();
-                                    downloadFinished(params, builder, null, ERROR_MUXED_VIDEO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
-                                }
-                            }
-                        } else {
-                            // do not remux video on <= Android N, just save video
-                            updateNotification(builder, R.string.downloading_reddit_video_save_file_to_public_dir, -1,
-                                    randomNotificationIdOffset, null);
-                            try {
-                                Uri destinationFileUri = copyToDestination(videoFilePath, destinationFileUriString, destinationFileName, isDefaultDestination);
-                                new File(videoFilePath).delete();
-                                downloadFinished(params, builder, destinationFileUri, NO_ERROR, randomNotificationIdOffset);
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                                downloadFinished(params, builder, null, ERROR_MUXED_VIDEO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
-                            }
-                        }
-                    } else {
-                        downloadFinished(params, builder, null, ERROR_VIDEO_FILE_CANNOT_DOWNLOAD, randomNotificationIdOffset);
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    downloadFinished(params, builder, null, ERROR_VIDEO_FILE_CANNOT_DOWNLOAD, randomNotificationIdOffset);
+        if (audioTask != null) {
+            // Runs the task here if no thread has picked it up yet, otherwise waits for it.
+            audioTask.run();
+            try {
+                audioFile = audioTask.get();
+            } catch (ExecutionException | InterruptedException e) {
+                e.printStackTrace();
+                if (errorCode == NO_ERROR) {
+                    errorCode = ERROR_AUDIO_FILE_CANNOT_SAVE;
                 }
-            } else {
-                downloadFinished(params, builder, null, ERROR_CANNOT_GET_CACHE_DIRECTORY, randomNotificationIdOffset);
             }
-        });
+        }
 
-        return true;
-    }
+        if (stopped.get()) {
+            // Stopped by the system. The job is rescheduled and resumes from the downloaded parts.
+            return false;
+        }
+        if (cancelled.get() && !videoFailed) {
+            // Cancelled from the download queue screen.
+            segmentedDownloader.discard(videoUrl);
+            if (audioUrl[0] != null) {
+                segmentedDownloader.discard(audioUrl[0]);
+            }
+            notificationManager.cancel(NotificationUtils.DOWNLOAD_REDDIT_VIDEO_NOTIFICATION_ID + randomNotificationIdOffset);
+            return false;
+        }
+        if (errorCode != NO_ERROR) {
+            downloadFinished(builder, null, errorCode, randomNotificationIdOffset);
+            return false;
+        }
 
-    @Override
-    public boolean onStopJob(JobParameters params) {
-        return false;
+        try {
+            return saveVideo(builder, videoFile, audioFile, externalCacheDirectory, subredditName,
+                    fileNameWithoutExtension, isNsfw, randomNotificationIdOffset);
+        } finally {
+            segmentedDownloader.discard(videoUrl);
+            if (audioUrl[0] != null) {
+                segmentedDownloader.discard(audioUrl[0]);
+            }
+        }
     }
 
-    @Nullable
-    private ResponseBody getAudioResponse(DownloadFile downloadFileRetrofit, @NonNull String audioUrlPrefix, int audioSuffixIndex) throws IOException {
-        if (audioSuffixIndex >= possibleAudioUrlSuffices.length) {
-            return null;
+    /**
+     * @param index 0 for the video track, 2 for the audio track
+     */
+    private void updateProgress(NotificationCompat.Builder builder, long[] progress, long[] lastProgressUpdateTime,
+                                int index, long bytesRead, long contentLength, int randomNotificationIdOffset) {
+        if (contentLength <= 0) {
+            return;
         }
-
-        String audioUrl = audioUrlPrefix + possibleAudioUrlSuffices[audioSuffixIndex];
-        Response<ResponseBody> audioResponse = downloadFileRetrofit.downloadFile(audioUrl).execute();
-        ResponseBody responseBody = audioResponse.body();
-        if (audioResponse.isSuccessful() && responseBody != null) {
-            return responseBody;
+        synchronized (progress) {
+            progress[index] = bytesRead;
+            progress[index + 1] = contentLength;
+            long currentTime = System.currentTimeMillis();
+            if (currentTime - lastProgressUpdateTime[0] > 1000) {
+                lastProgressUpdateTime[0] = currentTime;
+                updateNotification(builder, 0, (int) ((100 * (progress[0] + progress[2])) / (progress[1] + progress[3])),
+                        randomNotificationIdOffset, null);
+            }
         }
-
-        return getAudioResponse(downloadFileRetrofit, audioUrlPrefix, audioSuffixIndex + 1);
     }
 
-    private String writeResponseBodyToDisk(ResponseBody body, String filePath) {
-        try {
-            File file = new File(filePath);
-
-            InputStream inputStream = null;
-            OutputStream outputStream = null;
-
-            try {
-                byte[] fileReader = new byte[4096];
-
-                long fileSize = body.contentLength();
-                long fileSizeDownloaded = 0;
-
-                inputStream = body.byteStream();
-                outputStream = new FileOutputStream(file);
-
-                while (true) {
-                    int read = inputStream.read(fileReader);
-
-                    if (read == -1) {
-                        break;
+    /**
+     * Muxes the downloaded tracks and copies the result to the video download location.
+     *
+     * @param audioFile null if the video has no audio track or the audio was not downloaded
+     */
+    private boolean saveVideo(NotificationCompat.Builder builder, File videoFile,
+                           @Nullable File audioFile, File externalCacheDirectory, String subredditName,
+                           String fileNameWithoutExtension, boolean isNsfw, int randomNotificationIdOffset) {
+        boolean separateDownloadFolder = sharedPreferences.getBoolean(SharedPreferencesUtils.SEPARATE_FOLDER_FOR_EACH_SUBREDDIT, false);
+        String destinationFileName = fileNameWithoutExtension + ".mp4";
+        String finalFileNameWithoutExtension = fileNameWithoutExtension;
+        String externalCacheDirectoryPath = externalCacheDirectory.getAbsolutePath() + "/";
+        String destinationFileDirectory;
+        if (isNsfw && sharedPreferences.getBoolean(SharedPreferencesUtils.SAVE_NSFW_MEDIA_IN_DIFFERENT_FOLDER, false)) {
+            destinationFileDirectory = sharedPreferences.getString(SharedPreferencesUtils.NSFW_DOWNLOAD_LOCATION, "");
+        } else {
+            destinationFileDirectory = sharedPreferences.getString(SharedPreferencesUtils.VIDEO_DOWNLOAD_LOCATION, "");
+        }
+        String destinationFileUriString;
+        boolean isDefaultDestination;
+        if (destinationFileDirectory.equals("")) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+                File destinationDirectory = getExternalStoragePublicDirectory(Environment.DIRECTORY_PICTURES);
+                if (destinationDirectory != null) {
+                    String destinationDirectoryPath = separateDownloadFolder ? destinationDirectory.getAbsolutePath() + "/Infinity/" + subredditName + "/" : destinationDirectory.getAbsolutePath() + "/Infinity/";
+                    File infinityDir = new File(destinationDirectoryPath);
+                    if (!infinityDir.exists() && !infinityDir.mkdir()) {
+                        downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                        return false;
                     }
-
-                    outputStream.write(fileReader, 0, read);
-
-                    fileSizeDownloaded += read;
+                    destinationFileUriString = destinationDirectoryPath + destinationFileName;
+                } else {
+                    downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                    return false;
                 }
-
-                outputStream.flush();
-
-                return file.getPath();
-            } catch (IOException e) {
-                return null;
-            } finally {
-                if (inputStream != null) {
-                    inputStream.close();
+            } else {
+                destinationFileUriString = separateDownloadFolder ? Environment.DIRECTORY_MOVIES + "/Infinity/" + subredditName + "/" : Environment.DIRECTORY_MOVIES + "/Infinity/";
+            }
+            isDefaultDestination = true;
+        } else {
+            isDefaultDestination = false;
+            DocumentFile picFile;
+            DocumentFile dir;
+            if (separateDownloadFolder) {
+                dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory));
+                if (dir == null) {
+                    downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                    return false;
                 }
-
-                if (outputStream != null) {
-                    outputStream.close();
+                dir = dir.findFile(subredditName);
+                if (dir == null) {
+                    dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory)).createDirectory(subredditName);
+                    if (dir == null) {
+                        downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                        return false;
+                    }
+                }
+            } else {
+                dir = DocumentFile.fromTreeUri(DownloadRedditVideoService.this, Uri.parse(destinationFileDirectory));
+                if (dir == null) {
+                    downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                    return false;
                 }
             }
+            DocumentFile checkForDuplicates = dir.findFile(destinationFileName);
+            int num = 1;
+            while (checkForDuplicates != null) {
+                finalFileNameWithoutExtension = finalFileNameWithoutExtension + " (" + num + ")";
+                checkForDuplicates = dir.findFile(finalFileNameWithoutExtension + ".mp4");
+                num++;
+            }
+            picFile = dir.createFile("video/mp4", finalFileNameWithoutExtension + ".mp4");
+            if (picFile == null) {
+                downloadFinished(builder, null, ERROR_CANNOT_GET_DESTINATION_DIRECTORY, randomNotificationIdOffset);
+                return false;
+            }
+            destinationFileUriString = picFile.getUri().toString();
+        }
+
+        String sourceFilePath;
+        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.N) {
+            // Mux straight from the downloader's files, they are complete once download() returns.
+            sourceFilePath = externalCacheDirectoryPath + finalFileNameWithoutExtension + ".mp4";
+            updateNotification(builder, R.string.downloading_reddit_video_muxing, -1,
+                    randomNotificationIdOffset, null);
+            if (!muxVideoAndAudio(videoFile.getPath(), audioFile == null ? null : audioFile.getPath(), sourceFilePath)) {
+                new File(sourceFilePath).delete();
+                downloadFinished(builder, null, ERROR_MUX_FAILED, randomNotificationIdOffset);
+                return false;
+            }
+        } else {
+            // do not remux video on <= Android N, just save video
+            sourceFilePath = videoFile.getPath();
+        }
+
+        updateNotification(builder, R.string.downloading_reddit_video_save_file_to_public_dir, -1,
+                randomNotificationIdOffset, null);
+        try {
+            Uri destinationFileUri = copyToDestination(sourceFilePath, destinationFileUriString, destinationFileName, isDefaultDestination);
+            downloadFinished(builder, destinationFileUri, NO_ERROR, randomNotificationIdOffset);
+            return true;
         } catch (IOException e) {
-            return null;
+            e.printStackTrace();
+            downloadFinished(builder, null, ERROR_MUXED_VIDEO_FILE_CANNOT_SAVE, randomNotificationIdOffset);
+            return false;
+        } finally {
+            if (!sourceFilePath.equals(videoFile.getPath())) {
+                new File(sourceFilePath).delete();
+            }
         }
     }
 
@@ -580,7 +585,7 @@ public class DownloadRedditVideoService extends JobService {
         return Uri.parse(destinationFileUriString);
     }
 
-    private void downloadFinished(JobParameters parameters, NotificationCompat.Builder builder, Uri destinationFileUri, int errorCode, int randomNotificationIdOffset) {
+    private void downloadFinished(NotificationCompat.Builder builder, Uri destinationFileUri, int errorCode, int randomNotificationIdOffset) {
         if (errorCode != NO_ERROR) {
             switch (errorCode) {
                 case ERROR_CANNOT_GET_CACHE_DIRECTORY:
@@ -620,7 +625,6 @@ public class DownloadRedditVideoService extends JobService {
                     }
             );
         }
-        jobFinished(parameters, false);
     }
 
     private Notification createNotification(NotificationCompat.Builder builder, String fileName) {
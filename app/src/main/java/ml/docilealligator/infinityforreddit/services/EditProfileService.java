@@ -69,6 +69,7 @@ public class EditProfileService extends JobService {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Handler handler;
 
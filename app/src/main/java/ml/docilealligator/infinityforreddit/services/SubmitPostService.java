@@ -28,11 +28,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ExecutionException;
@@ -58,12 +54,12 @@ import ml.docilealligator.infinityforreddit.events.SubmitPollPostEvent;
 import ml.docilealligator.infinityforreddit.events.SubmitTextOrLinkPostEvent;
 import ml.docilealligator.infinityforreddit.events.SubmitVideoOrGifPostEvent;
 import ml.docilealligator.infinityforreddit.markdown.RichTextJSONConverter;
+import ml.docilealligator.infinityforreddit.network.ContentUriRequestBody;
 import ml.docilealligator.infinityforreddit.post.Post;
 import ml.docilealligator.infinityforreddit.post.SubmitPost;
 import ml.docilealligator.infinityforreddit.utils.APIUtils;
 import ml.docilealligator.infinityforreddit.utils.JSONUtils;
 import ml.docilealligator.infinityforreddit.utils.NotificationUtils;
-import ml.docilealligator.infinityforreddit.utils.Utils;
 import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import retrofit2.Response;
@@ -114,6 +110,7 @@ public class SubmitPostService extends JobService {
     @Inject
     CustomThemeWrapper mCustomThemeWrapper;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private Handler handler;
 
@@ -349,33 +346,28 @@ public class SubmitPostService extends JobService {
                                  Retrofit newAuthenticatorOauthRetrofit, Account selectedAccount, Uri mediaUri,
                                  String subredditName, String title, String content, Flair flair,
                                  boolean isSpoiler, boolean isNSFW, boolean receivePostReplyNotifications) {
-        try {
-            Bitmap resource = Glide.with(this).asBitmap().load(mediaUri).submit().get();
-            SubmitPost.submitImagePost(mExecutor, handler, newAuthenticatorOauthRetrofit, mUploadMediaRetrofit,
-                    selectedAccount.getAccessToken(), subredditName, title, content, resource, flair, isSpoiler, isNSFW, receivePostReplyNotifications,
-                    new SubmitPost.SubmitPostListener() {
-                        @Override
-                        public void submitSuccessful(Post post) {
-                            handler.post(() -> {
-                                EventBus.getDefault().post(new SubmitImagePostEvent(true, null));
-                                Toast.makeText(SubmitPostService.this, R.string.image_is_processing, Toast.LENGTH_SHORT).show();
-                            });
-
-                            stopJob(parameters, manager, randomNotificationIdOffset);
-                        }
+        SubmitPost.submitImagePost(this, mExecutor, handler, newAuthenticatorOauthRetrofit, mUploadMediaRetrofit,
+                selectedAccount.getAccessToken(), subredditName, title, content, mediaUri, flair, isSpoiler, isNSFW,
+                receivePostReplyNotifications,
+                createUploadProgressListener(manager, randomNotificationIdOffset, R.string.posting_image),
+                new SubmitPost.SubmitPostListener() {
+                    @Override
+                    public void submitSuccessful(Post post) {
+                        handler.post(() -> {
+                            EventBus.getDefault().post(new SubmitImagePostEvent(true, null));
+                            Toast.makeText(SubmitPostService.this, R.string.image_is_processing, Toast.LENGTH_SHORT).show();
+                        });
 
-                        @Override
-                        public void submitFailed(@Nullable String errorMessage) {
-                            handler.post(() -> EventBus.getDefault().post(new SubmitImagePostEvent(false, errorMessage)));
+                        stopJob(parameters, manager, randomNotificationIdOffset);
+                    }
 
-                            stopJob(parameters, manager, randomNotificationIdOffset);
-                        }
-                    });
-        } catch (ExecutionException | InterruptedException e) {
-            e.printStackTrace();
-            handler.post(() -> EventBus.getDefault().post(new SubmitImagePostEvent(false, getString(R.string.error_processing_image))));
-            stopJob(parameters, manager, randomNotificationIdOffset);
-        }
+                    @Override
+                    public void submitFailed(@Nullable String errorMessage) {
+                        handler.post(() -> EventBus.getDefault().post(new SubmitImagePostEvent(false, errorMessage)));
+
+                        stopJob(parameters, manager, randomNotificationIdOffset);
+                    }
+                });
     }
 
     @WorkerThread
@@ -384,28 +376,16 @@ public class SubmitPostService extends JobService {
                                  String subredditName, String title, String content, Flair flair,
                                  boolean isSpoiler, boolean isNSFW, boolean receivePostReplyNotifications) {
         try {
-            InputStream in = getContentResolver().openInputStream(mediaUri);
             String type = getContentResolver().getType(mediaUri);
-            File cacheDir = Utils.getCacheDir(this);
-            if (cacheDir == null) {
-                handler.post(() -> EventBus.getDefault().post(new SubmitVideoOrGifPostEvent(false, false, getString(R.string.submit_video_or_gif_post_failed_cannot_get_cache_directory))));
-                return;
-            }
-            String cacheFilePath;
-            if (type != null && type.contains("gif")) {
-                cacheFilePath = cacheDir + "/" + mediaUri.getLastPathSegment() + ".gif";
-            } else {
-                cacheFilePath = cacheDir + "/" + mediaUri.getLastPathSegment() + ".mp4";
-            }
-
-            copyFileToCache(in, cacheFilePath);
 
             Bitmap resource = Glide.with(this).asBitmap().load(mediaUri).submit().get();
 
             if (type != null) {
                 SubmitPost.submitVideoPost(mExecutor, handler, newAuthenticatorOauthRetrofit, mUploadMediaRetrofit,
                         mUploadVideoRetrofit, selectedAccount.getAccessToken(), subredditName, title, content,
-                        new File(cacheFilePath), type, resource, flair, isSpoiler, isNSFW, receivePostReplyNotifications,
+                        getContentResolver(), mediaUri, type, resource, flair, isSpoiler, isNSFW,
+                        receivePostReplyNotifications,
+                        createUploadProgressListener(manager, randomNotificationIdOffset, R.string.posting_video),
                         new SubmitPost.SubmitPostListener() {
                             @Override
                             public void submitSuccessful(Post post) {
@@ -434,7 +414,7 @@ public class SubmitPostService extends JobService {
 
                 stopJob(parameters, manager, randomNotificationIdOffset);
             }
-        } catch (IOException | InterruptedException | ExecutionException e) {
+        } catch (InterruptedException | ExecutionException e) {
             e.printStackTrace();
             handler.post(() -> EventBus.getDefault().post(new SubmitVideoOrGifPostEvent(false, true, null)));
 
@@ -518,13 +498,31 @@ public class SubmitPostService extends JobService {
         }
     }
 
-    private static void copyFileToCache(InputStream fileInputStream, String destinationFilePath) throws IOException {
-        OutputStream out = new FileOutputStream(destinationFilePath);
-        byte[] buf = new byte[2048];
-        int len;
-        while ((len = fileInputStream.read(buf)) > 0) {
-            out.write(buf, 0, len);
-        }
+    /**
+     * Shows the upload progress in the job's notification, at most once a second.
+     */
+    private ContentUriRequestBody.ProgressListener createUploadProgressListener(NotificationManagerCompat manager,
+                                                                                int randomNotificationIdOffset,
+                                                                                int stringResId) {
+        return new ContentUriRequestBody.ProgressListener() {
+            long time = 0;
+
+            @Override
+            public void update(long bytesWritten, long contentLength, boolean done) {
+                long currentTime = System.currentTimeMillis();
+                if (contentLength > 0 && !done && currentTime - time > 1000) {
+                    time = currentTime;
+                    manager.notify(NotificationUtils.SUBMIT_POST_SERVICE_NOTIFICATION_ID + randomNotificationIdOffset,
+                            new NotificationCompat.Builder(SubmitPostService.this, NotificationUtils.CHANNEL_SUBMIT_POST)
+                                    .setContentTitle(getString(stringResId))
+                                    .setProgress(100, (int) (100 * bytesWritten / contentLength), false)
+                                    .setSmallIcon(R.drawable.ic_notification)
+                                    .setColor(mCustomThemeWrapper.getColorPrimaryLightTheme())
+                                    .setOnlyAlertOnce(true)
+                                    .build());
+                }
+            }
+        };
     }
 
     private void stopJob(JobParameters parameters, NotificationManagerCompat notificationManager, int randomNotificationIdOffset) {
@@ -39,6 +39,7 @@ import ml.docilealligator.infinityforreddit.customviews.preference.CustomFontPre
 import ml.docilealligator.infinityforreddit.events.RecreateActivityEvent;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostDao;
 import ml.docilealligator.infinityforreddit.readpost.ReadPostType;
+import ml.docilealligator.infinityforreddit.readpost.ReadPostsIndex;
 import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
 
 /**
@@ -87,7 +88,13 @@ public class AdvancedPreferenceFragment extends CustomFontPreferenceFragmentComp
     @Named("post_history")
     SharedPreferences postHistorySharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
+    @Inject
+    @Named("db")
+    Executor dbExecutor;
+    @Inject
+    ReadPostsIndex readPostsIndex;
     private Handler handler;
 
     @Override
@@ -212,8 +219,8 @@ public class AdvancedPreferenceFragment extends CustomFontPreferenceFragmentComp
                 new MaterialAlertDialogBuilder(mActivity, R.style.MaterialAlertDialogTheme)
                         .setTitle(R.string.are_you_sure)
                         .setPositiveButton(R.string.yes, (dialogInterface, i)
-                                -> DeleteAllReadPosts.deleteAllReadPosts(executor, handler,
-                                mRedditDataRoomDatabase, () -> {
+                                -> DeleteAllReadPosts.deleteAllReadPosts(dbExecutor, handler,
+                                mRedditDataRoomDatabase, readPostsIndex, () -> {
                             Toast.makeText(mActivity, R.string.delete_all_read_posts_success, Toast.LENGTH_SHORT).show();
                         }))
                         .setNegativeButton(R.string.no, null)
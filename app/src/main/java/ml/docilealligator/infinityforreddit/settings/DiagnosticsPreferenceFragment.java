@@ -0,0 +1,156 @@
+package ml.docilealligator.infinityforreddit.settings;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Toast;
+
+import androidx.preference.Preference;
+
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import ml.docilealligator.infinityforreddit.Infinity;
+import ml.docilealligator.infinityforreddit.R;
+import ml.docilealligator.infinityforreddit.customviews.preference.CustomFontPreferenceFragmentCompat;
+import ml.docilealligator.infinityforreddit.markdown.ParsedMarkdownCache;
+import ml.docilealligator.infinityforreddit.network.ConnectionPoolManager;
+import ml.docilealligator.infinityforreddit.network.ConnectionReuseStats;
+import ml.docilealligator.infinityforreddit.network.HttpResponseCache;
+import ml.docilealligator.infinityforreddit.scheduler.AppExecutors;
+import ml.docilealligator.infinityforreddit.scheduler.MonitoredExecutor;
+import ml.docilealligator.infinityforreddit.translation.TranslationCache;
+import ml.docilealligator.infinityforreddit.utils.BindTimeStats;
+import ml.docilealligator.infinityforreddit.utils.FrameTimeStats;
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+
+/**
+ * Shows runtime statistics that help confirm performance related behaviour on a real device.
+ */
+public class DiagnosticsPreferenceFragment extends CustomFontPreferenceFragmentCompat {
+
+    @Inject
+    ConnectionPoolManager mConnectionPoolManager;
+    @Inject
+    HttpResponseCache mHttpResponseCache;
+    @Inject
+    AppExecutors mAppExecutors;
+    @Inject
+    @Named("io")
+    Executor mExecutor;
+    @Inject
+    TranslationCache mTranslationCache;
+    @Inject
+    ParsedMarkdownCache mParsedMarkdownCache;
+    private Handler mHandler;
+
+    public DiagnosticsPreferenceFragment() {}
+
+    @Override
+    public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
+        setPreferencesFromResource(R.xml.diagnostics_preferences, rootKey);
+        ((Infinity) mActivity.getApplication()).getAppComponent().inject(this);
+
+        mHandler = new Handler(Looper.getMainLooper());
+
+        Preference evictConnectionsPreference = findPreference(SharedPreferencesUtils.DIAGNOSTICS_EVICT_CONNECTIONS);
+        Preference resetPreference = findPreference(SharedPreferencesUtils.DIAGNOSTICS_RESET);
+
+        if (evictConnectionsPreference != null) {
+            evictConnectionsPreference.setOnPreferenceClickListener(preference -> {
+                mExecutor.execute(() -> {
+                    mConnectionPoolManager.evictAll();
+                    mHandler.post(() -> {
+                        if (isAdded()) {
+                            Toast.makeText(mActivity, R.string.settings_diagnostics_evict_connections_success, Toast.LENGTH_SHORT).show();
+                            updateSummaries();
+                        }
+                    });
+                });
+                return true;
+            });
+        }
+
+        if (resetPreference != null) {
+            resetPreference.setOnPreferenceClickListener(preference -> {
+                ConnectionReuseStats.API.reset();
+                ConnectionReuseStats.MEDIA.reset();
+                mHttpResponseCache.resetStats();
+                mTranslationCache.resetStats();
+                mParsedMarkdownCache.resetStats();
+                FrameTimeStats.COMMENTS.reset();
+                BindTimeStats.POSTS.reset();
+                BindTimeStats.COMMENTS.reset();
+                for (MonitoredExecutor executor : mAppExecutors.getAll()) {
+                    executor.resetStats();
+                }
+                updateSummaries();
+                return true;
+            });
+        }
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        updateSummaries();
+    }
+
+    private void updateSummaries() {
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_API_CONNECTIONS, ConnectionReuseStats.API.toString());
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_MEDIA_CONNECTIONS, ConnectionReuseStats.MEDIA.toString());
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_CONNECTION_POOL, getString(R.string.settings_diagnostics_connection_pool_summary,
+                mConnectionPoolManager.getConnectionCount(), mConnectionPoolManager.getIdleConnectionCount()));
+
+        StringBuilder httpCacheSummary = new StringBuilder();
+        for (HttpResponseCache.EndpointFamily family : HttpResponseCache.EndpointFamily.values()) {
+            httpCacheSummary.append(family.getDisplayName())
+                    .append(": ").append(family.getHits()).append(" hits, ")
+                    .append(family.getConditionalHits()).append(" revalidated, ")
+                    .append(family.getMisses()).append(" misses\n");
+        }
+        httpCacheSummary.append("Size: ").append(mHttpResponseCache.getSize() / 1024).append(" / ")
+                .append(mHttpResponseCache.getMaxSize() / 1024).append(" KB");
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_HTTP_CACHE, httpCacheSummary);
+
+        StringBuilder executorsSummary = new StringBuilder();
+        for (MonitoredExecutor executor : mAppExecutors.getAll()) {
+            if (executorsSummary.length() > 0) {
+                executorsSummary.append('\n');
+            }
+            executorsSummary.append(executor);
+        }
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_EXECUTORS, executorsSummary);
+
+        long translationCacheHits = mTranslationCache.getHitCount();
+        long translationCacheLookups = translationCacheHits + mTranslationCache.getMissCount();
+        long translationCacheDiskSize = mTranslationCache.getDiskSize();
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_TRANSLATION_CACHE, getString(R.string.settings_diagnostics_translation_cache_summary,
+                translationCacheHits, mTranslationCache.getMissCount(),
+                translationCacheLookups == 0 ? 0 : translationCacheHits * 100 / translationCacheLookups,
+                mTranslationCache.getEstimatedTokensSaved(),
+                translationCacheDiskSize < 0 ? "?" : String.valueOf(translationCacheDiskSize / 1024),
+                mTranslationCache.getMaxDiskSize() / 1024));
+
+        long markdownCacheHits = mParsedMarkdownCache.getHitCount();
+        long markdownCacheLookups = markdownCacheHits + mParsedMarkdownCache.getMissCount();
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_MARKDOWN_CACHE, getString(R.string.settings_diagnostics_markdown_cache_summary,
+                markdownCacheHits, mParsedMarkdownCache.getMissCount(),
+                markdownCacheLookups == 0 ? 0 : markdownCacheHits * 100 / markdownCacheLookups,
+                mParsedMarkdownCache.getPreParsedCount(), mParsedMarkdownCache.getPreParseTimeMillis(),
+                mParsedMarkdownCache.getMainThreadParseTimeMillis(),
+                mParsedMarkdownCache.getSize(), mParsedMarkdownCache.getMaxSize()));
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_COMMENT_FRAMES, FrameTimeStats.COMMENTS.toString());
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_POST_BIND_TIME, BindTimeStats.POSTS.toString());
+        setSummary(SharedPreferencesUtils.DIAGNOSTICS_COMMENT_BIND_TIME, BindTimeStats.COMMENTS.toString());
+    }
+
+    private void setSummary(String key, CharSequence summary) {
+        Preference preference = findPreference(key);
+        if (preference != null) {
+            preference.setSummary(summary);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ml.docilealligator.infinityforreddit.settings;
+
+import android.os.Bundle;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceScreen;
+
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import ml.docilealligator.infinityforreddit.Infinity;
+import ml.docilealligator.infinityforreddit.R;
+import ml.docilealligator.infinityforreddit.customviews.preference.CustomFontPreference;
+import ml.docilealligator.infinityforreddit.customviews.preference.CustomFontPreferenceFragmentCompat;
+import ml.docilealligator.infinityforreddit.download.DownloadQueue;
+import ml.docilealligator.infinityforreddit.download.DownloadTask;
+import ml.docilealligator.infinityforreddit.utils.SharedPreferencesUtils;
+
+/**
+ * Shows the downloads in the {@link DownloadQueue}. Tapping one cancels it, or retries it if it failed.
+ */
+public class DownloadQueuePreferenceFragment extends CustomFontPreferenceFragmentCompat {
+
+    @Inject
+    DownloadQueue mDownloadQueue;
+    private final List<Preference> mTaskPreferences = new ArrayList<>();
+
+    public DownloadQueuePreferenceFragment() {}
+
+    @Override
+    public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
+        setPreferencesFromResource(R.xml.download_queue_preferences, rootKey);
+        ((Infinity) mActivity.getApplication()).getAppComponent().inject(this);
+
+        mDownloadQueue.getAllDownloadTasksLiveData().observe(this, this::showDownloadTasks);
+    }
+
+    private void showDownloadTasks(List<DownloadTask> downloadTasks) {
+        PreferenceScreen preferenceScreen = getPreferenceScreen();
+        for (Preference preference : mTaskPreferences) {
+            preferenceScreen.removePreference(preference);
+        }
+        mTaskPreferences.clear();
+
+        Preference emptyPreference = findPreference(SharedPreferencesUtils.DOWNLOAD_QUEUE_EMPTY);
+        if (emptyPreference != null) {
+            emptyPreference.setVisible(downloadTasks.isEmpty());
+        }
+
+        for (DownloadTask downloadTask : downloadTasks) {
+            CustomFontPreference preference = new CustomFontPreference(mActivity);
+            preference.setIconSpaceReserved(false);
+            preference.setTitle(downloadTask.getTitle());
+            preference.setSummary(getStateString(downloadTask));
+            preference.setCustomThemeWrapper(mActivity.customThemeWrapper);
+            preference.setCustomFont(mActivity.typeface, null, null);
+            preference.setOnPreferenceClickListener(p -> {
+                showActionsDialog(downloadTask);
+                return true;
+            });
+            preferenceScreen.addPreference(preference);
+            mTaskPreferences.add(preference);
+        }
+    }
+
+    private void showActionsDialog(DownloadTask downloadTask) {
+        MaterialAlertDialogBuilder builder = new MaterialAlertDialogBuilder(mActivity, R.style.MaterialAlertDialogTheme)
+                .setTitle(downloadTask.getTitle())
+                .setNegativeButton(R.string.cancel_download, (dialogInterface, i) -> mDownloadQueue.cancel(downloadTask))
+                .setNeutralButton(R.string.cancel, null);
+        if (downloadTask.getState() == DownloadTask.STATE_FAILED) {
+            builder.setPositiveButton(R.string.retry, (dialogInterface, i) -> mDownloadQueue.retry(downloadTask));
+        }
+        builder.show();
+    }
+
+    private String getStateString(DownloadTask downloadTask) {
+        switch (downloadTask.getState()) {
+            case DownloadTask.STATE_RUNNING:
+                return getString(R.string.download_queue_state_running);
+            case DownloadTask.STATE_FAILED:
+                return getString(R.string.download_queue_state_failed);
+            default:
+                return getString(downloadTask.getPriority() == DownloadTask.PRIORITY_USER ?
+                        R.string.download_queue_state_queued : R.string.download_queue_state_queued_bulk);
+        }
+    }
+}
@@ -45,6 +45,7 @@ public class FontPreferenceFragment extends CustomFontPreferenceFragmentCompat {
     @Named("default")
     SharedPreferences sharedPreferences;
     @Inject
+    @Named("io")
     Executor executor;
     private Preference customFontFamilyPreference;
     private Preference customTitleFontFamilyPreference;
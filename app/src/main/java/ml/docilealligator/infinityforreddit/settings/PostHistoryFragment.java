@@ -44,6 +44,7 @@ public class PostHistoryFragment extends Fragment {
     @Inject
     RedditDataRoomDatabase mRedditDataRoomDatabase;
     @Inject
+    @Named("io")
     Executor mExecutor;
     private SettingsActivity mActivity;
 
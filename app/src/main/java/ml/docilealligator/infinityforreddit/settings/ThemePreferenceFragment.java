@@ -66,6 +66,7 @@ public class ThemePreferenceFragment extends CustomFontPreferenceFragmentCompat
     @Inject
     CustomThemeWrapper customThemeWrapper;
     @Inject
+    @Named("io")
     Executor executor;
     public CustomThemeViewModel customThemeViewModel;
 
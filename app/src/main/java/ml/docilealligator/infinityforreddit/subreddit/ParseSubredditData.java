@@ -2,7 +2,9 @@ package ml.docilealligator.infinityforreddit.subreddit;
 
 import android.os.Handler;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -99,6 +101,27 @@ public class ParseSubredditData {
         });
     }
 
+    /**
+     * Parses a listing of subreddits, e.g. the response of /api/info?sr_name=...
+     */
+    @WorkerThread
+    @NonNull
+    public static ArrayList<SubredditData> parseSubredditListingDataSync(@NonNull String response) throws JSONException {
+        JSONArray children = new JSONObject(response).getJSONObject(JSONUtils.DATA_KEY).getJSONArray(JSONUtils.CHILDREN_KEY);
+        ArrayList<SubredditData> subredditListingData = new ArrayList<>();
+        for (int i = 0; i < children.length(); i++) {
+            try {
+                SubredditData subredditData = parseSubredditDataSync(children.getJSONObject(i).getJSONObject(JSONUtils.DATA_KEY), true);
+                if (subredditData != null) {
+                    subredditListingData.add(subredditData);
+                }
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return subredditListingData;
+    }
+
     @Nullable
     private static SubredditData parseSubredditDataSync(JSONObject subredditDataJsonObject, boolean nsfw) throws JSONException {
         boolean isNSFW = !subredditDataJsonObject.isNull(JSONUtils.OVER18_KEY) && subredditDataJsonObject.getBoolean(JSONUtils.OVER18_KEY);
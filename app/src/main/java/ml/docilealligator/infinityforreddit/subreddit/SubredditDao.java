@@ -6,6 +6,8 @@ import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
+import java.util.List;
+
 @Dao
 public interface SubredditDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
@@ -19,4 +21,7 @@ public interface SubredditDao {
 
     @Query("SELECT * from subreddits WHERE name = :namePrefixed COLLATE NOCASE LIMIT 1")
     SubredditData getSubredditData(String namePrefixed);
+
+    @Query("SELECT * from subreddits WHERE name COLLATE NOCASE IN (:names)")
+    List<SubredditData> getSubredditDataByNames(List<String> names);
 }
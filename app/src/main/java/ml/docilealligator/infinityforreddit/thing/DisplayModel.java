@@ -0,0 +1,151 @@
+package ml.docilealligator.infinityforreddit.thing;
+
+import android.text.Spanned;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+import java.util.Locale;
+
+import ml.docilealligator.infinityforreddit.comment.Comment;
+import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.utils.Utils;
+
+/**
+ * The text a post or a comment shows that takes time to build, computed once on the cpu lane so binding
+ * only has to set it.
+ *
+ * A model also keeps what it was built from. The getters return null when that no longer matches, e.g.
+ * after a vote or a settings change, and the caller falls back to building the value itself.
+ */
+public final class DisplayModel {
+    private final Locale locale;
+    private final String timeFormatPattern;
+    private final String formattedTime;
+    private final boolean showAbsoluteNumberOfVotes;
+    private final int votes;
+    private final String votesText;
+    @Nullable
+    private final String flairHTML;
+    @Nullable
+    private final Spanned flair;
+    @Nullable
+    private final List<Post.Preview> previews;
+    private final boolean dataSavingMode;
+    private final int maxResolution;
+    @Nullable
+    private final Post.Preview preview;
+    private final boolean precomputed;
+
+    private DisplayModel(Locale locale, String timeFormatPattern, long timeMillis, boolean showAbsoluteNumberOfVotes,
+                         int votes, @Nullable String flairHTML, @Nullable List<Post.Preview> previews,
+                         boolean dataSavingMode, int maxResolution, boolean precomputed) {
+        this.locale = locale;
+        this.timeFormatPattern = timeFormatPattern;
+        this.formattedTime = Utils.getFormattedTime(locale, timeMillis, timeFormatPattern);
+        this.showAbsoluteNumberOfVotes = showAbsoluteNumberOfVotes;
+        this.votes = votes;
+        this.votesText = Utils.getNVotes(showAbsoluteNumberOfVotes, votes);
+        this.flairHTML = flairHTML;
+        this.flair = flairHTML == null || flairHTML.isEmpty() ? null : Utils.getHTMLWithoutImage(flairHTML);
+        this.previews = previews;
+        this.dataSavingMode = dataSavingMode;
+        this.maxResolution = maxResolution;
+        this.preview = previews == null ? null : getSuitablePreview(previews, dataSavingMode, maxResolution);
+        this.precomputed = precomputed;
+    }
+
+    /**
+     * @param votes the score shown for the post, including the vote of the current account
+     * @param precomputed whether the model is built in the background before the post is bound
+     */
+    @WorkerThread
+    public static DisplayModel create(@NonNull Post post, Locale locale, String timeFormatPattern,
+                                      boolean showAbsoluteNumberOfVotes, int votes,
+                                      boolean dataSavingMode, int maxResolution, boolean precomputed) {
+        return new DisplayModel(locale, timeFormatPattern, post.getPostTimeMillis(), showAbsoluteNumberOfVotes,
+                votes, post.getFlair(), post.getPreviews(), dataSavingMode, maxResolution, precomputed);
+    }
+
+    /**
+     * @param precomputed whether the model is built in the background before the comment is bound
+     */
+    @WorkerThread
+    public static DisplayModel create(@NonNull Comment comment, Locale locale, String timeFormatPattern,
+                                      boolean showAbsoluteNumberOfVotes, boolean precomputed) {
+        return new DisplayModel(locale, timeFormatPattern, comment.getCommentTimeMillis(), showAbsoluteNumberOfVotes,
+                comment.getScore() + comment.getVoteType(), comment.getAuthorFlairHTML(), null, false, 0, precomputed);
+    }
+
+    /**
+     * Picks the preview that is closest to the wanted size without going over the maximum resolution.
+     */
+    @Nullable
+    public static Post.Preview getSuitablePreview(List<Post.Preview> previews, boolean dataSavingMode, int maxResolution) {
+        Post.Preview preview;
+        if (!previews.isEmpty()) {
+            int previewIndex;
+            if (dataSavingMode && previews.size() > 2) {
+                previewIndex = previews.size() / 2;
+            } else {
+                previewIndex = 0;
+            }
+            preview = previews.get(previewIndex);
+            if (preview.getPreviewWidth() * preview.getPreviewHeight() > maxResolution) {
+                for (int i = previews.size() - 1; i >= 1; i--) {
+                    preview = previews.get(i);
+                    if (preview.getPreviewWidth() * preview.getPreviewHeight() <= maxResolution) {
+                        return preview;
+                    }
+                }
+            }
+            return preview;
+        }
+
+        return null;
+    }
+
+    public boolean isUpToDate(Locale locale, String timeFormatPattern, boolean showAbsoluteNumberOfVotes, int votes,
+                              @Nullable String flairHTML) {
+        return getFormattedTime(locale, timeFormatPattern) != null
+                && getVotesText(showAbsoluteNumberOfVotes, votes) != null
+                && (flairHTML == null ? this.flairHTML == null : flairHTML.equals(this.flairHTML));
+    }
+
+    @Nullable
+    public String getFormattedTime(Locale locale, String timeFormatPattern) {
+        return this.locale.equals(locale) && this.timeFormatPattern.equals(timeFormatPattern) ? formattedTime : null;
+    }
+
+    @Nullable
+    public String getVotesText(boolean showAbsoluteNumberOfVotes, int votes) {
+        return this.showAbsoluteNumberOfVotes == showAbsoluteNumberOfVotes && this.votes == votes ? votesText : null;
+    }
+
+    /**
+     * @return the flair, or null if it has images, which have to be loaded into the TextView showing it
+     */
+    @Nullable
+    public Spanned getFlair(String flairHTML) {
+        return flairHTML.equals(this.flairHTML) ? flair : null;
+    }
+
+    public boolean hasPreview(@Nullable List<Post.Preview> previews, boolean dataSavingMode, int maxResolution) {
+        return previews == this.previews
+                && this.dataSavingMode == dataSavingMode && this.maxResolution == maxResolution;
+    }
+
+    @Nullable
+    public Post.Preview getPreview() {
+        return preview;
+    }
+
+    /**
+     * @return true if the model was built in the background, false if a bind had to build it
+     */
+    public boolean isPrecomputed() {
+        return precomputed;
+    }
+}
@@ -0,0 +1,354 @@
+package ml.docilealligator.infinityforreddit.thing;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
+import ml.docilealligator.infinityforreddit.account.Account;
+import ml.docilealligator.infinityforreddit.apis.RedditAPI;
+import ml.docilealligator.infinityforreddit.asynctasks.LoadUserData;
+import ml.docilealligator.infinityforreddit.subreddit.ParseSubredditData;
+import ml.docilealligator.infinityforreddit.subreddit.SubredditData;
+import ml.docilealligator.infinityforreddit.user.UserData;
+import ml.docilealligator.infinityforreddit.utils.APIUtils;
+import ml.docilealligator.infinityforreddit.utils.JSONUtils;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Resolves subreddit and author icons for a post feed in batches.
+ *
+ * Names requested while a frame is being laid out, or collected from a freshly loaded page, are
+ * looked up with one Room query. The ones missing from the database are fetched with
+ * /api/info?sr_name=... and /api/user_data_by_account_ids (100 per request) instead of one
+ * about.json request each, and every listener waiting for them is notified. Fetched subreddits
+ * are written back to Room in a single transaction. user_data_by_account_ids only returns part
+ * of a profile, so user icons fetched that way are only kept by this loader.
+ *
+ * Names that could not be resolved are not asked for again until {@link #RETRY_DELAY_MILLIS} has
+ * passed.
+ *
+ * All state is confined to the main thread. Only the lookups run on the executor.
+ */
+public class FeedIconBatchLoader {
+    public static final int BATCH_SIZE = 100;
+    public static final long RETRY_DELAY_MILLIS = 60_000;
+
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final RedditDataRoomDatabase mRedditDataRoomDatabase;
+    private final Retrofit mRetrofit;
+    private final Retrofit mOauthRetrofit;
+    @Nullable
+    private final String mAccessToken;
+    @NonNull
+    private final String mAccountName;
+
+    private final Map<String, String> mSubredditIcons = new HashMap<>();
+    private final Map<String, String> mUserIcons = new HashMap<>();
+    // Names that could not be resolved -> SystemClock.elapsedRealtime() of the failure.
+    private final Map<String, Long> mFailedSubreddits = new HashMap<>();
+    private final Map<String, Long> mFailedUsers = new HashMap<>();
+    // Names queued or being resolved, with the listeners waiting for them.
+    private final Map<String, List<LoadIconListener>> mPendingSubreddits = new HashMap<>();
+    private final Map<String, List<LoadIconListener>> mPendingUsers = new HashMap<>();
+    private final List<String> mQueuedSubreddits = new ArrayList<>();
+    // User name -> t2_ fullname.
+    private final Map<String, String> mQueuedUsers = new LinkedHashMap<>();
+    private boolean mFlushScheduled;
+
+    public FeedIconBatchLoader(Executor executor, RedditDataRoomDatabase redditDataRoomDatabase, Retrofit retrofit,
+                               Retrofit oauthRetrofit, @Nullable String accessToken, @NonNull String accountName) {
+        mExecutor = executor;
+        mRedditDataRoomDatabase = redditDataRoomDatabase;
+        mRetrofit = retrofit;
+        mOauthRetrofit = oauthRetrofit;
+        mAccessToken = accessToken;
+        mAccountName = accountName;
+    }
+
+    /**
+     * Queues icons that are about to be shown, so they are resolved together before their rows
+     * ask for them.
+     *
+     * @param authors user name -> t2_ fullname
+     */
+    @MainThread
+    public void prefetch(@NonNull Iterable<String> subredditNames, @NonNull Map<String, String> authors) {
+        for (String subredditName : subredditNames) {
+            queueSubreddit(subredditName);
+        }
+        for (Map.Entry<String, String> author : authors.entrySet()) {
+            queueUser(author.getKey(), author.getValue());
+        }
+    }
+
+    @MainThread
+    public void loadSubredditIcon(@NonNull String subredditName, @NonNull LoadIconListener loadIconListener) {
+        if (mSubredditIcons.containsKey(subredditName)) {
+            loadIconListener.loadIconSuccess(subredditName, mSubredditIcons.get(subredditName));
+            return;
+        }
+        if (isWaitingToRetry(mFailedSubreddits, subredditName)) {
+            loadIconListener.loadIconSuccess(subredditName, null);
+            return;
+        }
+        queueSubreddit(subredditName);
+        mPendingSubreddits.get(subredditName).add(loadIconListener);
+    }
+
+    @MainThread
+    public void loadUserIcon(@NonNull String userName, @Nullable String userFullName,
+                             @NonNull LoadIconListener loadIconListener) {
+        if (mUserIcons.containsKey(userName)) {
+            loadIconListener.loadIconSuccess(userName, mUserIcons.get(userName));
+            return;
+        }
+        List<LoadIconListener> listeners = mPendingUsers.get(userName);
+        if (listeners != null) {
+            listeners.add(loadIconListener);
+            return;
+        }
+        if (isWaitingToRetry(mFailedUsers, userName)) {
+            loadIconListener.loadIconSuccess(userName, null);
+            return;
+        }
+        if (userFullName == null) {
+            // Batched user lookups need the fullname, fall back to about.json.
+            LoadUserData.loadUserData(mExecutor, mHandler, mRedditDataRoomDatabase, mAccessToken, userName,
+                    mOauthRetrofit, mRetrofit, iconImageUrl -> {
+                        // LoadUserData reports a failed fetch as a null icon.
+                        if (iconImageUrl == null) {
+                            mFailedUsers.put(userName, SystemClock.elapsedRealtime());
+                        } else {
+                            mUserIcons.put(userName, iconImageUrl);
+                        }
+                        loadIconListener.loadIconSuccess(userName, iconImageUrl);
+                    });
+            return;
+        }
+        queueUser(userName, userFullName);
+        mPendingUsers.get(userName).add(loadIconListener);
+    }
+
+    private void queueSubreddit(String subredditName) {
+        if (mSubredditIcons.containsKey(subredditName) || mPendingSubreddits.containsKey(subredditName)
+                || isWaitingToRetry(mFailedSubreddits, subredditName)) {
+            return;
+        }
+        mPendingSubreddits.put(subredditName, new ArrayList<>());
+        mQueuedSubreddits.add(subredditName);
+        scheduleFlush();
+    }
+
+    private void queueUser(String userName, @Nullable String userFullName) {
+        if (userFullName == null || mUserIcons.containsKey(userName) || mPendingUsers.containsKey(userName)
+                || isWaitingToRetry(mFailedUsers, userName)) {
+            return;
+        }
+        mPendingUsers.put(userName, new ArrayList<>());
+        mQueuedUsers.put(userName, userFullName);
+        scheduleFlush();
+    }
+
+    private static boolean isWaitingToRetry(Map<String, Long> failures, String name) {
+        Long failedAt = failures.get(name);
+        if (failedAt == null) {
+            return false;
+        }
+        if (SystemClock.elapsedRealtime() - failedAt < RETRY_DELAY_MILLIS) {
+            return true;
+        }
+        failures.remove(name);
+        return false;
+    }
+
+    private void scheduleFlush() {
+        if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            // Let the rest of the current layout pass queue its names first.
+            mHandler.post(this::flush);
+        }
+    }
+
+    private void flush() {
+        mFlushScheduled = false;
+        if (mQueuedSubreddits.isEmpty() && mQueuedUsers.isEmpty()) {
+            return;
+        }
+        List<String> subredditNames = new ArrayList<>(mQueuedSubreddits);
+        Map<String, String> users = new LinkedHashMap<>(mQueuedUsers);
+        mQueuedSubreddits.clear();
+        mQueuedUsers.clear();
+
+        mExecutor.execute(() -> {
+            Map<String, String> subredditIcons = resolveSubredditIcons(subredditNames);
+            Map<String, String> userIcons = resolveUserIcons(users);
+            mHandler.post(() -> {
+                deliver(subredditNames, subredditIcons, mSubredditIcons, mFailedSubreddits, mPendingSubreddits);
+                deliver(users.keySet(), userIcons, mUserIcons, mFailedUsers, mPendingUsers);
+            });
+        });
+    }
+
+    private static void deliver(Iterable<String> names, Map<String, String> resolvedIcons,
+                                Map<String, String> icons, Map<String, Long> failures,
+                                Map<String, List<LoadIconListener>> pending) {
+        long now = SystemClock.elapsedRealtime();
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            // Unresolved names get a null icon, like a failed single fetch, and are retried later.
+            String iconUrl = resolvedIcons.get(key);
+            if (resolvedIcons.containsKey(key)) {
+                icons.put(name, iconUrl);
+            } else {
+                failures.put(name, now);
+            }
+            List<LoadIconListener> listeners = pending.remove(name);
+            if (listeners != null) {
+                for (LoadIconListener listener : listeners) {
+                    listener.loadIconSuccess(name, iconUrl);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return lowercase subreddit name -> icon url
+     */
+    @WorkerThread
+    private Map<String, String> resolveSubredditIcons(List<String> subredditNames) {
+        Map<String, String> icons = new HashMap<>();
+        if (subredditNames.isEmpty()) {
+            return icons;
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (List<String> chunk : chunk(subredditNames)) {
+            for (SubredditData subredditData : mRedditDataRoomDatabase.subredditDao().getSubredditDataByNames(chunk)) {
+                icons.put(subredditData.getName().toLowerCase(Locale.ROOT), subredditData.getIconUrl());
+            }
+        }
+        for (String subredditName : subredditNames) {
+            if (!icons.containsKey(subredditName.toLowerCase(Locale.ROOT))) {
+                missing.add(subredditName);
+            }
+        }
+
+        List<SubredditData> fetched = new ArrayList<>();
+        RedditAPI api = (mAccountName.equals(Account.ANONYMOUS_ACCOUNT) ? mRetrofit : mOauthRetrofit).create(RedditAPI.class);
+        for (List<String> chunk : chunk(missing)) {
+            String names = String.join(",", chunk);
+            try {
+                Response<String> response = mAccountName.equals(Account.ANONYMOUS_ACCOUNT)
+                        ? api.getSubredditsInfo(names).execute()
+                        : api.getSubredditsInfoOauth(names, APIUtils.getOAuthHeader(mAccessToken)).execute();
+                if (response.isSuccessful() && response.body() != null) {
+                    fetched.addAll(ParseSubredditData.parseSubredditListingDataSync(response.body()));
+                }
+            } catch (IOException | JSONException e) {
+                e.printStackTrace();
+            }
+        }
+
+        if (!fetched.isEmpty()) {
+            mRedditDataRoomDatabase.runInTransaction(() -> {
+                for (SubredditData subredditData : fetched) {
+                    mRedditDataRoomDatabase.subredditDao().insert(subredditData);
+                }
+            });
+            for (SubredditData subredditData : fetched) {
+                icons.put(subredditData.getName().toLowerCase(Locale.ROOT), subredditData.getIconUrl());
+            }
+        }
+        return icons;
+    }
+
+    /**
+     * @param users user name -> t2_ fullname
+     * @return lowercase user name -> icon url
+     */
+    @WorkerThread
+    private Map<String, String> resolveUserIcons(Map<String, String> users) {
+        Map<String, String> icons = new HashMap<>();
+        if (users.isEmpty()) {
+            return icons;
+        }
+
+        for (List<String> chunk : chunk(new ArrayList<>(users.keySet()))) {
+            for (UserData userData : mRedditDataRoomDatabase.userDao().getUserDataByNames(chunk)) {
+                icons.put(userData.getName().toLowerCase(Locale.ROOT), userData.getIconUrl());
+            }
+        }
+        List<String> missingFullNames = new ArrayList<>();
+        for (Map.Entry<String, String> user : users.entrySet()) {
+            if (!icons.containsKey(user.getKey().toLowerCase(Locale.ROOT))) {
+                missingFullNames.add(user.getValue());
+            }
+        }
+
+        // Not written to Room: other screens would take these partial profiles for complete ones.
+        RedditAPI api = mRetrofit.create(RedditAPI.class);
+        for (List<String> chunk : chunk(missingFullNames)) {
+            try {
+                Response<String> response = api.loadPartialUserData(String.join(",", chunk)).execute();
+                if (response.isSuccessful() && response.body() != null) {
+                    icons.putAll(parsePartialUserIcons(response.body()));
+                }
+            } catch (IOException | JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return icons;
+    }
+
+    /**
+     * @return lowercase user name -> icon url, from a user_data_by_account_ids response
+     */
+    private static Map<String, String> parsePartialUserIcons(String response) throws JSONException {
+        Map<String, String> icons = new HashMap<>();
+        JSONObject jsonResponse = new JSONObject(response);
+        Iterator<String> keys = jsonResponse.keys();
+        while (keys.hasNext()) {
+            try {
+                JSONObject user = jsonResponse.getJSONObject(keys.next());
+                icons.put(user.getString(JSONUtils.NAME_KEY).toLowerCase(Locale.ROOT),
+                        user.getString(JSONUtils.PROFILE_IMG_KEY).replaceAll("&amp;", "&"));
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return icons;
+    }
+
+    private static List<List<String>> chunk(List<String> items) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += BATCH_SIZE) {
+            chunks.add(items.subList(i, Math.min(items.size(), i + BATCH_SIZE)));
+        }
+        return chunks;
+    }
+
+    public interface LoadIconListener {
+        void loadIconSuccess(String subredditOrUserName, String iconUrl);
+    }
+}
@@ -2,22 +2,28 @@ package ml.docilealligator.infinityforreddit.translation;
 
 import android.os.Handler;
 
-import org.json.JSONArray;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
 import org.json.JSONObject;
 
-import java.security.MessageDigest;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import ml.docilealligator.infinityforreddit.apis.VolcanoEngineAPI;
 import ml.docilealligator.infinityforreddit.comment.Comment;
 import ml.docilealligator.infinityforreddit.post.Post;
-import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.Retrofit;
@@ -27,8 +33,13 @@ import retrofit2.Retrofit;
  */
 public class BatchTranslateContent {
 
-    // 字符数上限，超过此值则截断评论
-    private static final int MAX_CHAR_LIMIT = 80000;
+    // 每个分块的字符预算，保证单次请求能在普通超时内完成
+    private static final int CHUNK_CHAR_BUDGET = 6000;
+    // 同时进行的分块请求数
+    private static final int MAX_CONCURRENT_CHUNKS = 3;
+    // 每个分块最多请求次数
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
 
     private static final String BATCH_TRANSLATION_PROMPT =
         "你是一个翻译器。将以下内容翻译为简体中文。\n" +
@@ -43,66 +54,131 @@ public class BatchTranslateContent {
         "以下是需要翻译的内容：\n";
 
     public interface BatchTranslateListener {
+        /**
+         * 某个分块翻译完成，或流式输出中有字段完整到达，result 为目前已合并的结果（主线程回调）
+         */
+        default void onTranslateProgress(BatchTranslationResult result) {}
+        /**
+         * 所有分块结束且至少一个分块成功
+         */
         void onTranslateSuccess(BatchTranslationResult result);
         void onTranslateFailed(String errorMessage);
     }
 
     /**
      * 带缓存的批量翻译，返回可取消的句柄
+     * 帖子和每条评论单独查询缓存，只请求缺少译文的评论，与缓存的译文合并后返回。
+     * 每个分块完成后立即缓存其中的译文，部分分块失败也不影响已成功的部分。
      */
     public static TranslationRequestHandle translateBatchWithCache(TranslationCache cache,
                                                 Executor executor, Handler handler, Retrofit retrofit,
                                                 String apiKey, String model,
                                                 Post post, ArrayList<Comment> comments,
                                                 BatchTranslateListener listener) {
+        return translateWithCache(cache, executor, handler, retrofit, apiKey, model, post, true, comments, listener);
+    }
+
+    /**
+     * 只翻译评论（不含帖子标题和正文），其余与 {@link #translateBatchWithCache} 相同
+     */
+    public static TranslationRequestHandle translateCommentsWithCache(TranslationCache cache,
+                                                Executor executor, Handler handler, Retrofit retrofit,
+                                                String apiKey, String model,
+                                                Post post, ArrayList<Comment> comments,
+                                                BatchTranslateListener listener) {
+        return translateWithCache(cache, executor, handler, retrofit, apiKey, model, post, false, comments, listener);
+    }
+
+    /**
+     * 带缓存的批量翻译一组独立的短文本（如帖子列表中的标题），返回可取消的句柄
+     * 每段文本单独查询缓存，只请求缺少译文的部分，与评论共用分块、并发和流式合并的逻辑。
+     * 结果通过 {@link BatchTranslationResult#getTranslatedTexts()} 读取，为 id -> 译文。
+     *
+     * @param texts id -> 原文
+     */
+    public static TranslationRequestHandle translateTextsWithCache(TranslationCache cache,
+                                                Executor executor, Handler handler, Retrofit retrofit,
+                                                String apiKey, String model,
+                                                LinkedHashMap<String, String> texts,
+                                                BatchTranslateListener listener) {
         TranslationRequestHandle handle = new TranslationRequestHandle();
 
-        String cacheKey = buildCacheKey(post, comments);
-        String cached = cache.get(cacheKey);
-        if (cached != null) {
-            try {
-                BatchTranslationResult result = parseTranslationJson(cached, post);
-                handler.post(() -> {
-                    if (!handle.isCancelled()) {
-                        listener.onTranslateSuccess(result);
-                    }
-                });
-                return handle;
-            } catch (Exception e) {
-                // 缓存数据解析失败，重新翻译
+        executor.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+            Map<String, String> cachedTranslations = cache.getAll(model, texts.values());
+            HashMap<String, String> cachedTexts = new HashMap<>();
+            LinkedHashMap<String, String> missingTexts = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : texts.entrySet()) {
+                String cachedText = entry.getValue() == null ? null : cachedTranslations.get(entry.getValue());
+                if (cachedText != null) {
+                    cachedTexts.put(entry.getKey(), cachedText);
+                } else {
+                    missingTexts.put(entry.getKey(), entry.getValue());
+                }
             }
-        }
 
-        translateBatch(executor, handler, retrofit, apiKey, model, post, comments, new BatchTranslateListener() {
-            @Override
-            public void onTranslateSuccess(BatchTranslationResult result) {
-                if (handle.isCancelled()) {
-                    return;
+            List<Chunk> chunks = buildChunks(0, false, missingTexts);
+            BatchTranslationResult result = new BatchTranslationResult(null, null, chunks.size());
+            result.putCached(null, null, cachedTexts);
+            runChunks(executor, handler, retrofit, apiKey, model, null, chunks, result, !cachedTexts.isEmpty(),
+                    cache, listener, handle);
+        });
+
+        return handle;
+    }
+
+    private static TranslationRequestHandle translateWithCache(TranslationCache cache,
+                                                Executor executor, Handler handler, Retrofit retrofit,
+                                                String apiKey, String model,
+                                                Post post, boolean translatePost, ArrayList<Comment> comments,
+                                                BatchTranslateListener listener) {
+        TranslationRequestHandle handle = new TranslationRequestHandle();
+
+        executor.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+            List<String> originalTexts = new ArrayList<>();
+            if (translatePost) {
+                originalTexts.add(post.getTitle());
+                originalTexts.add(post.getSelfTextPlain());
+            }
+            for (Comment comment : comments) {
+                if (comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER) {
+                    originalTexts.add(comment.getCommentRawText());
                 }
-                // 构建缓存值
-                try {
-                    JSONObject cacheJson = new JSONObject();
-                    cacheJson.put("post_title", result.getTranslatedTitle());
-                    cacheJson.put("post_body", result.getTranslatedBody() != null ? result.getTranslatedBody() : "");
-                    JSONObject commentsJson = new JSONObject();
-                    for (Map.Entry<String, String> entry : result.getTranslatedComments().entrySet()) {
-                        commentsJson.put(entry.getKey(), entry.getValue());
+            }
+            Map<String, String> cachedTranslations = cache.getAll(model, originalTexts);
+
+            translateBatch(executor, handler, retrofit, apiKey, model, post, translatePost, comments, cache,
+                    cachedTranslations, new BatchTranslateListener() {
+                @Override
+                public void onTranslateProgress(BatchTranslationResult result) {
+                    if (handle.isCancelled()) {
+                        return;
                     }
-                    cacheJson.put("comments", commentsJson);
-                    cache.put(cacheKey, cacheJson.toString());
-                } catch (Exception ignored) {
+                    listener.onTranslateProgress(result);
                 }
-                listener.onTranslateSuccess(result);
-            }
 
-            @Override
-            public void onTranslateFailed(String errorMessage) {
-                if (handle.isCancelled()) {
-                    return;
+                @Override
+                public void onTranslateSuccess(BatchTranslationResult result) {
+                    if (handle.isCancelled()) {
+                        return;
+                    }
+                    listener.onTranslateSuccess(result);
                 }
-                listener.onTranslateFailed(errorMessage);
-            }
-        }, handle);
+
+                @Override
+                public void onTranslateFailed(String errorMessage) {
+                    if (handle.isCancelled()) {
+                        return;
+                    }
+                    listener.onTranslateFailed(errorMessage);
+                }
+            }, handle);
+        });
 
         return handle;
     }
@@ -118,207 +194,308 @@ public class BatchTranslateContent {
     }
 
     /**
-     * 执行批量翻译，支持通过 handle 取消请求
+     * 执行批量翻译，支持通过 handle 取消请求（不使用缓存）
      */
     public static void translateBatch(Executor executor, Handler handler, Retrofit retrofit,
                                        String apiKey, String model,
                                        Post post, ArrayList<Comment> comments,
                                        BatchTranslateListener listener,
                                        TranslationRequestHandle handle) {
-        executor.execute(() -> {
-            try {
-                if (handle != null && handle.isCancelled()) {
-                    return;
-                }
-
-                // 构建输入 JSON
-                String inputJson = buildInputJson(post, comments);
-
-                // 批量翻译内容较多，使用更长的超时时间（10 分钟）
-                OkHttpClient longTimeoutClient = retrofit.callFactory() instanceof OkHttpClient
-                        ? ((OkHttpClient) retrofit.callFactory()).newBuilder()
-                            .connectTimeout(60, TimeUnit.SECONDS)
-                            .readTimeout(10, TimeUnit.MINUTES)
-                            .writeTimeout(60, TimeUnit.SECONDS)
-                            .build()
-                        : null;
-
-                Retrofit batchRetrofit = longTimeoutClient != null
-                        ? retrofit.newBuilder().client(longTimeoutClient).build()
-                        : retrofit;
-
-                VolcanoEngineAPI api = batchRetrofit.create(VolcanoEngineAPI.class);
-
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                headers.put("Authorization", "Bearer " + apiKey);
-
-                Map<String, Object> body = new HashMap<>();
-                body.put("model", model);
-                body.put("stream", false);
+        translateBatch(executor, handler, retrofit, apiKey, model, post, true, comments, null,
+                Collections.emptyMap(), listener, handle);
+    }
 
-                List<Map<String, Object>> inputList = new ArrayList<>();
-                Map<String, Object> userMessage = new HashMap<>();
-                userMessage.put("role", "user");
+    /**
+     * 内容按字符预算拆分为多个分块（帖子在前，评论按树的顺序），已有译文的内容不再请求。
+     * 最多同时请求 {@link #MAX_CONCURRENT_CHUNKS} 个分块。响应以流式返回，每条评论的译文完整到达后
+     * 立即合并到结果中并回调 onTranslateProgress，不必等待整个分块结束。失败的分块单独重试。
+     *
+     * @param translatePost 是否翻译帖子标题和正文
+     * @param cache 分块完成后存入译文，为 null 时不缓存
+     * @param cachedTranslations 原文 -> 已缓存的译文
+     */
+    private static void translateBatch(Executor executor, Handler handler, Retrofit retrofit,
+                                       String apiKey, String model,
+                                       Post post, boolean translatePost, ArrayList<Comment> comments,
+                                       @Nullable TranslationCache cache, Map<String, String> cachedTranslations,
+                                       BatchTranslateListener listener,
+                                       TranslationRequestHandle handle) {
+        String cachedTitle = translatePost ? cachedTranslations.get(post.getTitle()) : null;
+        String cachedBody = post.getSelfTextPlain() == null || post.getSelfTextPlain().isEmpty()
+                ? "" : cachedTranslations.get(post.getSelfTextPlain());
+        HashMap<String, String> cachedComments = new HashMap<>();
+        for (Comment comment : comments) {
+            String cachedComment = comment.getCommentRawText() == null ? null : cachedTranslations.get(comment.getCommentRawText());
+            if (comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER && cachedComment != null) {
+                cachedComments.put(comment.getId(), cachedComment);
+            }
+        }
+        boolean postCached = cachedTitle != null && cachedBody != null;
 
-                List<Map<String, Object>> contentList = new ArrayList<>();
-                Map<String, Object> textContent = new HashMap<>();
-                textContent.put("type", "input_text");
-                textContent.put("text", BATCH_TRANSLATION_PROMPT + inputJson);
-                contentList.add(textContent);
+        List<Chunk> chunks = buildChunks(post, translatePost && !postCached, comments, cachedComments.keySet());
+        BatchTranslationResult result = new BatchTranslationResult(post.getTitle(), post.getSelfTextPlain(), chunks.size());
+        result.putCached(postCached ? cachedTitle : null, postCached && !cachedBody.isEmpty() ? cachedBody : null, cachedComments);
+        boolean hasCachedTranslations = postCached || !cachedComments.isEmpty();
 
-                userMessage.put("content", contentList);
-                inputList.add(userMessage);
-                body.put("input", inputList);
+        runChunks(executor, handler, retrofit, apiKey, model, post, chunks, result, hasCachedTranslations, cache,
+                listener, handle);
+    }
 
-                Call<String> call = api.translate(headers, body);
-                if (handle != null) {
-                    handle.attachCall(call);
+    /**
+     * 最多同时请求 {@link #MAX_CONCURRENT_CHUNKS} 个分块，逐个合并到 result 中
+     *
+     * @param post 分块包含帖子时使用，否则可以为 null
+     * @param hasCachedTranslations 所有分块都失败时，有缓存的译文仍算作成功
+     */
+    private static void runChunks(Executor executor, Handler handler, Retrofit retrofit,
+                                  String apiKey, String model, @Nullable Post post,
+                                  List<Chunk> chunks, BatchTranslationResult result, boolean hasCachedTranslations,
+                                  @Nullable TranslationCache cache, BatchTranslateListener listener,
+                                  TranslationRequestHandle handle) {
+        if (chunks.isEmpty()) {
+            handler.post(() -> {
+                if (handle == null || !handle.isCancelled()) {
+                    listener.onTranslateSuccess(result);
                 }
+            });
+            return;
+        }
 
-                Response<String> response = call.execute();
+        VolcanoEngineAPI api = retrofit.create(VolcanoEngineAPI.class);
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger finishedChunks = new AtomicInteger();
+        AtomicReference<String> lastError = new AtomicReference<>();
 
+        Runnable worker = () -> {
+            int index;
+            while ((index = nextChunk.getAndIncrement()) < chunks.size()) {
                 if (handle != null && handle.isCancelled()) {
                     return;
                 }
+                Chunk chunk = chunks.get(index);
+                TranslationJsonStreamParser.Listener partialListener = new TranslationJsonStreamParser.Listener() {
+                    @Override
+                    public void onPostField(String key, String value) {
+                        postPartial(() -> result.mergePostField("post_title".equals(key), value));
+                    }
 
-                if (response.isSuccessful() && response.body() != null) {
-                    String responseBody = response.body();
-                    BatchTranslationResult result = parseResponse(responseBody, post);
+                    @Override
+                    public void onComment(String commentId, String value) {
+                        if (chunk.comments.containsKey(commentId)) {
+                            postPartial(() -> result.mergeComment(commentId, value));
+                        }
+                    }
 
-                    if (result != null) {
-                        handler.post(() -> {
-                            if (handle == null || !handle.isCancelled()) {
-                                listener.onTranslateSuccess(result);
-                            }
-                        });
-                    } else {
+                    private void postPartial(Runnable merge) {
                         handler.post(() -> {
-                            if (handle == null || !handle.isCancelled()) {
-                                listener.onTranslateFailed("无法解析翻译响应");
+                            if ((handle != null && handle.isCancelled()) || result.isComplete()) {
+                                return;
                             }
+                            merge.run();
+                            listener.onTranslateProgress(result);
                         });
                     }
-                } else {
-                    String errorMsg = "翻译失败: " + response.code();
-                    if (response.errorBody() != null) {
-                        errorMsg += " - " + response.errorBody().string();
-                    }
-                    final String finalErrorMsg = errorMsg;
-                    handler.post(() -> {
-                        if (handle == null || !handle.isCancelled()) {
-                            listener.onTranslateFailed(finalErrorMsg);
-                        }
-                    });
-                }
-            } catch (java.io.IOException e) {
+                };
+                BatchTranslationResult chunkResult = translateChunk(api, apiKey, model, post, chunk, handle,
+                        partialListener, lastError);
                 if (handle != null && handle.isCancelled()) {
-                    // 取消导致的 IOException，静默忽略
                     return;
                 }
-                handler.post(() -> {
-                    if (handle == null || !handle.isCancelled()) {
-                        listener.onTranslateFailed("错误: " + e.getMessage());
-                    }
-                });
-            } catch (Exception e) {
-                if (handle != null && handle.isCancelled()) {
-                    return;
+                if (chunkResult != null && cache != null) {
+                    cache.putAll(model, chunk.getTranslations(post, chunkResult));
                 }
+                boolean allFinished = finishedChunks.incrementAndGet() == chunks.size();
                 handler.post(() -> {
-                    if (handle == null || !handle.isCancelled()) {
-                        listener.onTranslateFailed("错误: " + e.getMessage());
+                    if (handle != null && handle.isCancelled()) {
+                        return;
+                    }
+                    if (chunkResult != null) {
+                        result.merge(chunkResult);
+                    } else {
+                        result.markChunkFailed(chunk.comments.keySet());
+                    }
+                    if (!allFinished) {
+                        if (chunkResult != null) {
+                            listener.onTranslateProgress(result);
+                        }
+                    } else if (result.getTranslatedChunkCount() > 0 || hasCachedTranslations) {
+                        listener.onTranslateSuccess(result);
+                    } else {
+                        String errorMessage = lastError.get();
+                        listener.onTranslateFailed(errorMessage != null ? errorMessage : "无法解析翻译响应");
                     }
                 });
             }
-        });
+        };
+
+        for (int i = 0; i < Math.min(MAX_CONCURRENT_CHUNKS, chunks.size()); i++) {
+            executor.execute(worker);
+        }
     }
 
     /**
-     * 构建输入 JSON
+     * 翻译一个分块，失败时重试
+     * 流式读取响应，每个字段完整到达时交给 partialListener（工作线程回调）
+     *
+     * @return 分块的翻译结果，重试后仍失败则返回 null
      */
-    static String buildInputJson(Post post, ArrayList<Comment> comments) {
-        try {
-            JSONObject input = new JSONObject();
-            input.put("post_title", post.getTitle() != null ? post.getTitle() : "");
-            input.put("post_body", post.getSelfTextPlain() != null ? post.getSelfTextPlain() : "");
-
-            JSONObject commentsJson = new JSONObject();
-            int totalChars = (post.getTitle() != null ? post.getTitle().length() : 0)
-                    + (post.getSelfTextPlain() != null ? post.getSelfTextPlain().length() : 0);
-
-            for (Comment comment : comments) {
-                if (comment.getPlaceholderType() != Comment.NOT_PLACEHOLDER) {
-                    continue;
+    @WorkerThread
+    private static BatchTranslationResult translateChunk(VolcanoEngineAPI api, String apiKey, String model,
+                                                         @Nullable Post post, Chunk chunk, TranslationRequestHandle handle,
+                                                         TranslationJsonStreamParser.Listener partialListener,
+                                                         AtomicReference<String> lastError) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("Authorization", "Bearer " + apiKey);
+        Map<String, Object> body = buildRequestBody(model, BATCH_TRANSLATION_PROMPT + buildInputJson(post, chunk));
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (handle != null && handle.isCancelled()) {
+                return null;
+            }
+            boolean retryable = true;
+            Call<ResponseBody> call = api.translateStream(headers, body);
+            if (handle != null) {
+                handle.attachCall(call);
+            }
+            try {
+                Response<ResponseBody> response = call.execute();
+                if (response.isSuccessful() && response.body() != null) {
+                    TranslationJsonStreamParser parser = new TranslationJsonStreamParser(partialListener);
+                    String text;
+                    try (ResponseBody responseBody = response.body()) {
+                        // 取消会关闭连接，读取中抛出 IOException
+                        text = TranslationStreamReader.read(responseBody, parser::feed);
+                    }
+                    BatchTranslationResult chunkResult = text == null ? null : parseTranslationJson(extractJsonFromText(text), post);
+                    if (chunkResult != null) {
+                        return chunkResult;
+                    }
+                    lastError.set("无法解析翻译响应");
+                } else {
+                    String errorMsg = "翻译失败: " + response.code();
+                    if (response.errorBody() != null) {
+                        errorMsg += " - " + response.errorBody().string();
+                    }
+                    lastError.set(errorMsg);
+                    // 除限流外的 4xx（如 API key 错误）重试也不会成功
+                    retryable = response.code() == 429 || response.code() >= 500;
                 }
-                String text = comment.getCommentRawText();
-                if (text == null || text.isEmpty()) {
-                    continue;
+            } catch (IOException e) {
+                if (handle != null && handle.isCancelled()) {
+                    // 取消导致的 IOException，静默忽略
+                    return null;
                 }
-                totalChars += text.length();
-                if (totalChars > MAX_CHAR_LIMIT) {
-                    break;
+                lastError.set("错误: " + e.getMessage());
+            } finally {
+                if (handle != null) {
+                    handle.detachCall(call);
                 }
-                commentsJson.put(comment.getId(), text);
             }
 
-            input.put("comments", commentsJson);
-            return input.toString();
-        } catch (Exception e) {
-            return "{}";
+            if (!retryable || attempt == MAX_ATTEMPTS) {
+                break;
+            }
+            try {
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
         }
+        return null;
+    }
+
+    private static Map<String, Object> buildRequestBody(String model, String text) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", model);
+        body.put("stream", true);
+
+        List<Map<String, Object>> inputList = new ArrayList<>();
+        Map<String, Object> userMessage = new HashMap<>();
+        userMessage.put("role", "user");
+
+        List<Map<String, Object>> contentList = new ArrayList<>();
+        Map<String, Object> textContent = new HashMap<>();
+        textContent.put("type", "input_text");
+        textContent.put("text", text);
+        contentList.add(textContent);
+
+        userMessage.put("content", contentList);
+        inputList.add(userMessage);
+        body.put("input", inputList);
+        return body;
     }
 
     /**
-     * 解析 API 响应
+     * 按字符预算拆分分块：帖子放在第一个分块，评论按列表（即评论树）顺序依次放入。
+     * 单条评论超过预算时独占一个分块，不再截断任何评论。
+     *
+     * @param includePost 是否需要翻译帖子标题和正文
+     * @param skippedCommentIds 已有译文、不需要请求的评论
      */
-    static BatchTranslationResult parseResponse(String responseBody, Post post) {
-        try {
-            JSONObject jsonResponse = new JSONObject(responseBody);
-
-            String text = null;
-
-            // ARK API 格式: output[0].content[0].text
-            if (jsonResponse.has("output")) {
-                JSONArray output = jsonResponse.getJSONArray("output");
-                if (output.length() > 0) {
-                    JSONObject firstOutput = output.getJSONObject(0);
-                    if (firstOutput.has("content")) {
-                        JSONArray content = firstOutput.getJSONArray("content");
-                        if (content.length() > 0) {
-                            JSONObject firstContent = content.getJSONObject(0);
-                            if (firstContent.has("text")) {
-                                text = firstContent.getString("text");
-                            }
-                        }
-                    }
-                }
+    static List<Chunk> buildChunks(Post post, boolean includePost, ArrayList<Comment> comments,
+                                   Set<String> skippedCommentIds) {
+        int postChars = !includePost ? 0 : (post.getTitle() != null ? post.getTitle().length() : 0)
+                + (post.getSelfTextPlain() != null ? post.getSelfTextPlain().length() : 0);
+        LinkedHashMap<String, String> texts = new LinkedHashMap<>();
+        for (Comment comment : comments) {
+            if (comment.getPlaceholderType() != Comment.NOT_PLACEHOLDER || skippedCommentIds.contains(comment.getId())) {
+                continue;
             }
+            texts.put(comment.getId(), comment.getCommentRawText());
+        }
+        return buildChunks(postChars, includePost, texts);
+    }
 
-            // 备用格式: choices[0].message.content
-            if (text == null && jsonResponse.has("choices")) {
-                JSONArray choices = jsonResponse.getJSONArray("choices");
-                if (choices.length() > 0) {
-                    JSONObject firstChoice = choices.getJSONObject(0);
-                    if (firstChoice.has("message")) {
-                        JSONObject message = firstChoice.getJSONObject("message");
-                        if (message.has("content")) {
-                            text = message.getString("content");
-                        }
-                    }
-                }
+    /**
+     * @param postChars 帖子标题和正文的字符数，不包含帖子时为 0
+     * @param texts id -> 原文，按顺序放入分块
+     */
+    private static List<Chunk> buildChunks(int postChars, boolean includePost, LinkedHashMap<String, String> texts) {
+        List<Chunk> chunks = new ArrayList<>();
+        Chunk current = new Chunk(includePost);
+        int currentChars = postChars;
+
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            String text = entry.getValue();
+            if (text == null || text.isEmpty()) {
+                continue;
             }
+            if (currentChars + text.length() > CHUNK_CHAR_BUDGET && (current.includesPost || !current.comments.isEmpty())) {
+                chunks.add(current);
+                current = new Chunk(false);
+                currentChars = 0;
+            }
+            current.comments.put(entry.getKey(), text);
+            currentChars += text.length();
+        }
+        if (current.includesPost || !current.comments.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
 
-            if (text == null) {
-                return null;
+    /**
+     * 构建一个分块的输入 JSON
+     */
+    static String buildInputJson(@Nullable Post post, Chunk chunk) {
+        try {
+            JSONObject input = new JSONObject();
+            if (chunk.includesPost) {
+                input.put("post_title", post.getTitle() != null ? post.getTitle() : "");
+                input.put("post_body", post.getSelfTextPlain() != null ? post.getSelfTextPlain() : "");
             }
 
-            // 从文本中提取 JSON（处理 LLM 可能添加的 markdown 代码块标记）
-            String jsonStr = extractJsonFromText(text);
-            return parseTranslationJson(jsonStr, post);
+            JSONObject commentsJson = new JSONObject();
+            for (Map.Entry<String, String> entry : chunk.comments.entrySet()) {
+                commentsJson.put(entry.getKey(), entry.getValue());
+            }
 
+            input.put("comments", commentsJson);
+            return input.toString();
         } catch (Exception e) {
-            return null;
+            return "{}";
         }
     }
 
@@ -352,7 +529,7 @@ public class BatchTranslateContent {
     /**
      * 解析翻译 JSON 为 BatchTranslationResult
      */
-    private static BatchTranslationResult parseTranslationJson(String jsonStr, Post post) {
+    private static BatchTranslationResult parseTranslationJson(String jsonStr, @Nullable Post post) {
         try {
             JSONObject json = new JSONObject(jsonStr);
 
@@ -370,9 +547,9 @@ public class BatchTranslateContent {
             }
 
             return new BatchTranslationResult(
-                    post.getTitle(),
+                    post != null ? post.getTitle() : null,
                     translatedTitle,
-                    post.getSelfTextPlain(),
+                    post != null ? post.getSelfTextPlain() : null,
                     translatedBody.isEmpty() ? null : translatedBody,
                     translatedComments
             );
@@ -382,57 +559,34 @@ public class BatchTranslateContent {
     }
 
     /**
-     * 构建缓存 key
+     * 一次请求的内容
      */
-    private static String buildCacheKey(Post post, ArrayList<Comment> comments) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(post.getId()).append("|");
-        for (Comment comment : comments) {
-            if (comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER && comment.getId() != null) {
-                sb.append(comment.getId()).append(",");
-            }
+    static class Chunk {
+        // 是否包含帖子标题和正文
+        final boolean includesPost;
+        // 评论 id -> 原文，保持评论树顺序
+        final LinkedHashMap<String, String> comments = new LinkedHashMap<>();
+
+        Chunk(boolean includesPost) {
+            this.includesPost = includesPost;
         }
-        return md5(sb.toString());
-    }
 
-    private static String md5(String text) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(text.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
+        /**
+         * @return 原文 -> 译文，用于存入缓存
+         */
+        Map<String, String> getTranslations(@Nullable Post post, BatchTranslationResult chunkResult) {
+            Map<String, String> translations = new HashMap<>();
+            if (includesPost) {
+                translations.put(post.getTitle(), chunkResult.getTranslatedTitle());
+                translations.put(post.getSelfTextPlain(), chunkResult.getTranslatedBody());
             }
-            return "batch_" + sb.toString();
-        } catch (Exception e) {
-            return "batch_" + text.hashCode();
-        }
-    }
-
-    /**
-     * 返回被截断的评论数量
-     */
-    public static int getTruncatedCount(Post post, ArrayList<Comment> comments) {
-        int totalChars = (post.getTitle() != null ? post.getTitle().length() : 0)
-                + (post.getSelfTextPlain() != null ? post.getSelfTextPlain().length() : 0);
-        int includedCount = 0;
-        int totalValidCount = 0;
-
-        for (Comment comment : comments) {
-            if (comment.getPlaceholderType() != Comment.NOT_PLACEHOLDER) {
-                continue;
-            }
-            String text = comment.getCommentRawText();
-            if (text == null || text.isEmpty()) {
-                continue;
-            }
-            totalValidCount++;
-            totalChars += text.length();
-            if (totalChars <= MAX_CHAR_LIMIT) {
-                includedCount++;
+            for (Map.Entry<String, String> entry : chunkResult.getTranslatedComments().entrySet()) {
+                String originalText = comments.get(entry.getKey());
+                if (originalText != null) {
+                    translations.put(originalText, entry.getValue());
+                }
             }
+            return translations;
         }
-
-        return totalValidCount > includedCount ? includedCount : -1;
     }
 }
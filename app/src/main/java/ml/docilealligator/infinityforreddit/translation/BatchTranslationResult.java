@@ -1,17 +1,27 @@
 package ml.docilealligator.infinityforreddit.translation;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 批量翻译结果数据类
  * 包含帖子标题、正文和所有评论的翻译结果
+ * 分块翻译时各分块的结果在主线程逐个合并进来，流式输出中已完整的字段会提前合并
  */
 public class BatchTranslationResult {
     private final String originalTitle;
-    private final String translatedTitle;
+    private String translatedTitle;
     private final String originalBody;
-    private final String translatedBody;
+    private String translatedBody;
     private final HashMap<String, String> translatedComments;
+    private final int totalChunkCount;
+    private int translatedChunkCount;
+    private int failedChunkCount;
+    private int failedCommentCount;
+    private OnUpdateListener onUpdateListener;
 
     public BatchTranslationResult(String originalTitle, String translatedTitle,
                                    String originalBody, String translatedBody,
@@ -21,6 +31,18 @@ public class BatchTranslationResult {
         this.originalBody = originalBody;
         this.translatedBody = translatedBody;
         this.translatedComments = translatedComments;
+        this.totalChunkCount = 1;
+        this.translatedChunkCount = 1;
+    }
+
+    /**
+     * 创建空结果，等待 totalChunkCount 个分块合并
+     */
+    public BatchTranslationResult(String originalTitle, String originalBody, int totalChunkCount) {
+        this.originalTitle = originalTitle;
+        this.originalBody = originalBody;
+        this.translatedComments = new HashMap<>();
+        this.totalChunkCount = totalChunkCount;
     }
 
     public String getOriginalTitle() {
@@ -42,4 +64,122 @@ public class BatchTranslationResult {
     public HashMap<String, String> getTranslatedComments() {
         return translatedComments;
     }
+
+    /**
+     * 翻译一组独立文本时使用，id -> 译文，与评论共用同一个表
+     */
+    public Map<String, String> getTranslatedTexts() {
+        return translatedComments;
+    }
+
+    public int getTotalChunkCount() {
+        return totalChunkCount;
+    }
+
+    public int getTranslatedChunkCount() {
+        return translatedChunkCount;
+    }
+
+    /**
+     * 重试后仍未翻译的评论数
+     */
+    public int getFailedCommentCount() {
+        return failedCommentCount;
+    }
+
+    /**
+     * 所有分块都已结束（成功或失败）
+     */
+    public boolean isComplete() {
+        return translatedChunkCount + failedChunkCount >= totalChunkCount;
+    }
+
+    /**
+     * 合并一个分块的翻译结果
+     */
+    void merge(BatchTranslationResult chunkResult) {
+        boolean postUpdated = false;
+        if (chunkResult.translatedTitle != null && !chunkResult.translatedTitle.isEmpty()) {
+            translatedTitle = chunkResult.translatedTitle;
+            postUpdated = true;
+        }
+        if (chunkResult.translatedBody != null && !chunkResult.translatedBody.isEmpty()) {
+            translatedBody = chunkResult.translatedBody;
+            postUpdated = true;
+        }
+        translatedComments.putAll(chunkResult.translatedComments);
+        translatedChunkCount++;
+        if (onUpdateListener != null) {
+            onUpdateListener.onUpdate(postUpdated, chunkResult.translatedComments.keySet());
+        }
+    }
+
+    /**
+     * 放入缓存中已有的译文，在开始请求前调用，不回调监听
+     */
+    void putCached(String cachedTitle, String cachedBody, Map<String, String> cachedComments) {
+        if (cachedTitle != null) {
+            translatedTitle = cachedTitle;
+        }
+        if (cachedBody != null) {
+            translatedBody = cachedBody;
+        }
+        translatedComments.putAll(cachedComments);
+    }
+
+    /**
+     * 合并流式输出中已完整到达的帖子标题或正文，不计入分块完成数
+     */
+    void mergePostField(boolean isTitle, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (isTitle) {
+            translatedTitle = value;
+        } else {
+            translatedBody = value;
+        }
+        if (onUpdateListener != null) {
+            onUpdateListener.onUpdate(true, Collections.emptySet());
+        }
+    }
+
+    /**
+     * 合并流式输出中已完整到达的一条评论，不计入分块完成数
+     */
+    void mergeComment(String commentId, String value) {
+        if (value == null || value.isEmpty() || value.equals(translatedComments.get(commentId))) {
+            return;
+        }
+        translatedComments.put(commentId, value);
+        if (onUpdateListener != null) {
+            onUpdateListener.onUpdate(false, Collections.singleton(commentId));
+        }
+    }
+
+    /**
+     * 分块重试后仍失败，流式输出中已到达的评论保留，其余计为失败
+     */
+    void markChunkFailed(Collection<String> commentIds) {
+        failedChunkCount++;
+        for (String commentId : commentIds) {
+            if (!translatedComments.containsKey(commentId)) {
+                failedCommentCount++;
+            }
+        }
+        if (onUpdateListener != null) {
+            onUpdateListener.onUpdate(false, Collections.emptySet());
+        }
+    }
+
+    /**
+     * 设置更新监听，结果合并新分块后在主线程回调
+     */
+    public void setOnUpdateListener(OnUpdateListener onUpdateListener) {
+        this.onUpdateListener = onUpdateListener;
+    }
+
+    public interface OnUpdateListener {
+        void onUpdate(boolean postUpdated, Set<String> updatedCommentIds);
+    }
 }
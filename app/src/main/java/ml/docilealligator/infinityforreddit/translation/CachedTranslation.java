@@ -0,0 +1,68 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 持久化的单条翻译结果
+ * 以 原文 + 模型 + 目标语言 的哈希为键，每个帖子标题、正文或评论单独一行
+ */
+@Entity(tableName = "translation_cache", indices = {@Index(value = {"last_access"})})
+public class CachedTranslation {
+    @NonNull
+    @PrimaryKey
+    @ColumnInfo(name = "cache_key")
+    private String cacheKey;
+    @NonNull
+    @ColumnInfo(name = "translated_text")
+    private String translatedText;
+    // 估算占用的字节数，用于按大小淘汰
+    @ColumnInfo(name = "size")
+    private int size;
+    @ColumnInfo(name = "last_access")
+    private long lastAccess;
+
+    public CachedTranslation(@NonNull String cacheKey, @NonNull String translatedText, int size, long lastAccess) {
+        this.cacheKey = cacheKey;
+        this.translatedText = translatedText;
+        this.size = size;
+        this.lastAccess = lastAccess;
+    }
+
+    @NonNull
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(@NonNull String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    @NonNull
+    public String getTranslatedText() {
+        return translatedText;
+    }
+
+    public void setTranslatedText(@NonNull String translatedText) {
+        this.translatedText = translatedText;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+}
@@ -0,0 +1,32 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface CachedTranslationDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(List<CachedTranslation> cachedTranslations);
+
+    @Query("SELECT * FROM translation_cache WHERE cache_key IN (:cacheKeys)")
+    List<CachedTranslation> getCachedTranslations(List<String> cacheKeys);
+
+    @Query("UPDATE translation_cache SET last_access = :time WHERE cache_key IN (:cacheKeys)")
+    void updateLastAccess(List<String> cacheKeys, long time);
+
+    @Query("SELECT COALESCE(SUM(size), 0) FROM translation_cache")
+    long getTotalSize();
+
+    @Query("SELECT * FROM translation_cache ORDER BY last_access ASC LIMIT :count")
+    List<CachedTranslation> getLeastRecentlyUsed(int count);
+
+    @Query("DELETE FROM translation_cache WHERE cache_key IN (:cacheKeys)")
+    void deleteCachedTranslations(List<String> cacheKeys);
+
+    @Query("DELETE FROM translation_cache")
+    void deleteAllCachedTranslations();
+}
@@ -0,0 +1,203 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import android.os.Handler;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.comment.Comment;
+import ml.docilealligator.infinityforreddit.post.Post;
+import retrofit2.Retrofit;
+
+/**
+ * 评论区的自动翻译调度器
+ * 评论进入屏幕时连同其后的 {@link #LOOK_AHEAD_COUNT} 条评论一起请求翻译。短时间内的请求合并为小批量，
+ * 已翻译、正在翻译或翻译失败的评论不会重复请求，长帖子只翻译实际看到的部分。
+ * 翻译通过 {@link BatchTranslateContent#translateCommentsWithCache} 进行，与其他翻译共享缓存。
+ * 所有方法都在主线程调用。
+ */
+@MainThread
+public class CommentTranslationScheduler {
+
+    // 当前评论之后一起请求的评论数
+    public static final int LOOK_AHEAD_COUNT = 10;
+    // 等待更多评论进入屏幕再发出请求
+    private static final long BATCH_DELAY_MILLIS = 150;
+    private static final int MAX_BATCH_COMMENTS = 20;
+    private static final int MAX_BATCH_CHARS = 3000;
+    private static final int MAX_IN_FLIGHT_BATCHES = 2;
+
+    public interface OnCommentsTranslatedListener {
+        /**
+         * @param commentFullNames 译文有更新的评论
+         */
+        void onCommentsTranslated(Set<String> commentFullNames);
+    }
+
+    private final TranslationCache cache;
+    private final Executor executor;
+    private final Handler handler;
+    private final Retrofit retrofit;
+    private final String apiKey;
+    private final String model;
+    private final Post post;
+    private final OnCommentsTranslatedListener listener;
+    // 评论 fullname -> 译文
+    private final Map<String, String> translations = new HashMap<>();
+    // 等待发出的评论，保持进入屏幕的顺序
+    private final LinkedHashMap<String, Comment> pendingComments = new LinkedHashMap<>();
+    private final Set<String> inFlightFullNames = new HashSet<>();
+    private final Set<String> failedFullNames = new HashSet<>();
+    private final Set<TranslationRequestHandle> handles = new HashSet<>();
+    private final Runnable flushRunnable = this::flush;
+    private boolean flushScheduled;
+    private boolean destroyed;
+
+    public CommentTranslationScheduler(TranslationCache cache, Executor executor, Handler handler, Retrofit retrofit,
+                                       String apiKey, String model, Post post,
+                                       OnCommentsTranslatedListener listener) {
+        this.cache = cache;
+        this.executor = executor;
+        this.handler = handler;
+        this.retrofit = retrofit;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.post = post;
+        this.listener = listener;
+    }
+
+    /**
+     * @return 评论的译文，尚未翻译返回 null
+     */
+    @Nullable
+    public String getTranslation(Comment comment) {
+        return translations.get(comment.getFullName());
+    }
+
+    /**
+     * 请求翻译这些评论，已处理过的评论会被跳过
+     */
+    public void request(List<Comment> comments) {
+        if (destroyed) {
+            return;
+        }
+        for (Comment comment : comments) {
+            String fullName = comment.getFullName();
+            if (comment.getPlaceholderType() != Comment.NOT_PLACEHOLDER
+                    || comment.getCommentRawText() == null || comment.getCommentRawText().isEmpty()
+                    || translations.containsKey(fullName) || inFlightFullNames.contains(fullName)
+                    || failedFullNames.contains(fullName) || pendingComments.containsKey(fullName)) {
+                continue;
+            }
+            pendingComments.put(fullName, comment);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 取消所有请求，之后不会再回调
+     */
+    public void destroy() {
+        destroyed = true;
+        handler.removeCallbacks(flushRunnable);
+        for (TranslationRequestHandle handle : handles) {
+            handle.cancel();
+        }
+        handles.clear();
+        pendingComments.clear();
+        inFlightFullNames.clear();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled && !pendingComments.isEmpty() && handles.size() < MAX_IN_FLIGHT_BATCHES) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, BATCH_DELAY_MILLIS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        while (!destroyed && !pendingComments.isEmpty() && handles.size() < MAX_IN_FLIGHT_BATCHES) {
+            ArrayList<Comment> batch = new ArrayList<>();
+            int batchChars = 0;
+            Iterator<Comment> iterator = pendingComments.values().iterator();
+            while (iterator.hasNext() && batch.size() < MAX_BATCH_COMMENTS) {
+                Comment comment = iterator.next();
+                int length = comment.getCommentRawText().length();
+                if (!batch.isEmpty() && batchChars + length > MAX_BATCH_CHARS) {
+                    break;
+                }
+                iterator.remove();
+                batch.add(comment);
+                inFlightFullNames.add(comment.getFullName());
+                batchChars += length;
+            }
+            startBatch(batch);
+        }
+    }
+
+    private void startBatch(ArrayList<Comment> batch) {
+        TranslationRequestHandle[] handle = new TranslationRequestHandle[1];
+        handle[0] = BatchTranslateContent.translateCommentsWithCache(cache, executor, handler, retrofit,
+                apiKey, model, post, batch, new BatchTranslateContent.BatchTranslateListener() {
+                    @Override
+                    public void onTranslateProgress(BatchTranslationResult result) {
+                        applyTranslations(batch, result);
+                    }
+
+                    @Override
+                    public void onTranslateSuccess(BatchTranslationResult result) {
+                        applyTranslations(batch, result);
+                        finishBatch(handle[0], batch);
+                    }
+
+                    @Override
+                    public void onTranslateFailed(String errorMessage) {
+                        finishBatch(handle[0], batch);
+                    }
+                });
+        handles.add(handle[0]);
+    }
+
+    private void applyTranslations(List<Comment> batch, BatchTranslationResult result) {
+        if (destroyed) {
+            return;
+        }
+        Set<String> updatedFullNames = new HashSet<>();
+        for (Comment comment : batch) {
+            String translation = result.getTranslatedComments().get(comment.getId());
+            if (translation != null && !translation.equals(translations.get(comment.getFullName()))) {
+                translations.put(comment.getFullName(), translation);
+                updatedFullNames.add(comment.getFullName());
+            }
+        }
+        if (!updatedFullNames.isEmpty()) {
+            listener.onCommentsTranslated(updatedFullNames);
+        }
+    }
+
+    private void finishBatch(TranslationRequestHandle handle, List<Comment> batch) {
+        if (destroyed) {
+            return;
+        }
+        handles.remove(handle);
+        for (Comment comment : batch) {
+            inFlightFullNames.remove(comment.getFullName());
+            if (!translations.containsKey(comment.getFullName())) {
+                // 不自动重试，避免反复消耗 token
+                failedFullNames.add(comment.getFullName());
+            }
+        }
+        scheduleFlush();
+    }
+}
@@ -0,0 +1,197 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import android.os.Handler;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+import retrofit2.Retrofit;
+
+/**
+ * 帖子列表的翻译模式
+ * 每加载一页帖子，把这一页的标题和正文预览合并为一次请求翻译，不阻塞分页加载。
+ * 译文保存在内存中并写入 {@link TranslationCache}，向回滚动或重新加载时不再请求。
+ * 所有方法都在主线程调用。
+ */
+@MainThread
+public class FeedTranslator {
+
+    // 正文预览只翻译开头部分，与列表中显示的行数相当
+    private static final int MAX_PREVIEW_CHARS = 300;
+    private static final String TITLE_PREFIX = "t_";
+    private static final String PREVIEW_PREFIX = "p_";
+    // 内存中译文的总字符数，超出后淘汰最久未显示的，长时间浏览列表时不会无限增长
+    private static final int MAX_TRANSLATION_CHARS = 256 * 1024;
+
+    public interface OnPostsTranslatedListener {
+        /**
+         * @param postIds 译文有更新的帖子
+         */
+        void onPostsTranslated(Set<String> postIds);
+    }
+
+    private final TranslationCache cache;
+    private final Executor executor;
+    private final Handler handler;
+    private final Retrofit retrofit;
+    private final String apiKey;
+    private final String model;
+    private final OnPostsTranslatedListener listener;
+    // 条目 id（前缀 + 帖子 id）-> 译文
+    private final LruCache<String, String> translations = new LruCache<String, String>(MAX_TRANSLATION_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+
+        @Override
+        protected void entryRemoved(boolean evicted, String key, String oldValue, String newValue) {
+            if (evicted) {
+                // 被淘汰的条目允许再次请求，重新加载时从 TranslationCache 读取，不消耗 token
+                requestedIds.remove(key);
+            }
+        }
+    };
+    // 已请求过的条目，包括正在翻译和翻译失败的，不重复请求
+    private final Set<String> requestedIds = new HashSet<>();
+    private final Set<TranslationRequestHandle> handles = new HashSet<>();
+    private boolean destroyed;
+
+    public FeedTranslator(TranslationCache cache, Executor executor, Handler handler, Retrofit retrofit,
+                          String apiKey, String model, OnPostsTranslatedListener listener) {
+        this.cache = cache;
+        this.executor = executor;
+        this.handler = handler;
+        this.retrofit = retrofit;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.listener = listener;
+    }
+
+    /**
+     * @return 标题的译文，尚未翻译返回 null
+     */
+    @Nullable
+    public String getTranslatedTitle(Post post) {
+        return translations.get(TITLE_PREFIX + post.getId());
+    }
+
+    /**
+     * @return 正文预览的译文，尚未翻译返回 null
+     */
+    @Nullable
+    public String getTranslatedPreview(Post post) {
+        return translations.get(PREVIEW_PREFIX + post.getId());
+    }
+
+    /**
+     * 翻译这些帖子中还没有请求过的标题和正文预览，一次调用只发一个批量请求
+     */
+    public void translate(List<Post> posts) {
+        if (destroyed) {
+            return;
+        }
+        LinkedHashMap<String, String> texts = new LinkedHashMap<>();
+        for (Post post : posts) {
+            if (post == null) {
+                continue;
+            }
+            addText(texts, TITLE_PREFIX + post.getId(), post.getTitle());
+            String preview = post.getSelfTextPlainTrimmed();
+            if (preview != null && preview.length() > MAX_PREVIEW_CHARS) {
+                preview = preview.substring(0, MAX_PREVIEW_CHARS);
+            }
+            addText(texts, PREVIEW_PREFIX + post.getId(), preview);
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        requestedIds.addAll(texts.keySet());
+
+        TranslationRequestHandle[] handle = new TranslationRequestHandle[1];
+        handle[0] = BatchTranslateContent.translateTextsWithCache(cache, executor, handler, retrofit, apiKey, model,
+                texts, new BatchTranslateContent.BatchTranslateListener() {
+                    @Override
+                    public void onTranslateProgress(BatchTranslationResult result) {
+                        applyTranslations(result);
+                    }
+
+                    @Override
+                    public void onTranslateSuccess(BatchTranslationResult result) {
+                        applyTranslations(result);
+                        handles.remove(handle[0]);
+                    }
+
+                    @Override
+                    public void onTranslateFailed(String errorMessage) {
+                        // 不自动重试，避免反复消耗 token
+                        handles.remove(handle[0]);
+                    }
+                });
+        handles.add(handle[0]);
+    }
+
+    /**
+     * 取消所有请求，之后不会再回调
+     */
+    public void destroy() {
+        destroyed = true;
+        for (TranslationRequestHandle handle : handles) {
+            handle.cancel();
+        }
+        handles.clear();
+    }
+
+    private void addText(Map<String, String> texts, String id, String text) {
+        if (text == null || text.trim().isEmpty() || requestedIds.contains(id) || isMostlyChinese(text)) {
+            return;
+        }
+        texts.put(id, text);
+    }
+
+    private void applyTranslations(BatchTranslationResult result) {
+        if (destroyed) {
+            return;
+        }
+        Set<String> updatedPostIds = new HashSet<>();
+        for (Map.Entry<String, String> entry : result.getTranslatedTexts().entrySet()) {
+            String id = entry.getKey();
+            String translation = entry.getValue();
+            if (!requestedIds.contains(id) || translation == null || translation.equals(translations.get(id))) {
+                continue;
+            }
+            translations.put(id, translation);
+            updatedPostIds.add(id.substring(id.indexOf('_') + 1));
+        }
+        if (!updatedPostIds.isEmpty()) {
+            listener.onPostsTranslated(updatedPostIds);
+        }
+    }
+
+    /**
+     * 已经主要是汉字的文本不需要翻译
+     */
+    private static boolean isMostlyChinese(String text) {
+        int letters = 0;
+        int chinese = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS) {
+                    chinese++;
+                }
+            }
+        }
+        return letters > 0 && chinese * 2 >= letters;
+    }
+}
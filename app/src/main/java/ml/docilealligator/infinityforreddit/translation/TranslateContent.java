@@ -1,9 +1,7 @@
 package ml.docilealligator.infinityforreddit.translation;
 
 import android.os.Handler;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import android.os.SystemClock;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,6 +12,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import ml.docilealligator.infinityforreddit.apis.VolcanoEngineAPI;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.Retrofit;
@@ -49,14 +48,28 @@ public class TranslateContent {
         "Ensure that your final translation in step 3 accurately reflects the original meaning while sounding natural in Chinese.\n\n" +
         "Now, please translate the following text:\n\n";
 
+    private static final String STEP1_OPEN_TAG = "<step1_initial_translation>";
+    private static final String STEP1_CLOSE_TAG = "</step1_initial_translation>";
+    private static final String STEP3_OPEN_TAG = "<step3_refined_translation>";
+    private static final String STEP3_CLOSE_TAG = "</step3_refined_translation>";
+    private static final Pattern REFINED_TRANSLATION_PATTERN =
+            Pattern.compile("<step3_refined_translation>\\s*(.+?)\\s*</step3_refined_translation>", Pattern.DOTALL);
+    // 部分译文刷新界面的最短间隔
+    private static final long PARTIAL_UPDATE_INTERVAL_MILLIS = 100;
+
     public interface TranslateListener {
+        /**
+         * 流式翻译过程中收到部分译文，在 handler 线程回调
+         * @param partialText 到目前为止可显示的译文
+         */
+        default void onTranslatePartial(String partialText) {}
         void onTranslateSuccess(String translatedText);
         void onTranslateFailed(String errorMessage);
     }
 
     /**
      * 带缓存的翻译方法
-     * 先检查缓存，命中则直接返回，否则调用 API 并缓存结果
+     * 先检查内存缓存，再在 executor 上查询持久化缓存，命中则直接返回，否则调用 API 并缓存结果
      * @return TranslationRequestHandle 可用于取消翻译请求
      */
     public static TranslationRequestHandle translateWithCache(TranslationCache cache,
@@ -65,8 +78,8 @@ public class TranslateContent {
                                           TranslateListener listener) {
         TranslationRequestHandle handle = new TranslationRequestHandle();
 
-        // 检查缓存
-        String cached = cache.get(text);
+        // 检查内存缓存
+        String cached = cache.peek(model, text);
         if (cached != null) {
             handler.post(() -> {
                 if (!handle.isCancelled()) {
@@ -76,13 +89,18 @@ public class TranslateContent {
             return handle;
         }
 
-        // 调用 API 翻译
-        translate(executor, handler, retrofit, apiKey, model, text, new TranslateListener() {
+        TranslateListener cachingListener = new TranslateListener() {
+            @Override
+            public void onTranslatePartial(String partialText) {
+                if (handle.isCancelled()) return;
+                listener.onTranslatePartial(partialText);
+            }
+
             @Override
             public void onTranslateSuccess(String translatedText) {
                 if (handle.isCancelled()) return;
                 // 存入缓存
-                cache.put(text, translatedText);
+                cache.put(model, text, translatedText);
                 listener.onTranslateSuccess(translatedText);
             }
 
@@ -91,7 +109,24 @@ public class TranslateContent {
                 if (handle.isCancelled()) return;
                 listener.onTranslateFailed(errorMessage);
             }
-        }, handle);
+        };
+
+        executor.execute(() -> {
+            if (handle.isCancelled()) return;
+            // 检查持久化缓存
+            String persisted = cache.get(model, text);
+            if (persisted != null) {
+                handler.post(() -> {
+                    if (!handle.isCancelled()) {
+                        listener.onTranslateSuccess(persisted);
+                    }
+                });
+                return;
+            }
+
+            // 调用 API 翻译
+            translate(executor, handler, retrofit, apiKey, model, text, cachingListener, handle);
+        });
 
         return handle;
     }
@@ -106,6 +141,7 @@ public class TranslateContent {
                                   String apiKey, String model, String text,
                                   TranslateListener listener, TranslationRequestHandle handle) {
         executor.execute(() -> {
+            Call<ResponseBody> call = null;
             try {
                 VolcanoEngineAPI api = retrofit.create(VolcanoEngineAPI.class);
 
@@ -117,7 +153,7 @@ public class TranslateContent {
                 // Prepare request body according to ARK API format
                 Map<String, Object> body = new HashMap<>();
                 body.put("model", model);
-                body.put("stream", false);
+                body.put("stream", true);
 
                 // Build input array
                 List<Map<String, Object>> inputList = new ArrayList<>();
@@ -134,20 +170,25 @@ public class TranslateContent {
                 inputList.add(userMessage);
                 body.put("input", inputList);
 
-                Call<String> call = api.translate(headers, body);
+                call = api.translateStream(headers, body);
                 handle.attachCall(call);
-                Response<String> response = call.execute();
+                Response<ResponseBody> response = call.execute();
 
                 if (handle.isCancelled()) {
                     return;
                 }
 
                 if (response.isSuccessful() && response.body() != null) {
-                    String responseBody = response.body();
+                    String outputText;
+                    try (ResponseBody responseBody = response.body()) {
+                        outputText = TranslationStreamReader.read(responseBody, new PartialTextDispatcher(handler, handle, listener));
+                    }
 
-                    // Parse the response to extract the translated text
-                    String translatedText = extractTranslation(responseBody);
+                    if (handle.isCancelled()) {
+                        return;
+                    }
 
+                    String translatedText = outputText == null ? null : extractTranslation(outputText);
                     if (translatedText != null && !translatedText.isEmpty()) {
                         handler.post(() -> {
                             if (handle.isCancelled()) return;
@@ -171,6 +212,7 @@ public class TranslateContent {
                     });
                 }
             } catch (Exception e) {
+                // 取消会关闭连接，读取流时抛出的 IOException 不需要报告
                 if (handle.isCancelled()) {
                     return;
                 }
@@ -178,69 +220,107 @@ public class TranslateContent {
                     if (handle.isCancelled()) return;
                     listener.onTranslateFailed("Error: " + e.getMessage());
                 });
+            } finally {
+                if (call != null) {
+                    handle.detachCall(call);
+                }
             }
         });
     }
 
-    private static String extractTranslation(String responseBody) {
-        try {
-            // Parse JSON response
-            JSONObject jsonResponse = new JSONObject(responseBody);
-
-            // Try ARK API format: output[0].content[0].text
-            if (jsonResponse.has("output")) {
-                JSONArray output = jsonResponse.getJSONArray("output");
-                if (output.length() > 0) {
-                    JSONObject firstOutput = output.getJSONObject(0);
-                    if (firstOutput.has("content")) {
-                        JSONArray content = firstOutput.getJSONArray("content");
-                        if (content.length() > 0) {
-                            JSONObject firstContent = content.getJSONObject(0);
-                            if (firstContent.has("text")) {
-                                String text = firstContent.getString("text");
-
-                                // Try to extract from step3_refined_translation XML tags
-                                Pattern pattern = Pattern.compile("<step3_refined_translation>\\s*(.+?)\\s*</step3_refined_translation>",
-                                                                Pattern.DOTALL);
-                                Matcher matcher = pattern.matcher(text);
-                                if (matcher.find()) {
-                                    return matcher.group(1).trim();
-                                }
-
-                                // If no XML tags, return the full text
-                                return text;
-                            }
-                        }
-                    }
-                }
-            }
+    /**
+     * 从完整输出中提取最终译文
+     * 优先取 step3_refined_translation 标签内容，没有标签则返回全文
+     */
+    private static String extractTranslation(String text) {
+        Matcher matcher = REFINED_TRANSLATION_PATTERN.matcher(text);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+        return text.trim();
+    }
 
-            // Try different possible response structures
-            if (jsonResponse.has("choices")) {
-                JSONArray choices = jsonResponse.getJSONArray("choices");
-                if (choices.length() > 0) {
-                    JSONObject firstChoice = choices.getJSONObject(0);
-                    if (firstChoice.has("message")) {
-                        JSONObject message = firstChoice.getJSONObject("message");
-                        if (message.has("content")) {
-                            String contentText = message.getString("content");
-                            // Try to extract from XML tags in content
-                            Pattern pattern = Pattern.compile("<step3_refined_translation>\\s*(.+?)\\s*</step3_refined_translation>",
-                                                            Pattern.DOTALL);
-                            Matcher matcher = pattern.matcher(contentText);
-                            if (matcher.find()) {
-                                return matcher.group(1).trim();
-                            }
-                            return contentText;
-                        }
-                    }
-                }
-            }
+    /**
+     * 从尚未结束的输出中提取可以先显示的译文
+     * step3 开始输出前显示 step1 的初译，开始后改为显示 step3 已输出的部分
+     * @return 可显示的译文，暂时没有则返回 null
+     */
+    static String extractPartialTranslation(String text) {
+        String partial = extractTagContent(text, STEP3_OPEN_TAG, STEP3_CLOSE_TAG);
+        if (partial == null) {
+            partial = extractTagContent(text, STEP1_OPEN_TAG, STEP1_CLOSE_TAG);
+        }
+        if (partial == null && text.indexOf("<step") < 0 && !text.trim().startsWith("<")) {
+            // 模型没有按标签格式输出
+            partial = stripPartialTag(text);
+        }
+        if (partial == null) {
+            return null;
+        }
+        partial = partial.trim();
+        return partial.isEmpty() ? null : partial;
+    }
 
-            // Fallback: return the whole response body
-            return responseBody;
-        } catch (Exception e) {
+    private static String extractTagContent(String text, String openTag, String closeTag) {
+        int openIndex = text.indexOf(openTag);
+        if (openIndex < 0) {
             return null;
         }
+        int start = openIndex + openTag.length();
+        int end = text.indexOf(closeTag, start);
+        return end >= 0 ? text.substring(start, end) : stripPartialTag(text.substring(start));
+    }
+
+    /**
+     * 去掉末尾还没输出完整的标签，例如 "译文</step3_ref"
+     */
+    private static String stripPartialTag(String text) {
+        int lastOpen = text.lastIndexOf('<');
+        if (lastOpen >= 0 && text.indexOf('>', lastOpen) < 0) {
+            return text.substring(0, lastOpen);
+        }
+        return text;
+    }
+
+    /**
+     * 把流式输出转换为部分译文并投递到 handler 线程，相同内容不重复投递，
+     * 且每 {@link #PARTIAL_UPDATE_INTERVAL_MILLIS} 毫秒最多投递一次。
+     * 新增文本先累积起来，只在投递时才生成完整字符串
+     */
+    private static class PartialTextDispatcher implements TranslationStreamReader.TextListener {
+        private final Handler handler;
+        private final TranslationRequestHandle handle;
+        private final TranslateListener listener;
+        private final StringBuilder text = new StringBuilder();
+        private String lastPartial;
+        private long lastDispatchTime;
+
+        PartialTextDispatcher(Handler handler, TranslationRequestHandle handle, TranslateListener listener) {
+            this.handler = handler;
+            this.handle = handle;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onText(String delta) {
+            if (handle.isCancelled()) {
+                return;
+            }
+            text.append(delta);
+            long now = SystemClock.uptimeMillis();
+            if (now - lastDispatchTime < PARTIAL_UPDATE_INTERVAL_MILLIS) {
+                return;
+            }
+            String partial = extractPartialTranslation(text.toString());
+            if (partial == null || partial.equals(lastPartial)) {
+                return;
+            }
+            lastPartial = partial;
+            lastDispatchTime = now;
+            handler.post(() -> {
+                if (handle.isCancelled()) return;
+                listener.onTranslatePartial(partial);
+            });
+        }
     }
 }
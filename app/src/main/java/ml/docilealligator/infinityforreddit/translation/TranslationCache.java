@@ -2,40 +2,151 @@ package ml.docilealligator.infinityforreddit.translation;
 
 import android.util.LruCache;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.inject.Inject;
-import javax.inject.Singleton;
+import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
 
 /**
- * 翻译结果内存缓存
- * 使用 LruCache 存储翻译结果，避免重复翻译同一内容浪费 token
+ * 翻译结果缓存
+ * 每段原文（帖子标题、正文或一条评论）单独缓存，键为 原文 + 模型 + 目标语言 的 MD5。
+ * 内存中用 LruCache 保存最近使用的结果，全部结果持久化到 Room 的 translation_cache 表，
+ * 进程被杀后依然有效。表的总大小超过 {@link #MAX_DISK_BYTES} 时淘汰最久未使用的条目。
  */
-@Singleton
 public class TranslationCache {
 
-    // 最大缓存条目数（约 1000-2000 KB 内存）
-    private static final int MAX_ENTRIES = 500;
+    // 目前只翻译为简体中文
+    public static final String TARGET_LANGUAGE = "zh-Hans";
+    // 内存缓存的总字符数
+    private static final int MAX_MEMORY_CHARS = 512 * 1024;
+    private static final long MAX_DISK_BYTES = 16L * 1024 * 1024;
+    private static final int EVICT_BATCH_SIZE = 200;
+    // 低于 SQLite 绑定参数上限 999
+    private static final int QUERY_CHUNK_SIZE = 500;
+    // 估算 token 数：平均约 4 个字符一个 token
+    private static final int CHARS_PER_TOKEN = 4;
 
-    private final LruCache<String, String> cache;
+    private final RedditDataRoomDatabase redditDataRoomDatabase;
+    private final Executor dbExecutor;
+    private final LruCache<String, String> memoryCache = new LruCache<String, String>(MAX_MEMORY_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+    };
+    // 表的总大小，-1 表示尚未查询
+    private final AtomicLong diskSize = new AtomicLong(-1);
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    // 命中的原文和译文字符数，用于估算节省的 token
+    private final AtomicLong savedChars = new AtomicLong();
 
-    @Inject
-    public TranslationCache() {
-        this.cache = new LruCache<>(MAX_ENTRIES);
+    public TranslationCache(RedditDataRoomDatabase redditDataRoomDatabase, Executor dbExecutor) {
+        this.redditDataRoomDatabase = redditDataRoomDatabase;
+        this.dbExecutor = dbExecutor;
     }
 
     /**
-     * 获取缓存的翻译结果
+     * 只查内存缓存，可在主线程调用
+     * @return 翻译结果，未命中返回 null
+     */
+    @Nullable
+    public String peek(String model, String originalText) {
+        if (originalText == null || originalText.isEmpty()) {
+            return null;
+        }
+        String translatedText = memoryCache.get(generateCacheKey(model, originalText));
+        if (translatedText != null) {
+            recordHit(originalText, translatedText);
+        }
+        return translatedText;
+    }
+
+    /**
+     * 获取缓存的翻译结果，内存未命中时查询数据库
      * @param originalText 原文
      * @return 翻译结果，未命中返回 null
      */
-    public String get(String originalText) {
+    @WorkerThread
+    @Nullable
+    public String get(String model, String originalText) {
         if (originalText == null || originalText.isEmpty()) {
             return null;
         }
-        String key = generateCacheKey(originalText);
-        return cache.get(key);
+        return getAll(model, Collections.singletonList(originalText)).get(originalText);
+    }
+
+    /**
+     * 批量获取缓存的翻译结果，数据库只查询一次（按 {@link #QUERY_CHUNK_SIZE} 分批）
+     * @param originalTexts 原文
+     * @return 原文 -> 译文，只包含命中的条目
+     */
+    @WorkerThread
+    @NonNull
+    public Map<String, String> getAll(String model, Collection<String> originalTexts) {
+        Map<String, String> translations = new HashMap<>();
+        // 缓存键 -> 原文
+        Map<String, String> missingTexts = new HashMap<>();
+        for (String originalText : originalTexts) {
+            if (originalText == null || originalText.isEmpty() || translations.containsKey(originalText)) {
+                continue;
+            }
+            String key = generateCacheKey(model, originalText);
+            String translatedText = memoryCache.get(key);
+            if (translatedText != null) {
+                translations.put(originalText, translatedText);
+            } else {
+                missingTexts.put(key, originalText);
+            }
+        }
+
+        if (!missingTexts.isEmpty()) {
+            CachedTranslationDao dao = redditDataRoomDatabase.cachedTranslationDao();
+            List<String> keys = new ArrayList<>(missingTexts.keySet());
+            List<String> foundKeys = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i += QUERY_CHUNK_SIZE) {
+                for (CachedTranslation cachedTranslation : dao.getCachedTranslations(
+                        keys.subList(i, Math.min(keys.size(), i + QUERY_CHUNK_SIZE)))) {
+                    String originalText = missingTexts.get(cachedTranslation.getCacheKey());
+                    if (originalText != null) {
+                        translations.put(originalText, cachedTranslation.getTranslatedText());
+                        memoryCache.put(cachedTranslation.getCacheKey(), cachedTranslation.getTranslatedText());
+                        foundKeys.add(cachedTranslation.getCacheKey());
+                    }
+                }
+            }
+            if (!foundKeys.isEmpty()) {
+                long now = System.currentTimeMillis();
+                dbExecutor.execute(() -> {
+                    for (int i = 0; i < foundKeys.size(); i += QUERY_CHUNK_SIZE) {
+                        dao.updateLastAccess(foundKeys.subList(i, Math.min(foundKeys.size(), i + QUERY_CHUNK_SIZE)), now);
+                    }
+                });
+            }
+        }
+
+        for (Map.Entry<String, String> entry : translations.entrySet()) {
+            recordHit(entry.getKey(), entry.getValue());
+        }
+        for (String originalText : missingTexts.values()) {
+            if (!translations.containsKey(originalText)) {
+                missCount.incrementAndGet();
+            }
+        }
+        return translations;
     }
 
     /**
@@ -43,24 +154,81 @@ public class TranslationCache {
      * @param originalText 原文
      * @param translatedText 翻译结果
      */
-    public void put(String originalText, String translatedText) {
-        if (originalText == null || originalText.isEmpty() ||
-            translatedText == null || translatedText.isEmpty()) {
+    public void put(String model, String originalText, String translatedText) {
+        putAll(model, Collections.singletonMap(originalText, translatedText));
+    }
+
+    /**
+     * 批量存入翻译结果，内存立即生效，数据库在 db 线程写入
+     * @param translations 原文 -> 译文
+     */
+    public void putAll(String model, Map<String, String> translations) {
+        long now = System.currentTimeMillis();
+        List<CachedTranslation> cachedTranslations = new ArrayList<>();
+        for (Map.Entry<String, String> entry : translations.entrySet()) {
+            String originalText = entry.getKey();
+            String translatedText = entry.getValue();
+            if (originalText == null || originalText.isEmpty() ||
+                translatedText == null || translatedText.isEmpty()) {
+                continue;
+            }
+            String key = generateCacheKey(model, originalText);
+            memoryCache.put(key, translatedText);
+            // 键和 UTF-16 文本，外加 last_access 和 size
+            cachedTranslations.add(new CachedTranslation(key, translatedText, key.length() + translatedText.length() * 2 + 12, now));
+        }
+        if (cachedTranslations.isEmpty()) {
             return;
         }
-        String key = generateCacheKey(originalText);
-        cache.put(key, translatedText);
+
+        dbExecutor.execute(() -> {
+            redditDataRoomDatabase.cachedTranslationDao().insert(cachedTranslations);
+            long addedSize = 0;
+            for (CachedTranslation cachedTranslation : cachedTranslations) {
+                addedSize += cachedTranslation.getSize();
+            }
+            // 替换已有的行时会高估大小，下次淘汰时重新统计
+            if (diskSize.get() < 0 || diskSize.addAndGet(addedSize) > MAX_DISK_BYTES) {
+                trim();
+            }
+        });
+    }
+
+    @WorkerThread
+    private void trim() {
+        CachedTranslationDao dao = redditDataRoomDatabase.cachedTranslationDao();
+        long size = dao.getTotalSize();
+        while (size > MAX_DISK_BYTES) {
+            List<CachedTranslation> leastRecentlyUsed = dao.getLeastRecentlyUsed(EVICT_BATCH_SIZE);
+            if (leastRecentlyUsed.isEmpty()) {
+                break;
+            }
+            List<String> keys = new ArrayList<>();
+            for (CachedTranslation cachedTranslation : leastRecentlyUsed) {
+                keys.add(cachedTranslation.getCacheKey());
+                size -= cachedTranslation.getSize();
+                if (size <= MAX_DISK_BYTES) {
+                    break;
+                }
+            }
+            dao.deleteCachedTranslations(keys);
+            for (String key : keys) {
+                memoryCache.remove(key);
+            }
+        }
+        diskSize.set(Math.max(size, 0));
     }
 
     /**
      * 生成缓存键（使用 MD5 哈希）
      * @param text 原文
-     * @return MD5 哈希值作为缓存键
+     * @return 模型、目标语言和原文的 MD5 哈希值作为缓存键
      */
-    private String generateCacheKey(String text) {
+    private String generateCacheKey(String model, String text) {
+        String source = model + '\n' + TARGET_LANGUAGE + '\n' + text;
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(text.getBytes());
+            byte[] digest = md.digest(source.getBytes(StandardCharsets.UTF_8));
             StringBuilder sb = new StringBuilder();
             for (byte b : digest) {
                 sb.append(String.format("%02x", b));
@@ -68,22 +236,62 @@ public class TranslationCache {
             return sb.toString();
         } catch (NoSuchAlgorithmException e) {
             // MD5 应该总是可用的，回退到 hashCode
-            return String.valueOf(text.hashCode());
+            return String.valueOf(source.hashCode());
         }
     }
 
+    private void recordHit(String originalText, String translatedText) {
+        hitCount.incrementAndGet();
+        savedChars.addAndGet(originalText.length() + translatedText.length());
+    }
+
     /**
-     * 清空缓存
+     * 清空缓存，包括数据库中的条目
      */
     public void clear() {
-        cache.evictAll();
+        memoryCache.evictAll();
+        dbExecutor.execute(() -> {
+            redditDataRoomDatabase.cachedTranslationDao().deleteAllCachedTranslations();
+            diskSize.set(0);
+        });
     }
 
     /**
-     * 获取当前缓存大小
-     * @return 缓存条目数
+     * 获取内存缓存的字符数
      */
     public int size() {
-        return cache.size();
+        return memoryCache.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 命中缓存而省下的 token 数（按字符数估算）
+     */
+    public long getEstimatedTokensSaved() {
+        return savedChars.get() / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * 数据库中缓存的大小（字节），尚未统计时返回 -1
+     */
+    public long getDiskSize() {
+        return diskSize.get();
+    }
+
+    public long getMaxDiskSize() {
+        return MAX_DISK_BYTES;
+    }
+
+    public void resetStats() {
+        hitCount.set(0);
+        missCount.set(0);
+        savedChars.set(0);
     }
 }
@@ -0,0 +1,128 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 增量解析批量翻译返回的 JSON：
+ * {"post_title":"译文","post_body":"译文","comments":{"id":"译文",...}}
+ * 文本可以分段传入，每当一个字段的值完整到达时立即回调，不必等待整个 JSON 结束。
+ * 第一个 { 之前的内容（如 markdown 代码块标记）会被忽略。
+ */
+class TranslationJsonStreamParser {
+
+    interface Listener {
+        void onPostField(String key, String value);
+        void onComment(String commentId, String value);
+    }
+
+    private final Listener listener;
+    // 尚未闭合的容器：'{' 或 '['，以及进入对象时对应的键
+    private final Deque<Character> containers = new ArrayDeque<>();
+    private final Deque<String> containerKeys = new ArrayDeque<>();
+    private final StringBuilder rawString = new StringBuilder();
+    private boolean started;
+    private boolean finished;
+    private boolean inString;
+    private boolean escaped;
+    private boolean expectingKey;
+    private String currentKey;
+
+    TranslationJsonStreamParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param delta 上次之后新增的文本
+     */
+    void feed(String delta) {
+        for (int i = 0; i < delta.length() && !finished; i++) {
+            process(delta.charAt(i));
+        }
+    }
+
+    private void process(char c) {
+        if (!started) {
+            if (c == '{') {
+                started = true;
+                containers.push('{');
+                containerKeys.push("");
+                expectingKey = true;
+            }
+            return;
+        }
+
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+                rawString.append(c);
+            } else if (c == '\\') {
+                escaped = true;
+                rawString.append(c);
+            } else if (c == '"') {
+                inString = false;
+                onString(decode(rawString.toString()));
+            } else {
+                rawString.append(c);
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"':
+                inString = true;
+                rawString.setLength(0);
+                break;
+            case ':':
+                expectingKey = false;
+                break;
+            case ',':
+                expectingKey = !containers.isEmpty() && containers.peek() == '{';
+                break;
+            case '{':
+            case '[':
+                containers.push(c);
+                containerKeys.push(currentKey != null ? currentKey : "");
+                expectingKey = c == '{';
+                break;
+            case '}':
+            case ']':
+                containers.pop();
+                containerKeys.pop();
+                if (containers.isEmpty()) {
+                    finished = true;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onString(String value) {
+        if (expectingKey) {
+            currentKey = value;
+            return;
+        }
+        if (value == null || containers.isEmpty() || containers.peek() != '{') {
+            return;
+        }
+        int depth = containers.size();
+        if (depth == 1 && ("post_title".equals(currentKey) || "post_body".equals(currentKey))) {
+            listener.onPostField(currentKey, value);
+        } else if (depth == 2 && "comments".equals(containerKeys.peek())) {
+            listener.onComment(currentKey, value);
+        }
+    }
+
+    private static String decode(String raw) {
+        try {
+            Object value = new JSONTokener("\"" + raw + "\"").nextValue();
+            return value instanceof String ? (String) value : null;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
@@ -1,32 +1,42 @@
 package ml.docilealligator.infinityforreddit.translation;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import retrofit2.Call;
 
 /**
- * 翻译请求的轻量句柄，持有 Call 引用并支持取消操作。
+ * 翻译请求的轻量句柄，持有进行中的 Call 引用并支持取消操作。
+ * 分块翻译时可同时持有多个 Call。
  */
 public class TranslationRequestHandle {
 
     private volatile boolean cancelled = false;
-    private volatile Call<?> activeCall;
+    private final Set<Call<?>> activeCalls = ConcurrentHashMap.newKeySet();
 
     /**
      * 绑定 Retrofit Call。若句柄已被取消，则立即取消该 Call。
      */
     public void attachCall(Call<?> call) {
-        this.activeCall = call;
+        activeCalls.add(call);
         if (cancelled) {
             call.cancel();
         }
     }
 
     /**
-     * 取消翻译请求。若已绑定 Call 则同时取消网络请求。
+     * 请求结束后解除绑定
+     */
+    public void detachCall(Call<?> call) {
+        activeCalls.remove(call);
+    }
+
+    /**
+     * 取消翻译请求。同时取消所有已绑定的网络请求。
      */
     public void cancel() {
         cancelled = true;
-        Call<?> call = activeCall;
-        if (call != null) {
+        for (Call<?> call : activeCalls) {
             call.cancel();
         }
     }
@@ -11,10 +11,23 @@ import ml.docilealligator.infinityforreddit.comment.Comment;
 public class TranslationResultHolder {
     private static BatchTranslationResult sResult;
     private static ArrayList<Comment> sComments;
+    private static TranslationRequestHandle sHandle;
 
     public static void set(BatchTranslationResult result, ArrayList<Comment> comments) {
+        set(result, comments, null);
+    }
+
+    /**
+     * @param handle 仍在翻译剩余分块的请求，clear 时取消
+     */
+    public static void set(BatchTranslationResult result, ArrayList<Comment> comments,
+                           TranslationRequestHandle handle) {
+        if (sHandle != null && sHandle != handle) {
+            sHandle.cancel();
+        }
         sResult = result;
         sComments = comments;
+        sHandle = handle;
     }
 
     public static BatchTranslationResult getResult() {
@@ -26,7 +39,14 @@ public class TranslationResultHolder {
     }
 
     public static void clear() {
+        if (sHandle != null) {
+            sHandle.cancel();
+        }
+        if (sResult != null) {
+            sResult.setOnUpdateListener(null);
+        }
         sResult = null;
         sComments = null;
+        sHandle = null;
     }
 }
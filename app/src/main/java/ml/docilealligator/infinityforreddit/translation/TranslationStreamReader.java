@@ -0,0 +1,121 @@
+package ml.docilealligator.infinityforreddit.translation;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * 读取流式（SSE）翻译响应
+ * 支持 ARK Responses API 的 response.output_text.delta 事件和 chat completions 的 choices[0].delta 格式。
+ * 服务端未返回 event-stream 时按普通 JSON 响应整体解析。
+ */
+class TranslationStreamReader {
+
+    interface TextListener {
+        /**
+         * 收到新文本。只传新增的部分，避免每个事件都复制一遍完整文本
+         * @param delta 上次回调之后新增的文本
+         */
+        void onText(String delta) throws IOException;
+    }
+
+    /**
+     * 逐行读取响应体直到结束
+     * @return 模型输出的完整文本，没有输出则返回 null
+     */
+    @WorkerThread
+    @Nullable
+    static String read(ResponseBody responseBody, TextListener listener) throws IOException {
+        MediaType contentType = responseBody.contentType();
+        if (contentType == null || !"event-stream".equals(contentType.subtype())) {
+            String text = extractOutputText(responseBody.string());
+            if (text != null) {
+                listener.onText(text);
+            }
+            return text;
+        }
+
+        StringBuilder text = new StringBuilder();
+        BufferedSource source = responseBody.source();
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith("data:")) {
+                // event: 行、注释和空行
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            try {
+                JSONObject event = new JSONObject(data);
+                String type = event.optString("type");
+                if (type.equals("error") || type.equals("response.failed")) {
+                    throw new IOException("翻译失败: " + data);
+                }
+                String delta = null;
+                if (type.equals("response.output_text.delta")) {
+                    delta = event.optString("delta");
+                } else if (type.equals("response.output_text.done") && text.length() == 0) {
+                    delta = event.optString("text");
+                } else if (event.has("choices")) {
+                    JSONArray choices = event.getJSONArray("choices");
+                    if (choices.length() > 0) {
+                        JSONObject deltaObject = choices.getJSONObject(0).optJSONObject("delta");
+                        if (deltaObject != null && !deltaObject.isNull("content")) {
+                            delta = deltaObject.optString("content");
+                        }
+                    }
+                }
+                if (delta != null && !delta.isEmpty()) {
+                    text.append(delta);
+                    listener.onText(delta);
+                }
+            } catch (JSONException ignored) {
+                // 忽略无法解析的事件
+            }
+        }
+        return text.length() == 0 ? null : text.toString();
+    }
+
+    /**
+     * 从非流式响应中取出模型输出文本
+     * ARK API 格式: output[0].content[0].text，备用格式: choices[0].message.content
+     */
+    @Nullable
+    static String extractOutputText(String responseBody) {
+        try {
+            JSONObject jsonResponse = new JSONObject(responseBody);
+            if (jsonResponse.has("output")) {
+                JSONArray output = jsonResponse.getJSONArray("output");
+                if (output.length() > 0) {
+                    JSONArray content = output.getJSONObject(0).optJSONArray("content");
+                    if (content != null && content.length() > 0 && content.getJSONObject(0).has("text")) {
+                        return content.getJSONObject(0).getString("text");
+                    }
+                }
+            }
+            if (jsonResponse.has("choices")) {
+                JSONArray choices = jsonResponse.getJSONArray("choices");
+                if (choices.length() > 0) {
+                    JSONObject message = choices.getJSONObject(0).optJSONObject("message");
+                    if (message != null && message.has("content")) {
+                        return message.getString("content");
+                    }
+                }
+            }
+            return null;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+}
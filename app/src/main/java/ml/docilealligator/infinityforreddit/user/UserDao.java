@@ -6,6 +6,8 @@ import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
+import java.util.List;
+
 @Dao
 public interface UserDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
@@ -22,4 +24,7 @@ public interface UserDao {
 
     @Query("SELECT * FROM users WHERE name = :userName COLLATE NOCASE LIMIT 1")
     UserData getUserData(String userName);
+
+    @Query("SELECT * FROM users WHERE name COLLATE NOCASE IN (:userNames)")
+    List<UserData> getUserDataByNames(List<String> userNames);
 }
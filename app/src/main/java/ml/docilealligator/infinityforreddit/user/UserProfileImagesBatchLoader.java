@@ -1,50 +1,67 @@
 package ml.docilealligator.infinityforreddit.user;
 
 import android.os.Handler;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import ml.docilealligator.infinityforreddit.RedditDataRoomDatabase;
 import ml.docilealligator.infinityforreddit.apis.RedditAPI;
 import ml.docilealligator.infinityforreddit.comment.Comment;
 import ml.docilealligator.infinityforreddit.utils.JSONUtils;
 import ml.docilealligator.infinityforreddit.viewmodels.ViewPostDetailActivityViewModel;
+import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 
+/**
+ * Loads comment authors' profile images, up to {@link #BATCH_SIZE} authors per request.
+ *
+ * Each author is resolved at most once at a time: listeners asking for an author that is already
+ * queued or being fetched wait for that fetch. Authors are drained by a single task on the
+ * executor, which looks them up in Room in one query and fetches the rest from
+ * /api/user_data_by_account_ids. Listeners are called on the handler's thread.
+ */
 public class UserProfileImagesBatchLoader {
     public static final int BATCH_SIZE = 100;
+    private static final int MAX_CACHED_IMAGES = 2048;
+    // LruCache does not accept null values. Marks authors without an image.
+    private static final String NO_IMAGE = "";
 
     private final Executor mExecutor;
     private final Handler mHandler;
     private final RedditDataRoomDatabase mRedditDataRoomDatabase;
     private final Retrofit mRetrofit;
-    private final Map<String, String> mAuthorFullNameToImageMap;
-    private final Queue<Comment> mCommentQueue;
-    private final Map<String, ViewPostDetailActivityViewModel.LoadIconListener> mAuthorFullNameToListenerMap;
-    private final List<Comment> mCallingComments;
-    private final Set<String> mLoadingAuthorFullNames;
-    private final Object mImageMapLock = new Object();
-    private final Object mCommentQueueLock = new Object();
-    private final Object mListenerMapLock = new Object();
-    private final Object mCallingCommentsLock = new Object();
-    private final Object mLoadingSetLock = new Object();
-    private boolean mIsLoadingBatch = false;
+    // Author fullname -> image url.
+    private final LruCache<String, String> mAuthorFullNameToImageCache = new LruCache<>(MAX_CACHED_IMAGES);
+    // Author fullname -> listeners waiting for it. Lists are only touched inside compute() and
+    // belong to whoever removes them.
+    private final ConcurrentHashMap<String, List<ViewPostDetailActivityViewModel.LoadIconListener>> mPendingListeners = new ConcurrentHashMap<>();
+    private final Queue<Comment> mAuthorQueue = new ConcurrentLinkedQueue<>();
+    // Author fullnames queued or being fetched.
+    private final Set<String> mQueuedAuthorFullNames = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean mIsLoadingBatch = new AtomicBoolean();
+    private final AtomicBoolean mDestroyed = new AtomicBoolean();
+    private final AtomicReference<Call<String>> mRunningCall = new AtomicReference<>();
 
     public UserProfileImagesBatchLoader(Executor executor, Handler handler, RedditDataRoomDatabase redditDataRoomDatabase,
                                            Retrofit retrofit) {
@@ -52,205 +69,167 @@ public class UserProfileImagesBatchLoader {
         mHandler = handler;
         mRedditDataRoomDatabase = redditDataRoomDatabase;
         mRetrofit = retrofit;
-        mAuthorFullNameToImageMap = new HashMap<>();
-        mCommentQueue = new LinkedList<>();
-        mAuthorFullNameToListenerMap = new HashMap<>();
-        mCallingComments = new LinkedList<>();
-        mLoadingAuthorFullNames = new HashSet<>();
     }
 
+    /**
+     * Loads the image of the first comment's author for {@code loadIconListener}. The other
+     * comments' authors are queued too, since they are about to be shown.
+     */
     public void loadAuthorImages(List<Comment> comments, @NonNull ViewPostDetailActivityViewModel.LoadIconListener loadIconListener) {
-        String authorFullName = comments.get(0).getAuthorFullName();
-        synchronized (mImageMapLock) {
-            if (mAuthorFullNameToImageMap.containsKey(authorFullName)) {
-                loadIconListener.loadIconSuccess(authorFullName, mAuthorFullNameToImageMap.get(authorFullName));
-                return;
-            }
+        if (mDestroyed.get() || comments.isEmpty()) {
+            return;
         }
 
-        synchronized (mListenerMapLock) {
-            mAuthorFullNameToListenerMap.put(authorFullName, loadIconListener);
+        String authorFullName = comments.get(0).getAuthorFullName();
+        if (authorFullName == null) {
+            return;
         }
-
-        synchronized (mCommentQueueLock) {
-            mCommentQueue.addAll(comments);
+        String cachedImage = mAuthorFullNameToImageCache.get(authorFullName);
+        if (cachedImage != null) {
+            loadIconListener.loadIconSuccess(authorFullName, fromCache(cachedImage));
+            return;
         }
 
-        synchronized (mCallingCommentsLock) {
-            mCallingComments.add(comments.get(0));
+        mPendingListeners.compute(authorFullName, (key, listeners) -> {
+            if (listeners == null) {
+                listeners = new ArrayList<>();
+            }
+            listeners.add(loadIconListener);
+            return listeners;
+        });
+
+        for (Comment comment : comments) {
+            String fullName = comment.getAuthorFullName();
+            if (fullName != null && mAuthorFullNameToImageCache.get(fullName) == null
+                    && mQueuedAuthorFullNames.add(fullName)) {
+                mAuthorQueue.add(comment);
+            }
         }
 
-        if (!mIsLoadingBatch) {
-            loadNextBatch();
+        String resolvedImage = mAuthorFullNameToImageCache.get(authorFullName);
+        if (resolvedImage != null) {
+            // Resolved between the first lookup and registering the listener.
+            notifyListeners(authorFullName, fromCache(resolvedImage));
         }
+        scheduleBatch();
     }
 
-    private void loadNextBatch() {
-        synchronized (mCommentQueueLock) {
-            if (mCommentQueue.isEmpty()) {
-                return;
-            }
+    /**
+     * Drops every queued author and waiting listener, and cancels the running request. Listeners
+     * are never called after this.
+     */
+    public void destroy() {
+        mDestroyed.set(true);
+        mAuthorQueue.clear();
+        mQueuedAuthorFullNames.clear();
+        mPendingListeners.clear();
+        Call<String> call = mRunningCall.getAndSet(null);
+        if (call != null) {
+            call.cancel();
         }
+    }
 
-        mIsLoadingBatch = true;
-
-        mExecutor.execute(() -> {
-            synchronized (mCallingCommentsLock) {
-                Iterator<Comment> iterator = mCallingComments.iterator();
-                while (iterator.hasNext()) {
-                    Comment c = iterator.next();
-                    String authorFullName = c.getAuthorFullName();
-                    ViewPostDetailActivityViewModel.LoadIconListener loadIconListener;
-                    synchronized (mListenerMapLock) {
-                        loadIconListener = mAuthorFullNameToListenerMap.get(authorFullName);
-                    }
-
-                    if (loadIconListener != null) {
-                        synchronized (mImageMapLock) {
-                            if (mAuthorFullNameToImageMap.containsKey(authorFullName)) {
-                                String url = mAuthorFullNameToImageMap.get(authorFullName);
-                                mHandler.post(() -> loadIconListener.loadIconSuccess(authorFullName, url));
-                                iterator.remove();
-                                continue;
-                            }
-                        }
+    private void scheduleBatch() {
+        if (!mAuthorQueue.isEmpty() && !mDestroyed.get() && mIsLoadingBatch.compareAndSet(false, true)) {
+            mExecutor.execute(this::loadBatches);
+        }
+    }
 
-                        UserData userData = mRedditDataRoomDatabase.userDao().getUserData(c.getAuthor());
-                        if (userData != null) {
-                            String iconImageUrl = userData.getIconUrl();
-                            synchronized (mImageMapLock) {
-                                mAuthorFullNameToImageMap.put(authorFullName, iconImageUrl);
-                            }
-                            mHandler.post(() -> loadIconListener.loadIconSuccess(authorFullName, iconImageUrl));
-                            synchronized (mListenerMapLock) {
-                                mAuthorFullNameToListenerMap.remove(authorFullName);
-                            }
-                            iterator.remove();
-                        }
-                    } else {
-                        iterator.remove();
-                    }
+    @WorkerThread
+    private void loadBatches() {
+        while (!mDestroyed.get()) {
+            // lowercase name -> fullname, so Room rows can be matched back to authors.
+            Map<String, String> batch = new HashMap<>();
+            Comment comment;
+            while (batch.size() < BATCH_SIZE && (comment = mAuthorQueue.poll()) != null) {
+                String cachedImage = mAuthorFullNameToImageCache.get(comment.getAuthorFullName());
+                if (cachedImage != null) {
+                    deliver(comment.getAuthorFullName(), fromCache(cachedImage));
+                } else {
+                    batch.put(comment.getAuthor().toLowerCase(Locale.ROOT), comment.getAuthorFullName());
                 }
             }
-
-            StringBuilder stringBuilder = new StringBuilder();
-
-            synchronized (mCommentQueueLock) {
-                for (int i = 0; i < BATCH_SIZE && !mCommentQueue.isEmpty(); i++) {
-                    Comment comment = mCommentQueue.poll();
-                    if (comment == null) {
-                        continue;
-                    }
-
-                    String authorFullName = comment.getAuthorFullName();
-                    boolean alreadyCached;
-                    synchronized (mImageMapLock) {
-                        alreadyCached = mAuthorFullNameToImageMap.containsKey(authorFullName);
-                    }
-                    if (!alreadyCached) {
-                        stringBuilder.append(authorFullName).append(",");
-                        synchronized (mLoadingSetLock) {
-                            mLoadingAuthorFullNames.add(authorFullName);
-                        }
-                    } else if (i == 0) {
-                        ViewPostDetailActivityViewModel.LoadIconListener loadIconListener;
-                        synchronized (mListenerMapLock) {
-                            loadIconListener = mAuthorFullNameToListenerMap.get(authorFullName);
-                        }
-                        if (loadIconListener != null) {
-                            String url;
-                            synchronized (mImageMapLock) {
-                                url = mAuthorFullNameToImageMap.get(authorFullName);
-                            }
-                            mHandler.post(() -> {
-                                loadIconListener.loadIconSuccess(authorFullName, url);
-                            });
-                            synchronized (mListenerMapLock) {
-                                mAuthorFullNameToListenerMap.remove(authorFullName);
-                            }
-                        }
-                        for (int j = 0; j < BATCH_SIZE - 1 && !mCommentQueue.isEmpty(); j++) {
-                            mCommentQueue.poll();
-                        }
-                        break;
-                    }
-                }
+            if (batch.isEmpty()) {
+                break;
             }
+            loadBatch(batch);
+        }
 
-            if (stringBuilder.length() > 0) {
-                stringBuilder.deleteCharAt(stringBuilder.length() - 1);
-                try {
-                    Response<String> response = mRetrofit.create(RedditAPI.class).loadPartialUserData(stringBuilder.toString()).execute();
-                    if (response.isSuccessful()) {
-                        parseUserProfileImages(response.body());
-                        callListenerAndLoadNextBatch(true);
-                    } else {
-                        callListenerAndLoadNextBatch(false);
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    callListenerAndLoadNextBatch(false);
-                }
-            } else {
-                mIsLoadingBatch = false;
-                loadNextBatch();
-            }
-        });
+        mIsLoadingBatch.set(false);
+        // Authors queued after the last poll but before the flag was cleared.
+        scheduleBatch();
     }
 
     @WorkerThread
-    private void parseUserProfileImages(String response) {
+    private void loadBatch(Map<String, String> batch) {
+        for (UserData userData : mRedditDataRoomDatabase.userDao().getUserDataByNames(new ArrayList<>(batch.keySet()))) {
+            String authorFullName = batch.remove(userData.getName().toLowerCase(Locale.ROOT));
+            if (authorFullName != null) {
+                deliver(authorFullName, userData.getIconUrl());
+            }
+        }
+        if (batch.isEmpty() || mDestroyed.get()) {
+            return;
+        }
+
+        Call<String> call = mRetrofit.create(RedditAPI.class).loadPartialUserData(String.join(",", batch.values()));
+        mRunningCall.set(call);
+        if (mDestroyed.get()) {
+            call.cancel();
+        }
+        JSONObject jsonResponse = null;
         try {
-            JSONObject jsonResponse = new JSONObject(response);
-            synchronized (mLoadingSetLock) {
-                for (String s : mLoadingAuthorFullNames) {
-                    try {
-                        String imageUrl = jsonResponse.getJSONObject(s).getString(JSONUtils.PROFILE_IMG_KEY).replaceAll("&amp;","&");
-                        synchronized (mImageMapLock) {
-                            mAuthorFullNameToImageMap.put(s, imageUrl);
-                        }
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                }
+            Response<String> response = call.execute();
+            if (response.isSuccessful() && response.body() != null) {
+                jsonResponse = new JSONObject(response.body());
             }
-        } catch (JSONException e) {
+        } catch (IOException | JSONException e) {
             e.printStackTrace();
+        } finally {
+            mRunningCall.compareAndSet(call, null);
         }
-    }
 
-    private void callListenerAndLoadNextBatch(boolean loadSuccessful) {
-        synchronized (mLoadingSetLock) {
-            for (String s : mLoadingAuthorFullNames) {
-                ViewPostDetailActivityViewModel.LoadIconListener loadIconListener;
-                synchronized (mListenerMapLock) {
-                    loadIconListener = mAuthorFullNameToListenerMap.get(s);
-                }
-                if (loadIconListener != null) {
-                    String imageUrl;
-                    synchronized (mImageMapLock) {
-                        imageUrl = mAuthorFullNameToImageMap.get(s);
-                    }
-                    mHandler.post(() -> {
-                        loadIconListener.loadIconSuccess(s, imageUrl);
-                    });
-                    synchronized (mListenerMapLock) {
-                        mAuthorFullNameToListenerMap.remove(s);
-                    }
-                }
-                if (!loadSuccessful) {
-                    synchronized (mImageMapLock) {
-                        if (!mAuthorFullNameToImageMap.containsKey(s)) {
-                            mAuthorFullNameToImageMap.put(s, null);
-                        }
-                    }
+        for (String authorFullName : batch.values()) {
+            String imageUrl = null;
+            if (jsonResponse != null) {
+                JSONObject user = jsonResponse.optJSONObject(authorFullName);
+                if (user != null && !user.isNull(JSONUtils.PROFILE_IMG_KEY)) {
+                    imageUrl = user.optString(JSONUtils.PROFILE_IMG_KEY).replaceAll("&amp;", "&");
                 }
             }
+            if (imageUrl != null || jsonResponse == null) {
+                // Failed requests are not retried for the rest of the session, like before.
+                deliver(authorFullName, imageUrl);
+            } else {
+                // Missing from a successful response, so it may be found next time.
+                notifyListeners(authorFullName, null);
+            }
+        }
+    }
+
+    private void deliver(String authorFullName, @Nullable String imageUrl) {
+        mAuthorFullNameToImageCache.put(authorFullName, imageUrl == null ? NO_IMAGE : imageUrl);
+        notifyListeners(authorFullName, imageUrl);
+    }
 
-            mLoadingAuthorFullNames.clear();
+    private void notifyListeners(String authorFullName, @Nullable String imageUrl) {
+        mQueuedAuthorFullNames.remove(authorFullName);
+        List<ViewPostDetailActivityViewModel.LoadIconListener> listeners = mPendingListeners.remove(authorFullName);
+        if (listeners == null) {
+            return;
         }
+        mHandler.post(() -> {
+            if (mDestroyed.get()) {
+                return;
+            }
+            for (ViewPostDetailActivityViewModel.LoadIconListener listener : listeners) {
+                listener.loadIconSuccess(authorFullName, imageUrl);
+            }
+        });
+    }
 
-        mIsLoadingBatch = false;
-        loadNextBatch();
+    @Nullable
+    private static String fromCache(String cachedImage) {
+        return NO_IMAGE.equals(cachedImage) ? null : cachedImage;
     }
 }
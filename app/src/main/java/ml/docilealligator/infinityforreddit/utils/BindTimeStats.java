@@ -0,0 +1,60 @@
+package ml.docilealligator.infinityforreddit.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide counters of the time onBindViewHolder takes per item, and of how many items were bound
+ * with a {@link ml.docilealligator.infinityforreddit.thing.DisplayModel} computed in the background.
+ */
+public class BindTimeStats {
+    public static final BindTimeStats POSTS = new BindTimeStats("Posts");
+    public static final BindTimeStats COMMENTS = new BindTimeStats("Comments");
+
+    private final String name;
+    private final AtomicLong binds = new AtomicLong();
+    private final AtomicLong precomputedBinds = new AtomicLong();
+    private final AtomicLong totalBindTimeNanos = new AtomicLong();
+    private final AtomicLong maxBindTimeNanos = new AtomicLong();
+
+    private BindTimeStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void onBind(long durationNanos) {
+        binds.incrementAndGet();
+        totalBindTimeNanos.addAndGet(durationNanos);
+        if (durationNanos > maxBindTimeNanos.get()) {
+            maxBindTimeNanos.set(durationNanos);
+        }
+    }
+
+    /**
+     * Called when an item is bound with a display model that was ready before it was bound.
+     */
+    public void onPrecomputedBind() {
+        precomputedBinds.incrementAndGet();
+    }
+
+    public void reset() {
+        binds.set(0);
+        precomputedBinds.set(0);
+        totalBindTimeNanos.set(0);
+        maxBindTimeNanos.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        long bindCount = binds.get();
+        return "Items bound: " + bindCount
+                + "\nWith precomputed display data: " + precomputedBinds.get()
+                + "\nAverage bind time: " + (bindCount == 0 ? 0 : totalBindTimeNanos.get() / bindCount / 1000) / 1000f + " ms"
+                + "\nLongest bind: " + maxBindTimeNanos.get() / 1000 / 1000f + " ms";
+    }
+}
@@ -0,0 +1,128 @@
+package ml.docilealligator.infinityforreddit.utils;
+
+import android.view.Choreographer;
+import android.view.Display;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide counters of the frames drawn while a list is being scrolled.
+ *
+ * A frame is slow when the time since the previous vsync is more than 1.5 times the display's refresh
+ * period, i.e. at least one vsync was missed. Frozen frames use Android vitals' threshold of 700 ms.
+ */
+public class FrameTimeStats {
+    public static final FrameTimeStats COMMENTS = new FrameTimeStats("Comments");
+
+    // Used when the RecyclerView is not attached to a display.
+    private static final float DEFAULT_REFRESH_RATE = 60;
+    private static final float SLOW_FRAME_PERIODS = 1.5f;
+    private static final long FROZEN_FRAME_NANOS = 700_000_000;
+
+    private final String name;
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong slowFrames = new AtomicLong();
+    private final AtomicLong frozenFrames = new AtomicLong();
+    private final AtomicLong totalFrameTimeNanos = new AtomicLong();
+    private final AtomicLong maxFrameTimeNanos = new AtomicLong();
+
+    private FrameTimeStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a listener that records frames while the RecyclerView it is added to is scrolling
+     */
+    public RecyclerView.OnScrollListener createScrollListener() {
+        return new ScrollListener();
+    }
+
+    private void onFrame(long frameTimeNanos, long slowFrameNanos) {
+        frames.incrementAndGet();
+        totalFrameTimeNanos.addAndGet(frameTimeNanos);
+        if (frameTimeNanos > maxFrameTimeNanos.get()) {
+            maxFrameTimeNanos.set(frameTimeNanos);
+        }
+        if (frameTimeNanos > FROZEN_FRAME_NANOS) {
+            frozenFrames.incrementAndGet();
+        } else if (frameTimeNanos > slowFrameNanos) {
+            slowFrames.incrementAndGet();
+        }
+    }
+
+    public long getFrames() {
+        return frames.get();
+    }
+
+    public long getSlowFrames() {
+        return slowFrames.get();
+    }
+
+    public long getFrozenFrames() {
+        return frozenFrames.get();
+    }
+
+    public void reset() {
+        frames.set(0);
+        slowFrames.set(0);
+        frozenFrames.set(0);
+        totalFrameTimeNanos.set(0);
+        maxFrameTimeNanos.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        long frameCount = frames.get();
+        long slowPercent = frameCount == 0 ? 0 : (slowFrames.get() + frozenFrames.get()) * 100 / frameCount;
+        return "Frames while scrolling: " + frameCount
+                + "\nSlow frames: " + slowFrames.get() + " (" + slowPercent + "% with frozen)"
+                + "\nFrozen frames: " + frozenFrames.get()
+                + "\nAverage frame time: " + (frameCount == 0 ? 0 : totalFrameTimeNanos.get() / frameCount / 1000) / 1000f + " ms"
+                + "\nLongest frame: " + maxFrameTimeNanos.get() / 1_000_000 + " ms";
+    }
+
+    /**
+     * Measures the time between consecutive vsync callbacks, which grows when the main thread misses frames.
+     */
+    private class ScrollListener extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+        private boolean scrolling;
+        private long lastFrameTimeNanos;
+        private long slowFrameNanos;
+
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            boolean wasScrolling = scrolling;
+            scrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+            if (scrolling && !wasScrolling) {
+                lastFrameTimeNanos = 0;
+                // Read on every scroll, the refresh rate can change between them.
+                Display display = recyclerView.getDisplay();
+                float refreshRate = display == null ? DEFAULT_REFRESH_RATE : display.getRefreshRate();
+                slowFrameNanos = (long) (SLOW_FRAME_PERIODS * 1_000_000_000L / refreshRate);
+                Choreographer.getInstance().postFrameCallback(this);
+            } else if (!scrolling && wasScrolling) {
+                Choreographer.getInstance().removeFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!scrolling) {
+                return;
+            }
+            if (lastFrameTimeNanos != 0) {
+                onFrame(frameTimeNanos - lastFrameTimeNanos, slowFrameNanos);
+            }
+            lastFrameTimeNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ml.docilealligator.infinityforreddit.utils;
+
+import com.bumptech.glide.request.RequestOptions;
+
+import jp.wasabeef.glide.transformations.BlurTransformation;
+import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
+
+/**
+ * Glide options shared by the post and comment lists, so binding a row does not allocate a new
+ * transformation and {@link RequestOptions} for every image.
+ *
+ * The options are locked, {@code apply()} copies them into the request.
+ */
+public final class GlideTransformations {
+    public static final RequestOptions ROUNDED_ICON = RequestOptions.bitmapTransform(new RoundedCornersTransformation(72, 0)).lock();
+    public static final RequestOptions BLUR = RequestOptions.bitmapTransform(new BlurTransformation(50, 10)).lock();
+    public static final BlurTransformation BLUR_THUMBNAIL = new BlurTransformation(50, 2);
+
+    private GlideTransformations() {}
+}
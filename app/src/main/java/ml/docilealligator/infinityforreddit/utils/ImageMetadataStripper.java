@@ -0,0 +1,406 @@
+package ml.docilealligator.infinityforreddit.utils;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Removes the metadata of JPEG and PNG images while they are streamed, so uploads do not leak the
+ * location, camera and other EXIF or XMP data of the original file.
+ *
+ * JPEG APP1 (EXIF, XMP), APP13 (IPTC) and comment segments are dropped. The EXIF orientation is
+ * kept in a minimal EXIF segment, since viewers rotate the image by it. PNG eXIf and text chunks
+ * are dropped. Everything else, including the color profile, is copied unchanged, and input that
+ * is neither JPEG nor PNG is copied as it is.
+ */
+public final class ImageMetadataStripper {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int JPEG_MARKER_START = 0xFF;
+    private static final int JPEG_SOI = 0xD8;
+    private static final int JPEG_EOI = 0xD9;
+    private static final int JPEG_SOS = 0xDA;
+    private static final int JPEG_APP1 = 0xE1;
+    private static final int JPEG_APP13 = 0xED;
+    private static final int JPEG_COM = 0xFE;
+    private static final byte[] EXIF_IDENTIFIER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final int EXIF_TAG_ORIENTATION = 0x0112;
+    private static final int EXIF_TYPE_SHORT = 3;
+    // Marker, length, identifier, TIFF header, entry count, one entry and the next IFD offset.
+    private static final int ORIENTATION_SEGMENT_SIZE = 2 + 2 + 6 + 8 + 2 + 12 + 4;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final String[] PNG_METADATA_CHUNKS = {"eXIf", "tEXt", "zTXt", "iTXt"};
+    private static final String PNG_IEND = "IEND";
+
+    private ImageMetadataStripper() {}
+
+    /**
+     * Copies the image from {@code in} to {@code out} without its metadata.
+     */
+    public static void strip(InputStream in, OutputStream out) throws IOException {
+        walk(new BufferedInputStream(in, BUFFER_SIZE), out);
+    }
+
+    /**
+     * @param length the size of the original image, or -1 if it is not known
+     * @return the size {@link #strip} writes for this image, or -1 if {@code length} is -1
+     */
+    public static long getStrippedLength(InputStream in, long length) throws IOException {
+        if (length < 0) {
+            return -1;
+        }
+        return length - walk(new BufferedInputStream(in, BUFFER_SIZE), null);
+    }
+
+    /**
+     * Copies the image to {@code out}, or only reads as far as needed to find all metadata if it is
+     * null.
+     *
+     * @return how many bytes fewer the copy has than the original
+     */
+    private static long walk(InputStream in, @Nullable OutputStream out) throws IOException {
+        byte[] signature = new byte[PNG_SIGNATURE.length];
+        int signatureLength = readUpTo(in, signature, signature.length);
+        if (signatureLength >= 2 && (signature[0] & 0xFF) == JPEG_MARKER_START && (signature[1] & 0xFF) == JPEG_SOI) {
+            if (out != null) {
+                out.write(signature, 0, 2);
+            }
+            return walkJpeg(new PrefixedInputStream(signature, 2, signatureLength, in), out);
+        }
+        if (out != null) {
+            out.write(signature, 0, signatureLength);
+        }
+        if (signatureLength == PNG_SIGNATURE.length && startsWith(signature, PNG_SIGNATURE)) {
+            return walkPng(in, out);
+        }
+        copyRest(in, out);
+        return 0;
+    }
+
+    private static long walkJpeg(InputStream in, @Nullable OutputStream out) throws IOException {
+        long removed = 0;
+        boolean orientationWritten = false;
+        while (true) {
+            int markerStart = in.read();
+            if (markerStart != JPEG_MARKER_START) {
+                // Not a marker where one should be. Leave the rest as it is.
+                if (markerStart != -1 && out != null) {
+                    out.write(markerStart);
+                }
+                copyRest(in, out);
+                return removed;
+            }
+            int marker = in.read();
+            while (marker == JPEG_MARKER_START) {
+                // Fill bytes before the marker.
+                if (out != null) {
+                    out.write(JPEG_MARKER_START);
+                }
+                marker = in.read();
+            }
+            if (marker == -1) {
+                if (out != null) {
+                    out.write(markerStart);
+                }
+                return removed;
+            }
+            if (marker == JPEG_SOI || marker == JPEG_EOI || (marker >= 0xD0 && marker <= 0xD7) || marker == 0x01) {
+                // Markers without a segment.
+                if (out != null) {
+                    out.write(markerStart);
+                    out.write(marker);
+                }
+                continue;
+            }
+
+            int lengthHigh = in.read();
+            int lengthLow = in.read();
+            if (lengthLow == -1) {
+                if (out != null) {
+                    out.write(markerStart);
+                    out.write(marker);
+                    if (lengthHigh != -1) {
+                        out.write(lengthHigh);
+                    }
+                }
+                return removed;
+            }
+            int segmentLength = (lengthHigh << 8) | lengthLow;
+            int dataLength = Math.max(0, segmentLength - 2);
+
+            if (marker == JPEG_APP1 || marker == JPEG_APP13 || marker == JPEG_COM) {
+                byte[] data = new byte[dataLength];
+                int read = readUpTo(in, data, dataLength);
+                removed += 4 + read;
+                if (read < dataLength) {
+                    return removed;
+                }
+                int orientation = marker == JPEG_APP1 ? readExifOrientation(data) : 0;
+                if (orientation > 1 && !orientationWritten) {
+                    orientationWritten = true;
+                    removed -= ORIENTATION_SEGMENT_SIZE;
+                    if (out != null) {
+                        writeOrientationSegment(out, orientation);
+                    }
+                }
+                continue;
+            }
+
+            if (out != null) {
+                out.write(markerStart);
+                out.write(marker);
+                out.write(lengthHigh);
+                out.write(lengthLow);
+            }
+            if (!transfer(in, out, dataLength)) {
+                return removed;
+            }
+            if (marker == JPEG_SOS) {
+                // Only entropy coded data and restart markers follow, metadata comes before it.
+                copyRest(in, out);
+                return removed;
+            }
+        }
+    }
+
+    private static long walkPng(InputStream in, @Nullable OutputStream out) throws IOException {
+        long removed = 0;
+        byte[] header = new byte[8];
+        while (true) {
+            int headerLength = readUpTo(in, header, header.length);
+            if (headerLength < header.length) {
+                if (out != null) {
+                    out.write(header, 0, headerLength);
+                }
+                return removed;
+            }
+            long dataLength = ((header[0] & 0xFFL) << 24) | ((header[1] & 0xFF) << 16)
+                    | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+            String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            // Data and CRC.
+            long chunkRest = dataLength + 4;
+            if (isPngMetadataChunk(type)) {
+                long skipped = skip(in, chunkRest);
+                removed += header.length + skipped;
+                if (skipped < chunkRest) {
+                    return removed;
+                }
+                continue;
+            }
+            if (out != null) {
+                out.write(header);
+            }
+            if (!transfer(in, out, chunkRest)) {
+                return removed;
+            }
+            if (PNG_IEND.equals(type)) {
+                copyRest(in, out);
+                return removed;
+            }
+        }
+    }
+
+    private static boolean isPngMetadataChunk(String type) {
+        for (String metadataChunk : PNG_METADATA_CHUNKS) {
+            if (metadataChunk.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the orientation in an APP1 segment, or 0 if it is not EXIF or has none
+     */
+    static int readExifOrientation(byte[] data) {
+        int tiff = EXIF_IDENTIFIER.length;
+        if (data.length < tiff + 8 || !startsWith(data, EXIF_IDENTIFIER)) {
+            return 0;
+        }
+        boolean bigEndian;
+        if (data[tiff] == 'M' && data[tiff + 1] == 'M') {
+            bigEndian = true;
+        } else if (data[tiff] == 'I' && data[tiff + 1] == 'I') {
+            bigEndian = false;
+        } else {
+            return 0;
+        }
+        long ifdOffset = readInt(data, tiff + 4, bigEndian);
+        if (ifdOffset < 8 || tiff + ifdOffset + 2 > data.length) {
+            return 0;
+        }
+        int ifd = (int) (tiff + ifdOffset);
+        int entryCount = readShort(data, ifd, bigEndian);
+        for (int i = 0; i < entryCount; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                return 0;
+            }
+            if (readShort(data, entry, bigEndian) == EXIF_TAG_ORIENTATION) {
+                if (readShort(data, entry + 2, bigEndian) != EXIF_TYPE_SHORT) {
+                    return 0;
+                }
+                int orientation = readShort(data, entry + 8, bigEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+
+    private static void writeOrientationSegment(OutputStream out, int orientation) throws IOException {
+        int segmentLength = ORIENTATION_SEGMENT_SIZE - 2;
+        out.write(new byte[]{
+                (byte) JPEG_MARKER_START, (byte) JPEG_APP1, (byte) (segmentLength >> 8), (byte) segmentLength,
+                'E', 'x', 'i', 'f', 0, 0,
+                // Big endian TIFF header, IFD0 right after it.
+                'M', 'M', 0, 0x2A, 0, 0, 0, 8,
+                // One entry: orientation, SHORT, count 1, value.
+                0, 1,
+                (byte) (EXIF_TAG_ORIENTATION >> 8), (byte) EXIF_TAG_ORIENTATION, 0, EXIF_TYPE_SHORT, 0, 0, 0, 1,
+                0, (byte) orientation, 0, 0,
+                // No next IFD.
+                0, 0, 0, 0});
+    }
+
+    private static int readShort(byte[] data, int offset, boolean bigEndian) {
+        if (bigEndian) {
+            return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+        }
+        return ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+    }
+
+    private static long readInt(byte[] data, int offset, boolean bigEndian) {
+        if (bigEndian) {
+            return ((long) readShort(data, offset, true) << 16) | readShort(data, offset + 2, true);
+        }
+        return ((long) readShort(data, offset + 2, false) << 16) | readShort(data, offset, false);
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readUpTo(InputStream in, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = in.read(buffer, total, length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * @return how many bytes were skipped, less than {@code length} only at the end of the stream
+     */
+    private static long skip(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    break;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+        return length - remaining;
+    }
+
+    /**
+     * Copies {@code length} bytes to {@code out}, or skips them if it is null.
+     *
+     * @return false if the stream ended first, in which case everything up to its end is copied
+     */
+    private static boolean transfer(InputStream in, @Nullable OutputStream out, long length) throws IOException {
+        if (out == null) {
+            return skip(in, length) == length;
+        }
+        byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(length, 1))];
+        while (length > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, length));
+            if (read == -1) {
+                return false;
+            }
+            out.write(buffer, 0, read);
+            length -= read;
+        }
+        return true;
+    }
+
+    private static void copyRest(InputStream in, @Nullable OutputStream out) throws IOException {
+        if (out == null) {
+            return;
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * Reads the rest of an already read signature before the stream it came from.
+     */
+    private static class PrefixedInputStream extends InputStream {
+        private final byte[] prefix;
+        private int position;
+        private final int end;
+        private final InputStream in;
+
+        PrefixedInputStream(byte[] prefix, int start, int end, InputStream in) {
+            this.prefix = prefix;
+            this.position = start;
+            this.end = end;
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < end) {
+                return prefix[position++] & 0xFF;
+            }
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position < end) {
+                int count = Math.min(len, end - position);
+                System.arraycopy(prefix, position, b, off, count);
+                position += count;
+                return count;
+            }
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (position < end) {
+                int count = (int) Math.min(n, end - position);
+                position += count;
+                return count;
+            }
+            return in.skip(n);
+        }
+    }
+}
@@ -448,6 +448,29 @@ public class SharedPreferencesUtils {
     public static final String PROXY_HOSTNAME = "proxy_hostname";
     public static final String PROXY_PORT = "proxy_port";
 
+    public static final String CONNECTION_POOL_MAX_IDLE_CONNECTIONS = "connection_pool_max_idle_connections";
+    public static final String CONNECTION_POOL_KEEP_ALIVE_SECONDS = "connection_pool_keep_alive_seconds";
+    public static final String HTTP_CACHE_MAX_STALE_SECONDS = "http_cache_max_stale_seconds";
+
+    public static final String AUTO_TRANSLATE_COMMENTS = "auto_translate_comments";
+    public static final String TRANSLATE_FEED = "translate_feed";
+
+    public static final String DIAGNOSTICS_API_CONNECTIONS = "diagnostics_api_connections";
+    public static final String DIAGNOSTICS_MEDIA_CONNECTIONS = "diagnostics_media_connections";
+    public static final String DIAGNOSTICS_CONNECTION_POOL = "diagnostics_connection_pool";
+    public static final String DIAGNOSTICS_HTTP_CACHE = "diagnostics_http_cache";
+    public static final String DIAGNOSTICS_EXECUTORS = "diagnostics_executors";
+    public static final String DIAGNOSTICS_TRANSLATION_CACHE = "diagnostics_translation_cache";
+    public static final String DIAGNOSTICS_MARKDOWN_CACHE = "diagnostics_markdown_cache";
+    public static final String DIAGNOSTICS_COMMENT_FRAMES = "diagnostics_comment_frames";
+    public static final String DIAGNOSTICS_POST_BIND_TIME = "diagnostics_post_bind_time";
+    public static final String DIAGNOSTICS_COMMENT_BIND_TIME = "diagnostics_comment_bind_time";
+    public static final String DIAGNOSTICS_EVICT_CONNECTIONS = "diagnostics_evict_connections";
+    public static final String DIAGNOSTICS_RESET = "diagnostics_reset";
+
+    public static final String DOWNLOAD_BANDWIDTH_LIMIT_ON_METERED = "download_bandwidth_limit_on_metered";
+    public static final String DOWNLOAD_QUEUE_EMPTY = "download_queue_empty";
+
     //Legacy Settings
     public static final String MAIN_PAGE_TAB_1_TITLE_LEGACY = "main_page_tab_1_title";
     public static final String MAIN_PAGE_TAB_2_TITLE_LEGACY = "main_page_tab_2_title";
@@ -1,8 +1,15 @@
 package ml.docilealligator.infinityforreddit.utils;
 
+import android.content.ContentResolver;
+import android.content.Context;
 import android.graphics.Bitmap;
+import android.net.Uri;
+import android.webkit.MimeTypeMap;
 
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.bumptech.glide.Glide;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -16,8 +23,10 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import ml.docilealligator.infinityforreddit.apis.RedditAPI;
+import ml.docilealligator.infinityforreddit.network.ContentUriRequestBody;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
@@ -26,6 +35,15 @@ import retrofit2.Response;
 import retrofit2.Retrofit;
 
 public class UploadImageUtils {
+    // Image types Reddit accepts as they are -> file extension
+    private static final Map<String, String> UPLOADABLE_IMAGE_EXTENSIONS = new HashMap<>();
+
+    static {
+        UPLOADABLE_IMAGE_EXTENSIONS.put("image/jpeg", "jpg");
+        UPLOADABLE_IMAGE_EXTENSIONS.put("image/png", "png");
+        UPLOADABLE_IMAGE_EXTENSIONS.put("image/gif", "gif");
+    }
+
     @Nullable
     public static String uploadImage(Retrofit oauthRetrofit, Retrofit uploadMediaRetrofit,
                                      String accessToken, Bitmap image) throws IOException, JSONException, XmlPullParserException {
@@ -43,23 +61,63 @@ public class UploadImageUtils {
                                       String accessToken, Bitmap image,
                                      boolean returnResponseForGallerySubmission,
                                      boolean getImageKey) throws IOException, JSONException, XmlPullParserException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        image.compress(Bitmap.CompressFormat.JPEG, 100, stream);
+        byte[] byteArray = stream.toByteArray();
+
+        RequestBody fileBody = RequestBody.create(byteArray, MediaType.parse("application/octet-stream"));
+        return uploadImage(oauthRetrofit, uploadMediaRetrofit, accessToken, "post_image.jpg", "image/jpeg",
+                fileBody, returnResponseForGallerySubmission, getImageKey);
+    }
+
+    /**
+     * Uploads the original file behind the Uri, streaming it from the ContentResolver without its
+     * EXIF and other metadata. Only formats Reddit does not accept are decoded and re-encoded as
+     * JPEG, which drops the metadata as well.
+     */
+    @WorkerThread
+    @Nullable
+    public static String uploadImage(Context context, Retrofit oauthRetrofit, Retrofit uploadMediaRetrofit,
+                                     String accessToken, Uri imageUri,
+                                     boolean returnResponseForGallerySubmission, boolean getImageKey,
+                                     @Nullable ContentUriRequestBody.ProgressListener progressListener)
+            throws IOException, JSONException, XmlPullParserException, ExecutionException, InterruptedException {
+        ContentResolver contentResolver = context.getContentResolver();
+        String mimeType = contentResolver.getType(imageUri);
+        if (mimeType == null) {
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(
+                    MimeTypeMap.getFileExtensionFromUrl(imageUri.toString()));
+        }
+        String extension = mimeType == null ? null : UPLOADABLE_IMAGE_EXTENSIONS.get(mimeType);
+        if (extension == null) {
+            Bitmap image = Glide.with(context).asBitmap().load(imageUri).submit().get();
+            return uploadImage(oauthRetrofit, uploadMediaRetrofit, accessToken, image,
+                    returnResponseForGallerySubmission, getImageKey);
+        }
+
+        RequestBody fileBody = new ContentUriRequestBody(contentResolver, imageUri,
+                MediaType.parse("application/octet-stream"), progressListener, true);
+        return uploadImage(oauthRetrofit, uploadMediaRetrofit, accessToken, "post_image." + extension, mimeType,
+                fileBody, returnResponseForGallerySubmission, getImageKey);
+    }
+
+    @Nullable
+    private static String uploadImage(Retrofit oauthRetrofit, Retrofit uploadMediaRetrofit,
+                                      String accessToken, String fileName, String mimeType, RequestBody fileBody,
+                                      boolean returnResponseForGallerySubmission,
+                                      boolean getImageKey) throws IOException, JSONException, XmlPullParserException {
         RedditAPI api = oauthRetrofit.create(RedditAPI.class);
 
         Map<String, String> uploadImageParams = new HashMap<>();
-        uploadImageParams.put(APIUtils.FILEPATH_KEY, "post_image.jpg");
-        uploadImageParams.put(APIUtils.MIMETYPE_KEY, "image/jpeg");
+        uploadImageParams.put(APIUtils.FILEPATH_KEY, fileName);
+        uploadImageParams.put(APIUtils.MIMETYPE_KEY, mimeType);
 
         Call<String> uploadImageCall = api.uploadImage(APIUtils.getOAuthHeader(accessToken), uploadImageParams);
         Response<String> uploadImageResponse = uploadImageCall.execute();
         if (uploadImageResponse.isSuccessful()) {
             Map<String, RequestBody> nameValuePairsMap = parseJSONResponseFromAWS(uploadImageResponse.body());
 
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            image.compress(Bitmap.CompressFormat.JPEG, 100, stream);
-            byte[] byteArray = stream.toByteArray();
-
-            RequestBody fileBody = RequestBody.create(byteArray, MediaType.parse("application/octet-stream"));
-            MultipartBody.Part fileToUpload = MultipartBody.Part.createFormData("file", "post_image.jpg", fileBody);
+            MultipartBody.Part fileToUpload = MultipartBody.Part.createFormData("file", fileName, fileBody);
 
             RedditAPI uploadMediaToAWSApi = uploadMediaRetrofit.create(RedditAPI.class);
             Call<String> uploadMediaToAWS = uploadMediaToAWSApi.uploadMediaToAWS(nameValuePairsMap, fileToUpload);
@@ -4,7 +4,6 @@ import android.app.Activity;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.database.Cursor;
-import android.graphics.Bitmap;
 import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.net.ConnectivityManager;
@@ -17,6 +16,7 @@ import android.os.Handler;
 import android.provider.OpenableColumns;
 import android.text.Spannable;
 import android.text.SpannableStringBuilder;
+import android.text.Spanned;
 import android.text.style.TypefaceSpan;
 import android.util.DisplayMetrics;
 import android.view.MenuItem;
@@ -35,7 +35,6 @@ import androidx.core.graphics.Insets;
 import androidx.core.text.HtmlCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.bumptech.glide.Glide;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.textfield.TextInputLayout;
@@ -47,16 +46,16 @@ import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import io.noties.markwon.core.spans.CustomTypefaceSpan;
 import ml.docilealligator.infinityforreddit.R;
+import ml.docilealligator.infinityforreddit.markdown.RedditMarkdownPreprocessor;
 import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
 import ml.docilealligator.infinityforreddit.thing.SortType;
 import ml.docilealligator.infinityforreddit.thing.UploadedImage;
@@ -73,111 +72,16 @@ public final class Utils {
     private static final long MONTH_MILLIS = 30 * DAY_MILLIS;
     private static final long YEAR_MILLIS = 12 * MONTH_MILLIS;
 
+    private static final ThreadLocal<CachedDateFormat> DATE_FORMATS = new ThreadLocal<>();
+
     public static String HOSTNAME_REGEX = "^(?=^.{1,253}$)(([a-z\\d]([a-z\\d-]{0,62}[a-z\\d])*[\\.]){1,3}[a-z]{1,61})$";
-    private static final Pattern[] REGEX_PATTERNS = {
-            Pattern.compile("((?<=[\\s])|^)/[rRuU]/[\\w-]+/{0,1}"),
-            Pattern.compile("((?<=[\\s])|^)[rRuU]/[\\w-]+/{0,1}"),
-            Pattern.compile("\\^{2,}"),
-            //Sometimes the reddit preview images and gifs have a caption and the markdown will become [caption](image_link)
-            //Matches preview.redd.it and i.redd.it media
-            //For i.redd.it media, it only matches [caption](image-link. Notice there is no ) at the end.
-            //i.redd.it: (\\[(?:(?!((?<!\\\\)\\[)).)*?]\\()?https://i.redd.it/\\w+.(jpg|png|jpeg|gif)"
-            Pattern.compile("((?:\\[(?:(?!(?:(?<!\\\\)\\[)).)*?]\\()?https://preview.redd.it/\\w+.(?:jpg|png|jpeg)(?:(?:\\?+[-a-zA-Z0-9()@:%_+.~#?&/=]*)|))|((?:\\[(?:(?!(?:(?<!\\\\)\\[)).)*?]\\()?https://i.redd.it/\\w+.(?:jpg|png|jpeg|gif))"),
-    };
 
     public static String modifyMarkdown(String markdown) {
-        String regexed = REGEX_PATTERNS[0].matcher(markdown).replaceAll("[$0](https://www.reddit.com$0)");
-        regexed = REGEX_PATTERNS[1].matcher(regexed).replaceAll("[$0](https://www.reddit.com/$0)");
-        regexed = REGEX_PATTERNS[2].matcher(regexed).replaceAll("^");
-
-        return regexed;
+        return RedditMarkdownPreprocessor.modifyMarkdown(markdown);
     }
 
     public static String parseRedditImagesBlock(String markdown, @Nullable Map<String, MediaMetadata> mediaMetadataMap) {
-        if (mediaMetadataMap == null) {
-            return markdown;
-        }
-
-        StringBuilder markdownStringBuilder = new StringBuilder(markdown);
-        Pattern previewReddItAndIReddItImagePattern = REGEX_PATTERNS[3];
-        Matcher matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
-        int start = 0;
-        int previewReddItLength = "https://preview.redd.it/".length();
-        int iReddItLength = "https://i.redd.it/".length();
-        while (matcher.find(start)) {
-            if (matcher.group(1) != null) {
-                String id;
-                String caption = null;
-                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
-                    //Has caption
-                    int urlStartIndex = markdownStringBuilder.lastIndexOf("https://preview.redd.it/", matcher.end());
-                    id = markdownStringBuilder.substring(previewReddItLength + urlStartIndex,
-                            markdownStringBuilder.indexOf(".", previewReddItLength + urlStartIndex));
-                    //Minus "](".length()
-                    caption = markdownStringBuilder.substring(matcher.start() + 1, urlStartIndex - 2);
-                } else {
-                    id = markdownStringBuilder.substring(matcher.start() + previewReddItLength,
-                            markdownStringBuilder.indexOf(".", matcher.start() + previewReddItLength));
-                }
-
-                MediaMetadata mediaMetadata = mediaMetadataMap.get(id);
-                if (mediaMetadata == null) {
-                    start = matcher.end();
-                    continue;
-                }
-
-                mediaMetadata.caption = caption;
-
-                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
-                    //Has caption
-                    markdownStringBuilder.insert(matcher.start(), '!');
-                    start = matcher.end() + 1;
-                } else {
-                    String replacingText = "![](" + markdownStringBuilder.substring(matcher.start(), matcher.end()) + ")";
-                    markdownStringBuilder.replace(matcher.start(), matcher.end(), replacingText);
-                    start = replacingText.length() + matcher.start();
-                }
-
-                matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
-            } else if (matcher.group(2) != null) {
-                String id;
-                String caption = null;
-                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
-                    //Has caption
-                    int urlStartIndex = markdownStringBuilder.lastIndexOf("https://i.redd.it/", matcher.end());
-                    id = markdownStringBuilder.substring(iReddItLength + urlStartIndex,
-                            markdownStringBuilder.indexOf(".", iReddItLength + urlStartIndex));
-                    //Minus "](".length()
-                    caption = markdownStringBuilder.substring(matcher.start() + 1, urlStartIndex - 2);
-                } else {
-                    id = markdownStringBuilder.substring(matcher.start() + iReddItLength, markdownStringBuilder.indexOf(".", matcher.start() + iReddItLength));
-                }
-
-                MediaMetadata mediaMetadata = mediaMetadataMap.get(id);
-                if (mediaMetadata == null) {
-                    start = matcher.end();
-                    continue;
-                }
-
-                mediaMetadata.caption = caption;
-
-                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
-                    //Has caption
-                    markdownStringBuilder.insert(matcher.start(), '!');
-                    start = matcher.end() + 1;
-                } else {
-                    String replacingText = "![](" + markdownStringBuilder.substring(matcher.start(), matcher.end()) + ")";
-                    markdownStringBuilder.replace(matcher.start(), matcher.end(), replacingText);
-                    start = replacingText.length() + matcher.start();
-                }
-
-                matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
-            } else {
-                start = matcher.end();
-            }
-        }
-
-        return markdownStringBuilder.toString();
+        return RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap);
     }
 
     public static String trimTrailingWhitespace(String source) {
@@ -213,9 +117,14 @@ public final class Utils {
     }
 
     public static String getFormattedTime(Locale locale, long time, String pattern) {
-        Calendar postTimeCalendar = Calendar.getInstance();
-        postTimeCalendar.setTimeInMillis(time);
-        return new SimpleDateFormat(pattern, locale).format(postTimeCalendar.getTime());
+        // SimpleDateFormat is not thread safe and slow to create, so each thread keeps the last one it used.
+        CachedDateFormat cachedDateFormat = DATE_FORMATS.get();
+        if (cachedDateFormat == null || !cachedDateFormat.locale.equals(locale) || !cachedDateFormat.pattern.equals(pattern)) {
+            cachedDateFormat = new CachedDateFormat(locale, pattern);
+            DATE_FORMATS.set(cachedDateFormat);
+        }
+        cachedDateFormat.dateFormat.setTimeZone(TimeZone.getDefault());
+        return cachedDateFormat.dateFormat.format(new Date(time));
     }
 
     public static String getElapsedTime(Context context, long time) {
@@ -258,6 +167,20 @@ public final class Utils {
         }
     }
 
+    /**
+     * Builds HTML that has no images, which unlike {@link #setHTMLWithImageToTextView} does not need a
+     * TextView and can run off the main thread.
+     *
+     * @return the styled text, or null if the HTML has images
+     */
+    @Nullable
+    public static Spanned getHTMLWithoutImage(String content) {
+        if (content.contains("<img")) {
+            return null;
+        }
+        return HtmlCompat.fromHtml(content, HtmlCompat.FROM_HTML_MODE_LEGACY);
+    }
+
     public static void setHTMLWithImageToTextView(TextView textView, String content, boolean enlargeImage) {
         GlideImageGetter glideImageGetter = new GlideImageGetter(textView, enlargeImage);
         Spannable html = (Spannable) HtmlCompat.fromHtml(
@@ -401,8 +324,8 @@ public final class Utils {
         Handler handler = new Handler();
         executor.execute(() -> {
             try {
-                Bitmap bitmap = Glide.with(context).asBitmap().load(imageUri).submit().get();
-                String imageKeyOrError = UploadImageUtils.uploadImage(oauthRetrofit, uploadMediaRetrofit, accessToken, bitmap, true);
+                String imageKeyOrError = UploadImageUtils.uploadImage(context, oauthRetrofit, uploadMediaRetrofit,
+                        accessToken, imageUri, false, true, null);
                 handler.post(() -> {
                     if (imageKeyOrError != null && !imageKeyOrError.startsWith("Error: ")) {
                         String fileName = Utils.getFileName(context, imageUri);
@@ -548,4 +471,16 @@ public final class Utils {
             return forcedImmersiveMode ? Insets.of(0, 0, 0, originalInsets.bottom) : originalInsets;
         }
     }
+
+    private static class CachedDateFormat {
+        final Locale locale;
+        final String pattern;
+        final SimpleDateFormat dateFormat;
+
+        CachedDateFormat(Locale locale, String pattern) {
+            this.locale = locale;
+            this.pattern = pattern;
+            this.dateFormat = new SimpleDateFormat(pattern, locale);
+        }
+    }
 }
@@ -0,0 +1,301 @@
+package ml.docilealligator.infinityforreddit.videoautoplay;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.WorkerThread;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.common.util.UriUtil;
+import androidx.media3.common.util.Util;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheWriter;
+import androidx.media3.exoplayer.hls.playlist.HlsMediaPlaylist;
+import androidx.media3.exoplayer.hls.playlist.HlsMultivariantPlaylist;
+import androidx.media3.exoplayer.hls.playlist.HlsPlaylist;
+import androidx.media3.exoplayer.hls.playlist.HlsPlaylistParser;
+import androidx.media3.exoplayer.upstream.ParsingLoadable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Gets the autoplay videos just below the visible posts ready before they scroll into view, so they
+ * start without buffering:
+ * <ul>
+ *     <li>The first one is prepared with a pooled player, see {@link ToroExo#prepareNextPlayer(ExoCreator, Uri, String)}.</li>
+ *     <li>Up to {@link #MAX_CACHED_VIDEOS} after it have their first {@link #MAX_PRELOAD_BYTES} written to
+ *     the player cache. For HLS that is the first segment of the variant the player is expected to start with.</li>
+ * </ul>
+ * Nothing is warmed up while scrolling up, and the work still running for videos that are no longer
+ * next is cancelled.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AutoplayWarmUp extends RecyclerView.OnScrollListener {
+    private static final int MAX_CACHED_VIDEOS = 1;
+    // How many posts below the visible ones are searched for videos.
+    private static final int MAX_LOOKAHEAD_ITEMS = 6;
+    private static final long MAX_PRELOAD_BYTES = 1024 * 1024;
+    // AdaptiveTrackSelection's default share of the estimated bandwidth.
+    private static final float BANDWIDTH_FRACTION = 0.7f;
+
+    public interface VideoProvider {
+        /**
+         * @return false if no video should be warmed up, e.g. in data saving mode
+         */
+        boolean isWarmUpEnabled();
+
+        /**
+         * @return the Uri the post at the position will autoplay, or null if it does not autoplay a
+         * video or the Uri is not known yet
+         */
+        @Nullable
+        Uri getAutoplayVideoUri(int position);
+    }
+
+    private final Context context;
+    private final ExoCreator creator;
+    private final Executor executor;
+    private final VideoProvider videoProvider;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<Uri, CacheTask> cacheTasks = new HashMap<>();
+    private final List<Uri> nextVideoUris = new ArrayList<>();
+
+    /**
+     * @param executor runs the blocking cache writes
+     */
+    public AutoplayWarmUp(@NonNull Context context, @NonNull ExoCreator creator, @NonNull Executor executor,
+                          @NonNull VideoProvider videoProvider) {
+        this.context = context.getApplicationContext();
+        this.creator = creator;
+        this.executor = executor;
+        this.videoProvider = videoProvider;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy < 0 || !videoProvider.isWarmUpEnabled()) {
+            cancel();
+            return;
+        }
+
+        int lastVisiblePosition = getLastVisiblePosition(recyclerView.getLayoutManager());
+        if (lastVisiblePosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        int end = Math.min(lastVisiblePosition + MAX_LOOKAHEAD_ITEMS, adapter == null ? 0 : adapter.getItemCount() - 1);
+        List<Uri> uris = new ArrayList<>();
+        for (int i = lastVisiblePosition + 1; i <= end && uris.size() < 1 + MAX_CACHED_VIDEOS; i++) {
+            Uri uri = videoProvider.getAutoplayVideoUri(i);
+            if (uri != null) {
+                uris.add(uri);
+            }
+        }
+        if (!uris.isEmpty() && !uris.equals(nextVideoUris)) {
+            warmUp(uris);
+        }
+    }
+
+    /**
+     * Stops the work still running and puts the prepared player back to the pool. What was already
+     * written to the cache stays there.
+     */
+    public void cancel() {
+        for (CacheTask cacheTask : cacheTasks.values()) {
+            cacheTask.cancel();
+        }
+        cacheTasks.clear();
+        nextVideoUris.clear();
+        ToroExo.with(context).releasePreparedPlayer();
+    }
+
+    private void warmUp(List<Uri> uris) {
+        nextVideoUris.clear();
+        nextVideoUris.addAll(uris);
+
+        ToroExo.with(context).prepareNextPlayer(creator, uris.get(0), null);
+
+        List<Uri> urisToCache = uris.subList(1, uris.size());
+        for (Iterator<Map.Entry<Uri, CacheTask>> it = cacheTasks.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Uri, CacheTask> entry = it.next();
+            if (!urisToCache.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+        if (!(creator instanceof DefaultExoCreator)) {
+            return;
+        }
+        for (Uri uri : urisToCache) {
+            if (!cacheTasks.containsKey(uri)) {
+                CacheTask cacheTask = new CacheTask(uri);
+                cacheTasks.put(uri, cacheTask);
+                executor.execute(cacheTask);
+            }
+        }
+    }
+
+    private static int getLastVisiblePosition(@Nullable RecyclerView.LayoutManager layoutManager) {
+        if (layoutManager instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        } else if (layoutManager instanceof StaggeredGridLayoutManager) {
+            int last = RecyclerView.NO_POSITION;
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(null)) {
+                last = Math.max(last, position);
+            }
+            return last;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    private class CacheTask implements Runnable {
+        private final Uri uri;
+        private volatile boolean cancelled;
+        @Nullable
+        private volatile CacheWriter cacheWriter;
+
+        CacheTask(Uri uri) {
+            this.uri = uri;
+        }
+
+        void cancel() {
+            cancelled = true;
+            CacheWriter writer = cacheWriter;
+            if (writer != null) {
+                writer.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                CacheDataSource dataSource = ((DefaultExoCreator) creator).createCacheDataSource();
+                if (dataSource == null || cancelled) {
+                    return;
+                }
+                if (Util.inferContentType(uri) == C.CONTENT_TYPE_HLS) {
+                    cacheHls(dataSource);
+                } else {
+                    cache(dataSource, new DataSpec.Builder().setUri(uri).setLength(MAX_PRELOAD_BYTES).build());
+                }
+            } catch (IOException e) {
+                // Best effort, the player loads whatever is missing.
+            } finally {
+                handler.post(() -> {
+                    if (cacheTasks.get(uri) == this) {
+                        cacheTasks.remove(uri);
+                    }
+                });
+            }
+        }
+
+        // Reading the playlists through the cache data source also writes them to the cache.
+        @WorkerThread
+        private void cacheHls(CacheDataSource dataSource) throws IOException {
+            HlsPlaylistParser parser = new HlsPlaylistParser();
+            HlsPlaylist playlist = ParsingLoadable.load(dataSource, parser, new DataSpec(uri), C.DATA_TYPE_MANIFEST);
+            if (playlist instanceof HlsMediaPlaylist) {
+                cacheFirstSegment(dataSource, (HlsMediaPlaylist) playlist);
+                return;
+            }
+
+            HlsMultivariantPlaylist multivariantPlaylist = (HlsMultivariantPlaylist) playlist;
+            HlsMultivariantPlaylist.Variant variant = getStartVariant(multivariantPlaylist.variants);
+            if (variant == null) {
+                return;
+            }
+            List<Uri> mediaPlaylistUris = new ArrayList<>();
+            mediaPlaylistUris.add(variant.url);
+            for (HlsMultivariantPlaylist.Rendition audio : multivariantPlaylist.audios) {
+                if (audio.url != null && audio.groupId.equals(variant.audioGroupId)) {
+                    mediaPlaylistUris.add(audio.url);
+                    break;
+                }
+            }
+
+            for (Uri mediaPlaylistUri : mediaPlaylistUris) {
+                if (cancelled) {
+                    return;
+                }
+                HlsPlaylist mediaPlaylist = ParsingLoadable.load(dataSource, parser, new DataSpec(mediaPlaylistUri),
+                        C.DATA_TYPE_MANIFEST);
+                if (mediaPlaylist instanceof HlsMediaPlaylist) {
+                    cacheFirstSegment(dataSource, (HlsMediaPlaylist) mediaPlaylist);
+                }
+            }
+        }
+
+        /**
+         * Picks the variant AdaptiveTrackSelection starts with: the best one that fits in its share of
+         * the bandwidth estimate of the meter the players share, or the worst one if none does.
+         */
+        @Nullable
+        private HlsMultivariantPlaylist.Variant getStartVariant(List<HlsMultivariantPlaylist.Variant> variants) {
+            long allocatedBitrate = (long) (creator.getBandwidthMeter().getBitrateEstimate() * BANDWIDTH_FRACTION);
+            HlsMultivariantPlaylist.Variant best = null;
+            HlsMultivariantPlaylist.Variant worst = null;
+            for (HlsMultivariantPlaylist.Variant variant : variants) {
+                int bitrate = variant.format.bitrate;
+                if (bitrate <= allocatedBitrate && (best == null || bitrate > best.format.bitrate)) {
+                    best = variant;
+                }
+                if (worst == null || bitrate < worst.format.bitrate) {
+                    worst = variant;
+                }
+            }
+            return best != null ? best : worst;
+        }
+
+        @WorkerThread
+        private void cacheFirstSegment(CacheDataSource dataSource, HlsMediaPlaylist playlist) throws IOException {
+            if (playlist.segments.isEmpty()) {
+                return;
+            }
+            HlsMediaPlaylist.Segment segment = playlist.segments.get(0);
+            if (segment.initializationSegment != null) {
+                cacheSegment(dataSource, playlist, segment.initializationSegment);
+            }
+            cacheSegment(dataSource, playlist, segment);
+        }
+
+        @WorkerThread
+        private void cacheSegment(CacheDataSource dataSource, HlsMediaPlaylist playlist,
+                                  HlsMediaPlaylist.Segment segment) throws IOException {
+            long length = segment.byteRangeLength == C.LENGTH_UNSET ? MAX_PRELOAD_BYTES
+                    : Math.min(segment.byteRangeLength, MAX_PRELOAD_BYTES);
+            cache(dataSource, new DataSpec.Builder()
+                    .setUri(UriUtil.resolveToUri(playlist.baseUri, segment.url))
+                    .setPosition(segment.byteRangeOffset)
+                    .setLength(length)
+                    .build());
+        }
+
+        @WorkerThread
+        private void cache(CacheDataSource dataSource, DataSpec dataSpec) throws IOException {
+            if (cancelled) {
+                return;
+            }
+            CacheWriter writer = new CacheWriter(dataSource, dataSpec, null, null);
+            cacheWriter = writer;
+            if (cancelled) {
+                return;
+            }
+            writer.cache();
+        }
+    }
+}
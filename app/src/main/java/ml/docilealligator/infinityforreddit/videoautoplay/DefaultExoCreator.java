@@ -34,6 +34,7 @@ import androidx.media3.datasource.cache.CacheDataSource;
 import androidx.media3.exoplayer.DefaultLoadControl;
 import androidx.media3.exoplayer.DefaultRenderersFactory;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.LoadControl;
 import androidx.media3.exoplayer.RenderersFactory;
 import androidx.media3.exoplayer.source.LoadEventInfo;
 import androidx.media3.exoplayer.source.MediaLoadData;
@@ -41,7 +42,7 @@ import androidx.media3.exoplayer.source.MediaSource;
 import androidx.media3.exoplayer.source.MediaSourceEventListener;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
 import androidx.media3.exoplayer.trackselection.TrackSelector;
-import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
+import androidx.media3.exoplayer.upstream.BandwidthMeter;
 
 import java.io.IOException;
 
@@ -58,6 +59,14 @@ import ml.docilealligator.infinityforreddit.utils.APIUtils;
 @SuppressWarnings({"unused", "WeakerAccess"}) //
 public class DefaultExoCreator implements ExoCreator, MediaSourceEventListener {
 
+    // Buffering for players inlined in a list: start as soon as half a second is buffered, and stop
+    // buffering ahead at 10 seconds or 6 MB, so the players kept in the pool stay small.
+    private static final int MIN_BUFFER_MS = 2500;
+    private static final int MAX_BUFFER_MS = 10000;
+    private static final int BUFFER_FOR_PLAYBACK_MS = 500;
+    private static final int BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS = 1500;
+    private static final int TARGET_BUFFER_BYTES = 6 * 1024 * 1024;
+
     final ToroExo toro;  // per application
     final Config config;
     private final TrackSelector trackSelector;  // 'maybe' stateless
@@ -65,6 +74,8 @@ public class DefaultExoCreator implements ExoCreator, MediaSourceEventListener {
     private final RenderersFactory renderersFactory;  // stateless
     private final DataSource.Factory mediaDataSourceFactory;  // stateless
     private final DataSource.Factory manifestDataSourceFactory; // stateless
+    @Nullable
+    private final CacheDataSource.Factory cacheDataSourceFactory; // stateless, null without a cache
 
     public DefaultExoCreator(@NonNull ToroExo toro, @NonNull Config config) {
         this.toro = checkNotNull(toro);
@@ -81,8 +92,12 @@ public class DefaultExoCreator implements ExoCreator, MediaSourceEventListener {
             baseFactory = new DefaultHttpDataSource.Factory().setAllowCrossProtocolRedirects(true).setUserAgent(APIUtils.USER_AGENT);
         }
         DataSource.Factory factory = new DefaultDataSource.Factory(this.toro.context, baseFactory);
-        if (config.cache != null)
-            factory = new CacheDataSource.Factory().setCache(config.cache).setUpstreamDataSourceFactory(baseFactory);
+        if (config.cache != null) {
+            cacheDataSourceFactory = new CacheDataSource.Factory().setCache(config.cache).setUpstreamDataSourceFactory(baseFactory);
+            factory = cacheDataSourceFactory;
+        } else {
+            cacheDataSourceFactory = null;
+        }
         mediaDataSourceFactory = factory;
         manifestDataSourceFactory = new DefaultDataSource.Factory(this.toro.context);
     }
@@ -131,8 +146,37 @@ public class DefaultExoCreator implements ExoCreator, MediaSourceEventListener {
     @NonNull
     @Override
     public ExoPlayer createPlayer() {
-        return new ToroExoPlayer(toro.context, renderersFactory, trackSelector, new DefaultLoadControl(),
-                new DefaultBandwidthMeter.Builder(toro.context).build(), Util.getCurrentOrMainLooper()).getPlayer();
+        return new ToroExoPlayer(toro.context, renderersFactory, trackSelector, createLoadControl(),
+                config.meter, Util.getCurrentOrMainLooper()).getPlayer();
+    }
+
+    @NonNull
+    @Override
+    public BandwidthMeter getBandwidthMeter() {
+        return config.meter;
+    }
+
+    /**
+     * Create the {@link LoadControl} of a new player. Each player needs its own instance.
+     */
+    @NonNull
+    protected LoadControl createLoadControl() {
+        return new DefaultLoadControl.Builder()
+                .setBufferDurationsMs(MIN_BUFFER_MS, MAX_BUFFER_MS, BUFFER_FOR_PLAYBACK_MS,
+                        BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS)
+                .setTargetBufferBytes(TARGET_BUFFER_BYTES)
+                .build();
+    }
+
+    /**
+     * Create a {@link CacheDataSource} reading and writing the same cache as the players, so media
+     * written with it is played from the cache.
+     *
+     * @return the data source, or null if the {@link Config} has no cache.
+     */
+    @Nullable
+    public CacheDataSource createCacheDataSource() {
+        return cacheDataSourceFactory == null ? null : cacheDataSourceFactory.createDataSource();
     }
 
     @NonNull
@@ -23,6 +23,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.upstream.BandwidthMeter;
 
 
 /**
@@ -55,6 +56,13 @@ public interface ExoCreator {
   @NonNull
   ExoPlayer createPlayer();
 
+  /**
+   * Return the {@link BandwidthMeter} shared by the players from {@link #createPlayer()}, so its
+   * estimate is the one their track selection starts with.
+   */
+  @NonNull
+  BandwidthMeter getBandwidthMeter();
+
   /**
    * Create a {@link MediaSource} from media {@link Uri}.
    *
@@ -273,6 +273,8 @@ class PlayableImpl implements Playable {
 
     // TODO [20180822] Double check this.
     private void ensureMediaSource() {
+        if (mediaSource == null && player == null && usePreparedPlayer()) return;
+
         if (mediaSource == null) {  // Only actually prepare the source when play() is called.
             sourcePrepared = false;
             mediaSource = creator.createMediaSource(mediaUri, fileExt);
@@ -286,6 +288,24 @@ class PlayableImpl implements Playable {
         }
     }
 
+    // Take the player ToroExo prepared ahead for this Uri, if any.
+    private boolean usePreparedPlayer() {
+        ToroExo.PreparedPlayer preparedPlayer = with(checkNotNull(creator.getContext(), "ExoCreator has no Context")) //
+                .requestPreparedPlayer(creator, mediaUri);
+        if (preparedPlayer == null) return false;
+
+        player = preparedPlayer.player;
+        mediaSource = preparedPlayer.mediaSource;
+        listenerApplied = false;
+        ensurePlayer();
+        sourcePrepared = true;
+        // The player may have read the tracks before the listeners were added.
+        if (!player.getPlayer().getCurrentTracks().isEmpty()) {
+            listeners.onTracksChanged(player.getPlayer().getCurrentTracks());
+        }
+        return true;
+    }
+
     private void ensurePlayer() {
         if (player == null) {
             sourcePrepared = false;
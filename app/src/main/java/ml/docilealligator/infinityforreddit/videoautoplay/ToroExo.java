@@ -22,6 +22,7 @@ import static ml.docilealligator.infinityforreddit.videoautoplay.ToroUtil.checkN
 import android.annotation.SuppressLint;
 import android.app.Application;
 import android.content.Context;
+import android.net.Uri;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -32,6 +33,7 @@ import androidx.core.util.Pools;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.common.util.Util;
 import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.source.MediaSource;
 
 import java.net.CookieHandler;
 import java.net.CookieManager;
@@ -91,6 +93,8 @@ public final class ToroExo {
     private final Map<ExoCreator, Pools.Pool<ExoPlayer>> playerPools;
 
     private Config defaultConfig; // will be created on the first time it is used.
+    @Nullable
+    private PreparedPlayer preparedPlayer; // at most one, see prepareNextPlayer()
 
     private ToroExo(@NonNull Context context /* Application context */) {
         this.context = context;
@@ -162,11 +166,67 @@ public final class ToroExo {
         return getPool(checkNotNull(creator)).release(player);
     }
 
+    /**
+     * Take a player out of the Pool and start preparing the media {@link Uri} with it, muted and
+     * paused, so a {@link Playable} of the same Uri can start playing without buffering first.
+     * Only one player is kept prepared: the player prepared before is put back to the Pool.
+     * Must be called on the thread the players are created on.
+     *
+     * @param creator the {@link ExoCreator} that will create the {@link Playable} of the Uri.
+     * @param uri     the media {@link Uri} that is expected to play next.
+     * @param fileExt the optional (File) extension of the media Uri.
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public void prepareNextPlayer(@NonNull ExoCreator creator, @NonNull Uri uri, @Nullable String fileExt) {
+        if (preparedPlayer != null && preparedPlayer.creator.equals(creator) && preparedPlayer.uri.equals(uri)) {
+            return;
+        }
+        releasePreparedPlayer();
+
+        ToroExoPlayer player = requestPlayer(creator);
+        setVolumeInfo(player, new VolumeInfo(true, 0));
+        MediaSource mediaSource = creator.createMediaSource(uri, fileExt);
+        player.getPlayer().setPlayWhenReady(false);
+        player.getPlayer().setMediaSource(mediaSource);
+        player.getPlayer().prepare();
+        preparedPlayer = new PreparedPlayer(creator, uri, player, mediaSource);
+    }
+
+    /**
+     * Hand out the player prepared by {@link #prepareNextPlayer(ExoCreator, Uri, String)}.
+     *
+     * @return the prepared player if it was prepared for the same creator and Uri, null otherwise.
+     */
+    @Nullable
+    PreparedPlayer requestPreparedPlayer(@NonNull ExoCreator creator, @NonNull Uri uri) {
+        if (preparedPlayer == null || !preparedPlayer.creator.equals(creator) || !preparedPlayer.uri.equals(uri)) {
+            return null;
+        }
+        PreparedPlayer result = preparedPlayer;
+        preparedPlayer = null;
+        return result;
+    }
+
+    /**
+     * Stop the player prepared by {@link #prepareNextPlayer(ExoCreator, Uri, String)} and put it
+     * back to the Pool, if it has not been handed out.
+     */
+    public void releasePreparedPlayer() {
+        if (preparedPlayer == null) return;
+        ToroExoPlayer player = preparedPlayer.player;
+        setVolumeInfo(player, new VolumeInfo(false, 1.f));
+        player.getPlayer().stop();
+        player.getPlayer().clearMediaItems();
+        if (!releasePlayer(preparedPlayer.creator, player.getPlayer())) player.getPlayer().release();
+        preparedPlayer = null;
+    }
+
     /**
      * Release and clear all current cached ExoPlayer instances. This should be called when
      * client Application runs out of memory ({@link Application#onTrimMemory(int)} for example).
      */
     public void cleanUp() {
+        releasePreparedPlayer();
         // TODO [2018/03/07] Test this. Ref: https://stackoverflow.com/a/1884916/1553254
         for (Iterator<Map.Entry<ExoCreator, Pools.Pool<ExoPlayer>>> it =
              playerPools.entrySet().iterator(); it.hasNext(); ) {
@@ -214,4 +274,23 @@ public final class ToroExo {
     private static String getUserAgent() {
         return APIUtils.USER_AGENT;
     }
+
+    static final class PreparedPlayer {
+        @NonNull
+        final ExoCreator creator;
+        @NonNull
+        final Uri uri;
+        @NonNull
+        final ToroExoPlayer player;
+        @NonNull
+        final MediaSource mediaSource;
+
+        PreparedPlayer(@NonNull ExoCreator creator, @NonNull Uri uri, @NonNull ToroExoPlayer player,
+                       @NonNull MediaSource mediaSource) {
+            this.creator = creator;
+            this.uri = uri;
+            this.player = player;
+            this.mediaSource = mediaSource;
+        }
+    }
 }
\ No newline at end of file
@@ -26,6 +26,11 @@ public class ViewPostDetailActivityViewModel extends ViewModel {
         mLoader.loadAuthorImages(comments, loadIconListener);
     }
 
+    @Override
+    protected void onCleared() {
+        mLoader.destroy();
+    }
+
     public static class Factory extends ViewModelProvider.NewInstanceFactory {
         private Executor mExecutor;
         private Handler mHandler;
@@ -0,0 +1,102 @@
+package ml.docilealligator.infinityforreddit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * A small timing loop for the JVM benchmarks in the unit tests. It compares two implementations on the
+ * same machine. The numbers say nothing about how long the same work takes on a phone.
+ *
+ * Benchmarks are skipped unless the tests run with -Pbenchmark, so the normal test task stays fast.
+ */
+public final class Benchmark {
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    // Keeps the JIT from dropping work whose result is never used.
+    @SuppressWarnings("unused")
+    private static volatile int sink;
+
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    private Benchmark() {}
+
+    /**
+     * Skips the calling benchmark unless benchmarks were asked for. Call it from a {@code @BeforeClass}
+     * method.
+     */
+    public static void assumeEnabled() {
+        assumeTrue("Benchmarks only run with -Pbenchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    /**
+     * Runs {@code operation} {@code iterations} times per round, after a few warm-up rounds.
+     *
+     * @return the fastest round's time per operation in microseconds
+     */
+    public static double measureMicros(int iterations, Operation operation) throws Exception {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            runRound(iterations, operation);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            best = Math.min(best, runRound(iterations, operation));
+        }
+        return best / 1000.0 / iterations;
+    }
+
+    /**
+     * @return the bytes one run of {@code operation} allocates on this thread, or -1 if the JVM cannot
+     * tell
+     */
+    public static long measureAllocatedBytes(Operation operation) throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        long threadId = Thread.currentThread().getId();
+        long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+        Object result = operation.run();
+        long allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - before;
+        sink = System.identityHashCode(result);
+        return allocated;
+    }
+
+    /**
+     * Fails unless the new implementation is faster. The message has both timings.
+     */
+    public static void assertFaster(String name, double oldMicros, double newMicros) {
+        assertTrue(String.format(Locale.US, "%s: old %.1f us, new %.1f us", name, oldMicros, newMicros),
+                newMicros < oldMicros);
+    }
+
+    /**
+     * Fails if the new implementation allocates more. Passes if the JVM cannot measure allocations.
+     */
+    public static void assertAllocatesLess(String name, long oldBytes, long newBytes) {
+        if (oldBytes == -1 || newBytes == -1) {
+            return;
+        }
+        assertTrue(String.format(Locale.US, "%s: old allocates %d KB, new %d KB", name, oldBytes / 1024,
+                newBytes / 1024), newBytes < oldBytes);
+    }
+
+    private static long runRound(int iterations, Operation operation) throws Exception {
+        int hash = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Object result = operation.run();
+            hash += result == null ? 0 : System.identityHashCode(result);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = hash;
+        return elapsed;
+    }
+}
@@ -0,0 +1,37 @@
+package ml.docilealligator.infinityforreddit.comment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.Benchmark;
+
+/**
+ * Times rebuilding and counting a 5,000 comment morechildren batch: the old search of the partial tree
+ * for every parent against the full name index. Reading the comments out of the response is the same
+ * code for both and needs android.text.Html, so the comments are built directly. The position index of
+ * CommentsRecyclerViewAdapter needs a RecyclerView and is not measured here.
+ */
+public class CommentTreeBenchmark {
+    private static final int ITERATIONS = 5;
+    private static final int COMMENTS = 5_000;
+
+    @BeforeClass
+    public static void assumeBenchmarksEnabled() {
+        Benchmark.assumeEnabled();
+    }
+
+    @Test
+    public void rebuildMoreChildren() throws Exception {
+        List<String[]> thread = CommentTreeTest.createThread(COMMENTS, new Random(5));
+        assertEquals(CommentTreeTest.buildWithLegacy(thread).size(), CommentTreeTest.buildWithIndex(thread).size());
+
+        Benchmark.assertFaster("Rebuild " + COMMENTS + " comments",
+                Benchmark.measureMicros(ITERATIONS, () -> CommentTreeTest.buildWithLegacy(thread)),
+                Benchmark.measureMicros(ITERATIONS, () -> CommentTreeTest.buildWithIndex(thread)));
+    }
+}
@@ -0,0 +1,119 @@
+package ml.docilealligator.infinityforreddit.comment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CommentTreeTest {
+    @Test
+    public void addMoreComment_attachesRepliesToTheirParents() {
+        List<Comment> newComments = new ArrayList<>();
+        Map<String, Comment> commentsByFullName = new HashMap<>();
+        Comment root = createComment("a", "t3_post", 0);
+        Comment reply = createComment("b", "t1_a", 1);
+        Comment nestedReply = createComment("c", "t1_b", 2);
+        Comment otherRoot = createComment("d", "t1_parent", 0);
+        for (Comment comment : new Comment[]{root, reply, nestedReply, otherRoot}) {
+            ParseComment.addMoreComment(comment, commentsByFullName, newComments);
+        }
+        ParseComment.updateChildrenCount(newComments);
+
+        assertEquals(2, newComments.size());
+        assertSame(root, newComments.get(0));
+        assertSame(otherRoot, newComments.get(1));
+        assertSame(reply, root.getChildren().get(0));
+        assertSame(nestedReply, reply.getChildren().get(0));
+        assertTrue(root.hasReply());
+        assertEquals(2, root.getChildCount());
+        assertEquals(1, reply.getChildCount());
+        assertNull(otherRoot.getChildren());
+        assertEquals(0, otherRoot.getChildCount());
+    }
+
+    @Test
+    public void addMoreComment_matchesLegacyOnRandomThreads() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            List<String[]> thread = createThread(random.nextInt(300), random);
+            assertSameTrees(buildWithLegacy(thread), buildWithIndex(thread));
+        }
+    }
+
+    static List<Comment> buildWithIndex(List<String[]> thread) {
+        List<Comment> newComments = new ArrayList<>();
+        Map<String, Comment> commentsByFullName = new HashMap<>();
+        for (String[] comment : thread) {
+            ParseComment.addMoreComment(createComment(comment), commentsByFullName, newComments);
+        }
+        ParseComment.updateChildrenCount(newComments);
+        return newComments;
+    }
+
+    static List<Comment> buildWithLegacy(List<String[]> thread) {
+        List<Comment> newComments = new ArrayList<>();
+        for (String[] comment : thread) {
+            LegacyCommentTree.addMoreComment(createComment(comment), newComments);
+        }
+        LegacyCommentTree.updateChildrenCount(newComments);
+        return newComments;
+    }
+
+    /**
+     * A flat morechildren style thread: every comment as {id, parent full name, depth}, parents before
+     * their children. A few top level comments reply to the comment the batch was loaded for.
+     */
+    static List<String[]> createThread(int size, Random random) {
+        List<String[]> thread = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = Integer.toString(i, 36);
+            if (thread.isEmpty() || random.nextInt(10) == 0) {
+                thread.add(new String[]{id, random.nextBoolean() ? "t3_post" : "t1_parent", "0"});
+            } else {
+                // Mostly replies to recent comments, as in a real thread.
+                String[] parent = thread.get(Math.max(0, thread.size() - 1 - random.nextInt(Math.min(thread.size(), 20))));
+                int depth = Integer.parseInt(parent[2]) + 1;
+                if (depth > 9) {
+                    thread.add(new String[]{id, "t3_post", "0"});
+                } else {
+                    thread.add(new String[]{id, "t1_" + parent[0], Integer.toString(depth)});
+                }
+            }
+        }
+        return thread;
+    }
+
+    private static Comment createComment(String[] comment) {
+        return createComment(comment[0], comment[1], Integer.parseInt(comment[2]));
+    }
+
+    private static Comment createComment(String id, String parentId, int depth) {
+        return new Comment(id, "t1_" + id, "author", "t2_author", "", "", "author", 0, "Body", "Body",
+                "post", "subreddit", parentId, 1, Comment.VOTE_TYPE_NO_VOTE, false, "", "/r/subreddit/comments/post/",
+                depth, false, false, false, false, true, false, false, false, 0, null, false, false, 0, null);
+    }
+
+    private static void assertSameTrees(List<Comment> expected, List<Comment> actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Comment expectedComment = expected.get(i);
+            Comment actualComment = actual.get(i);
+            assertEquals(expectedComment.getFullName(), actualComment.getFullName());
+            assertEquals(expectedComment.hasReply(), actualComment.hasReply());
+            assertEquals(expectedComment.getChildCount(), actualComment.getChildCount());
+            assertSameTrees(expectedComment.getChildren(), actualComment.getChildren());
+        }
+    }
+}
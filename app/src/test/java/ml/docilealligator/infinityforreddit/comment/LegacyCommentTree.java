@@ -0,0 +1,66 @@
+package ml.docilealligator.infinityforreddit.comment;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * How ParseComment rebuilt a morechildren batch and counted descendants before comments were indexed
+ * by full name, copied unchanged so the tests and benchmarks can compare against it.
+ */
+final class LegacyCommentTree {
+    private LegacyCommentTree() {}
+
+    // The body of the comment branch of the old parseMoreComment loop.
+    static void addMoreComment(Comment comment, List<Comment> newComments) {
+        String parentFullName = comment.getParentId();
+
+        Comment parentComment = findCommentByFullName(newComments, parentFullName);
+        if (parentComment != null) {
+            parentComment.setHasReply(true);
+            parentComment.addChild(comment, parentComment.getChildCount());
+            parentComment.setChildCount(parentComment.getChildCount() + 1);
+        } else {
+            // assume that it is parent of this call
+            newComments.add(comment);
+        }
+    }
+
+    static int getChildCount(Comment comment) {
+        if (comment.getChildren() == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Comment c : comment.getChildren()) {
+            count += getChildCount(c);
+        }
+        return comment.getChildren().size() + count;
+    }
+
+    @Nullable
+    static Comment findCommentByFullName(@NonNull List<Comment> comments, @NonNull String fullName) {
+        for (Comment comment: comments) {
+            if (comment.getFullName().equals(fullName) &&
+                    comment.getPlaceholderType() == Comment.NOT_PLACEHOLDER) {
+                return comment;
+            }
+            if (comment.getChildren() != null) {
+                Comment result = findCommentByFullName(comment.getChildren(), fullName);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    static void updateChildrenCount(@NonNull List<Comment> comments) {
+        for (Comment comment: comments) {
+            comment.setChildCount(getChildCount(comment));
+            if (comment.getChildren() != null) {
+                updateChildrenCount(comment.getChildren());
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
+
+/**
+ * The regex based Utils.modifyMarkdown and Utils.parseRedditImagesBlock that
+ * {@link RedditMarkdownPreprocessor} replaced, kept unchanged as the reference its output is compared with.
+ */
+final class LegacyRedditMarkdownPreprocessor {
+    private static final Pattern[] REGEX_PATTERNS = {
+            Pattern.compile("((?<=[\\s])|^)/[rRuU]/[\\w-]+/{0,1}"),
+            Pattern.compile("((?<=[\\s])|^)[rRuU]/[\\w-]+/{0,1}"),
+            Pattern.compile("\\^{2,}"),
+            //Sometimes the reddit preview images and gifs have a caption and the markdown will become [caption](image_link)
+            //Matches preview.redd.it and i.redd.it media
+            //For i.redd.it media, it only matches [caption](image-link. Notice there is no ) at the end.
+            //i.redd.it: (\\[(?:(?!((?<!\\\\)\\[)).)*?]\\()?https://i.redd.it/\\w+.(jpg|png|jpeg|gif)"
+            Pattern.compile("((?:\\[(?:(?!(?:(?<!\\\\)\\[)).)*?]\\()?https://preview.redd.it/\\w+.(?:jpg|png|jpeg)(?:(?:\\?+[-a-zA-Z0-9()@:%_+.~#?&/=]*)|))|((?:\\[(?:(?!(?:(?<!\\\\)\\[)).)*?]\\()?https://i.redd.it/\\w+.(?:jpg|png|jpeg|gif))"),
+    };
+
+    private LegacyRedditMarkdownPreprocessor() {}
+
+    static String modifyMarkdown(String markdown) {
+        String regexed = REGEX_PATTERNS[0].matcher(markdown).replaceAll("[$0](https://www.reddit.com$0)");
+        regexed = REGEX_PATTERNS[1].matcher(regexed).replaceAll("[$0](https://www.reddit.com/$0)");
+        regexed = REGEX_PATTERNS[2].matcher(regexed).replaceAll("^");
+
+        return regexed;
+    }
+
+    static String parseRedditImagesBlock(String markdown, @Nullable Map<String, MediaMetadata> mediaMetadataMap) {
+        if (mediaMetadataMap == null) {
+            return markdown;
+        }
+
+        StringBuilder markdownStringBuilder = new StringBuilder(markdown);
+        Pattern previewReddItAndIReddItImagePattern = REGEX_PATTERNS[3];
+        Matcher matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
+        int start = 0;
+        int previewReddItLength = "https://preview.redd.it/".length();
+        int iReddItLength = "https://i.redd.it/".length();
+        while (matcher.find(start)) {
+            if (matcher.group(1) != null) {
+                String id;
+                String caption = null;
+                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
+                    //Has caption
+                    int urlStartIndex = markdownStringBuilder.lastIndexOf("https://preview.redd.it/", matcher.end());
+                    id = markdownStringBuilder.substring(previewReddItLength + urlStartIndex,
+                            markdownStringBuilder.indexOf(".", previewReddItLength + urlStartIndex));
+                    //Minus "](".length()
+                    caption = markdownStringBuilder.substring(matcher.start() + 1, urlStartIndex - 2);
+                } else {
+                    id = markdownStringBuilder.substring(matcher.start() + previewReddItLength,
+                            markdownStringBuilder.indexOf(".", matcher.start() + previewReddItLength));
+                }
+
+                MediaMetadata mediaMetadata = mediaMetadataMap.get(id);
+                if (mediaMetadata == null) {
+                    start = matcher.end();
+                    continue;
+                }
+
+                mediaMetadata.caption = caption;
+
+                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
+                    //Has caption
+                    markdownStringBuilder.insert(matcher.start(), '!');
+                    start = matcher.end() + 1;
+                } else {
+                    String replacingText = "![](" + markdownStringBuilder.substring(matcher.start(), matcher.end()) + ")";
+                    markdownStringBuilder.replace(matcher.start(), matcher.end(), replacingText);
+                    start = replacingText.length() + matcher.start();
+                }
+
+                matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
+            } else if (matcher.group(2) != null) {
+                String id;
+                String caption = null;
+                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
+                    //Has caption
+                    int urlStartIndex = markdownStringBuilder.lastIndexOf("https://i.redd.it/", matcher.end());
+                    id = markdownStringBuilder.substring(iReddItLength + urlStartIndex,
+                            markdownStringBuilder.indexOf(".", iReddItLength + urlStartIndex));
+                    //Minus "](".length()
+                    caption = markdownStringBuilder.substring(matcher.start() + 1, urlStartIndex - 2);
+                } else {
+                    id = markdownStringBuilder.substring(matcher.start() + iReddItLength, markdownStringBuilder.indexOf(".", matcher.start() + iReddItLength));
+                }
+
+                MediaMetadata mediaMetadata = mediaMetadataMap.get(id);
+                if (mediaMetadata == null) {
+                    start = matcher.end();
+                    continue;
+                }
+
+                mediaMetadata.caption = caption;
+
+                if (markdownStringBuilder.charAt(matcher.start()) == '[') {
+                    //Has caption
+                    markdownStringBuilder.insert(matcher.start(), '!');
+                    start = matcher.end() + 1;
+                } else {
+                    String replacingText = "![](" + markdownStringBuilder.substring(matcher.start(), matcher.end()) + ")";
+                    markdownStringBuilder.replace(matcher.start(), matcher.end(), replacingText);
+                    start = replacingText.length() + matcher.start();
+                }
+
+                matcher = previewReddItAndIReddItImagePattern.matcher(markdownStringBuilder);
+            } else {
+                start = matcher.end();
+            }
+        }
+
+        return markdownStringBuilder.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Map;
+
+import ml.docilealligator.infinityforreddit.Benchmark;
+import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
+
+/**
+ * Times the single pass preprocessor against the regexes it replaced, on a 10k character comment.
+ */
+public class RedditMarkdownPreprocessorBenchmark {
+    private static final int ITERATIONS = 200;
+
+    @BeforeClass
+    public static void assumeBenchmarksEnabled() {
+        Benchmark.assumeEnabled();
+    }
+
+    @Test
+    public void modifyMarkdown() throws Exception {
+        String markdown = createLongComment();
+        assertEquals(LegacyRedditMarkdownPreprocessor.modifyMarkdown(markdown),
+                RedditMarkdownPreprocessor.modifyMarkdown(markdown));
+
+        Benchmark.assertFaster("modifyMarkdown, " + markdown.length() + " chars",
+                Benchmark.measureMicros(ITERATIONS, () -> LegacyRedditMarkdownPreprocessor.modifyMarkdown(markdown)),
+                Benchmark.measureMicros(ITERATIONS, () -> RedditMarkdownPreprocessor.modifyMarkdown(markdown)));
+    }
+
+    @Test
+    public void parseRedditImagesBlock() throws Exception {
+        String markdown = createLongComment();
+        Map<String, MediaMetadata> mediaMetadataMap = RedditMarkdownPreprocessorTest.createMediaMetadataMap();
+        assertEquals(LegacyRedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap),
+                RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap));
+
+        Benchmark.assertFaster("parseRedditImagesBlock, " + markdown.length() + " chars",
+                Benchmark.measureMicros(ITERATIONS,
+                        () -> LegacyRedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap)),
+                Benchmark.measureMicros(ITERATIONS,
+                        () -> RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap)));
+    }
+
+    private static String createLongComment() {
+        StringBuilder stringBuilder = new StringBuilder();
+        int paragraph = 0;
+        while (stringBuilder.length() < 10_000) {
+            stringBuilder.append("As mentioned in r/androiddev and by /u/someone_else, this is ^^^really^^ common. ");
+            if (paragraph % 3 == 0) {
+                stringBuilder.append("[Screenshot ").append(paragraph).append("](https://preview.redd.it/abc123.png?width=640&format=png&auto=webp) ");
+            } else if (paragraph % 3 == 1) {
+                stringBuilder.append("https://i.redd.it/x.gif ");
+            }
+            stringBuilder.append("Some more text without anything special in it at all.\n\n");
+            paragraph++;
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package ml.docilealligator.infinityforreddit.markdown;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.thing.MediaMetadata;
+
+public class RedditMarkdownPreprocessorTest {
+    private static final String[] MEDIA_IDS = {"abc123", "x", "Q_9"};
+    // Pieces the random inputs are built from, chosen around the edges of the old regexes.
+    private static final String[] TOKENS = {
+            " ", "\n", "\t", "\r", " ", "a", "Z", "_", "-", "/", "\\", "^", "^^", "[", "]", "(", ")", "](", "\\[",
+            ".", "?", "&", "=", "%", "#", "r/", "R/", "u/", "U/", "/r/", "/u/", "pics", "redd", "it",
+            "https://", "https://preview.redd.it/", "https://i.redd.it/", "https://previewXreddYit/", "https://iXredd.it/",
+            "abc123", "x", "Q_9", "unknown", ".jpg", ".png", ".jpeg", ".gif", "Xjpg", "jpg", "?width=640&format=pjpg",
+            "[caption](", "[a \\[b\\] c](", "[nested [x](",
+    };
+
+    @Test
+    public void modifyMarkdown_linksSubredditsAndUsers() {
+        assertEquals("[r/androiddev](https://www.reddit.com/r/androiddev)",
+                RedditMarkdownPreprocessor.modifyMarkdown("r/androiddev"));
+        assertEquals("see [/u/spez/](https://www.reddit.com/u/spez/) now",
+                RedditMarkdownPreprocessor.modifyMarkdown("see /u/spez/ now"));
+        assertEquals("\t[R/Test-1](https://www.reddit.com/R/Test-1)\n[U/a_b](https://www.reddit.com/U/a_b)",
+                RedditMarkdownPreprocessor.modifyMarkdown("\tR/Test-1\nU/a_b"));
+    }
+
+    @Test
+    public void modifyMarkdown_leavesMentionsInsideWordsAlone() {
+        assertEquals("foo/r/bar ar/baz r/ /u/", RedditMarkdownPreprocessor.modifyMarkdown("foo/r/bar ar/baz r/ /u/"));
+    }
+
+    @Test
+    public void modifyMarkdown_collapsesRepeatedCarets() {
+        assertEquals("a^b ^c ^", RedditMarkdownPreprocessor.modifyMarkdown("a^^^b ^^c ^"));
+    }
+
+    @Test
+    public void modifyMarkdown_returnsSameInstanceWhenNothingChanges() {
+        String markdown = "nothing to see here";
+        assertSame(markdown, RedditMarkdownPreprocessor.modifyMarkdown(markdown));
+    }
+
+    @Test
+    public void parseRedditImagesBlock_turnsKnownImagesIntoBlocks() {
+        Map<String, MediaMetadata> mediaMetadataMap = createMediaMetadataMap();
+        assertEquals("before ![](https://preview.redd.it/abc123.png?width=640&format=png) after",
+                RedditMarkdownPreprocessor.parseRedditImagesBlock(
+                        "before https://preview.redd.it/abc123.png?width=640&format=png after", mediaMetadataMap));
+        assertNull(mediaMetadataMap.get("abc123").caption);
+    }
+
+    @Test
+    public void parseRedditImagesBlock_keepsCaptions() {
+        Map<String, MediaMetadata> mediaMetadataMap = createMediaMetadataMap();
+        assertEquals("![a \\[b\\] c](https://i.redd.it/x.gif)",
+                RedditMarkdownPreprocessor.parseRedditImagesBlock("[a \\[b\\] c](https://i.redd.it/x.gif)", mediaMetadataMap));
+        assertEquals("a \\[b\\] c", mediaMetadataMap.get("x").caption);
+    }
+
+    @Test
+    public void parseRedditImagesBlock_leavesUnknownImagesAlone() {
+        String markdown = "[caption](https://i.redd.it/unknown.jpg) https://preview.redd.it/unknown.png";
+        assertSame(markdown, RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, createMediaMetadataMap()));
+        assertSame(markdown, RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, null));
+    }
+
+    @Test
+    public void modifyMarkdown_matchesLegacyOnRandomInput() {
+        Random random = new Random(22);
+        for (int i = 0; i < 20_000; i++) {
+            String markdown = randomMarkdown(random);
+            assertEquals(markdown, LegacyRedditMarkdownPreprocessor.modifyMarkdown(markdown),
+                    RedditMarkdownPreprocessor.modifyMarkdown(markdown));
+        }
+    }
+
+    @Test
+    public void parseRedditImagesBlock_matchesLegacyOnRandomInput() {
+        Random random = new Random(22);
+        for (int i = 0; i < 20_000; i++) {
+            String markdown = randomMarkdown(random);
+            Map<String, MediaMetadata> legacyMediaMetadataMap = createMediaMetadataMap();
+            Map<String, MediaMetadata> mediaMetadataMap = createMediaMetadataMap();
+            String expected;
+            try {
+                expected = LegacyRedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, legacyMediaMetadataMap);
+            } catch (RuntimeException e) {
+                // Malformed URLs made the old code throw, the new one has to fail the same way.
+                expected = e.getClass().getName();
+            }
+            String actual;
+            try {
+                actual = RedditMarkdownPreprocessor.parseRedditImagesBlock(markdown, mediaMetadataMap);
+            } catch (RuntimeException e) {
+                actual = e.getClass().getName();
+            }
+            assertEquals(markdown, expected, actual);
+            for (String id : MEDIA_IDS) {
+                assertEquals(markdown, legacyMediaMetadataMap.get(id).caption, mediaMetadataMap.get(id).caption);
+            }
+        }
+    }
+
+    static String randomMarkdown(Random random) {
+        StringBuilder stringBuilder = new StringBuilder();
+        int tokens = 1 + random.nextInt(30);
+        for (int i = 0; i < tokens; i++) {
+            stringBuilder.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return stringBuilder.toString();
+    }
+
+    static Map<String, MediaMetadata> createMediaMetadataMap() {
+        Map<String, MediaMetadata> mediaMetadataMap = new HashMap<>();
+        for (String id : MEDIA_IDS) {
+            // MediaMetadata's constructor needs android.net.Uri, and only its caption is used here.
+            mediaMetadataMap.put(id, mock(MediaMetadata.class));
+        }
+        return mediaMetadataMap;
+    }
+}
@@ -0,0 +1,277 @@
+package ml.docilealligator.infinityforreddit.post;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Random;
+
+/**
+ * Builds /hot style listings with the fields and nesting Reddit sends, including the awardings, embeds
+ * and other fields the post mapping never reads. Text, link, image, video, gallery and crosspost
+ * posts are mixed, so every branch of the stream parser sees data.
+ */
+final class ListingFixtures {
+    private static final String[] SUBREDDITS = {"androiddev", "pics", "AskReddit", "videos", "EarthPorn"};
+
+    private ListingFixtures() {}
+
+    static String createListing(int nPosts, long seed) throws JSONException {
+        Random random = new Random(seed);
+        JSONArray children = new JSONArray();
+        for (int i = 0; i < nPosts; i++) {
+            JSONObject data = createPostData(random, i);
+            if (i % 10 == 9) {
+                data.put("crosspost_parent_list", new JSONArray().put(createPostData(random, i + 1000)));
+            }
+            children.put(new JSONObject().put("kind", "t3").put("data", data));
+        }
+        JSONObject listingData = new JSONObject()
+                .put("after", "t3_after" + seed)
+                .put("dist", nPosts)
+                .put("modhash", "")
+                .put("geo_filter", JSONObject.NULL)
+                .put("children", children)
+                .put("before", JSONObject.NULL);
+        return new JSONObject().put("kind", "Listing").put("data", listingData).toString();
+    }
+
+    private static JSONObject createPostData(Random random, int index) throws JSONException {
+        String id = Long.toString(1_000_000_000L + index * 7919L + random.nextInt(7919), 36);
+        String subreddit = SUBREDDITS[random.nextInt(SUBREDDITS.length)];
+        String permalink = "/r/" + subreddit + "/comments/" + id + "/post_title_number_" + index + "/";
+        int type = index % 5;
+        JSONObject data = new JSONObject()
+                .put("approved_at_utc", JSONObject.NULL)
+                .put("subreddit", subreddit)
+                .put("selftext", type == 0 ? createSelfText(random) : "")
+                .put("selftext_html", type == 0 ? "&lt;!-- SC_OFF --&gt;&lt;div class=\"md\"&gt;&lt;p&gt;Self text&lt;/p&gt;&lt;/div&gt;" : JSONObject.NULL)
+                .put("author_fullname", "t2_" + Integer.toString(random.nextInt(1 << 30), 36))
+                .put("saved", false)
+                .put("mod_reason_title", JSONObject.NULL)
+                .put("gilded", 0)
+                .put("clicked", false)
+                .put("title", "Post title number " + index + " with a few more words in it")
+                .put("link_flair_richtext", new JSONArray()
+                        .put(new JSONObject().put("e", "emoji").put("a", ":star:").put("u", "https://emoji.redditmedia.com/star.png"))
+                        .put(new JSONObject().put("e", "text").put("t", " Discussion")))
+                .put("subreddit_name_prefixed", "r/" + subreddit)
+                .put("hidden", false)
+                .put("pwls", 6)
+                .put("link_flair_css_class", "discussion")
+                .put("downs", 0)
+                .put("thumbnail_height", 140)
+                .put("top_awarded_type", JSONObject.NULL)
+                .put("hide_score", false)
+                .put("name", "t3_" + id)
+                .put("quarantine", false)
+                .put("link_flair_text_color", "light")
+                .put("upvote_ratio", 0.5 + random.nextInt(50) / 100.0)
+                .put("author_flair_background_color", JSONObject.NULL)
+                .put("subreddit_type", "public")
+                .put("ups", random.nextInt(50_000))
+                .put("total_awards_received", 2)
+                .put("media_embed", type == 3 ? new JSONObject()
+                        .put("content", "&lt;iframe width=\"356\" height=\"200\" src=\"https://www.youtube.com/embed/abc?feature=oembed&amp;enablejsapi=1\" frameborder=\"0\" allowfullscreen&gt;&lt;/iframe&gt;")
+                        .put("width", 356).put("scrolling", false).put("height", 200) : new JSONObject())
+                .put("thumbnail_width", 140)
+                .put("author_flair_template_id", JSONObject.NULL)
+                .put("is_original_content", false)
+                .put("user_reports", new JSONArray())
+                .put("secure_media", JSONObject.NULL)
+                .put("is_reddit_media_domain", type == 2 || type == 4)
+                .put("is_meta", false)
+                .put("category", JSONObject.NULL)
+                .put("secure_media_embed", new JSONObject())
+                .put("link_flair_text", ":star: Discussion")
+                .put("can_mod_post", false)
+                .put("score", random.nextInt(50_000))
+                .put("approved_by", JSONObject.NULL)
+                .put("is_created_from_ads_ui", false)
+                .put("author_premium", random.nextBoolean())
+                .put("thumbnail", "https://b.thumbs.redditmedia.com/" + id + ".jpg")
+                .put("edited", false)
+                .put("author_flair_css_class", JSONObject.NULL)
+                .put("author_flair_richtext", new JSONArray())
+                .put("gildings", new JSONObject().put("gid_1", 1))
+                .put("content_categories", JSONObject.NULL)
+                .put("is_self", type == 0)
+                .put("mod_note", JSONObject.NULL)
+                .put("created", 1_700_000_000L + index)
+                .put("link_flair_type", "richtext")
+                .put("wls", 6)
+                .put("removed_by_category", JSONObject.NULL)
+                .put("banned_by", JSONObject.NULL)
+                .put("author_flair_type", "text")
+                .put("domain", type == 0 ? "self." + subreddit : "i.redd.it")
+                .put("allow_live_comments", false)
+                .put("likes", JSONObject.NULL)
+                .put("suggested_sort", JSONObject.NULL)
+                .put("banned_at_utc", JSONObject.NULL)
+                .put("view_count", JSONObject.NULL)
+                .put("archived", false)
+                .put("no_follow", false)
+                .put("is_crosspostable", true)
+                .put("pinned", false)
+                .put("over_18", random.nextInt(10) == 0)
+                .put("all_awardings", createAwardings())
+                .put("awarders", new JSONArray())
+                .put("media_only", false)
+                .put("can_gild", true)
+                .put("spoiler", false)
+                .put("locked", false)
+                .put("author_flair_text", JSONObject.NULL)
+                .put("treatment_tags", new JSONArray())
+                .put("visited", false)
+                .put("removed_by", JSONObject.NULL)
+                .put("num_reports", JSONObject.NULL)
+                .put("distinguished", JSONObject.NULL)
+                .put("subreddit_id", "t5_2qh1i")
+                .put("author_is_blocked", false)
+                .put("mod_reason_by", JSONObject.NULL)
+                .put("removal_reason", JSONObject.NULL)
+                .put("link_flair_background_color", "#ff4500")
+                .put("id", id)
+                .put("is_robot_indexable", true)
+                .put("report_reasons", JSONObject.NULL)
+                .put("author", "user_" + random.nextInt(100_000))
+                .put("discussion_type", JSONObject.NULL)
+                .put("num_comments", random.nextInt(5_000))
+                .put("send_replies", true)
+                .put("contest_mode", false)
+                .put("mod_reports", new JSONArray())
+                .put("author_patreon_flair", false)
+                .put("author_flair_text_color", JSONObject.NULL)
+                .put("permalink", permalink)
+                .put("stickied", index == 0)
+                .put("subreddit_subscribers", 3_000_000 + random.nextInt(1_000))
+                .put("created_utc", 1_700_000_000L + index)
+                .put("num_crossposts", 0)
+                .put("is_video", type == 3);
+
+        switch (type) {
+            case 0:
+                data.put("url", "https://www.reddit.com" + permalink);
+                break;
+            case 1:
+                data.put("url", "https://example.com/article/" + id);
+                data.put("post_hint", "link");
+                data.put("preview", createPreview(id));
+                break;
+            case 2:
+                data.put("url", "https://i.redd.it/" + id + ".jpg");
+                data.put("post_hint", "image");
+                data.put("preview", createPreview(id));
+                break;
+            case 3:
+                data.put("url", "https://v.redd.it/" + id);
+                data.put("post_hint", "hosted:video");
+                data.put("preview", createPreview(id));
+                data.put("media", new JSONObject().put("reddit_video", new JSONObject()
+                        .put("bitrate_kbps", 2400)
+                        .put("fallback_url", "https://v.redd.it/" + id + "/DASH_720.mp4?source=fallback")
+                        .put("height", 720).put("width", 1280)
+                        .put("scrubber_media_url", "https://v.redd.it/" + id + "/DASH_96.mp4")
+                        .put("dash_url", "https://v.redd.it/" + id + "/DASHPlaylist.mpd")
+                        .put("duration", 42)
+                        .put("hls_url", "https://v.redd.it/" + id + "/HLSPlaylist.m3u8")
+                        .put("is_gif", false)
+                        .put("transcoding_status", "completed")));
+                break;
+            default:
+                data.put("url", "https://www.reddit.com/gallery/" + id);
+                data.put("is_gallery", true);
+                JSONArray items = new JSONArray();
+                JSONObject mediaMetadata = new JSONObject();
+                for (int i = 0; i < 4; i++) {
+                    String mediaId = id + "m" + i;
+                    items.put(new JSONObject().put("media_id", mediaId).put("id", 100 + i));
+                    JSONArray resolutions = new JSONArray();
+                    for (int width : new int[]{108, 216, 320, 640, 960, 1080}) {
+                        resolutions.put(new JSONObject().put("y", width * 3 / 4).put("x", width)
+                                .put("u", "https://preview.redd.it/" + mediaId + ".jpg?width=" + width + "&format=pjpg&auto=webp&s=abcdef"));
+                    }
+                    mediaMetadata.put(mediaId, new JSONObject()
+                            .put("status", "valid").put("e", "Image").put("m", "image/jpg")
+                            .put("p", resolutions)
+                            .put("s", new JSONObject().put("y", 1536).put("x", 2048)
+                                    .put("u", "https://preview.redd.it/" + mediaId + ".jpg?width=2048&format=pjpg&auto=webp&s=abcdef"))
+                            .put("id", mediaId));
+                }
+                data.put("gallery_data", new JSONObject().put("items", items));
+                data.put("media_metadata", mediaMetadata);
+                break;
+        }
+        return data;
+    }
+
+    private static JSONObject createPreview(String id) throws JSONException {
+        JSONArray resolutions = new JSONArray();
+        for (int width : new int[]{108, 216, 320, 640, 960, 1080}) {
+            resolutions.put(new JSONObject().put("url", "https://preview.redd.it/" + id + ".jpg?width=" + width + "&crop=smart&auto=webp&s=0123456789abcdef")
+                    .put("width", width).put("height", width * 9 / 16));
+        }
+        JSONObject image = new JSONObject()
+                .put("source", new JSONObject().put("url", "https://preview.redd.it/" + id + ".jpg?auto=webp&s=0123456789abcdef")
+                        .put("width", 1920).put("height", 1080))
+                .put("resolutions", resolutions)
+                .put("variants", new JSONObject())
+                .put("id", id + "preview");
+        return new JSONObject().put("images", new JSONArray().put(image)).put("enabled", true);
+    }
+
+    // Awardings are among the largest fields of a post and the post mapping reads none of them.
+    private static JSONArray createAwardings() throws JSONException {
+        JSONArray awardings = new JSONArray();
+        for (int i = 0; i < 2; i++) {
+            JSONArray resizedIcons = new JSONArray();
+            for (int size : new int[]{16, 32, 48, 64, 128}) {
+                resizedIcons.put(new JSONObject().put("url", "https://www.redditstatic.com/gold/awards/icon/award_" + i + "_" + size + ".png")
+                        .put("width", size).put("height", size));
+            }
+            awardings.put(new JSONObject()
+                    .put("giver_coin_reward", JSONObject.NULL)
+                    .put("subreddit_id", JSONObject.NULL)
+                    .put("is_new", false)
+                    .put("days_of_drip_extension", JSONObject.NULL)
+                    .put("coin_price", 150)
+                    .put("id", "award_" + i)
+                    .put("penny_donate", JSONObject.NULL)
+                    .put("award_sub_type", "GLOBAL")
+                    .put("coin_reward", 0)
+                    .put("icon_url", "https://i.redd.it/award_" + i + ".png")
+                    .put("days_of_premium", JSONObject.NULL)
+                    .put("tiers_by_required_awardings", JSONObject.NULL)
+                    .put("resized_icons", resizedIcons)
+                    .put("icon_width", 2048)
+                    .put("static_icon_width", 2048)
+                    .put("start_date", JSONObject.NULL)
+                    .put("is_enabled", true)
+                    .put("awardings_required_to_grant_benefits", JSONObject.NULL)
+                    .put("description", "Shows the Silver Award... and that's it.")
+                    .put("end_date", JSONObject.NULL)
+                    .put("sticky_duration_seconds", JSONObject.NULL)
+                    .put("subreddit_coin_reward", 0)
+                    .put("count", 1)
+                    .put("static_icon_height", 2048)
+                    .put("name", "Silver")
+                    .put("resized_static_icons", resizedIcons)
+                    .put("icon_format", JSONObject.NULL)
+                    .put("icon_height", 2048)
+                    .put("penny_price", JSONObject.NULL)
+                    .put("award_type", "global")
+                    .put("static_icon_url", "https://i.redd.it/award_" + i + "_static.png"));
+        }
+        return awardings;
+    }
+
+    private static String createSelfText(Random random) {
+        StringBuilder stringBuilder = new StringBuilder();
+        int paragraphs = 1 + random.nextInt(6);
+        for (int i = 0; i < paragraphs; i++) {
+            stringBuilder.append("A paragraph of self text that goes on for a little while, as they do. ");
+            stringBuilder.append("It mentions r/androiddev and has **bold** and *italic* text.\n\n");
+        }
+        return stringBuilder.toString();
+    }
+}
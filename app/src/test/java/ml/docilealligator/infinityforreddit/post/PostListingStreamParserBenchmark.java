@@ -0,0 +1,97 @@
+package ml.docilealligator.infinityforreddit.post;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.stream.JsonReader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import ml.docilealligator.infinityforreddit.Benchmark;
+import ml.docilealligator.infinityforreddit.utils.JSONUtils;
+
+/**
+ * Times getting the data objects of a 100 post listing out of the response: the org.json tree
+ * parsePostsSync used to build, against the stream parser. The mapping to {@link Post} that follows is
+ * the same code for both, and it needs android.text.Html, so it is not part of the measurement.
+ */
+public class PostListingStreamParserBenchmark {
+    private static final int ITERATIONS = 20;
+    private static final int POSTS_PER_PAGE = 100;
+
+    @BeforeClass
+    public static void assumeBenchmarksEnabled() {
+        Benchmark.assumeEnabled();
+    }
+
+    @Test
+    public void readListing() throws Exception {
+        String listing = ListingFixtures.createListing(POSTS_PER_PAGE, 100);
+        assertEquals(POSTS_PER_PAGE, readWithTree(listing).size());
+        assertEquals(POSTS_PER_PAGE, readWithStream(listing).size());
+
+        String name = "Listing of " + POSTS_PER_PAGE + " posts, " + listing.length() / 1024 + " KB";
+        Benchmark.assertFaster(name,
+                Benchmark.measureMicros(ITERATIONS, () -> readWithTree(listing)),
+                Benchmark.measureMicros(ITERATIONS, () -> readWithStream(listing)));
+        Benchmark.assertAllocatesLess(name,
+                Benchmark.measureAllocatedBytes(() -> readWithTree(listing)),
+                Benchmark.measureAllocatedBytes(() -> readWithStream(listing)));
+    }
+
+    // What parsePostsSync did before handing each data object to parseBasicData.
+    private static List<JSONObject> readWithTree(String listing) throws Exception {
+        JSONArray children = new JSONObject(listing).getJSONObject(JSONUtils.DATA_KEY).getJSONArray(JSONUtils.CHILDREN_KEY);
+        List<JSONObject> posts = new ArrayList<>();
+        for (int i = 0; i < children.length(); i++) {
+            if (children.getJSONObject(i).getString(JSONUtils.KIND_KEY).equals("t3")) {
+                posts.add(children.getJSONObject(i).getJSONObject(JSONUtils.DATA_KEY));
+            }
+        }
+        return posts;
+    }
+
+    // The reading half of PostListingStreamParser.parse.
+    private static List<JSONObject> readWithStream(String listing) throws IOException {
+        List<JSONObject> posts = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new StringReader(listing))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!JSONUtils.DATA_KEY.equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!JSONUtils.CHILDREN_KEY.equals(reader.nextName())) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (JSONUtils.DATA_KEY.equals(reader.nextName())) {
+                                posts.add(PostListingStreamParser.readPostData(reader));
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    reader.endArray();
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        return posts;
+    }
+}
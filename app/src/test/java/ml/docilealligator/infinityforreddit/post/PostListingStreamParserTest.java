@@ -0,0 +1,70 @@
+package ml.docilealligator.infinityforreddit.post;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.stream.JsonReader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Iterator;
+
+import ml.docilealligator.infinityforreddit.utils.JSONUtils;
+
+public class PostListingStreamParserTest {
+    @Test
+    public void readPostData_keepsEveryFieldThePostMappingReads() throws Exception {
+        JSONArray children = new JSONObject(ListingFixtures.createListing(100, 2))
+                .getJSONObject(JSONUtils.DATA_KEY).getJSONArray(JSONUtils.CHILDREN_KEY);
+        for (int i = 0; i < children.length(); i++) {
+            JSONObject data = children.getJSONObject(i).getJSONObject(JSONUtils.DATA_KEY);
+            JSONObject streamedData = readPostData(data.toString());
+            assertTrue(data.getString(JSONUtils.ID_KEY), keepPostFields(data).similar(streamedData));
+        }
+    }
+
+    @Test
+    public void readPostData_skipsUnusedFields() throws Exception {
+        JSONObject streamedData = readPostData(
+                "{\"id\":\"abc\",\"all_awardings\":[{\"id\":\"award\",\"resized_icons\":[]}],\"media_embed\":{\"content\":\"html\"},"
+                        + "\"score\":12,\"upvote_ratio\":0.97,\"created_utc\":1700000000.0,\"likes\":null}");
+        assertFalse(streamedData.has("all_awardings"));
+        assertFalse(streamedData.has("media_embed"));
+        assertEquals("abc", streamedData.getString(JSONUtils.ID_KEY));
+        assertEquals(12, streamedData.get(JSONUtils.SCORE_KEY));
+        assertEquals(0.97, streamedData.getDouble(JSONUtils.UPVOTE_RATIO_KEY), 0);
+        assertEquals(1700000000L, streamedData.getLong(JSONUtils.CREATED_UTC_KEY));
+        assertTrue(streamedData.isNull(JSONUtils.LIKES_KEY));
+    }
+
+    static JSONObject readPostData(String data) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            return PostListingStreamParser.readPostData(reader);
+        }
+    }
+
+    // What the stream parser should keep of a fully parsed data object.
+    private static JSONObject keepPostFields(JSONObject data) throws JSONException {
+        JSONObject kept = new JSONObject();
+        for (Iterator<String> it = data.keys(); it.hasNext(); ) {
+            String key = it.next();
+            if (JSONUtils.CROSSPOST_PARENT_LIST.equals(key)) {
+                JSONArray parents = data.getJSONArray(key);
+                JSONArray keptParents = new JSONArray();
+                for (int i = 0; i < parents.length(); i++) {
+                    keptParents.put(keepPostFields(parents.getJSONObject(i)));
+                }
+                kept.put(key, keptParents);
+            } else if (PostListingStreamParser.POST_FIELDS.contains(key)) {
+                kept.put(key, data.get(key));
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,83 @@
+package ml.docilealligator.infinityforreddit.postfilter;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.Benchmark;
+import ml.docilealligator.infinityforreddit.post.Post;
+
+/**
+ * Times filtering a 100 post page with a merged filter of a few hundred blocked subreddits, users,
+ * keywords and domains, against the per post splitting and regex compiling it replaced.
+ */
+public class CompiledPostFilterBenchmark {
+    private static final int ITERATIONS = 200;
+    private static final int POSTS_PER_PAGE = 100;
+
+    @BeforeClass
+    public static void assumeBenchmarksEnabled() {
+        Benchmark.assumeEnabled();
+    }
+
+    @Test
+    public void filterPage() throws Exception {
+        PostFilter postFilter = createMergedPostFilter();
+        List<Post> posts = createPage();
+        assertEquals(countAllowed(posts, postFilter, true), countAllowed(posts, postFilter, false));
+
+        Benchmark.assertFaster("isPostAllowed, " + POSTS_PER_PAGE + " posts",
+                Benchmark.measureMicros(ITERATIONS, () -> countAllowed(posts, postFilter, true)),
+                Benchmark.measureMicros(ITERATIONS, () -> countAllowed(posts, postFilter, false)));
+    }
+
+    private static int countAllowed(List<Post> posts, PostFilter postFilter, boolean legacy) {
+        int allowed = 0;
+        for (Post post : posts) {
+            if (legacy ? LegacyPostFilterMatcher.isPostAllowed(post, postFilter) : PostFilter.isPostAllowed(post, postFilter)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private static PostFilter createMergedPostFilter() {
+        PostFilter postFilter = new PostFilter();
+        postFilter.postTitleExcludesRegex = "(?i)\\b(giveaway|promo code)\\b";
+        postFilter.postTitleExcludesStrings = createList("keyword", 200);
+        postFilter.excludeSubreddits = createList("Subreddit", 300);
+        postFilter.excludeUsers = createList("User", 100);
+        postFilter.excludeFlairs = createList("Flair", 20);
+        postFilter.excludeDomains = createList("domain", 50) + ",youtube.com";
+        return postFilter;
+    }
+
+    private static List<Post> createPage() {
+        Random random = new Random(100);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < POSTS_PER_PAGE; i++) {
+            posts.add(CompiledPostFilterTest.createPost("subreddit" + random.nextInt(1000),
+                    "user" + random.nextInt(1000),
+                    "A reasonably long post title number " + i + " mentioning keyword" + random.nextInt(2000),
+                    "https://" + (random.nextInt(10) == 0 ? "youtube.com" : "i.redd.it") + "/" + i + ".jpg",
+                    "flair" + random.nextInt(100)));
+        }
+        return posts;
+    }
+
+    private static String createList(String prefix, int size) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(prefix).append(i);
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package ml.docilealligator.infinityforreddit.postfilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+
+public class CompiledPostFilterTest {
+    // Names and keywords the random filters and posts share, with the case and spacing variations the
+    // old string comparisons had to handle.
+    private static final String[] WORDS = {"pics", "Pics", " funny ", "AskReddit", "", " ", "cat", "CAT", "dog",
+            "imgur.com", "i.redd.it", "youtube", "Meta", "news"};
+    private static final String[] REGEXES = {null, "", "^cat", "(?i)dog$", "c.t|news"};
+
+    @Test
+    public void isPostAllowed_appliesTextRules() {
+        PostFilter postFilter = new PostFilter();
+        postFilter.excludeSubreddits = "pics, Funny";
+        postFilter.postTitleExcludesStrings = "spoiler";
+        postFilter.excludeDomains = "youtube.com";
+
+        assertFalse(PostFilter.isPostAllowed(createPost("PICS", "user", "A title", "https://imgur.com/a", ""), postFilter));
+        assertFalse(PostFilter.isPostAllowed(createPost("news", "user", "Big SPOILER inside", "https://imgur.com/a", ""), postFilter));
+        assertFalse(PostFilter.isPostAllowed(createPost("news", "user", "A title", "https://www.YouTube.com/watch", ""), postFilter));
+        assertTrue(PostFilter.isPostAllowed(createPost("news", "user", "A title", "https://imgur.com/a", ""), postFilter));
+    }
+
+    @Test
+    public void isPostAllowed_seesRulesChangedAfterCompiling() {
+        PostFilter postFilter = new PostFilter();
+        Post post = createPost("pics", "user", "A title", "https://imgur.com/a", "");
+        assertTrue(PostFilter.isPostAllowed(post, postFilter));
+
+        postFilter.excludeUsers = "USER";
+        assertFalse(PostFilter.isPostAllowed(post, postFilter));
+    }
+
+    @Test
+    public void isPostAllowed_ignoresInvalidRegexes() {
+        PostFilter postFilter = new PostFilter();
+        postFilter.postTitleExcludesRegex = "(unclosed";
+        postFilter.postTitleContainsRegex = "[unclosed";
+        Post post = createPost("pics", "user", "(unclosed", "https://imgur.com/a", "");
+        assertTrue(LegacyPostFilterMatcher.isPostAllowed(post, postFilter));
+        assertTrue(PostFilter.isPostAllowed(post, postFilter));
+    }
+
+    @Test
+    public void isPostAllowed_matchesLegacyOnRandomFilters() {
+        Random random = new Random(1);
+        for (int i = 0; i < 5_000; i++) {
+            PostFilter postFilter = createRandomPostFilter(random);
+            for (int j = 0; j < 20; j++) {
+                Post post = createRandomPost(random);
+                assertEquals(LegacyPostFilterMatcher.isPostAllowed(post, postFilter),
+                        PostFilter.isPostAllowed(post, postFilter));
+            }
+        }
+    }
+
+    static PostFilter createRandomPostFilter(Random random) {
+        PostFilter postFilter = new PostFilter();
+        postFilter.postTitleExcludesRegex = REGEXES[random.nextInt(REGEXES.length)];
+        postFilter.postTitleContainsRegex = REGEXES[random.nextInt(REGEXES.length)];
+        postFilter.postTitleExcludesStrings = randomList(random);
+        postFilter.postTitleContainsStrings = randomList(random);
+        postFilter.excludeSubreddits = randomList(random);
+        postFilter.containSubreddits = randomList(random);
+        postFilter.excludeUsers = randomList(random);
+        postFilter.containUsers = randomList(random);
+        postFilter.excludeFlairs = randomList(random);
+        postFilter.containFlairs = randomList(random);
+        postFilter.excludeDomains = randomList(random);
+        postFilter.containDomains = randomList(random);
+        return postFilter;
+    }
+
+    static Post createRandomPost(Random random) {
+        return createPost(randomWord(random).trim(), randomWord(random).trim(),
+                randomWord(random) + " " + randomWord(random) + randomWord(random),
+                random.nextInt(8) == 0 ? null : "https://" + randomWord(random).trim() + "/" + randomWord(random),
+                randomWord(random).trim());
+    }
+
+    static Post createPost(String subredditName, String author, String title, String url, String flair) {
+        return new Post("id", "t3_id", subredditName, "r/" + subredditName, author, "", "", 0, title, url,
+                "/r/" + subredditName + "/comments/id/", 1, Post.LINK_TYPE, 0, 0, 1, flair, false, false, false,
+                false, false, false, false, true, false, false, false, 0, null, false, false, null, null);
+    }
+
+    // null, or a comma separated list that may have empty and padded entries.
+    private static String randomList(Random random) {
+        int size = random.nextInt(5) - 1;
+        if (size < 0) {
+            return random.nextBoolean() ? null : "";
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                stringBuilder.append(',');
+            }
+            stringBuilder.append(randomWord(random));
+        }
+        if (random.nextInt(4) == 0) {
+            stringBuilder.append(',');
+        }
+        return stringBuilder.toString();
+    }
+
+    private static String randomWord(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,202 @@
+package ml.docilealligator.infinityforreddit.postfilter;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+
+/**
+ * PostFilter.isPostAllowed as it was before {@link CompiledPostFilter}, kept unchanged as the reference
+ * its results are compared with.
+ */
+final class LegacyPostFilterMatcher {
+    private LegacyPostFilterMatcher() {}
+
+    static boolean isPostAllowed(Post post, PostFilter postFilter) {
+        if (postFilter == null || post == null) {
+            return true;
+        }
+        if (post.isNSFW() && !postFilter.allowNSFW) {
+            return false;
+        }
+        if (postFilter.maxVote > 0 && post.getVoteType() + post.getScore() > postFilter.maxVote) {
+            return false;
+        }
+        if (postFilter.minVote > 0 && post.getVoteType() + post.getScore() < postFilter.minVote) {
+            return false;
+        }
+        if (postFilter.maxComments > 0 && post.getNComments() > postFilter.maxComments) {
+            return false;
+        }
+        if (postFilter.minComments > 0 && post.getNComments() < postFilter.minComments) {
+            return false;
+        }
+        if (postFilter.onlyNSFW && !post.isNSFW()) {
+            if (postFilter.onlySpoiler) {
+                return post.isSpoiler();
+            }
+            return false;
+        }
+        if (postFilter.onlySpoiler && !post.isSpoiler()) {
+            if (postFilter.onlyNSFW) {
+                return post.isNSFW();
+            }
+            return false;
+        }
+        if (!postFilter.containTextType && post.getPostType() == Post.TEXT_TYPE) {
+            return false;
+        }
+        if (!postFilter.containLinkType && (post.getPostType() == Post.LINK_TYPE || post.getPostType() == Post.NO_PREVIEW_LINK_TYPE)) {
+            return false;
+        }
+        if (!postFilter.containImageType && post.getPostType() == Post.IMAGE_TYPE) {
+            return false;
+        }
+        if (!postFilter.containGifType && post.getPostType() == Post.GIF_TYPE) {
+            return false;
+        }
+        if (!postFilter.containVideoType && post.getPostType() == Post.VIDEO_TYPE) {
+            return false;
+        }
+        if (!postFilter.containGalleryType && post.getPostType() == Post.GALLERY_TYPE) {
+            return false;
+        }
+        if (postFilter.postTitleExcludesRegex != null && !postFilter.postTitleExcludesRegex.equals("")) {
+            try {
+                Pattern pattern = Pattern.compile(postFilter.postTitleExcludesRegex);
+                Matcher matcher = pattern.matcher(post.getTitle());
+                if (matcher.find()) {
+                    return false;
+                }
+            } catch (PatternSyntaxException ignore) {}
+        }
+        if (postFilter.postTitleContainsRegex != null && !postFilter.postTitleContainsRegex.equals("")) {
+            try {
+                Pattern pattern = Pattern.compile(postFilter.postTitleContainsRegex);
+                Matcher matcher = pattern.matcher(post.getTitle());
+                if (!matcher.find()) {
+                    return false;
+                }
+            } catch (PatternSyntaxException e) {
+                e.printStackTrace();
+            }
+        }
+        if (postFilter.postTitleExcludesStrings != null && !postFilter.postTitleExcludesStrings.equals("")) {
+            String[] titles = postFilter.postTitleExcludesStrings.split(",", 0);
+            for (String t : titles) {
+                if (!t.trim().equals("") && post.getTitle().toLowerCase().contains(t.toLowerCase().trim())) {
+                    return false;
+                }
+            }
+        }
+        if (postFilter.postTitleContainsStrings != null && !postFilter.postTitleContainsStrings.equals("")) {
+            String[] titles = postFilter.postTitleContainsStrings.split(",", 0);
+            boolean hasRequiredString = false;
+            for (String t : titles) {
+                if (post.getTitle().toLowerCase().contains(t.toLowerCase().trim())) {
+                    hasRequiredString = true;
+                    break;
+                }
+            }
+            if (!hasRequiredString) {
+                return false;
+            }
+        }
+        if (postFilter.excludeSubreddits != null && !postFilter.excludeSubreddits.equals("")) {
+            String[] subreddits = postFilter.excludeSubreddits.split(",", 0);
+            for (String s : subreddits) {
+                if (!s.trim().equals("") && post.getSubredditName().equalsIgnoreCase(s.trim())) {
+                    return false;
+                }
+            }
+        }
+        if (postFilter.containSubreddits != null && !postFilter.containSubreddits.equals("")) {
+            String[] subreddits = postFilter.containSubreddits.split(",", 0);
+            boolean hasRequiredSubreddit = false;
+            String subreddit = post.getSubredditName();
+            for (String s : subreddits) {
+                if (!s.trim().equals("") && subreddit.equalsIgnoreCase(s.trim())) {
+                    hasRequiredSubreddit = true;
+                    break;
+                }
+            }
+            if (!hasRequiredSubreddit) {
+                return false;
+            }
+        }
+        if (postFilter.excludeUsers != null && !postFilter.excludeUsers.equals("")) {
+            String[] users = postFilter.excludeUsers.split(",", 0);
+            for (String u : users) {
+                if (!u.trim().equals("") && post.getAuthor().equalsIgnoreCase(u.trim())) {
+                    return false;
+                }
+            }
+        }
+        if (postFilter.containUsers != null && !postFilter.containUsers.equals("")) {
+            String[] users = postFilter.containUsers.split(",", 0);
+            boolean hasRequiredUser = false;
+            String user = post.getAuthor();
+            for (String s : users) {
+                if (!s.trim().equals("") && user.equalsIgnoreCase(s.trim())) {
+                    hasRequiredUser = true;
+                    break;
+                }
+            }
+            if (!hasRequiredUser) {
+                return false;
+            }
+        }
+        if (postFilter.excludeFlairs != null && !postFilter.excludeFlairs.equals("")) {
+            String[] flairs = postFilter.excludeFlairs.split(",", 0);
+            for (String f : flairs) {
+                if (!f.trim().equals("") && post.getFlair().equalsIgnoreCase(f.trim())) {
+                    return false;
+                }
+            }
+        }
+        if (post.getUrl() != null && postFilter.excludeDomains != null && !postFilter.excludeDomains.equals("")) {
+            String[] domains = postFilter.excludeDomains.split(",", 0);
+            String url = post.getUrl().toLowerCase();
+            for (String f : domains) {
+                if (!f.trim().equals("") && url.contains(f.trim().toLowerCase())) {
+                    return false;
+                }
+            }
+        }
+        if (post.getUrl() != null && postFilter.containDomains != null && !postFilter.containDomains.equals("")) {
+            String[] domains = postFilter.containDomains.split(",", 0);
+            String url = post.getUrl().toLowerCase();
+            boolean hasRequiredDomain = false;
+            for (String f : domains) {
+                if (url.contains(f.trim().toLowerCase())) {
+                    hasRequiredDomain = true;
+                    break;
+                }
+            }
+            if (!hasRequiredDomain) {
+                return false;
+            }
+        }
+        if (postFilter.containFlairs != null && !postFilter.containFlairs.equals("")) {
+            String[] flairs = postFilter.containFlairs.split(",", 0);
+            if (flairs.length > 0) {
+                boolean match = false;
+                for (int i = 0; i < flairs.length; i++) {
+                    String flair = flairs[i].trim();
+                    if (flair.equals("") && i == flairs.length - 1) {
+                       return false;
+                    }
+                    if (!flair.equals("") && post.getFlair().equalsIgnoreCase(flair)) {
+                        match = true;
+                        break;
+                    }
+                }
+
+                return match;
+            }
+        }
+
+        return true;
+    }
+}
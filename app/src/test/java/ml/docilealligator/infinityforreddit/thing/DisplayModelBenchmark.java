@@ -0,0 +1,74 @@
+package ml.docilealligator.infinityforreddit.thing;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.Benchmark;
+import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.utils.Utils;
+
+/**
+ * Times the text a page of 100 posts needs while binding: building the time, score and preview for every
+ * bind as before, against checking and reading the display models computed while the page was loaded.
+ * Flairs need android.text.Html and the view work is the same for both, so neither is measured.
+ */
+public class DisplayModelBenchmark {
+    private static final int ITERATIONS = 200;
+    private static final int POSTS_PER_PAGE = 100;
+    private static final String TIME_FORMAT = DisplayModelTest.TIME_FORMATS[0];
+    private static final int MAX_RESOLUTION = 5_000_000;
+
+    @BeforeClass
+    public static void assumeBenchmarksEnabled() {
+        Benchmark.assumeEnabled();
+    }
+
+    @Test
+    public void bindPage() throws Exception {
+        Random random = new Random(4);
+        List<Post> posts = new ArrayList<>(POSTS_PER_PAGE);
+        for (int i = 0; i < POSTS_PER_PAGE; i++) {
+            Post post = DisplayModelTest.createRandomPost(random);
+            post.setDisplayModel(DisplayModel.create(post, Locale.US, TIME_FORMAT, false, post.getScore(),
+                    false, MAX_RESOLUTION, true));
+            posts.add(post);
+        }
+
+        Benchmark.assertFaster("Bind text of " + POSTS_PER_PAGE + " posts",
+                Benchmark.measureMicros(ITERATIONS, () -> bindWithoutModels(posts)),
+                Benchmark.measureMicros(ITERATIONS, () -> bindWithModels(posts)));
+    }
+
+    private static int bindWithoutModels(List<Post> posts) {
+        int length = 0;
+        for (Post post : posts) {
+            length += LegacyBindText.getFormattedTime(Locale.US, post.getPostTimeMillis(), TIME_FORMAT).length();
+            length += Utils.getNVotes(false, post.getScore()).length();
+            Post.Preview preview = LegacyBindText.getSuitablePreview(post.getPreviews(), false, MAX_RESOLUTION);
+            length += preview == null ? 0 : preview.getPreviewWidth();
+        }
+        return length;
+    }
+
+    // The precomputed path of PostRecyclerViewAdapter.getDisplayModel and what binding reads from it.
+    private static int bindWithModels(List<Post> posts) {
+        int length = 0;
+        for (Post post : posts) {
+            DisplayModel displayModel = post.getDisplayModel();
+            if (!displayModel.isUpToDate(Locale.US, TIME_FORMAT, false, post.getScore(), post.getFlair())
+                    || !displayModel.hasPreview(post.getPreviews(), false, MAX_RESOLUTION)) {
+                throw new IllegalStateException();
+            }
+            length += displayModel.getFormattedTime(Locale.US, TIME_FORMAT).length();
+            length += displayModel.getVotesText(false, post.getScore()).length();
+            Post.Preview preview = displayModel.getPreview();
+            length += preview == null ? 0 : preview.getPreviewWidth();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,83 @@
+package ml.docilealligator.infinityforreddit.thing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Random;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+import ml.docilealligator.infinityforreddit.utils.Utils;
+
+public class DisplayModelTest {
+    static final String[] TIME_FORMATS = {"MMM d, yyyy, HH:mm", "dd/MM/yyyy HH:mm", "yyyy-MM-dd h:mm a", "EEE, d MMM yyyy"};
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY, Locale.JAPAN, new Locale("ar")};
+
+    @Test
+    public void create_matchesWhatBindingBuiltOnRandomPosts() {
+        Random random = new Random(1);
+        for (int i = 0; i < 2_000; i++) {
+            Post post = createRandomPost(random);
+            Locale locale = LOCALES[random.nextInt(LOCALES.length)];
+            String timeFormat = TIME_FORMATS[random.nextInt(TIME_FORMATS.length)];
+            boolean showAbsoluteNumberOfVotes = random.nextBoolean();
+            boolean dataSavingMode = random.nextBoolean();
+            int maxResolution = random.nextInt(4_000_000);
+            DisplayModel displayModel = DisplayModel.create(post, locale, timeFormat, showAbsoluteNumberOfVotes,
+                    post.getScore(), dataSavingMode, maxResolution, true);
+
+            assertEquals(LegacyBindText.getFormattedTime(locale, post.getPostTimeMillis(), timeFormat),
+                    displayModel.getFormattedTime(locale, timeFormat));
+            assertEquals(Utils.getNVotes(showAbsoluteNumberOfVotes, post.getScore()),
+                    displayModel.getVotesText(showAbsoluteNumberOfVotes, post.getScore()));
+            assertTrue(displayModel.hasPreview(post.getPreviews(), dataSavingMode, maxResolution));
+            assertSame(LegacyBindText.getSuitablePreview(post.getPreviews(), dataSavingMode, maxResolution),
+                    displayModel.getPreview());
+        }
+    }
+
+    @Test
+    public void getters_returnNullWhenThePostOrSettingsChanged() {
+        Post post = createRandomPost(new Random(2));
+        DisplayModel displayModel = DisplayModel.create(post, Locale.US, TIME_FORMATS[0], true, post.getScore(),
+                false, 1_000_000, true);
+
+        assertTrue(displayModel.isUpToDate(Locale.US, TIME_FORMATS[0], true, post.getScore(), post.getFlair()));
+        assertNull(displayModel.getFormattedTime(Locale.GERMANY, TIME_FORMATS[0]));
+        assertNull(displayModel.getFormattedTime(Locale.US, TIME_FORMATS[1]));
+        assertNull(displayModel.getVotesText(true, post.getScore() + 1));
+        assertNull(displayModel.getVotesText(false, post.getScore()));
+        assertFalse(displayModel.isUpToDate(Locale.US, TIME_FORMATS[0], true, post.getScore() + 1, post.getFlair()));
+        assertFalse(displayModel.hasPreview(post.getPreviews(), true, 1_000_000));
+        assertFalse(displayModel.hasPreview(new ArrayList<>(post.getPreviews()), false, 1_000_000));
+    }
+
+    @Test
+    public void isPrecomputed_tellsBackgroundModelsFromInlineOnes() {
+        Post post = createRandomPost(new Random(3));
+        assertTrue(DisplayModel.create(post, Locale.US, TIME_FORMATS[0], true, 0, false, 0, true).isPrecomputed());
+        assertFalse(DisplayModel.create(post, Locale.US, TIME_FORMATS[0], true, 0, false, 0, false).isPrecomputed());
+    }
+
+    static Post createRandomPost(Random random) {
+        // Flairs stay empty: building one needs android.text.Html.
+        Post post = new Post("id", "t3_id", "subreddit", "r/subreddit", "author", "", "",
+                1_500_000_000_000L + (long) (random.nextDouble() * 300_000_000_000L), "Title", "https://i.redd.it/id.jpg",
+                "/r/subreddit/comments/id/", random.nextInt(200_000) - 1_000, Post.IMAGE_TYPE, 0, 0, 1, "", false, false,
+                false, false, false, false, false, true, false, false, false, 0, null, false, false, null, null);
+        ArrayList<Post.Preview> previews = new ArrayList<>();
+        int width = 108;
+        for (int i = random.nextInt(7); i > 0; i--) {
+            previews.add(new Post.Preview("https://preview.redd.it/id.jpg?width=" + width, width, width * 4 / 3, "", ""));
+            width *= 2;
+        }
+        post.setPreviews(previews);
+        return post;
+    }
+}
@@ -0,0 +1,48 @@
+package ml.docilealligator.infinityforreddit.thing;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Locale;
+
+import ml.docilealligator.infinityforreddit.post.Post;
+
+/**
+ * What PostRecyclerViewAdapter built on every bind before display models were precomputed, copied
+ * unchanged so the tests and benchmarks can compare against it.
+ */
+final class LegacyBindText {
+    private LegacyBindText() {}
+
+    // Utils.getFormattedTime
+    static String getFormattedTime(Locale locale, long time, String pattern) {
+        Calendar postTimeCalendar = Calendar.getInstance();
+        postTimeCalendar.setTimeInMillis(time);
+        return new SimpleDateFormat(pattern, locale).format(postTimeCalendar.getTime());
+    }
+
+    // PostRecyclerViewAdapter.getSuitablePreview, with the adapter fields as parameters.
+    static Post.Preview getSuitablePreview(ArrayList<Post.Preview> previews, boolean mDataSavingMode, int mMaxResolution) {
+        Post.Preview preview;
+        if (!previews.isEmpty()) {
+            int previewIndex;
+            if (mDataSavingMode && previews.size() > 2) {
+                previewIndex = previews.size() / 2;
+            } else {
+                previewIndex = 0;
+            }
+            preview = previews.get(previewIndex);
+            if (preview.getPreviewWidth() * preview.getPreviewHeight() > mMaxResolution) {
+                for (int i = previews.size() - 1; i >= 1; i--) {
+                    preview = previews.get(i);
+                    if (preview.getPreviewWidth() * preview.getPreviewHeight() <= mMaxResolution) {
+                        return preview;
+                    }
+                }
+            }
+            return preview;
+        }
+
+        return null;
+    }
+}
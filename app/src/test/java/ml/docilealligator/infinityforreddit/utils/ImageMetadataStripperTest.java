@@ -0,0 +1,245 @@
+package ml.docilealligator.infinityforreddit.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+public class ImageMetadataStripperTest {
+    private static final String GPS_LATITUDE = "GPS 52.5200 N";
+    private static final String XMP = "http://ns.adobe.com/xap/1.0/\0<x:xmpmeta><exif:GPSLatitude>52,31.2N</exif:GPSLatitude></x:xmpmeta>";
+
+    @Test
+    public void strip_removesJpegMetadataAndKeepsOrientation() throws IOException {
+        byte[] original = encode(createImage(), "jpg");
+        byte[] withMetadata = insertAfterJpegApp0(original,
+                jpegSegment(0xE1, createExif(true, 6)),
+                jpegSegment(0xE1, XMP.getBytes(StandardCharsets.ISO_8859_1)),
+                jpegSegment(0xED, "Photoshop 3.0\0IPTC city".getBytes(StandardCharsets.ISO_8859_1)),
+                jpegSegment(0xFE, "a comment".getBytes(StandardCharsets.ISO_8859_1)));
+
+        byte[] stripped = strip(withMetadata);
+
+        String strippedText = new String(stripped, StandardCharsets.ISO_8859_1);
+        assertFalse(strippedText.contains(GPS_LATITUDE));
+        assertFalse(strippedText.contains("GPSLatitude"));
+        assertFalse(strippedText.contains("IPTC city"));
+        assertFalse(strippedText.contains("a comment"));
+        assertEquals(6, ImageMetadataStripper.readExifOrientation(findExif(stripped)));
+        assertEquals(stripped.length, strippedLength(withMetadata));
+        assertSamePixels(ImageIO.read(new ByteArrayInputStream(original)), ImageIO.read(new ByteArrayInputStream(stripped)));
+    }
+
+    @Test
+    public void strip_dropsExifWithoutOrientation() throws IOException {
+        byte[] original = encode(createImage(), "jpg");
+        byte[] withMetadata = insertAfterJpegApp0(original, jpegSegment(0xE1, createExif(false, 1)));
+
+        byte[] stripped = strip(withMetadata);
+
+        assertArrayEquals(original, stripped);
+        assertEquals(original.length, strippedLength(withMetadata));
+    }
+
+    @Test
+    public void readExifOrientation_readsBothByteOrders() {
+        assertEquals(8, ImageMetadataStripper.readExifOrientation(createExif(true, 8)));
+        assertEquals(3, ImageMetadataStripper.readExifOrientation(createExif(false, 3)));
+        assertEquals(0, ImageMetadataStripper.readExifOrientation(XMP.getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals(0, ImageMetadataStripper.readExifOrientation(new byte[]{'E', 'x', 'i', 'f', 0, 0, 'M', 'M'}));
+    }
+
+    @Test
+    public void strip_removesPngTextAndExifChunks() throws IOException {
+        byte[] original = encode(createImage(), "png");
+        byte[] withMetadata = insertAfterPngHeader(original,
+                pngChunk("tEXt", "Comment\0" + GPS_LATITUDE),
+                pngChunk("iTXt", "XML:com.adobe.xmp\0\0\0\0\0" + XMP),
+                pngChunk("eXIf", new String(createExif(true, 6), 6, 26, StandardCharsets.ISO_8859_1)));
+
+        byte[] stripped = strip(withMetadata);
+
+        assertArrayEquals(original, stripped);
+        assertEquals(original.length, strippedLength(withMetadata));
+    }
+
+    @Test
+    public void strip_copiesOtherInputUnchanged() throws IOException {
+        Random random = new Random(1);
+        for (int length : new int[]{0, 1, 2, 7, 8, 1_000, 200_000}) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            if (length > 0) {
+                // Neither a JPEG nor a PNG signature.
+                data[0] = 'G';
+            }
+            assertArrayEquals(data, strip(data));
+            assertEquals(length, strippedLength(data));
+        }
+    }
+
+    @Test
+    public void strip_keepsTheRestOfATruncatedJpeg() throws IOException {
+        byte[] original = encode(createImage(), "jpg");
+        byte[] truncated = new byte[original.length / 2];
+        System.arraycopy(original, 0, truncated, 0, truncated.length);
+
+        byte[] stripped = strip(truncated);
+
+        assertArrayEquals(truncated, stripped);
+        assertEquals(truncated.length, strippedLength(truncated));
+    }
+
+    private static byte[] strip(byte[] image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageMetadataStripper.strip(new ByteArrayInputStream(image), out);
+        return out.toByteArray();
+    }
+
+    private static long strippedLength(byte[] image) throws IOException {
+        return ImageMetadataStripper.getStrippedLength(new ByteArrayInputStream(image), image.length);
+    }
+
+    private static BufferedImage createImage() {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 4) << 16 | (y * 5) << 8 | (x + y));
+            }
+        }
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format, out));
+        return out.toByteArray();
+    }
+
+    /**
+     * An EXIF segment body with a GPS IFD pointer, the GPS text at the end and, if asked for, an
+     * orientation.
+     */
+    private static byte[] createExif(boolean bigEndian, int orientation) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('E'); out.write('x'); out.write('i'); out.write('f'); out.write(0); out.write(0);
+        out.write(bigEndian ? 'M' : 'I');
+        out.write(bigEndian ? 'M' : 'I');
+        writeShort(out, 0x2A, bigEndian);
+        writeInt(out, 8, bigEndian);
+        boolean hasOrientation = orientation > 1;
+        writeShort(out, hasOrientation ? 2 : 1, bigEndian);
+        if (hasOrientation) {
+            writeShort(out, 0x0112, bigEndian);
+            writeShort(out, 3, bigEndian);
+            writeInt(out, 1, bigEndian);
+            writeShort(out, orientation, bigEndian);
+            writeShort(out, 0, bigEndian);
+        }
+        // GPS IFD pointer, to where the text below starts.
+        writeShort(out, 0x8825, bigEndian);
+        writeShort(out, 4, bigEndian);
+        writeInt(out, 1, bigEndian);
+        writeInt(out, 8 + 2 + (hasOrientation ? 24 : 12) + 4, bigEndian);
+        writeInt(out, 0, bigEndian);
+        byte[] gps = GPS_LATITUDE.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(gps, 0, gps.length);
+        return out.toByteArray();
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value, boolean bigEndian) {
+        if (bigEndian) {
+            out.write(value >> 8);
+            out.write(value);
+        } else {
+            out.write(value);
+            out.write(value >> 8);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value, boolean bigEndian) {
+        if (bigEndian) {
+            writeShort(out, value >>> 16, true);
+            writeShort(out, value & 0xFFFF, true);
+        } else {
+            writeShort(out, value & 0xFFFF, false);
+            writeShort(out, value >>> 16, false);
+        }
+    }
+
+    private static byte[] jpegSegment(int marker, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        out.write(marker);
+        writeShort(out, data.length + 2, true);
+        out.write(data, 0, data.length);
+        return out.toByteArray();
+    }
+
+    // ImageIO writes SOI and a JFIF APP0 segment first.
+    private static byte[] insertAfterJpegApp0(byte[] jpeg, byte[]... segments) {
+        int app0End = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        return insert(jpeg, app0End, segments);
+    }
+
+    private static byte[] pngChunk(String type, String data) {
+        byte[] typeAndData = (type + data).getBytes(StandardCharsets.ISO_8859_1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, typeAndData.length - 4, true);
+        out.write(typeAndData, 0, typeAndData.length);
+        CRC32 crc = new CRC32();
+        crc.update(typeAndData);
+        writeInt(out, (int) crc.getValue(), true);
+        return out.toByteArray();
+    }
+
+    // After the signature and the IHDR chunk.
+    private static byte[] insertAfterPngHeader(byte[] png, byte[]... chunks) {
+        return insert(png, 8 + 8 + 13 + 4, chunks);
+    }
+
+    private static byte[] insert(byte[] data, int position, byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(data, 0, position);
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        out.write(data, position, data.length - position);
+        return out.toByteArray();
+    }
+
+    private static byte[] findExif(byte[] jpeg) {
+        for (int i = 2; i + 4 < jpeg.length; ) {
+            int length = ((jpeg[i + 2] & 0xFF) << 8) | (jpeg[i + 3] & 0xFF);
+            if ((jpeg[i + 1] & 0xFF) == 0xE1) {
+                byte[] data = new byte[length - 2];
+                System.arraycopy(jpeg, i + 4, data, 0, data.length);
+                return data;
+            }
+            i += 2 + length;
+        }
+        return new byte[0];
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+}